@@ -34,6 +34,7 @@ import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
 import gov.nist.secauto.metaschema.core.model.util.XmlEventUtil;
 
 import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLStreamReader2;
 import org.codehaus.stax2.XMLStreamWriter2;
 import org.codehaus.stax2.evt.XMLEventFactory2;
 
@@ -41,6 +42,7 @@ import java.io.IOException;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.Characters;
 import javax.xml.stream.events.StartElement;
@@ -137,6 +139,34 @@ public abstract class AbstractDataTypeAdapter<TYPE, ITEM_TYPE extends IAnyAtomic
     }
   }
 
+  @Override
+  public TYPE parse(XMLStreamReader2 reader) throws IOException {
+    StringBuilder builder = new StringBuilder();
+    try {
+      int eventType;
+      while ((eventType = reader.getEventType()) != XMLStreamConstants.END_ELEMENT) {
+        if (eventType == XMLStreamConstants.CHARACTERS
+            || eventType == XMLStreamConstants.CDATA
+            || eventType == XMLStreamConstants.SPACE) {
+          // append the text without materializing it as a string
+          builder.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+          // advance past current event
+          reader.next();
+        } else {
+          throw new IOException(String.format("Invalid content '%s'%s", XmlEventUtil.toString(reader),
+              XmlEventUtil.generateLocationMessage(reader)));
+        }
+      }
+
+      // trim leading and trailing whitespace
+      @SuppressWarnings("null")
+      @NonNull String value = builder.toString().trim();
+      return parse(value);
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+
   /**
    * This default implementation will parse the value as a string and delegate to
    * the string-based parsing method.
@@ -32,9 +32,11 @@ import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatTypes;
 
 import gov.nist.secauto.metaschema.core.metapath.function.InvalidValueForCastFunctionException;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
+import gov.nist.secauto.metaschema.core.model.util.XmlEventUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLStreamReader2;
 import org.codehaus.stax2.XMLStreamWriter2;
 import org.codehaus.stax2.evt.XMLEventFactory2;
 
@@ -207,6 +209,28 @@ public interface IDataTypeAdapter<TYPE> {
   @NonNull
   TYPE parse(@NonNull String value);
 
+  /**
+   * Determine if the provided string is a valid lexical form of this data type.
+   * <p>
+   * This default implementation attempts to {@link #parse(String)} the value.
+   * Adapters are expected to override this method with a check that avoids
+   * creating and throwing an exception for invalid values where possible.
+   *
+   * @param value
+   *          the string value to check
+   * @return {@code true} if the value is valid, or {@code false} otherwise
+   */
+  default boolean isValid(@NonNull String value) {
+    boolean retval;
+    try {
+      parse(value);
+      retval = true;
+    } catch (IllegalArgumentException ex) { // NOPMD - intentional
+      retval = false;
+    }
+    return retval;
+  }
+
   /**
    * This method is expected to parse content starting at the next event. Parsing
    * will continue until the next event represents content that is not handled by
@@ -233,6 +257,38 @@ public interface IDataTypeAdapter<TYPE> {
   @NonNull
   TYPE parse(@NonNull XMLEventReader2 eventReader) throws IOException;
 
+  /**
+   * This method is expected to parse content starting at the current position of
+   * the stream reader, following the same rules as
+   * {@link #parse(XMLEventReader2)}. Unlike the event-based method, no event
+   * object is allocated for the content read.
+   * <p>
+   * Once parsing is complete, the stream reader must be positioned at the first
+   * event corresponding to content that is not handled by this method.
+   * <p>
+   * This default implementation reads the content as events using
+   * {@link #parse(XMLEventReader2)}. Implementations should override this method
+   * to read the content without allocating events.
+   *
+   * @param reader
+   *          the XML stream reader used to read the parsed value
+   * @return the parsed value
+   * @throws IOException
+   *           if a parsing error occurs
+   */
+  @NonNull
+  default TYPE parse(@NonNull XMLStreamReader2 reader) throws IOException {
+    try {
+      XMLEventReader2 eventReader = XmlEventUtil.newEventReader(reader);
+      TYPE retval = parse(eventReader);
+      // advance the stream reader to the first event not handled by the parser
+      eventReader.peek();
+      return retval;
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+
   /**
    * Parses a JSON property value.
    *
@@ -285,6 +341,27 @@ public interface IDataTypeAdapter<TYPE> {
     return () -> copy(retval);
   }
 
+  /**
+   * Parses a provided string using
+   * {@link IDataTypeAdapter#parse(XMLStreamReader2)}.
+   * <p>
+   * This method may pre-parse the data and then return copies, since the data can
+   * only be parsed once, but the supplier might be called multiple times.
+   *
+   * @param reader
+   *          the XML stream reader used to read the parsed value
+   * @return a supplier that will provide new instances of the parsed data
+   * @throws IOException
+   *           if an error occurs while parsing
+   * @see #parse(String)
+   * @see #parse(XMLStreamReader2)
+   */
+  @NonNull
+  default Supplier<TYPE> parseAndSupply(@NonNull XMLStreamReader2 reader) throws IOException {
+    TYPE retval = parse(reader);
+    return () -> copy(retval);
+  }
+
   /**
    * Parses a provided string using {@link #parse(JsonParser)}.
    * <p>
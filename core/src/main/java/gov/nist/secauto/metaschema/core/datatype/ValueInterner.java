@@ -0,0 +1,142 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.datatype;
+
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A deduplication table for the atomic values read while loading a single
+ * document.
+ * <p>
+ * Documents tend to repeat the same token, name, URI, and identifier values
+ * many times. Passing each parsed value through
+ * {@link #intern(IDataTypeAdapter, Object)} ensures that equal values share a
+ * single Java object, and {@link #newItem(IDataTypeAdapter, Object)} ensures
+ * that equal values of the same data type share a single
+ * {@link IAnyAtomicItem}.
+ * <p>
+ * Only values of immutable Java types are deduplicated. Values of other types
+ * are passed through unchanged. URIs are matched on their exact string form,
+ * since {@link URI#equals(Object)} ignores case differences in some components.
+ * An instance is intended to live only as long as the document it was used to
+ * load, so that the retained values can be garbage collected with that
+ * document.
+ */
+public final class ValueInterner {
+  @NonNull
+  private static final Set<Class<?>> INTERNABLE_CLASSES = ObjectUtils.notNull(Set.of(
+      String.class,
+      URI.class,
+      UUID.class));
+
+  @NonNull
+  private final Map<Object, Object> values = new ConcurrentHashMap<>();
+  @NonNull
+  private final Map<String, URI> uris = new ConcurrentHashMap<>();
+  @NonNull
+  private final Map<IDataTypeAdapter<?>, Map<Object, IAnyAtomicItem>> items = new ConcurrentHashMap<>();
+
+  /**
+   * Determine if values produced by the provided adapter can be deduplicated.
+   *
+   * @param adapter
+   *          the data type adapter that produced the value
+   * @return {@code true} if the adapter's values are immutable and can be shared,
+   *         or {@code false} otherwise
+   */
+  public static boolean isInternable(@NonNull IDataTypeAdapter<?> adapter) {
+    return INTERNABLE_CLASSES.contains(adapter.getJavaClass());
+  }
+
+  /**
+   * Get the shared instance of the provided value.
+   * <p>
+   * The first time a given value is seen, it becomes the shared instance.
+   *
+   * @param <T>
+   *          the Java type of the value
+   * @param adapter
+   *          the data type adapter that produced the value
+   * @param value
+   *          the value to deduplicate
+   * @return the shared instance of an equal value, or the provided value if it
+   *         cannot be shared
+   */
+  @NonNull
+  public <T> T intern(@NonNull IDataTypeAdapter<?> adapter, @NonNull T value) {
+    T retval = value;
+    if (value instanceof URI) {
+      retval = ObjectUtils.asType(uris.computeIfAbsent(value.toString(), key -> (URI) value));
+    } else if (isInternable(adapter)) {
+      retval = ObjectUtils.asType(values.computeIfAbsent(value, key -> value));
+    }
+    return retval;
+  }
+
+  /**
+   * Get an atomic item for the provided value, reusing a previously created item
+   * for an equal value of the same data type.
+   *
+   * @param adapter
+   *          the data type adapter used to create the item
+   * @param value
+   *          the value to create the item for
+   * @return the atomic item
+   */
+  @NonNull
+  public IAnyAtomicItem newItem(@NonNull IDataTypeAdapter<?> adapter, @NonNull Object value) {
+    IAnyAtomicItem retval;
+    if (isInternable(adapter)) {
+      Object shared = intern(adapter, value);
+      Map<Object, IAnyAtomicItem> adapterItems = items.computeIfAbsent(adapter, key -> new ConcurrentHashMap<>());
+      retval = adapterItems.computeIfAbsent(
+          shared instanceof URI ? shared.toString() : shared,
+          key -> adapter.newItem(shared));
+    } else {
+      retval = adapter.newItem(value);
+    }
+    return ObjectUtils.notNull(retval);
+  }
+
+  /**
+   * Get the number of distinct values retained by this table.
+   *
+   * @return the value count
+   */
+  public int size() {
+    return values.size() + uris.size();
+  }
+}
@@ -60,7 +60,13 @@ public abstract class AbstractIntegerAdapter<ITEM_TYPE extends IIntegerItem>
 
   @Override
   public BigInteger parse(String value) {
-    return new BigInteger(value);
+    BigInteger retval = LexicalScanner.scanInteger(value);
+    return retval == null ? new BigInteger(value) : retval;
+  }
+
+  @Override
+  public boolean isValid(String value) {
+    return LexicalScanner.scanInteger(value) != null || super.isValid(value);
   }
 
   @Override
@@ -79,6 +79,12 @@ public class DateAdapter
 
   @Override
   public Date parse(String value) {
+    ZonedDateTime scanned = LexicalScanner.scanDate(value, false);
+    if (scanned != null) {
+      // the common form, which avoids the formatters and their exceptions
+      return new Date(scanned, LexicalScanner.hasTimeZone(value)); // NOPMD - readability
+    }
+
     Matcher matcher = DATE_TIMEZONE.matcher(value);
     if (!matcher.matches()) {
       throw new IllegalArgumentException("Invalid date: " + value);
@@ -102,6 +108,11 @@ public class DateAdapter
     }
   }
 
+  @Override
+  public boolean isValid(String value) {
+    return LexicalScanner.scanDate(value, false) != null || super.isValid(value);
+  }
+
   @Override
   public String asString(Object obj) {
     Date value = (Date) obj;
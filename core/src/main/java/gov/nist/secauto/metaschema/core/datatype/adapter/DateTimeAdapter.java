@@ -72,6 +72,12 @@ public class DateTimeAdapter
   @SuppressWarnings("null")
   @Override
   public DateTime parse(String value) {
+    ZonedDateTime scanned = LexicalScanner.scanDateTime(value, false);
+    if (scanned != null) {
+      // the common form, which avoids the formatters and their exceptions
+      return new DateTime(scanned, LexicalScanner.hasTimeZone(value)); // NOPMD - readability
+    }
+
     try {
       return new DateTime(ZonedDateTime.from(DateFormats.DATE_TIME_WITH_TZ.parse(value)), true); // NOPMD - readability
     } catch (DateTimeParseException ex) {
@@ -86,6 +92,11 @@ public class DateTimeAdapter
     }
   }
 
+  @Override
+  public boolean isValid(String value) {
+    return LexicalScanner.scanDateTime(value, false) != null || super.isValid(value);
+  }
+
   @Override
   public String asString(Object obj) {
     DateTime value = (DateTime) obj;
@@ -64,6 +64,12 @@ public class DateTimeWithTZAdapter
   @SuppressWarnings("null")
   @Override
   public ZonedDateTime parse(String value) {
+    ZonedDateTime scanned = LexicalScanner.scanDateTime(value, true);
+    if (scanned != null) {
+      // the common form, which avoids the formatter
+      return scanned;
+    }
+
     try {
       return ZonedDateTime.from(DateFormats.DATE_TIME_WITH_TZ.parse(value));
     } catch (DateTimeParseException ex) {
@@ -71,6 +71,12 @@ public class DateWithTZAdapter
   @SuppressWarnings("null")
   @Override
   public ZonedDateTime parse(String value) {
+    ZonedDateTime scanned = LexicalScanner.scanDate(value, true);
+    if (scanned != null) {
+      // the common form, which avoids the regular expression and formatter
+      return scanned;
+    }
+
     Matcher matcher = DATE_TIMEZONE.matcher(value);
     if (!matcher.matches()) {
       throw new IllegalArgumentException("Invalid date: " + value);
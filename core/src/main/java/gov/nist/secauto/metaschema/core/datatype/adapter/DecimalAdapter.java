@@ -74,6 +74,11 @@ public class DecimalAdapter
     return new BigDecimal(value, MATH_CONTEXT);
   }
 
+  @Override
+  public boolean isValid(String value) {
+    return LexicalScanner.isDecimal(value) || super.isValid(value);
+  }
+
   @Override
   public void writeJsonValue(Object value, JsonGenerator generator) throws IOException {
     try {
@@ -0,0 +1,317 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.datatype.adapter;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Hand-written scanners for the common lexical forms of the Metaschema atomic
+ * data types.
+ * <p>
+ * These scanners classify a value without throwing exceptions or allocating
+ * intermediate objects. The {@code scan*} methods return {@code null} when a
+ * value is not in the common form handled by the scanner. This does not mean
+ * the value is invalid. Callers are expected to fall back to the full parser in
+ * this case, which preserves its existing behavior for all inputs.
+ */
+public final class LexicalScanner {
+  private static final int UUID_LENGTH = 36;
+  /**
+   * The maximum number of digits that always fit in a {@code long}.
+   */
+  private static final int MAX_LONG_DIGITS = 18;
+  private static final int DATE_LENGTH = 10;
+  private static final int TIME_LENGTH = 8;
+  private static final int MAX_FRACTION_DIGITS = 9;
+  private static final int MAX_OFFSET_HOURS = 18;
+
+  private LexicalScanner() {
+    // disable construction
+  }
+
+  /**
+   * Scan a date in the form {@code yyyy-MM-dd} with an optional time zone offset.
+   * <p>
+   * Only years from 1900 through 2999 are accepted, matching the Metaschema date
+   * lexical form. February 29 is accepted in every leap year of that range,
+   * including 1904 through 1996, which the date pattern does not allow.
+   *
+   * @param value
+   *          the value to scan
+   * @param requireTimeZone
+   *          {@code true} if a time zone offset must be present
+   * @return the date at the start of the day in the provided time zone, or UTC if
+   *         no time zone is provided, or {@code null} if the value is not in the
+   *         expected form
+   */
+  @Nullable
+  public static ZonedDateTime scanDate(@NonNull CharSequence value, boolean requireTimeZone) {
+    LocalDate date = scanLocalDate(value);
+    if (date == null || date.getYear() < 1900 || date.getYear() > 2999) {
+      return null;
+    }
+
+    ZoneOffset offset = scanOffset(value, DATE_LENGTH, requireTimeZone);
+    return offset == null ? null : ZonedDateTime.of(date, LocalTime.MIN, offset);
+  }
+
+  /**
+   * Scan a date/time in the form {@code yyyy-MM-dd'T'HH:mm:ss}, with an optional
+   * fraction of up to 9 digits and an optional time zone offset.
+   * <p>
+   * Only years from 0001 through 9999 are accepted, matching the date/time
+   * formatters.
+   *
+   * @param value
+   *          the value to scan
+   * @param requireTimeZone
+   *          {@code true} if a time zone offset must be present
+   * @return the date/time in the provided time zone, or UTC if no time zone is
+   *         provided, or {@code null} if the value is not in the expected form
+   */
+  @Nullable
+  public static ZonedDateTime scanDateTime(@NonNull CharSequence value, boolean requireTimeZone) {
+    LocalDate date = scanLocalDate(value);
+    if (date == null || value.length() < DATE_LENGTH + 1 + TIME_LENGTH || value.charAt(DATE_LENGTH) != 'T') {
+      return null;
+    }
+
+    int pos = DATE_LENGTH + 1;
+    int hour = scanDigits(value, pos, 2);
+    int minute = scanDigits(value, pos + 3, 2);
+    int second = scanDigits(value, pos + 6, 2);
+    if (hour < 0 || hour > 23 || value.charAt(pos + 2) != ':'
+        || minute < 0 || minute > 59 || value.charAt(pos + 5) != ':'
+        || second < 0 || second > 59) {
+      return null;
+    }
+    pos += TIME_LENGTH;
+
+    int nanos = 0;
+    if (pos < value.length() && value.charAt(pos) == '.') {
+      int digits = 0;
+      pos++;
+      while (pos < value.length() && isDigit(value.charAt(pos))) {
+        if (++digits > MAX_FRACTION_DIGITS) {
+          return null;
+        }
+        nanos = nanos * 10 + value.charAt(pos) - '0';
+        pos++;
+      }
+      if (digits == 0) {
+        return null;
+      }
+      for (int i = digits; i < MAX_FRACTION_DIGITS; i++) {
+        nanos *= 10;
+      }
+    }
+
+    ZoneOffset offset = scanOffset(value, pos, requireTimeZone);
+    return offset == null
+        ? null
+        : ZonedDateTime.of(LocalDateTime.of(date, LocalTime.of(hour, minute, second, nanos)), offset);
+  }
+
+  /**
+   * Determine if a date or date/time value ends with a time zone offset.
+   * <p>
+   * This is intended to be used on values that were successfully scanned.
+   *
+   * @param value
+   *          the value to check
+   * @return {@code true} if the value has a time zone offset, or {@code false}
+   *         otherwise
+   */
+  public static boolean hasTimeZone(@NonNull CharSequence value) {
+    int length = value.length();
+    return length > DATE_LENGTH && (value.charAt(length - 1) == 'Z'
+        || length >= DATE_LENGTH + 6 && value.charAt(length - 3) == ':'
+            && (value.charAt(length - 6) == '+' || value.charAt(length - 6) == '-'));
+  }
+
+  @Nullable
+  private static LocalDate scanLocalDate(@NonNull CharSequence value) {
+    if (value.length() < DATE_LENGTH || value.charAt(4) != '-' || value.charAt(7) != '-') {
+      return null;
+    }
+    int year = scanDigits(value, 0, 4);
+    int month = scanDigits(value, 5, 2);
+    int day = scanDigits(value, 8, 2);
+    // the formatters parse a year-of-era, which starts at year 1
+    if (year < 1 || month < 1 || month > 12 || day < 1
+        || day > Month.of(month).length(Year.isLeap(year))) {
+      return null;
+    }
+    return LocalDate.of(year, month, day);
+  }
+
+  /**
+   * Scan a time zone offset that must extend to the end of the value.
+   *
+   * @return the offset, {@link ZoneOffset#UTC} if there is no offset and none is
+   *         required, or {@code null} if the offset is malformed or missing
+   */
+  @Nullable
+  private static ZoneOffset scanOffset(@NonNull CharSequence value, int pos, boolean required) {
+    int length = value.length();
+    ZoneOffset retval = null;
+    if (pos == length) {
+      retval = required ? null : ZoneOffset.UTC;
+    } else if (pos + 1 == length && value.charAt(pos) == 'Z') {
+      retval = ZoneOffset.UTC;
+    } else if (pos + 6 == length && value.charAt(pos + 3) == ':') {
+      char sign = value.charAt(pos);
+      int hours = scanDigits(value, pos + 1, 2);
+      int minutes = scanDigits(value, pos + 4, 2);
+      if ((sign == '+' || sign == '-') && hours >= 0 && hours < MAX_OFFSET_HOURS && minutes >= 0 && minutes <= 59) {
+        retval = sign == '+'
+            ? ZoneOffset.ofHoursMinutes(hours, minutes)
+            : ZoneOffset.ofHoursMinutes(-hours, -minutes);
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Scan a UUID in the canonical 8-4-4-4-12 hexadecimal form.
+   *
+   * @param value
+   *          the value to scan
+   * @return the UUID, or {@code null} if the value is not in the canonical form
+   */
+  @Nullable
+  public static UUID scanUuid(@NonNull CharSequence value) {
+    if (value.length() != UUID_LENGTH
+        || value.charAt(8) != '-' || value.charAt(13) != '-' || value.charAt(18) != '-' || value.charAt(23) != '-') {
+      return null;
+    }
+
+    long high = 0;
+    long low = 0;
+    for (int i = 0; i < UUID_LENGTH; i++) {
+      if (i == 8 || i == 13 || i == 18 || i == 23) {
+        continue;
+      }
+      int digit = Character.digit(value.charAt(i), 16);
+      if (digit < 0 || value.charAt(i) > 'f') {
+        // reject non-ASCII digits
+        return null;
+      }
+      if (i < 18) {
+        high = high << 4 | digit;
+      } else {
+        low = low << 4 | digit;
+      }
+    }
+    return new UUID(high, low);
+  }
+
+  /**
+   * Scan an integer made up of an optional sign and up to 18 ASCII digits.
+   *
+   * @param value
+   *          the value to scan
+   * @return the integer, or {@code null} if the value is not in the expected form
+   */
+  @Nullable
+  public static BigInteger scanInteger(@NonNull CharSequence value) {
+    int length = value.length();
+    int pos = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+    if (pos == length || length - pos > MAX_LONG_DIGITS) {
+      return null;
+    }
+
+    long result = 0;
+    for (int i = pos; i < length; i++) {
+      char ch = value.charAt(i);
+      if (!isDigit(ch)) {
+        return null;
+      }
+      result = result * 10 + ch - '0';
+    }
+    return BigInteger.valueOf(pos == 1 && value.charAt(0) == '-' ? -result : result);
+  }
+
+  /**
+   * Determine if the value is a decimal in the form of an optional sign, digits,
+   * and an optional fractional part.
+   *
+   * @param value
+   *          the value to check
+   * @return {@code true} if the value is in the expected form, or {@code false}
+   *         otherwise
+   */
+  public static boolean isDecimal(@NonNull CharSequence value) {
+    int length = value.length();
+    int pos = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+    int digits = 0;
+    boolean point = false;
+    for (int i = pos; i < length; i++) {
+      char ch = value.charAt(i);
+      if (isDigit(ch)) {
+        digits++;
+      } else if (ch == '.' && !point) {
+        point = true;
+      } else {
+        return false;
+      }
+    }
+    return digits > 0;
+  }
+
+  private static boolean isDigit(char ch) {
+    return ch >= '0' && ch <= '9';
+  }
+
+  /**
+   * Scan a fixed number of ASCII digits.
+   *
+   * @return the value of the digits, or {@code -1} if a non-digit was found
+   */
+  private static int scanDigits(@NonNull CharSequence value, int pos, int count) {
+    int retval = 0;
+    for (int i = pos; i < pos + count; i++) {
+      char ch = value.charAt(i);
+      if (!isDigit(ch)) {
+        return -1;
+      }
+      retval = retval * 10 + ch - '0';
+    }
+    return retval;
+  }
+}
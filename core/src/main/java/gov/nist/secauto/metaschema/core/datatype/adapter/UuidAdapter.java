@@ -63,7 +63,13 @@ public class UuidAdapter
   @SuppressWarnings("null")
   @Override
   public UUID parse(String value) {
-    return UUID.fromString(value);
+    UUID retval = LexicalScanner.scanUuid(value);
+    return retval == null ? UUID.fromString(value) : retval;
+  }
+
+  @Override
+  public boolean isValid(String value) {
+    return LexicalScanner.scanUuid(value) != null || super.isValid(value);
   }
 
   @Override
@@ -40,6 +40,7 @@ import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.IMarkupVisitor;
 import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.IMarkupWriter;
 import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.InsertAnchorExtension.InsertAnchorNode;
 import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.InsertVisitor;
+import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.MarkdownStreamConverter;
 import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.MarkupVisitor;
 import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.MarkupXmlEventWriter;
 import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.MarkupXmlStreamWriter;
@@ -79,22 +80,158 @@ public abstract class AbstractMarkupString<TYPE extends AbstractMarkupString<TYP
   private static final Pattern QUOTE_TAG_REPLACEMENT_PATTERN
       = Pattern.compile("</?q>");
 
+  /**
+   * The shared factory used to write XHTML. Woodstox factories are thread-safe
+   * once configured.
+   */
+  @NonNull
+  private static final XMLOutputFactory2 XHTML_OUTPUT_FACTORY = newXHtmlOutputFactory();
+
   //
   // @NonNull
   // private static final String DEFAULT_HTML_NS = "http://www.w3.org/1999/xhtml";
   // @NonNull
   // private static final String DEFAULT_HTML_PREFIX = "";
 
+  /**
+   * The raw markup text this value was created from, or {@code null} if the value
+   * was created directly from a parsed AST.
+   */
+  @Nullable
+  private final String source;
+  /**
+   * The format of the raw {@link #source}.
+   */
+  @Nullable
+  private final SourceFormat sourceFormat;
+  /**
+   * The parsed markup AST. This is built on first use when the value was created
+   * from raw markup text.
+   */
+  private volatile Document document; // NOPMD - intentional
+
   @NonNull
-  private final Document document;
+  private static XMLOutputFactory2 newXHtmlOutputFactory() {
+    XMLOutputFactory2 factory = (XMLOutputFactory2) XMLOutputFactory.newInstance();
+    assert factory instanceof WstxOutputFactory;
+    factory.setProperty(WstxOutputProperties.P_OUTPUT_VALIDATE_STRUCTURE, false);
+    return factory;
+  }
 
+  /**
+   * Construct a new markup string based on a parsed AST.
+   *
+   * @param document
+   *          the parsed markup AST
+   */
   public AbstractMarkupString(@NonNull Document document) {
+    this.source = null;
+    this.sourceFormat = null;
     this.document = document;
   }
 
+  /**
+   * Construct a new markup string based on raw markup text.
+   * <p>
+   * The text is not parsed until the AST is needed. Until then, the value can be
+   * written back out in the same format without any parsing or rendering.
+   *
+   * @param source
+   *          the raw markup text
+   * @param sourceFormat
+   *          the format of the raw markup text
+   */
+  protected AbstractMarkupString(@NonNull String source, @NonNull SourceFormat sourceFormat) {
+    this.source = source;
+    this.sourceFormat = sourceFormat;
+  }
+
   @Override
   public Document getDocument() {
-    return document;
+    Document retval = document;
+    if (retval == null) {
+      synchronized (this) {
+        retval = document;
+        if (retval == null) {
+          retval = parseSource(ObjectUtils.requireNonNull(source), ObjectUtils.requireNonNull(sourceFormat));
+          document = retval;
+        }
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Determine if the markup AST has been built for this value.
+   *
+   * @return {@code true} if the AST is available, or {@code false} if the value
+   *         is still backed only by its raw markup text
+   */
+  public boolean isParsed() {
+    return document != null;
+  }
+
+  /**
+   * Determine if this value is backed only by raw markdown that has not yet been
+   * parsed.
+   *
+   * @return {@code true} if the value is unparsed, non-blank markdown, or
+   *         {@code false} otherwise
+   */
+  private boolean isUnparsedMarkdown() {
+    String source = getSource();
+    return !isParsed() && SourceFormat.MARKDOWN.equals(sourceFormat) && source != null && !source.isBlank();
+  }
+
+  /**
+   * Get the raw markup text this value was created from.
+   *
+   * @return the raw markup text, or {@code null} if the value was created
+   *         directly from a parsed AST
+   */
+  @Nullable
+  protected String getSource() {
+    return source;
+  }
+
+  /**
+   * Get the format of the raw markup text this value was created from.
+   *
+   * @return the format, or {@code null} if the value was created directly from a
+   *         parsed AST
+   */
+  @Nullable
+  protected SourceFormat getSourceFormat() {
+    return sourceFormat;
+  }
+
+  /**
+   * Parse the raw markup text into an AST.
+   * <p>
+   * Extending classes can override this method to check the resulting AST against
+   * any structural restrictions on the markup.
+   *
+   * @param source
+   *          the raw markup text
+   * @param sourceFormat
+   *          the format of the raw markup text
+   * @return the parsed AST
+   */
+  @NonNull
+  protected Document parseSource(@NonNull String source, @NonNull SourceFormat sourceFormat) {
+    FlexmarkFactory factory = getFlexmarkFactory();
+    Document retval;
+    switch (sourceFormat) {
+    case HTML:
+      retval = parseHtml(source, factory.getFlexmarkHtmlConverter(), factory.getMarkdownParser());
+      break;
+    case MARKDOWN:
+      retval = parseMarkdown(source, factory.getMarkdownParser());
+      break;
+    default:
+      throw new UnsupportedOperationException(String.format("Unsupported source format '%s'", sourceFormat));
+    }
+    return retval;
   }
 
   // @Override
@@ -182,14 +319,10 @@ public abstract class AbstractMarkupString<TYPE extends AbstractMarkupString<TYP
 
     String retval;
 
-    Document document = getDocument();
-    if (document.hasChildren()) {
+    if (isUnparsedMarkdown() || getDocument().hasChildren()) {
 
-      XMLOutputFactory2 factory = (XMLOutputFactory2) XMLOutputFactory.newInstance();
-      assert factory instanceof WstxOutputFactory;
-      factory.setProperty(WstxOutputProperties.P_OUTPUT_VALIDATE_STRUCTURE, false);
       try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-        XMLStreamWriter2 xmlStreamWriter = (XMLStreamWriter2) factory.createXMLStreamWriter(os);
+        XMLStreamWriter2 xmlStreamWriter = (XMLStreamWriter2) XHTML_OUTPUT_FACTORY.createXMLStreamWriter(os);
 
         writeXHtml(namespace, ObjectUtils.notNull(xmlStreamWriter));
 
@@ -221,9 +354,21 @@ public abstract class AbstractMarkupString<TYPE extends AbstractMarkupString<TYP
         .replaceAll("&quot;"));
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * If this value was created from raw markdown, the original markdown is
+   * returned as-is without parsing or re-rendering it.
+   */
   @Override
   public String toMarkdown() {
-    return toMarkdown(getFlexmarkFactory().getFormatter());
+    String retval;
+    if (SourceFormat.MARKDOWN.equals(sourceFormat)) {
+      retval = ObjectUtils.notNull(source);
+    } else {
+      retval = toMarkdown(getFlexmarkFactory().getFormatter());
+    }
+    return retval;
   }
 
   @Override
@@ -233,36 +378,43 @@ public abstract class AbstractMarkupString<TYPE extends AbstractMarkupString<TYP
 
   @Override
   public void writeXHtml(String namespace, XMLStreamWriter2 streamWriter) throws XMLStreamException {
-    Document document = getDocument();
-    if (document.hasChildren()) {
-      IMarkupWriter<XMLStreamWriter, XMLStreamException> writer = new MarkupXmlStreamWriter(
-          namespace,
-          getFlexmarkFactory().getListOptions(),
-          streamWriter);
-
-      IMarkupVisitor<XMLStreamWriter, XMLStreamException> visitor = new MarkupVisitor<>(isBlock());
-      visitor.visitDocument(document, writer);
-    } else {
-      streamWriter.writeCharacters("");
+    IMarkupWriter<XMLStreamWriter, XMLStreamException> writer = new MarkupXmlStreamWriter(
+        namespace,
+        getFlexmarkFactory().getListOptions(),
+        streamWriter);
+
+    // plain text is written directly, without building the AST
+    if (!isUnparsedMarkdown()
+        || !MarkdownStreamConverter.writePlainMarkdown(ObjectUtils.notNull(getSource()), isBlock(), writer)) {
+      Document document = getDocument();
+      if (document.hasChildren()) {
+        IMarkupVisitor<XMLStreamWriter, XMLStreamException> visitor = new MarkupVisitor<>(isBlock());
+        visitor.visitDocument(document, writer);
+      } else {
+        streamWriter.writeCharacters("");
+      }
     }
   }
 
   @Override
   public void writeXHtml(String namespace, XMLEventFactory2 eventFactory, XMLEventWriter eventWriter)
       throws XMLStreamException {
-    Document document = getDocument();
-    if (document.hasChildren()) {
-
-      IMarkupWriter<XMLEventWriter, XMLStreamException> writer = new MarkupXmlEventWriter(
-          namespace,
-          getFlexmarkFactory().getListOptions(),
-          eventWriter,
-          eventFactory);
-
-      IMarkupVisitor<XMLEventWriter, XMLStreamException> visitor = new MarkupVisitor<>(isBlock());
-      visitor.visitDocument(getDocument(), writer);
-    } else {
-      eventWriter.add(eventFactory.createSpace(""));
+    IMarkupWriter<XMLEventWriter, XMLStreamException> writer = new MarkupXmlEventWriter(
+        namespace,
+        getFlexmarkFactory().getListOptions(),
+        eventWriter,
+        eventFactory);
+
+    // plain text is written directly, without building the AST
+    if (!isUnparsedMarkdown()
+        || !MarkdownStreamConverter.writePlainMarkdown(ObjectUtils.notNull(getSource()), isBlock(), writer)) {
+      Document document = getDocument();
+      if (document.hasChildren()) {
+        IMarkupVisitor<XMLEventWriter, XMLStreamException> visitor = new MarkupVisitor<>(isBlock());
+        visitor.visitDocument(document, writer);
+      } else {
+        eventWriter.add(eventFactory.createSpace(""));
+      }
     }
 
   }
@@ -300,4 +452,18 @@ public abstract class AbstractMarkupString<TYPE extends AbstractMarkupString<TYP
   public String toString() {
     return AstCollectingVisitor.asString(getDocument());
   }
+
+  /**
+   * The format of the raw markup text used to create a markup string.
+   */
+  protected enum SourceFormat {
+    /**
+     * Markdown text, as used by JSON and YAML content.
+     */
+    MARKDOWN,
+    /**
+     * HTML text, as captured from XML content.
+     */
+    HTML;
+  }
 }
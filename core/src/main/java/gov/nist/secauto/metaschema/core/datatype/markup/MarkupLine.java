@@ -38,10 +38,14 @@ import com.vladsch.flexmark.util.misc.Extension;
 import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.FlexmarkConfiguration;
 import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.FlexmarkFactory;
 import gov.nist.secauto.metaschema.core.datatype.markup.flexmark.SuppressPTagExtension;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -54,6 +58,15 @@ public class MarkupLine
   @NonNull
   private static final FlexmarkFactory FLEXMARK_FACTORY = new FlexmarkFactory(FLEXMARK_CONFIG);
 
+  /**
+   * HTML elements that are rendered inline, and so cannot start a new block.
+   */
+  @NonNull
+  private static final Set<String> INLINE_ELEMENTS = ObjectUtils.notNull(
+      Set.of("a", "b", "br", "code", "em", "i", "insert", "q", "span", "strong", "sub", "sup"));
+  @NonNull
+  private static final Pattern HTML_ELEMENT_PATTERN = Pattern.compile("<([A-Za-z][A-Za-z0-9_.-]*)");
+
   @SuppressWarnings("null")
   @NonNull
   protected static DataSet newParserOptions() {
@@ -83,6 +96,38 @@ public class MarkupLine
     return new MarkupLine(parseMarkdown(markdown, FLEXMARK_FACTORY.getMarkdownParser()));
   }
 
+  /**
+   * Create a line of markup from the provided HTML string, deferring parsing
+   * until the markup AST is needed.
+   * <p>
+   * If the markup might contain more than one block, it is parsed immediately, so
+   * that this structural error is reported here.
+   *
+   * @param html
+   *          the HTML
+   * @return the markup instance
+   */
+  @NonNull
+  public static MarkupLine deferredFromHtml(@NonNull String html) {
+    return new MarkupLine(html, SourceFormat.HTML);
+  }
+
+  /**
+   * Create a line of markup from the provided markdown string, deferring parsing
+   * until the markup AST is needed.
+   * <p>
+   * If the markup might contain more than one block, it is parsed immediately, so
+   * that this structural error is reported here.
+   *
+   * @param markdown
+   *          the markdown
+   * @return the markup instance
+   */
+  @NonNull
+  public static MarkupLine deferredFromMarkdown(@NonNull String markdown) {
+    return new MarkupLine(markdown, SourceFormat.MARKDOWN);
+  }
+
   @Override
   public FlexmarkFactory getFlexmarkFactory() {
     return FLEXMARK_FACTORY;
@@ -90,17 +135,83 @@ public class MarkupLine
 
   protected MarkupLine(@NonNull Document astNode) {
     super(astNode);
+    checkSingleBlock(astNode);
+  }
+
+  /**
+   * Construct a new line of markup that is parsed on first use.
+   *
+   * @param source
+   *          the raw markup text
+   * @param sourceFormat
+   *          the format of the raw markup text
+   */
+  protected MarkupLine(@NonNull String source, @NonNull SourceFormat sourceFormat) {
+    super(source, sourceFormat);
+    if (!isSingleBlock(source, sourceFormat)) {
+      // build the AST now to check the structure while the input is being read
+      getDocument();
+    }
+  }
+
+  /**
+   * Determine, without parsing, if the provided markup is certain to produce at
+   * most a single block.
+   * <p>
+   * Markdown without a line break cannot contain more than one block. HTML
+   * whitespace is normalized, so only block elements can start a new block.
+   *
+   * @param source
+   *          the raw markup text
+   * @param sourceFormat
+   *          the format of the raw markup text
+   * @return {@code true} if the markup has at most a single block, or
+   *         {@code false} if this can only be determined by parsing
+   */
+  private static boolean isSingleBlock(@NonNull String source, @NonNull SourceFormat sourceFormat) {
+    boolean retval;
+    if (SourceFormat.MARKDOWN.equals(sourceFormat)) {
+      retval = source.indexOf('\n') < 0 && source.indexOf('\r') < 0;
+    } else {
+      retval = true;
+      Matcher matcher = HTML_ELEMENT_PATTERN.matcher(source);
+      while (matcher.find()) {
+        if (!INLINE_ELEMENTS.contains(matcher.group(1))) {
+          retval = false;
+          break;
+        }
+      }
+    }
+    return retval;
+  }
+
+  private static void checkSingleBlock(@NonNull Document astNode) {
     Node child = astNode.getFirstChild();
     if (child instanceof Block && child.getNext() != null) {
       throw new IllegalStateException("multiple blocks not allowed");
     } // else empty markdown
   }
 
+  @Override
+  protected Document parseSource(String source, SourceFormat sourceFormat) {
+    Document retval = super.parseSource(source, sourceFormat);
+    checkSingleBlock(retval);
+    return retval;
+  }
+
   @Override
   public MarkupLine copy() {
-    // TODO: find a way to do a deep copy
-    // this is a shallow copy that uses the same underlying Document object
-    return new MarkupLine(getDocument());
+    String source = getSource();
+    SourceFormat sourceFormat = getSourceFormat();
+    MarkupLine retval;
+    if (!isParsed() && source != null && sourceFormat != null) {
+      retval = new MarkupLine(source, sourceFormat);
+    } else {
+      // TODO: find a way to do a deep copy
+      // this is a shallow copy that uses the same underlying Document object
+      retval = new MarkupLine(getDocument());
+    }
+    return retval;
   }
 
   @Override
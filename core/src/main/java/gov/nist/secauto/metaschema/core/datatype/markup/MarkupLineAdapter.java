@@ -33,6 +33,7 @@ import gov.nist.secauto.metaschema.core.metapath.item.atomic.IMarkupItem;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLStreamReader2;
 
 import java.io.IOException;
 import java.util.List;
@@ -61,7 +62,7 @@ public class MarkupLineAdapter
    */
   @Override
   public MarkupLine parse(String value) {
-    return MarkupLine.fromMarkdown(value);
+    return MarkupLine.deferredFromMarkdown(value);
   }
 
   @SuppressWarnings("null")
@@ -74,6 +75,16 @@ public class MarkupLineAdapter
     }
   }
 
+  @SuppressWarnings("null")
+  @Override
+  public MarkupLine parse(XMLStreamReader2 reader) throws IOException {
+    try {
+      return XmlMarkupParser.instance().parseMarkupline(reader);
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+
   @Override
   public MarkupLine parse(JsonParser parser) throws IOException {
     @SuppressWarnings("null") MarkupLine retval = parse(parser.getValueAsString());
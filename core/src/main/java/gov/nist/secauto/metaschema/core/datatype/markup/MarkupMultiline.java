@@ -67,6 +67,32 @@ public class MarkupMultiline
         parseMarkdown(markdown, FLEXMARK_FACTORY.getMarkdownParser()));
   }
 
+  /**
+   * Convert the provided HTML string into markup, deferring parsing until the
+   * markup AST is needed.
+   *
+   * @param html
+   *          the HTML
+   * @return the multiline markup instance
+   */
+  @NonNull
+  public static MarkupMultiline deferredFromHtml(@NonNull String html) {
+    return new MarkupMultiline(html, SourceFormat.HTML);
+  }
+
+  /**
+   * Convert the provided markdown string into markup, deferring parsing until the
+   * markup AST is needed.
+   *
+   * @param markdown
+   *          the markup
+   * @return the multiline markup instance
+   */
+  @NonNull
+  public static MarkupMultiline deferredFromMarkdown(@NonNull String markdown) {
+    return new MarkupMultiline(markdown, SourceFormat.MARKDOWN);
+  }
+
   /**
    * Construct a new multiline markup instance.
    *
@@ -77,6 +103,18 @@ public class MarkupMultiline
     super(astNode);
   }
 
+  /**
+   * Construct a new multiline markup instance that is parsed on first use.
+   *
+   * @param source
+   *          the raw markup text
+   * @param sourceFormat
+   *          the format of the raw markup text
+   */
+  protected MarkupMultiline(@NonNull String source, @NonNull SourceFormat sourceFormat) {
+    super(source, sourceFormat);
+  }
+
   @Override
   public FlexmarkFactory getFlexmarkFactory() {
     return FLEXMARK_FACTORY;
@@ -84,9 +122,17 @@ public class MarkupMultiline
 
   @Override
   public MarkupMultiline copy() {
-    // TODO: find a way to do a deep copy
-    // this is a shallow copy that uses the same underlying Document object
-    return new MarkupMultiline(getDocument());
+    String source = getSource();
+    SourceFormat sourceFormat = getSourceFormat();
+    MarkupMultiline retval;
+    if (!isParsed() && source != null && sourceFormat != null) {
+      retval = new MarkupMultiline(source, sourceFormat);
+    } else {
+      // TODO: find a way to do a deep copy
+      // this is a shallow copy that uses the same underlying Document object
+      retval = new MarkupMultiline(getDocument());
+    }
+    return retval;
   }
 
   @Override
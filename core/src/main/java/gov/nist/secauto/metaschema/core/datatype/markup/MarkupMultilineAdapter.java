@@ -33,6 +33,7 @@ import gov.nist.secauto.metaschema.core.metapath.item.atomic.IMarkupItem;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLStreamReader2;
 
 import java.io.IOException;
 import java.util.List;
@@ -67,7 +68,7 @@ public class MarkupMultilineAdapter
    */
   @Override
   public MarkupMultiline parse(String value) {
-    return MarkupMultiline.fromMarkdown(value);
+    return MarkupMultiline.deferredFromMarkdown(value);
   }
 
   @SuppressWarnings("null")
@@ -80,6 +81,16 @@ public class MarkupMultilineAdapter
     }
   }
 
+  @SuppressWarnings("null")
+  @Override
+  public MarkupMultiline parse(XMLStreamReader2 reader) throws IOException {
+    try {
+      return XmlMarkupParser.instance().parseMarkupMultiline(reader);
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+  }
+
   @Override
   public MarkupMultiline parse(JsonParser parser) throws IOException {
     @SuppressWarnings("null") MarkupMultiline retval = parse(parser.getValueAsString());
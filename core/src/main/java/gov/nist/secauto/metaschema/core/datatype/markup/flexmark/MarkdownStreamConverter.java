@@ -0,0 +1,527 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.datatype.markup.flexmark;
+
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Converts between the Metaschema XHTML markup subset and its markdown subset
+ * directly, without building a flexmark AST.
+ * <p>
+ * Only a conservative subset of markup is handled: paragraphs, headings,
+ * emphasis, strong, inline code, quotes, simple links, and inserts containing
+ * text that needs no markdown escaping. When anything else is encountered, the
+ * conversion gives up and the caller is expected to fall back to the AST-based
+ * conversion, which handles all markup.
+ * <p>
+ * An instance of this class is used to convert a single markup value while
+ * reading XML and is not thread-safe.
+ */
+public class MarkdownStreamConverter {
+  @NonNull
+  private static final Set<String> HEADING_ELEMENTS = ObjectUtils.notNull(
+      Set.of("h1", "h2", "h3", "h4", "h5", "h6"));
+  /**
+   * Punctuation that is never significant in the markdown subset, when not at the
+   * start of a block.
+   */
+  @NonNull
+  private static final String PLAIN_PUNCTUATION = " .,;:?()/%$@+=-";
+  /**
+   * Characters that can follow a closing quote and still allow it to close.
+   */
+  @NonNull
+  private static final String QUOTE_FOLLOWING = " .,;:?)";
+  /**
+   * Block starts that could be read as a list, thematic break, or indented code.
+   */
+  @NonNull
+  private static final Pattern BLOCK_START_PATTERN = Pattern.compile("^(?:[ +=-]|[0-9]+[.)])");
+  @NonNull
+  private static final Pattern LINK_HREF_PATTERN = Pattern.compile("^[A-Za-z0-9:/._#?=%-]+$");
+  @NonNull
+  private static final Pattern INSERT_TOKEN_PATTERN = Pattern.compile("^[A-Za-z0-9_.-]+$");
+  @NonNull
+  private static final QName HREF_ATTRIBUTE = new QName("href");
+  @NonNull
+  private static final QName TYPE_ATTRIBUTE = new QName("type");
+  @NonNull
+  private static final QName ID_REF_ATTRIBUTE = new QName("id-ref");
+
+  private final boolean block;
+  @NonNull
+  private final StringBuilder buffer = new StringBuilder();
+  @NonNull
+  private final Deque<Frame> frames = new ArrayDeque<>();
+  private boolean unsupported;
+  /**
+   * The start of the current block's content.
+   */
+  private int blockStart;
+  /**
+   * If {@code true}, the next content must be a valid follower of a closing
+   * quote.
+   */
+  private boolean quoteClosed;
+
+  /**
+   * Construct a new converter for a single markup value.
+   *
+   * @param block
+   *          {@code true} if the value is multiline markup containing block
+   *          elements, or {@code false} if the value is a line of inline markup
+   */
+  public MarkdownStreamConverter(boolean block) {
+    this.block = block;
+  }
+
+  /**
+   * Determine if the markup seen so far can be converted directly.
+   *
+   * @return {@code true} if the markup is supported, or {@code false} otherwise
+   */
+  public boolean isSupported() {
+    return !unsupported;
+  }
+
+  /**
+   * Handle the start of an XHTML element.
+   *
+   * @param start
+   *          the element's start event
+   * @param empty
+   *          {@code true} if the element has no content
+   */
+  public void startElement(@NonNull StartElement start, boolean empty) {
+    if (unsupported) {
+      return;
+    }
+
+    Map<QName, String> attributes;
+    if (start.getAttributes().hasNext()) {
+      attributes = new LinkedHashMap<>();
+      for (Attribute attribute : CollectionUtil.toIterable(ObjectUtils.notNull(start.getAttributes()))) {
+        attributes.put(attribute.getName(), attribute.getValue());
+      }
+    } else {
+      attributes = Collections.emptyMap();
+    }
+    startElement(ObjectUtils.notNull(start.getName().getLocalPart()), ObjectUtils.notNull(attributes), empty);
+  }
+
+  /**
+   * Handle the start of an XHTML element read from a cursor, which provides the
+   * element's name and attributes instead of a start event.
+   *
+   * @param name
+   *          the element's local name
+   * @param attributes
+   *          the element's attribute values keyed by attribute name
+   * @param empty
+   *          {@code true} if the element has no content
+   */
+  public void startElement(@NonNull String name, @NonNull Map<QName, String> attributes, boolean empty) {
+    if (unsupported) {
+      return;
+    }
+
+    Frame parent = frames.peek();
+    if (parent != null && "code".equals(parent.getName())) {
+      // code content must be plain text
+      unsupported = true;
+    } else if (frames.isEmpty() && block) {
+      startBlock(name, attributes, empty);
+    } else if ("insert".equals(name)) {
+      writeInsert(attributes, empty);
+    } else if (empty) {
+      unsupported = true;
+    } else {
+      startInline(name, attributes);
+    }
+  }
+
+  private void startBlock(@NonNull String name, @NonNull Map<QName, String> attributes, boolean empty) {
+    String marker;
+    if ("p".equals(name)) {
+      marker = "";
+    } else if (HEADING_ELEMENTS.contains(name)) {
+      marker = "#".repeat(name.charAt(1) - '0') + " ";
+    } else {
+      marker = null;
+    }
+
+    if (marker == null || empty || !attributes.isEmpty()) {
+      unsupported = true;
+    } else {
+      if (buffer.length() > 0) {
+        buffer.append("\n\n");
+      }
+      buffer.append(marker);
+      blockStart = buffer.length();
+      quoteClosed = false;
+      frames.push(new Frame(name, blockStart, ""));
+    }
+  }
+
+  private void startInline(@NonNull String name, @NonNull Map<QName, String> attributes) {
+    String delimiter;
+    String closing;
+    switch (name) {
+    case "em":
+      delimiter = "*";
+      closing = delimiter;
+      break;
+    case "strong":
+      delimiter = "**";
+      closing = delimiter;
+      break;
+    case "code":
+      delimiter = "`";
+      closing = delimiter;
+      break;
+    case "q":
+      delimiter = "\"";
+      closing = delimiter;
+      break;
+    case "a": {
+      String href = getLinkHref(attributes);
+      delimiter = href == null || isInLink() ? null : "[";
+      closing = "](" + href + ")";
+      break;
+    }
+    default:
+      delimiter = null;
+      closing = null;
+      break;
+    }
+
+    if (delimiter == null || closing == null || !"a".equals(name) && !attributes.isEmpty()) {
+      unsupported = true;
+      return;
+    }
+
+    checkQuoteFollower(delimiter.charAt(0));
+    char previous = buffer.length() > blockStart ? buffer.charAt(buffer.length() - 1) : ' ';
+    if ("q".equals(name) && previous != ' ' && previous != '(') {
+      // an opening quote must not be preceded by other text
+      unsupported = true;
+    } else if (previous == '*') {
+      // adjacent emphasis delimiters would merge into a single run
+      unsupported = true;
+    } else {
+      buffer.append(delimiter);
+      frames.push(new Frame(name, buffer.length(), closing));
+    }
+  }
+
+  private void writeInsert(@NonNull Map<QName, String> attributes, boolean empty) {
+    String type = attributes.get(TYPE_ATTRIBUTE);
+    String idRef = attributes.get(ID_REF_ATTRIBUTE);
+    if (!empty
+        || type == null || !INSERT_TOKEN_PATTERN.matcher(type).matches()
+        || idRef == null || !INSERT_TOKEN_PATTERN.matcher(idRef).matches()
+        || attributes.size() != 2) {
+      unsupported = true;
+    } else {
+      checkQuoteFollower('{');
+      buffer.append("{{ insert: ")
+          .append(type)
+          .append(", ")
+          .append(idRef)
+          .append(" }}");
+    }
+  }
+
+  /**
+   * Handle the end of an XHTML element.
+   */
+  public void endElement() {
+    if (unsupported) {
+      return;
+    }
+
+    Frame frame = frames.pop();
+    String name = frame.getName();
+    int contentStart = frame.getContentStart();
+    switch (name) {
+    case "em":
+    case "strong":
+    case "q":
+      if (!hasAlphanumericEdges(contentStart)) {
+        unsupported = true;
+      } else {
+        buffer.append(frame.getClosing());
+        quoteClosed = "q".equals(name);
+      }
+      break;
+    case "code":
+      if (buffer.length() == contentStart
+          || buffer.charAt(contentStart) == ' '
+          || buffer.charAt(buffer.length() - 1) == ' ') {
+        unsupported = true;
+      } else {
+        buffer.append(frame.getClosing());
+      }
+      break;
+    case "a":
+      if (buffer.length() == contentStart) {
+        unsupported = true;
+      } else {
+        buffer.append(frame.getClosing());
+      }
+      break;
+    default:
+      // a block
+      endBlock();
+      break;
+    }
+  }
+
+  private void endBlock() {
+    if (!isPlainBlock(buffer, blockStart, buffer.length())) {
+      unsupported = true;
+    }
+    quoteClosed = false;
+  }
+
+  /**
+   * Handle XHTML character content.
+   *
+   * @param data
+   *          the characters
+   */
+  public void characters(@NonNull String data) {
+    if (unsupported || data.isEmpty()) {
+      return;
+    }
+
+    Frame parent = frames.peek();
+    if (parent == null && block) {
+      // text outside of a block
+      unsupported = true;
+    } else if (parent != null && "code".equals(parent.getName())) {
+      if (!isCodeText(data)) {
+        unsupported = true;
+      } else {
+        buffer.append(data);
+      }
+    } else if (!isPlainText(data)) {
+      unsupported = true;
+    } else {
+      checkQuoteFollower(data.charAt(0));
+      buffer.append(data);
+    }
+  }
+
+  /**
+   * Get the converted markdown.
+   *
+   * @return the markdown, or {@code null} if the markup could not be converted
+   *         directly
+   */
+  @Nullable
+  public String toMarkdown() {
+    if (!unsupported && !block && !isPlainBlock(buffer, 0, buffer.length())) {
+      unsupported = true;
+    }
+    return unsupported || !frames.isEmpty() || buffer.length() == 0 ? null : buffer.toString();
+  }
+
+  private void checkQuoteFollower(char next) {
+    if (quoteClosed) {
+      if (QUOTE_FOLLOWING.indexOf(next) < 0) {
+        unsupported = true;
+      }
+      quoteClosed = false;
+    }
+  }
+
+  private boolean hasAlphanumericEdges(int contentStart) {
+    int end = buffer.length();
+    return end > contentStart
+        && Character.isLetterOrDigit(buffer.charAt(contentStart))
+        && Character.isLetterOrDigit(buffer.charAt(end - 1));
+  }
+
+  private boolean isInLink() {
+    boolean retval = false;
+    for (Frame frame : frames) {
+      if ("a".equals(frame.getName())) {
+        retval = true;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  @Nullable
+  private static String getLinkHref(@NonNull Map<QName, String> attributes) {
+    String href = attributes.get(HREF_ATTRIBUTE);
+    return href == null || attributes.size() != 1 || !LINK_HREF_PATTERN.matcher(href).matches()
+        ? null
+        : href;
+  }
+
+  /**
+   * Determine if the provided text is made up only of characters that have no
+   * markdown significance and would not be normalized when converted from HTML.
+   *
+   * @param text
+   *          the text to check
+   * @return {@code true} if the text is plain, or {@code false} otherwise
+   */
+  public static boolean isPlainText(@NonNull CharSequence text) {
+    boolean retval = true;
+    for (int i = 0; i < text.length(); i++) {
+      char ch = text.charAt(i);
+      if (!Character.isLetterOrDigit(ch) && PLAIN_PUNCTUATION.indexOf(ch) < 0) {
+        retval = false;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  private static boolean isCodeText(@NonNull CharSequence text) {
+    boolean retval = true;
+    for (int i = 0; i < text.length(); i++) {
+      char ch = text.charAt(i);
+      if (ch == '`' || ch == '{' || ch == '}' || ch == '\\' || Character.isISOControl(ch)) {
+        retval = false;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Determine if the content of a block is valid on its own, without being read
+   * as some other block construct, and has no whitespace that would be
+   * normalized.
+   */
+  private static boolean isPlainBlock(@NonNull CharSequence text, int start, int end) {
+    return end > start
+        && text.charAt(end - 1) != ' '
+        && !BLOCK_START_PATTERN.matcher(text.subSequence(start, end)).lookingAt()
+        && !text.subSequence(start, end).toString().contains("  ");
+  }
+
+  /**
+   * Write markdown that contains only plain text as XHTML, without parsing it.
+   * <p>
+   * Line markup must be a single line of plain text. Multiline markup must be one
+   * or more paragraphs of plain text separated by a single blank line.
+   *
+   * @param <T>
+   *          the type of stream to write to
+   * @param <E>
+   *          the type of exception that can be thrown when a writing error occurs
+   * @param markdown
+   *          the markdown to write
+   * @param block
+   *          {@code true} if the markdown is multiline markup, or {@code false}
+   *          if it is a line of markup
+   * @param writer
+   *          the writer to write the XHTML to
+   * @return {@code true} if the markdown was written, or {@code false} if the
+   *         markdown is not plain text and nothing was written
+   * @throws E
+   *           if an error occurred while writing
+   */
+  public static <T, E extends Throwable> boolean writePlainMarkdown(
+      @NonNull String markdown,
+      boolean block,
+      @NonNull IMarkupWriter<T, E> writer) throws E {
+    String[] paragraphs = block ? markdown.split("\n\n", -1) : new String[] { markdown };
+    for (String paragraph : paragraphs) {
+      if (!isPlainText(paragraph) || !isPlainBlock(paragraph, 0, paragraph.length())) {
+        return false;
+      }
+    }
+
+    if (block) {
+      QName qname = writer.asQName("p");
+      boolean first = true;
+      for (String paragraph : paragraphs) {
+        if (!first) {
+          writer.writeText("\n");
+        }
+        first = false;
+        writer.writeElementStart(qname);
+        writer.writeText(ObjectUtils.notNull(paragraph));
+        writer.writeElementEnd(qname);
+      }
+    } else {
+      writer.writeText(markdown);
+    }
+    return true;
+  }
+
+  private static final class Frame {
+    @NonNull
+    private final String name;
+    private final int contentStart;
+    @NonNull
+    private final String closing;
+
+    private Frame(@NonNull String name, int contentStart, @NonNull String closing) {
+      this.name = name;
+      this.contentStart = contentStart;
+      this.closing = closing;
+    }
+
+    @NonNull
+    public String getName() {
+      return name;
+    }
+
+    public int getContentStart() {
+      return contentStart;
+    }
+
+    @NonNull
+    public String getClosing() {
+      return closing;
+    }
+  }
+}
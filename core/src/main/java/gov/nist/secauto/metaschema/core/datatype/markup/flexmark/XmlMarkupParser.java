@@ -37,7 +37,11 @@ import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLStreamReader2;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import javax.xml.namespace.QName;
@@ -49,6 +53,7 @@ import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 public class XmlMarkupParser { // NOPMD - acceptable
   private static final Logger LOGGER = LogManager.getLogger(XmlMarkupParser.class);
@@ -79,26 +84,118 @@ public class XmlMarkupParser { // NOPMD - acceptable
     return SINGLETON;
   }
 
+  /**
+   * Parse a line of markup from the XHTML content of the current element.
+   * <p>
+   * Simple markup is converted directly to markdown while it is read. Otherwise,
+   * the markup is captured as HTML. In either case, the markup AST is not built
+   * until it is needed.
+   *
+   * @param reader
+   *          the XML event reader positioned at the markup content
+   * @return the markup, or {@code null} if there is no content
+   * @throws XMLStreamException
+   *           if an error occurred while reading the XML
+   */
   public MarkupLine parseMarkupline(XMLEventReader2 reader) throws XMLStreamException { // NOPMD - acceptable
+    return parseLine((buffer, converter) -> parseContents(reader, null, buffer, converter));
+  }
+
+  /**
+   * Parse multiline markup from the XHTML content of the current element.
+   * <p>
+   * Simple markup is converted directly to markdown while it is read. Otherwise,
+   * the markup is captured as HTML. In either case, the markup AST is not built
+   * until it is needed.
+   *
+   * @param reader
+   *          the XML event reader positioned at the markup content
+   * @return the markup, or {@code null} if there is no content
+   * @throws XMLStreamException
+   *           if an error occurred while reading the XML
+   */
+  public MarkupMultiline parseMarkupMultiline(XMLEventReader2 reader) throws XMLStreamException {
+    return parseMultiline((buffer, converter) -> parseToString(reader, buffer, converter));
+  }
+
+  /**
+   * Parse a line of markup from the XHTML content of the current element, using
+   * the cursor of the provided stream reader.
+   * <p>
+   * This works like {@link #parseMarkupline(XMLEventReader2)}, without allocating
+   * an event object for each node read.
+   *
+   * @param reader
+   *          the XML stream reader positioned at the markup content
+   * @return the markup, or {@code null} if there is no content
+   * @throws XMLStreamException
+   *           if an error occurred while reading the XML
+   */
+  public MarkupLine parseMarkupline(XMLStreamReader2 reader) throws XMLStreamException { // NOPMD - acceptable
+    return parseLine((buffer, converter) -> parseContents(reader, null, buffer, converter));
+  }
+
+  /**
+   * Parse multiline markup from the XHTML content of the current element, using
+   * the cursor of the provided stream reader.
+   * <p>
+   * This works like {@link #parseMarkupMultiline(XMLEventReader2)}, without
+   * allocating an event object for each node read.
+   *
+   * @param reader
+   *          the XML stream reader positioned at the markup content
+   * @return the markup, or {@code null} if there is no content
+   * @throws XMLStreamException
+   *           if an error occurred while reading the XML
+   */
+  public MarkupMultiline parseMarkupMultiline(XMLStreamReader2 reader) throws XMLStreamException {
+    return parseMultiline((buffer, converter) -> parseToString(reader, buffer, converter));
+  }
+
+  @Nullable
+  private static MarkupLine parseLine(@NonNull IContentParser parser) throws XMLStreamException {
     StringBuilder buffer = new StringBuilder();
-    parseContents(reader, null, buffer);
+    MarkdownStreamConverter converter = new MarkdownStreamConverter(false);
+    parser.parse(buffer, converter);
     String html = buffer.toString().trim();
-    return html.isEmpty() ? null : MarkupLine.fromHtml(html);
+
+    MarkupLine retval = null;
+    if (!html.isEmpty()) {
+      String markdown = converter.toMarkdown();
+      retval = markdown == null ? MarkupLine.deferredFromHtml(html) : MarkupLine.deferredFromMarkdown(markdown);
+    }
+    return retval;
   }
 
-  public MarkupMultiline parseMarkupMultiline(XMLEventReader2 reader) throws XMLStreamException {
+  @Nullable
+  private static MarkupMultiline parseMultiline(@NonNull IContentParser parser) throws XMLStreamException {
     StringBuilder buffer = new StringBuilder();
-    parseToString(reader, buffer);
+    MarkdownStreamConverter converter = new MarkdownStreamConverter(true);
+    parser.parse(buffer, converter);
     String html = buffer.toString().trim();
 
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("XML->HTML: {}", html);
     }
-    return html.isEmpty() ? null : MarkupMultiline.fromHtml(html);
+
+    MarkupMultiline retval = null;
+    if (!html.isEmpty()) {
+      String markdown = converter.toMarkdown();
+      retval = markdown == null
+          ? MarkupMultiline.deferredFromHtml(html)
+          : MarkupMultiline.deferredFromMarkdown(markdown);
+    }
+    return retval;
   }
 
   protected void parseToString(XMLEventReader2 reader, StringBuilder buffer) // NOPMD - acceptable
       throws XMLStreamException {
+    parseToString(reader, buffer, new MarkdownStreamConverter(true));
+  }
+
+  private void parseToString(XMLEventReader2 reader, StringBuilder buffer, // NOPMD - acceptable
+      MarkdownStreamConverter converter)
+      throws XMLStreamException {
     // if (LOGGER.isDebugEnabled()) {
     // LOGGER.debug("parseToString(enter): {}",
     // XmlEventUtil.toString(reader.peek()));
@@ -119,7 +216,7 @@ public class XmlMarkupParser { // NOPMD - acceptable
         // Note: the next element is not consumed. The called method is expected to
         // consume it
         if (BLOCK_ELEMENTS.contains(name.getLocalPart())) {
-          parseStartElement(reader, start, buffer);
+          parseStartElement(reader, start, buffer, converter);
 
           // the next event should be the event after the start's END_ELEMENT
           // assert XmlEventUtil.isNextEventEndElement(reader, name) :
@@ -142,7 +239,8 @@ public class XmlMarkupParser { // NOPMD - acceptable
     // }
   }
 
-  private void parseStartElement(XMLEventReader2 reader, StartElement start, StringBuilder buffer)
+  private void parseStartElement(XMLEventReader2 reader, StartElement start, StringBuilder buffer,
+      MarkdownStreamConverter converter)
       throws XMLStreamException {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("parseStartElement(enter): {}", XmlEventUtil.toString(start));
@@ -165,7 +263,9 @@ public class XmlMarkupParser { // NOPMD - acceptable
     }
 
     XMLEvent next = reader.peek();
-    if (next != null && next.isEndElement()) {
+    boolean empty = next != null && next.isEndElement();
+    converter.startElement(start, empty);
+    if (empty) {
       buffer.append("/>");
       // consume end element event
       reader.nextEvent();
@@ -173,7 +273,8 @@ public class XmlMarkupParser { // NOPMD - acceptable
       buffer.append('>');
 
       // parse until the start's END_ELEMENT is reached
-      parseContents(reader, start, buffer);
+      parseContents(reader, start, buffer, converter);
+      converter.endElement();
 
       buffer
           .append("</")
@@ -192,7 +293,8 @@ public class XmlMarkupParser { // NOPMD - acceptable
     }
   }
 
-  private void parseContents(XMLEventReader2 reader, StartElement start, StringBuilder buffer)
+  private void parseContents(XMLEventReader2 reader, StartElement start, StringBuilder buffer,
+      MarkdownStreamConverter converter)
       throws XMLStreamException {
     // if (LOGGER.isDebugEnabled()) {
     // LOGGER.debug("parseContents(enter): {}",
@@ -211,7 +313,7 @@ public class XmlMarkupParser { // NOPMD - acceptable
       if (event.isStartElement()) {
         StartElement nextStart = event.asStartElement();
         // QName nextName = nextStart.getName();
-        parseStartElement(reader, nextStart, buffer);
+        parseStartElement(reader, nextStart, buffer, converter);
 
         // if (LOGGER.isDebugEnabled()) {
         // LOGGER.debug("parseContents(after): {}",
@@ -224,7 +326,9 @@ public class XmlMarkupParser { // NOPMD - acceptable
         // reader.nextEvent();
       } else if (event.isCharacters()) {
         Characters characters = event.asCharacters();
-        buffer.append(Escaping.escapeHtml(characters.getData(), true));
+        String data = ObjectUtils.notNull(characters.getData());
+        buffer.append(Escaping.escapeHtml(data, true));
+        converter.characters(data);
         reader.nextEvent();
       }
     }
@@ -239,4 +343,123 @@ public class XmlMarkupParser { // NOPMD - acceptable
     // }
   }
 
+  private void parseToString(XMLStreamReader2 reader, StringBuilder buffer,
+      MarkdownStreamConverter converter)
+      throws XMLStreamException {
+    while (reader.hasNext() && reader.getEventType() != XMLStreamConstants.END_ELEMENT) {
+      // skip whitespace before the next block element
+      int eventType = XmlEventUtil.skipWhitespace(reader);
+
+      if (eventType == XMLStreamConstants.START_ELEMENT && BLOCK_ELEMENTS.contains(reader.getLocalName())) {
+        // Note: the element is not consumed. The called method is expected to
+        // consume it
+        parseStartElement(reader, buffer, converter);
+      } else if (eventType != XMLStreamConstants.END_ELEMENT) {
+        // stop parsing on first unrecognized event
+        break;
+      }
+
+      // skip whitespace before the next block element
+      XmlEventUtil.skipWhitespace(reader);
+    }
+  }
+
+  private void parseStartElement(XMLStreamReader2 reader, StringBuilder buffer,
+      MarkdownStreamConverter converter)
+      throws XMLStreamException {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("parseStartElement(enter): {}", XmlEventUtil.toString(reader));
+    }
+
+    // the attributes and name are only available while positioned at the start
+    QName name = reader.getName();
+    buffer.append('<')
+        .append(name.getLocalPart());
+
+    int attributeCount = reader.getAttributeCount();
+    Map<QName, String> attributes;
+    if (attributeCount == 0) {
+      attributes = Collections.emptyMap();
+    } else {
+      attributes = new LinkedHashMap<>();
+      for (int index = 0; index < attributeCount; index++) {
+        QName attributeName = reader.getAttributeName(index);
+        String value = reader.getAttributeValue(index);
+        buffer
+            .append(' ')
+            .append(attributeName.getLocalPart())
+            .append("=\"")
+            .append(value)
+            .append('"');
+        attributes.put(attributeName, value);
+      }
+    }
+
+    // consume the start element
+    boolean empty = reader.next() == XMLStreamConstants.END_ELEMENT;
+    converter.startElement(ObjectUtils.notNull(name.getLocalPart()), ObjectUtils.notNull(attributes), empty);
+    if (empty) {
+      buffer.append("/>");
+    } else {
+      buffer.append('>');
+
+      // parse until the start's END_ELEMENT is reached
+      parseContents(reader, name, buffer, converter);
+      converter.endElement();
+
+      buffer
+          .append("</")
+          .append(name.getLocalPart())
+          .append('>');
+
+      // the current event should be the start's END_ELEMENT
+      XmlEventUtil.assertNext(reader, XMLStreamConstants.END_ELEMENT, name);
+    }
+
+    // consume the start's END_ELEMENT
+    reader.next();
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("parseStartElement(exit): {}", XmlEventUtil.toString(reader));
+    }
+  }
+
+  private void parseContents(XMLStreamReader2 reader, QName name, StringBuilder buffer,
+      MarkdownStreamConverter converter)
+      throws XMLStreamException {
+    int eventType;
+    while (reader.hasNext() && (eventType = reader.getEventType()) != XMLStreamConstants.END_ELEMENT) {
+      switch (eventType) {
+      case XMLStreamConstants.START_ELEMENT:
+        parseStartElement(reader, buffer, converter);
+        break;
+      case XMLStreamConstants.CHARACTERS:
+      case XMLStreamConstants.CDATA:
+      case XMLStreamConstants.SPACE: {
+        String data = ObjectUtils.notNull(reader.getText());
+        buffer.append(Escaping.escapeHtml(data, true));
+        converter.characters(data);
+        reader.next();
+        break;
+      }
+      default:
+        // skip over comments and processing instructions
+        reader.next();
+        break;
+      }
+    }
+
+    assert name == null
+        || XmlEventUtil.isEventEndElement(reader, name) : XmlEventUtil
+            .generateExpectedMessage(reader, XMLStreamConstants.END_ELEMENT, name);
+  }
+
+  /**
+   * Reads markup content from an XML reader, capturing it as HTML and converting
+   * it to markdown where possible.
+   */
+  @FunctionalInterface
+  private interface IContentParser {
+    void parse(@NonNull StringBuilder buffer, @NonNull MarkdownStreamConverter converter) throws XMLStreamException;
+  }
 }
@@ -0,0 +1,134 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.metapath;
+
+import java.util.Set;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Determines if a Metapath expression can only observe its focus item and the
+ * descendants of that item.
+ * <p>
+ * The analysis is conservative. Any reverse axis, any path rooted at the
+ * document, and any function that can reach outside of the focus subtree
+ * results in the expression being considered non-local.
+ */
+final class FocusLocalityVisitor
+    extends AbstractExpressionVisitor<Boolean, Void> {
+  /**
+   * The names of functions whose result can depend on items outside of the focus
+   * subtree.
+   */
+  @NonNull
+  private static final Set<String> NON_LOCAL_FUNCTIONS = Set.of(
+      "base-uri",
+      "doc",
+      "document-uri",
+      "path",
+      "recurse-depth");
+
+  private static final FocusLocalityVisitor SINGLETON = new FocusLocalityVisitor();
+
+  /**
+   * Get the singleton instance.
+   *
+   * @return the instance
+   */
+  public static FocusLocalityVisitor instance() {
+    return SINGLETON;
+  }
+
+  private FocusLocalityVisitor() {
+    // disable construction
+  }
+
+  /**
+   * Determine if the provided expression is focus-local.
+   *
+   * @param expression
+   *          the expression to analyze
+   * @return {@code true} if the expression can only observe the focus item and
+   *         its descendants, or {@code false} otherwise
+   */
+  public boolean isLocal(@NonNull IExpression expression) {
+    return visit(expression, null);
+  }
+
+  @Override
+  protected boolean shouldVisitNextChild(IExpression parent, IExpression child, Boolean result, Void context) {
+    // stop once a non-local child has been found
+    return result;
+  }
+
+  @Override
+  protected Boolean aggregateResult(Boolean result, Boolean nextResult, Void context) {
+    return result && nextResult;
+  }
+
+  @Override
+  protected Boolean defaultResult() {
+    return true;
+  }
+
+  @Override
+  public Boolean visitAxis(Axis expr, Void context) {
+    boolean retval;
+    switch (expr) {
+    case SELF:
+    case CHILDREN:
+    case DESCENDANT:
+    case DESCENDANT_OR_SELF:
+      retval = true;
+      break;
+    default:
+      retval = false;
+      break;
+    }
+    return retval;
+  }
+
+  @Override
+  public Boolean visitFunctionCall(FunctionCall expr, Void context) {
+    return !NON_LOCAL_FUNCTIONS.contains(expr.getFunction().getName()) && visitChildren(expr, context);
+  }
+
+  @Override
+  public Boolean visitRootSlashOnlyPath(RootSlashOnlyPath expr, Void context) {
+    return false;
+  }
+
+  @Override
+  public Boolean visitRootSlashPath(RootSlashPath expr, Void context) {
+    return false;
+  }
+
+  @Override
+  public Boolean visitRootDoubleSlashPath(RootDoubleSlashPath expr, Void context) {
+    return false;
+  }
+}
@@ -71,6 +71,7 @@ public class MetapathExpression {
   private final String path;
   @NonNull
   private final IExpression node;
+  private volatile Boolean focusLocal;
 
   /**
    * Compiles a Metapath expression string.
@@ -156,6 +157,26 @@ public class MetapathExpression {
     return node;
   }
 
+  /**
+   * Determine if evaluating this expression can only observe the focus item and
+   * its descendants.
+   * <p>
+   * This allows callers to reason about which results can be affected when part
+   * of a document changes. The analysis is conservative, treating reverse axes,
+   * root-relative paths, and document-level functions as non-local.
+   *
+   * @return {@code true} if the expression is focus-local, or {@code false}
+   *         otherwise
+   */
+  public boolean isFocusLocal() {
+    Boolean retval = focusLocal;
+    if (retval == null) {
+      retval = FocusLocalityVisitor.instance().isLocal(getASTNode());
+      focusLocal = retval;
+    }
+    return retval;
+  }
+
   @Override
   public String toString() {
     return ASTPrinter.instance().visit(getASTNode());
@@ -386,13 +386,16 @@ public final class OperationFunctions { // NOPMD - intentional
       @NonNull BigDecimal result = decimalLeft.add(decimalRight, FunctionUtils.MATH_CONTEXT);
       retval = IDecimalItem.valueOf(result);
     } else {
-      // create an integer result
-      BigInteger integerLeft = left.asInteger();
-      BigInteger integerRight = right.asInteger();
-
-      @SuppressWarnings("null")
-      @NonNull BigInteger result = integerLeft.add(integerRight);
-      retval = IIntegerItem.valueOf(result);
+      // create an integer result, using long arithmetic if it cannot overflow
+      retval = addLongExact(left, right);
+      if (retval == null) {
+        BigInteger integerLeft = left.asInteger();
+        BigInteger integerRight = right.asInteger();
+
+        @SuppressWarnings("null")
+        @NonNull BigInteger result = integerLeft.add(integerRight);
+        retval = IIntegerItem.valueOf(result);
+      }
     }
     return retval;
   }
@@ -409,13 +412,16 @@ public final class OperationFunctions { // NOPMD - intentional
       @NonNull BigDecimal result = decimalLeft.subtract(decimalRight, FunctionUtils.MATH_CONTEXT);
       retval = IDecimalItem.valueOf(result);
     } else {
-      // create an integer result
-      BigInteger integerLeft = left.asInteger();
-      BigInteger integerRight = right.asInteger();
-
-      @SuppressWarnings("null")
-      @NonNull BigInteger result = integerLeft.subtract(integerRight);
-      retval = IIntegerItem.valueOf(result);
+      // create an integer result, using long arithmetic if it cannot overflow
+      retval = subtractLongExact(left, right);
+      if (retval == null) {
+        BigInteger integerLeft = left.asInteger();
+        BigInteger integerRight = right.asInteger();
+
+        @SuppressWarnings("null")
+        @NonNull BigInteger result = integerLeft.subtract(integerRight);
+        retval = IIntegerItem.valueOf(result);
+      }
     }
     return retval;
   }
@@ -432,10 +438,13 @@ public final class OperationFunctions { // NOPMD - intentional
       @NonNull BigDecimal result = decimalLeft.multiply(decimalRight, FunctionUtils.MATH_CONTEXT);
       retval = IDecimalItem.valueOf(result);
     } else {
-      // create an integer result
-      @SuppressWarnings("null")
-      @NonNull BigInteger result = left.asInteger().multiply(right.asInteger());
-      retval = IIntegerItem.valueOf(result);
+      // create an integer result, using long arithmetic if it cannot overflow
+      retval = multiplyLongExact(left, right);
+      if (retval == null) {
+        @SuppressWarnings("null")
+        @NonNull BigInteger result = left.asInteger().multiply(right.asInteger());
+        retval = IIntegerItem.valueOf(result);
+      }
     }
     return retval;
   }
@@ -466,11 +475,14 @@ public final class OperationFunctions { // NOPMD - intentional
             ArithmeticFunctionException.DIVISION_BY_ZERO_MESSAGE);
       }
 
-      BigInteger integerDividend = dividend.asInteger();
+      retval = divideLongExact(dividend, divisor);
+      if (retval == null) {
+        BigInteger integerDividend = dividend.asInteger();
 
-      @SuppressWarnings("null")
-      @NonNull BigInteger result = integerDividend.divide(integerDivisor);
-      retval = IIntegerItem.valueOf(result);
+        @SuppressWarnings("null")
+        @NonNull BigInteger result = integerDividend.divide(integerDivisor);
+        retval = IIntegerItem.valueOf(result);
+      }
     }
     return retval;
   }
@@ -502,9 +514,12 @@ public final class OperationFunctions { // NOPMD - intentional
             ArithmeticFunctionException.DIVISION_BY_ZERO_MESSAGE);
       }
 
-      @SuppressWarnings("null")
-      @NonNull BigInteger result = dividend.asInteger().divide(integerDivisor);
-      retval = IIntegerItem.valueOf(result);
+      retval = divideLongExact(dividend, divisor);
+      if (retval == null) {
+        @SuppressWarnings("null")
+        @NonNull BigInteger result = dividend.asInteger().divide(integerDivisor);
+        retval = IIntegerItem.valueOf(result);
+      }
     }
     return retval;
   }
@@ -552,12 +567,17 @@ public final class OperationFunctions { // NOPMD - intentional
       @NonNull BigDecimal result = decimal.negate(FunctionUtils.MATH_CONTEXT);
       retval = IDecimalItem.valueOf(result);
     } else if (item instanceof IIntegerItem) {
-      // create a decimal result
-      BigInteger integer = item.asInteger();
-
-      @SuppressWarnings("null")
-      @NonNull BigInteger result = integer.negate();
-      retval = IIntegerItem.valueOf(result);
+      // create an integer result
+      IIntegerItem integerItem = (IIntegerItem) item;
+      if (integerItem.isLongExact() && integerItem.asLong() != Long.MIN_VALUE) {
+        retval = IIntegerItem.valueOf(-integerItem.asLong());
+      } else {
+        BigInteger integer = item.asInteger();
+
+        @SuppressWarnings("null")
+        @NonNull BigInteger result = integer.negate();
+        retval = IIntegerItem.valueOf(result);
+      }
     } else {
       throw new InvalidTypeMetapathException(item);
     }
@@ -572,7 +592,7 @@ public final class OperationFunctions { // NOPMD - intentional
     } else if (arg1 instanceof IDecimalItem || arg2 instanceof IDecimalItem) {
       retval = IBooleanItem.valueOf(arg1.asDecimal().equals(arg2.asDecimal()));
     } else {
-      retval = IBooleanItem.valueOf(arg1.asInteger().equals(arg2.asInteger()));
+      retval = IBooleanItem.valueOf(compareIntegers(arg1, arg2) == 0);
     }
     return retval;
   }
@@ -586,8 +606,7 @@ public final class OperationFunctions { // NOPMD - intentional
       int result = arg1.asDecimal().compareTo(arg2.asDecimal());
       retval = IBooleanItem.valueOf(result > 0);
     } else {
-      int result = arg1.asInteger().compareTo(arg2.asInteger());
-      retval = IBooleanItem.valueOf(result > 0);
+      retval = IBooleanItem.valueOf(compareIntegers(arg1, arg2) > 0);
     }
     return retval;
   }
@@ -601,8 +620,106 @@ public final class OperationFunctions { // NOPMD - intentional
       int result = arg1.asDecimal().compareTo(arg2.asDecimal());
       retval = IBooleanItem.valueOf(result < 0);
     } else {
-      int result = arg1.asInteger().compareTo(arg2.asInteger());
-      retval = IBooleanItem.valueOf(result < 0);
+      retval = IBooleanItem.valueOf(compareIntegers(arg1, arg2) < 0);
+    }
+    return retval;
+  }
+
+  /**
+   * Determine if both items are integers with values that fit in a {@code long}.
+   */
+  private static boolean isLongExact(@NonNull INumericItem left, @NonNull INumericItem right) {
+    return left instanceof IIntegerItem && ((IIntegerItem) left).isLongExact()
+        && right instanceof IIntegerItem && ((IIntegerItem) right).isLongExact();
+  }
+
+  private static int compareIntegers(@NonNull INumericItem left, @NonNull INumericItem right) {
+    return isLongExact(left, right)
+        ? Long.compare(((IIntegerItem) left).asLong(), ((IIntegerItem) right).asLong())
+        : left.asInteger().compareTo(right.asInteger());
+  }
+
+  /**
+   * Add two integers using {@code long} arithmetic.
+   *
+   * @return the sum, or {@code null} if either value does not fit in a
+   *         {@code long} or the result would overflow
+   */
+  @Nullable
+  private static IIntegerItem addLongExact(@NonNull INumericItem left, @NonNull INumericItem right) {
+    IIntegerItem retval = null;
+    if (isLongExact(left, right)) {
+      long longLeft = ((IIntegerItem) left).asLong();
+      long longRight = ((IIntegerItem) right).asLong();
+      long result = longLeft + longRight;
+      // overflow occurs only if both operands have a sign different from the result
+      if (((longLeft ^ result) & (longRight ^ result)) >= 0) {
+        retval = IIntegerItem.valueOf(result);
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Subtract two integers using {@code long} arithmetic.
+   *
+   * @return the difference, or {@code null} if either value does not fit in a
+   *         {@code long} or the result would overflow
+   */
+  @Nullable
+  private static IIntegerItem subtractLongExact(@NonNull INumericItem left, @NonNull INumericItem right) {
+    IIntegerItem retval = null;
+    if (isLongExact(left, right)) {
+      long longLeft = ((IIntegerItem) left).asLong();
+      long longRight = ((IIntegerItem) right).asLong();
+      long result = longLeft - longRight;
+      // overflow occurs only if the operands have different signs and the result
+      // has a sign different from the left operand
+      if (((longLeft ^ longRight) & (longLeft ^ result)) >= 0) {
+        retval = IIntegerItem.valueOf(result);
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Multiply two integers using {@code long} arithmetic.
+   *
+   * @return the product, or {@code null} if either value does not fit in a
+   *         {@code long} or the result would overflow
+   */
+  @Nullable
+  private static IIntegerItem multiplyLongExact(@NonNull INumericItem left, @NonNull INumericItem right) {
+    IIntegerItem retval = null;
+    if (isLongExact(left, right)) {
+      long longLeft = ((IIntegerItem) left).asLong();
+      long longRight = ((IIntegerItem) right).asLong();
+      long result = longLeft * longRight;
+      // the product fits if the high bits are only the sign extension of the result
+      if (Math.multiplyHigh(longLeft, longRight) == result >> (Long.SIZE - 1)) {
+        retval = IIntegerItem.valueOf(result);
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Divide two integers using {@code long} arithmetic, truncating the result.
+   * <p>
+   * The divisor is expected to have already been checked for zero.
+   *
+   * @return the quotient, or {@code null} if either value does not fit in a
+   *         {@code long} or the result would overflow
+   */
+  @Nullable
+  private static IIntegerItem divideLongExact(@NonNull INumericItem dividend, @NonNull INumericItem divisor) {
+    IIntegerItem retval = null;
+    if (isLongExact(dividend, divisor)) {
+      long longDividend = ((IIntegerItem) dividend).asLong();
+      long longDivisor = ((IIntegerItem) divisor).asLong();
+      if (longDividend != Long.MIN_VALUE || longDivisor != -1) {
+        retval = IIntegerItem.valueOf(longDividend / longDivisor);
+      }
     }
     return retval;
   }
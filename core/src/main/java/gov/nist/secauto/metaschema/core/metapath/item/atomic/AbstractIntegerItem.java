@@ -35,14 +35,38 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 public abstract class AbstractIntegerItem
     extends AbstractNumericItem<BigInteger>
     implements IIntegerItem {
+  /**
+   * The value as a {@code long}, which is only meaningful if {@link #longExact}
+   * is {@code true}.
+   */
+  private final long longValue;
+  /**
+   * {@code true} if the value can be represented exactly as a {@code long}.
+   */
+  private final boolean longExact;
+
   protected AbstractIntegerItem(@NonNull BigInteger value) {
     super(value);
+    this.longExact = value.bitLength() < Long.SIZE;
+    this.longValue = value.longValue();
+  }
+
+  @Override
+  public boolean isLongExact() {
+    return longExact;
+  }
+
+  @Override
+  public long asLong() {
+    if (!longExact) {
+      throw new ArithmeticException("Integer value is out of the range of a long");
+    }
+    return longValue;
   }
 
   @Override
   public boolean toEffectiveBoolean() {
-    return !BigInteger.ZERO.equals(
-        getValue());
+    return longExact ? longValue != 0 : !BigInteger.ZERO.equals(getValue());
   }
 
   @Override
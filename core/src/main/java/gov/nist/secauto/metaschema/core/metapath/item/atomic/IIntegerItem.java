@@ -45,11 +45,24 @@ public interface IIntegerItem extends INumericItem {
   @NonNull
   IIntegerItem NEGATIVE_ONE = valueOf(BigInteger.ONE.negate());
 
+  /**
+   * Get an integer item for the provided value.
+   * <p>
+   * Items for small values are shared.
+   *
+   * @param value
+   *          an integer value
+   * @return the item
+   */
   @NonNull
   static IIntegerItem valueOf(long value) {
-    @SuppressWarnings("null")
-    @NonNull BigInteger bigInteger = BigInteger.valueOf(value);
-    return valueOf(bigInteger);
+    IIntegerItem retval = IntegerItemCache.lookup(value);
+    if (retval == null) {
+      @SuppressWarnings("null")
+      @NonNull BigInteger bigInteger = BigInteger.valueOf(value);
+      retval = valueOf(bigInteger);
+    }
+    return retval;
   }
 
   /**
@@ -69,15 +82,17 @@ public interface IIntegerItem extends INumericItem {
 
   @NonNull
   static IIntegerItem valueOf(@NonNull BigInteger value) {
-    int signum = value.signum();
-
-    IIntegerItem retval;
-    if (signum == -1) { // negative
-      retval = new IntegerItemImpl(value);
-    } else if (signum == 0) { // zero
-      retval = INonNegativeIntegerItem.valueOf(value);
-    } else { // positive
-      retval = IPositiveIntegerItem.valueOf(value);
+    // use the shared item for small values
+    IIntegerItem retval = IntegerItemCache.lookup(value);
+    if (retval == null) {
+      int signum = value.signum();
+      if (signum == -1) { // negative
+        retval = new IntegerItemImpl(value);
+      } else if (signum == 0) { // zero
+        retval = INonNegativeIntegerItem.valueOf(value);
+      } else { // positive
+        retval = IPositiveIntegerItem.valueOf(value);
+      }
     }
     return retval;
   }
@@ -102,4 +117,25 @@ public interface IIntegerItem extends INumericItem {
 
   @Override
   BigInteger getValue();
+
+  /**
+   * Determine if this item's value can be represented exactly as a {@code long}.
+   * <p>
+   * Arithmetic and comparisons can use {@link #asLong()} when this is
+   * {@code true}, avoiding {@link BigInteger} operations.
+   *
+   * @return {@code true} if the value fits in a {@code long}, or {@code false}
+   *         otherwise
+   */
+  boolean isLongExact();
+
+  /**
+   * Get this item's value as a {@code long}.
+   *
+   * @return the value
+   * @throws ArithmeticException
+   *           if the value does not fit in a {@code long}
+   * @see #isLongExact()
+   */
+  long asLong();
 }
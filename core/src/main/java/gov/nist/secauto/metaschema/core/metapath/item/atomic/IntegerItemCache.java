@@ -0,0 +1,97 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.metapath.item.atomic;
+
+import java.math.BigInteger;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Provides shared instances of integer items for small values, such as
+ * positions, counts, and cardinalities, which are produced frequently during
+ * Metapath evaluation.
+ * <p>
+ * Negative values are cached as plain integer items, zero as a non-negative
+ * integer item, and positive values as positive integer items, matching the
+ * items created by {@link IIntegerItem#valueOf(BigInteger)}.
+ */
+final class IntegerItemCache {
+  private static final int MIN_VALUE = -128;
+  private static final int MAX_VALUE = 1024;
+  @NonNull
+  private static final IIntegerItem[] CACHE = newCache();
+
+  @NonNull
+  private static IIntegerItem[] newCache() {
+    IIntegerItem[] retval = new IIntegerItem[MAX_VALUE - MIN_VALUE + 1];
+    for (int value = MIN_VALUE; value <= MAX_VALUE; value++) {
+      BigInteger bigInteger = BigInteger.valueOf(value);
+      assert bigInteger != null;
+
+      IIntegerItem item;
+      if (value < 0) {
+        item = new IntegerItemImpl(bigInteger);
+      } else if (value == 0) {
+        item = new NonNegativeIntegerItemImpl(bigInteger);
+      } else {
+        item = new PositiveIntegerItemImpl(bigInteger);
+      }
+      retval[value - MIN_VALUE] = item;
+    }
+    return retval;
+  }
+
+  private IntegerItemCache() {
+    // disable construction
+  }
+
+  /**
+   * Get the shared item for the provided value, if the value is cached.
+   *
+   * @param value
+   *          the integer value
+   * @return the shared item, or {@code null} if the value is not cached
+   */
+  @Nullable
+  static IIntegerItem lookup(long value) {
+    return value >= MIN_VALUE && value <= MAX_VALUE ? CACHE[(int) value - MIN_VALUE] : null;
+  }
+
+  /**
+   * Get the shared item for the provided value, if the value is cached.
+   *
+   * @param value
+   *          the integer value
+   * @return the shared item, or {@code null} if the value is not cached
+   */
+  @Nullable
+  static IIntegerItem lookup(@NonNull BigInteger value) {
+    // values outside the cache range are rejected without any arithmetic
+    return value.bitLength() < Long.SIZE ? lookup(value.longValue()) : null;
+  }
+}
@@ -34,6 +34,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 abstract class AbstractModelInstanceNodeItem<D extends IFlagContainer, I extends INamedInstance>
     extends AbstractInstanceNodeItem<D, I, IAssemblyNodeItem>
     implements IModelNodeItem<D, I> {
+  private volatile String metapath;
 
   public AbstractModelInstanceNodeItem(
       @NonNull I instance,
@@ -41,4 +42,14 @@ abstract class AbstractModelInstanceNodeItem<D extends IFlagContainer, I extends
     super(instance, parent);
   }
 
+  @Override
+  public String getMetapath() {
+    // cache the path, since it is the prefix for the paths of all descendants
+    String retval = metapath;
+    if (retval == null) {
+      retval = IModelNodeItem.super.getMetapath();
+      metapath = retval;
+    }
+    return retval;
+  }
 }
@@ -26,8 +26,10 @@
 
 package gov.nist.secauto.metaschema.core.metapath.item.node;
 
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IFeatureFlagContainerItem.FlagContainer;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IFeatureModelContainerItem.ModelContainer;
+import gov.nist.secauto.metaschema.core.model.IFieldInstance;
 import gov.nist.secauto.metaschema.core.model.IFlagDefinition;
 import gov.nist.secauto.metaschema.core.model.IFlagInstance;
 import gov.nist.secauto.metaschema.core.model.IModule;
@@ -45,11 +47,15 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 final class DefaultNodeItemFactory
     extends AbstractNodeItemFactory {
   @NonNull
-  static final DefaultNodeItemFactory SINGLETON = new DefaultNodeItemFactory();
+  static final DefaultNodeItemFactory SINGLETON = new DefaultNodeItemFactory(null);
+
+  @Nullable
+  private final ValueInterner interner;
 
   /**
    * Get the singleton instance of this node factory.
@@ -61,8 +67,38 @@ final class DefaultNodeItemFactory
     return SINGLETON;
   }
 
-  private DefaultNodeItemFactory() {
-    // prevent construction
+  /**
+   * Get a node factory whose flag and field items share atomic items for equal
+   * values using the provided table.
+   *
+   * @param interner
+   *          the table used to share atomic items
+   * @return the node factory instance
+   */
+  @NonNull
+  public static DefaultNodeItemFactory newInstance(@NonNull ValueInterner interner) {
+    return new DefaultNodeItemFactory(interner);
+  }
+
+  private DefaultNodeItemFactory(@Nullable ValueInterner interner) {
+    this.interner = interner;
+  }
+
+  @Override
+  public IFlagNodeItem newFlagNodeItem(
+      IFlagInstance instance,
+      IModelNodeItem<?, ?> parent,
+      Object value) {
+    return new FlagInstanceNodeItemImpl(instance, parent, value, interner);
+  }
+
+  @Override
+  public IFieldNodeItem newFieldNodeItem(
+      IFieldInstance instance,
+      IAssemblyNodeItem parent,
+      int position,
+      Object value) {
+    return new FieldInstanceNodeItemImpl(instance, parent, position, value, this, interner);
   }
 
   @Override
@@ -26,12 +26,14 @@
 
 package gov.nist.secauto.metaschema.core.metapath.item.node;
 
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
 import gov.nist.secauto.metaschema.core.model.IFieldDefinition;
 import gov.nist.secauto.metaschema.core.model.IFieldInstance;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import nl.talsmasoftware.lazy4j.Lazy;
 
 /**
@@ -65,11 +67,21 @@ class FieldInstanceNodeItemImpl
       int position,
       @NonNull Object value,
       @NonNull INodeItemGenerator generator) {
+    this(instance, parent, position, value, generator, null);
+  }
+
+  public FieldInstanceNodeItemImpl(
+      @NonNull IFieldInstance instance,
+      @NonNull IAssemblyNodeItem parent,
+      int position,
+      @NonNull Object value,
+      @NonNull INodeItemGenerator generator,
+      @Nullable ValueInterner interner) {
     super(instance, parent);
     this.model = ObjectUtils.notNull(Lazy.lazy(generator.newDataModelSupplier(this)));
     this.position = position;
     this.value = value;
-    this.atomicItem = ObjectUtils.notNull(Lazy.lazy(this::newAtomicItem));
+    this.atomicItem = ObjectUtils.notNull(Lazy.lazy(() -> newAtomicItem(interner)));
   }
 
   @SuppressWarnings("null")
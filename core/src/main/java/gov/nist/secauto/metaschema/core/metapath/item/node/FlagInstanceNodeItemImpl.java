@@ -26,11 +26,13 @@
 
 package gov.nist.secauto.metaschema.core.metapath.item.node;
 
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
 import gov.nist.secauto.metaschema.core.model.IFlagInstance;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import nl.talsmasoftware.lazy4j.Lazy;
 
 /**
@@ -54,9 +56,17 @@ class FlagInstanceNodeItemImpl
       @NonNull IFlagInstance instance,
       @NonNull IModelNodeItem<?, ?> parent,
       @NonNull Object value) {
+    this(instance, parent, value, null);
+  }
+
+  public FlagInstanceNodeItemImpl(
+      @NonNull IFlagInstance instance,
+      @NonNull IModelNodeItem<?, ?> parent,
+      @NonNull Object value,
+      @Nullable ValueInterner interner) {
     super(instance, parent);
     this.value = value;
-    this.atomicItem = ObjectUtils.notNull(Lazy.lazy(() -> newAtomicItem()));
+    this.atomicItem = ObjectUtils.notNull(Lazy.lazy(() -> newAtomicItem(interner)));
   }
 
   @Override
@@ -26,6 +26,7 @@
 
 package gov.nist.secauto.metaschema.core.metapath.item.node;
 
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
 import gov.nist.secauto.metaschema.core.metapath.item.IAtomicValuedItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
 import gov.nist.secauto.metaschema.core.model.IValuedDefinition;
@@ -44,11 +45,26 @@ interface IFeatureNullableAtomicValuedItem
 
   @Nullable
   default IAnyAtomicItem newAtomicItem() {
+    return newAtomicItem(null);
+  }
+
+  /**
+   * Create the atomic item for this node's value.
+   *
+   * @param interner
+   *          the table used to share items between equal values, or {@code null}
+   *          if items are not shared
+   * @return the atomic item, or {@code null} if this node has no value
+   */
+  @Nullable
+  default IAnyAtomicItem newAtomicItem(@Nullable ValueInterner interner) {
     Object atomicValue = getAtomicValue();
     IAnyAtomicItem retval = null;
     if (atomicValue != null) {
       IValuedDefinition def = getDefinition();
-      retval = def.getJavaTypeAdapter().newItem(atomicValue);
+      retval = interner == null
+          ? def.getJavaTypeAdapter().newItem(atomicValue)
+          : interner.newItem(def.getJavaTypeAdapter(), atomicValue);
     }
     return retval;
   }
@@ -32,7 +32,9 @@ import gov.nist.secauto.metaschema.core.metapath.item.IItem;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.net.URI;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -120,19 +122,27 @@ public interface INodeItem extends IItem, IPathSegment, INodeItemVisitable {
 
   /**
    * Get the path for this node item as a Metapath.
+   * <p>
+   * The path is built by appending this node's segment to the path of its parent,
+   * allowing implementations to reuse a parent's cached path.
    *
    * @return the Metapath
    */
   @NonNull
   default String getMetapath() {
-    return toPath(IPathFormatter.METAPATH_PATH_FORMATER);
+    INodeItem parent = getParentNodeItem();
+    String segment = format(IPathFormatter.METAPATH_PATH_FORMATER);
+    return parent == null ? segment : parent.getMetapath() + "/" + segment;
   }
 
   @Override
   default Stream<? extends INodeItem> getPathStream() {
-    INodeItem parent = getParentNodeItem();
-    return ObjectUtils.notNull(
-        parent == null ? Stream.of(this) : Stream.concat(getParentNodeItem().getPathStream(), Stream.of(this)));
+    // collect the ancestors iteratively, avoiding a chain of nested streams
+    Deque<INodeItem> path = new ArrayDeque<>();
+    for (INodeItem item = this; item != null; item = item.getParentNodeItem()) {
+      path.addFirst(item);
+    }
+    return ObjectUtils.notNull(path.stream());
   }
 
   /**
@@ -26,6 +26,7 @@
 
 package gov.nist.secauto.metaschema.core.metapath.item.node;
 
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
 import gov.nist.secauto.metaschema.core.metapath.MetapathExpression;
 import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
 import gov.nist.secauto.metaschema.core.model.IAssemblyInstance;
@@ -59,6 +60,20 @@ public interface INodeItemFactory {
     return DefaultNodeItemFactory.instance();
   }
 
+  /**
+   * Get a node factory that shares atomic items between flag and field nodes with
+   * equal values, using the provided deduplication table.
+   *
+   * @param interner
+   *          the table used to share atomic items, which is typically the same
+   *          table used when loading the document's values
+   * @return the node factory instance
+   */
+  @NonNull
+  static INodeItemFactory newInstance(@NonNull ValueInterner interner) {
+    return DefaultNodeItemFactory.newInstance(interner);
+  }
+
   /**
    * Create a new document node item for the provided {@code definition}.
    *
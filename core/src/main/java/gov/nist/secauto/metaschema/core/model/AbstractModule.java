@@ -55,6 +55,8 @@ public abstract class AbstractModule
 
   @NonNull
   private final List<? extends IModule> importedModules;
+  @NonNull
+  private final DerivedValueCache derivedValues = new DerivedValueCache();
   private Map<String, IFlagDefinition> exportedFlagDefinitions;
   private Map<String, IFieldDefinition> exportedFieldDefinitions;
   private Map<String, IAssemblyDefinition> exportedAssemblyDefinitions;
@@ -77,6 +79,12 @@ public abstract class AbstractModule
     return importedModules;
   }
 
+  @Override
+  @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "the cache is intended to be shared")
+  public DerivedValueCache getDerivedValues() {
+    return derivedValues;
+  }
+
   private Map<String, ? extends IModule> getImportedModulesByShortName() {
     return importedModules.stream().collect(Collectors.toMap(IModule::getShortName, Function.identity()));
   }
@@ -0,0 +1,398 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model;
+
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A precomputed graph of the definitions reachable from a set of root assembly
+ * definitions.
+ * <p>
+ * The graph is built using a single traversal of the model. For each reachable
+ * definition, it records how often the definition is referenced, how it is used
+ * in choices, which definitions it references, and if it is part of a recursive
+ * cycle of references. These can then be queried without walking the model
+ * again.
+ * <p>
+ * The graph for a module's exported root definitions is computed once and
+ * cached with the module using {@link #of(IModule)}.
+ */
+public final class DefinitionGraph {
+  @NonNull
+  private final List<IAssemblyDefinition> roots;
+  @NonNull
+  private final Map<IDefinition, Node> nodes;
+
+  /**
+   * Get the cached graph of the definitions reachable from the provided module's
+   * exported root assembly definitions, computing it if needed.
+   *
+   * @param module
+   *          the module to get the graph for
+   * @return the graph
+   */
+  @NonNull
+  public static DefinitionGraph of(@NonNull IModule module) {
+    return module.getDerivedValues().computeIfAbsent(
+        DefinitionGraph.class,
+        () -> build(ObjectUtils.notNull(module.getExportedRootAssemblyDefinitions())));
+  }
+
+  /**
+   * Build a new graph of the definitions reachable from the provided root
+   * definitions.
+   * <p>
+   * Unlike {@link #of(IModule)}, the result is not cached.
+   *
+   * @param roots
+   *          the root definitions to start from
+   * @return the graph
+   */
+  @NonNull
+  public static DefinitionGraph build(@NonNull Collection<? extends IAssemblyDefinition> roots) {
+    return new DefinitionGraph(roots);
+  }
+
+  private DefinitionGraph(@NonNull Collection<? extends IAssemblyDefinition> roots) {
+    this.roots = CollectionUtil.unmodifiableList(new ArrayList<>(roots));
+
+    Map<IDefinition, Node> nodes = new LinkedHashMap<>(); // NOPMD - intentional
+    for (IAssemblyDefinition root : roots) {
+      assert root != null;
+      Node node = nodes.computeIfAbsent(root, Node::new);
+      node.root = true;
+      node.referenceCount++;
+
+      // roots are always walked, even if they have been reached from another root
+      walkDefinition(root, nodes);
+    }
+    this.nodes = CollectionUtil.unmodifiableMap(nodes);
+
+    new RecursionFinder().find();
+  }
+
+  private static void walkDefinition(@NonNull IDefinition definition, @NonNull Map<IDefinition, Node> nodes) {
+    Node node = ObjectUtils.notNull(nodes.get(definition));
+    if (definition instanceof IFlagContainer) {
+      for (IFlagInstance instance : ((IFlagContainer) definition).getFlagInstances()) {
+        handleInstance(node, ObjectUtils.notNull(instance), nodes);
+      }
+    }
+    if (definition instanceof IAssemblyDefinition) {
+      walkModelInstances(node, ObjectUtils.notNull(((IAssemblyDefinition) definition).getModelInstances()), nodes);
+    }
+  }
+
+  private static void walkModelInstances(
+      @NonNull Node node,
+      @NonNull Collection<? extends IModelInstance> instances,
+      @NonNull Map<IDefinition, Node> nodes) {
+    for (IModelInstance instance : instances) {
+      if (instance instanceof INamedInstance) {
+        handleInstance(node, (INamedInstance) instance, nodes);
+      } else if (instance instanceof IChoiceInstance) {
+        walkModelInstances(node, ObjectUtils.notNull(((IChoiceInstance) instance).getModelInstances()), nodes);
+      }
+    }
+  }
+
+  private static void handleInstance(
+      @NonNull Node parent,
+      @NonNull INamedInstance instance,
+      @NonNull Map<IDefinition, Node> nodes) {
+    IDefinition definition = instance.getDefinition();
+    Node node = nodes.get(definition);
+    boolean walk = node == null;
+    if (walk) {
+      node = new Node(definition);
+      nodes.put(definition, node);
+    }
+
+    node.referenceCount++;
+    if (instance.getParentContainer() instanceof IChoiceInstance) {
+      node.usedAsChoice = true;
+    }
+    IDefinition containingDefinition = instance.getContainingDefinition();
+    if (containingDefinition instanceof IAssemblyDefinition
+        && !((IAssemblyDefinition) containingDefinition).getChoiceInstances().isEmpty()) {
+      node.choiceSibling = true;
+    }
+    parent.references.add(definition);
+
+    if (walk) {
+      walkDefinition(definition, nodes);
+    }
+  }
+
+  /**
+   * Get the root definitions the graph was built from.
+   *
+   * @return the root definitions
+   */
+  @NonNull
+  public List<IAssemblyDefinition> getRoots() {
+    return roots;
+  }
+
+  /**
+   * Get the nodes for all reachable definitions, in the order the definitions
+   * were first reached.
+   *
+   * @return the nodes
+   */
+  @NonNull
+  public Collection<Node> getNodes() {
+    return ObjectUtils.notNull(nodes.values());
+  }
+
+  /**
+   * Get all reachable definitions, in the order they were first reached.
+   *
+   * @return the definitions
+   */
+  @NonNull
+  public Set<IDefinition> getDefinitions() {
+    return ObjectUtils.notNull(nodes.keySet());
+  }
+
+  /**
+   * Get the node for the provided definition.
+   *
+   * @param definition
+   *          the definition to get the node for
+   * @return the node, or {@code null} if the definition is not reachable from the
+   *         roots
+   */
+  @Nullable
+  public Node getNode(@NonNull IDefinition definition) {
+    return nodes.get(definition);
+  }
+
+  /**
+   * Determine if the provided definition is reachable from the roots.
+   *
+   * @param definition
+   *          the definition to check
+   * @return {@code true} if the definition is reachable, or {@code false}
+   *         otherwise
+   */
+  public boolean isReachable(@NonNull IDefinition definition) {
+    return nodes.containsKey(definition);
+  }
+
+  /**
+   * Determine if the reference from one definition to another is part of a cycle
+   * of references, which must be broken when recursively processing the graph.
+   *
+   * @param from
+   *          the referencing definition
+   * @param to
+   *          the referenced definition
+   * @return {@code true} if the reference is recursive, or {@code false}
+   *         otherwise
+   */
+  public boolean isRecursiveReference(@NonNull IDefinition from, @NonNull IDefinition to) {
+    Node fromNode = nodes.get(from);
+    Node toNode = nodes.get(to);
+    return fromNode != null && toNode != null
+        && fromNode.recursive
+        && fromNode.references.contains(to)
+        && fromNode.component == toNode.component;
+  }
+
+  /**
+   * Finds the definitions that take part in a cycle of references, using Tarjan's
+   * strongly connected components algorithm.
+   */
+  private final class RecursionFinder {
+    @NonNull
+    private final Map<Node, Integer> indexes = new HashMap<>();
+    @NonNull
+    private final Map<Node, Integer> lowLinks = new HashMap<>();
+    @NonNull
+    private final Deque<Node> stack = new LinkedList<>();
+    @NonNull
+    private final Set<Node> onStack = new LinkedHashSet<>();
+
+    public void find() {
+      for (Node node : nodes.values()) {
+        if (!indexes.containsKey(node)) {
+          connect(ObjectUtils.notNull(node));
+        }
+      }
+    }
+
+    private void connect(@NonNull Node node) {
+      int index = indexes.size();
+      indexes.put(node, index);
+      lowLinks.put(node, index);
+      stack.push(node);
+      onStack.add(node);
+
+      for (IDefinition reference : node.references) {
+        Node child = ObjectUtils.notNull(nodes.get(reference));
+        if (!indexes.containsKey(child)) {
+          connect(child);
+          lowLinks.put(node, Math.min(lowLinks.get(node), lowLinks.get(child)));
+        } else if (onStack.contains(child)) {
+          lowLinks.put(node, Math.min(lowLinks.get(node), indexes.get(child)));
+        }
+      }
+
+      if (lowLinks.get(node).equals(indexes.get(node))) {
+        List<Node> component = new ArrayList<>();
+        Node member;
+        do {
+          member = stack.pop();
+          onStack.remove(member);
+          component.add(member);
+        } while (member != node);
+
+        boolean recursive = component.size() > 1 || node.references.contains(node.definition);
+        for (Node componentNode : component) {
+          componentNode.recursive = recursive;
+          componentNode.component = index;
+        }
+      }
+    }
+  }
+
+  /**
+   * The information recorded for a reachable definition.
+   */
+  public static final class Node {
+    @NonNull
+    private final IDefinition definition;
+    @NonNull
+    private final Set<IDefinition> references = new LinkedHashSet<>();
+    private int referenceCount; // 0
+    private boolean root; // false
+    private boolean usedAsChoice; // false
+    private boolean choiceSibling; // false
+    private boolean recursive; // false
+    private int component; // 0
+
+    private Node(@NonNull IDefinition definition) {
+      this.definition = definition;
+    }
+
+    /**
+     * Get the definition.
+     *
+     * @return the definition
+     */
+    @NonNull
+    public IDefinition getDefinition() {
+      return definition;
+    }
+
+    /**
+     * Get the number of times the definition is referenced by an instance, or used
+     * as a root.
+     *
+     * @return the reference count
+     */
+    public int getReferenceCount() {
+      return referenceCount;
+    }
+
+    /**
+     * Determine if the definition is one of the graph's roots.
+     *
+     * @return {@code true} if the definition is a root, or {@code false} otherwise
+     */
+    public boolean isRoot() {
+      return root;
+    }
+
+    /**
+     * Determine if the definition is defined inline.
+     *
+     * @return {@code true} if the definition is inline, or {@code false} if it is
+     *         global
+     */
+    public boolean isInline() {
+      return definition.isInline();
+    }
+
+    /**
+     * Determine if the definition is referenced by an instance in a choice.
+     *
+     * @return {@code true} if the definition is used in a choice, or {@code false}
+     *         otherwise
+     */
+    public boolean isUsedAsChoice() {
+      return usedAsChoice;
+    }
+
+    /**
+     * Determine if the definition is referenced by an instance of an assembly that
+     * contains a choice.
+     *
+     * @return {@code true} if the definition is a sibling of a choice, or
+     *         {@code false} otherwise
+     */
+    public boolean isChoiceSibling() {
+      return choiceSibling;
+    }
+
+    /**
+     * Determine if the definition directly or indirectly references itself.
+     *
+     * @return {@code true} if the definition is recursive, or {@code false}
+     *         otherwise
+     */
+    public boolean isRecursive() {
+      return recursive;
+    }
+
+    /**
+     * Get the definitions directly referenced by instances of this definition.
+     *
+     * @return the referenced definitions
+     */
+    @NonNull
+    public Set<IDefinition> getReferencedDefinitions() {
+      return CollectionUtil.unmodifiableSet(references);
+    }
+  }
+}
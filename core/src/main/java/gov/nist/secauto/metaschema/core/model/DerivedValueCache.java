@@ -0,0 +1,133 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model;
+
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * A thread-safe cache of values derived from a module, such as precomputed
+ * tables of its definitions.
+ * <p>
+ * The cache is owned by its module using {@link IModule#getDerivedValues()}. A
+ * cached value may reference the module without keeping the module reachable,
+ * and is released along with the module.
+ */
+public final class DerivedValueCache {
+  @NonNull
+  private final Map<Object, Object> values = new ConcurrentHashMap<>();
+
+  /**
+   * Get the value of the provided type, computing and caching it if needed.
+   *
+   * @param <T>
+   *          the value's type
+   * @param <E>
+   *          the exception type that can be thrown when computing the value
+   * @param type
+   *          the value's type, which identifies the value
+   * @param supplier
+   *          the supplier used to compute the value
+   * @return the cached value
+   * @throws E
+   *           if an error occurred while computing the value
+   * @see #computeIfAbsent(Class, Object, IValueSupplier)
+   */
+  @NonNull
+  public <T, E extends Exception> T computeIfAbsent(
+      @NonNull Class<T> type,
+      @NonNull IValueSupplier<T, E> supplier) throws E {
+    return computeIfAbsent(type, type, supplier);
+  }
+
+  /**
+   * Get the value of the provided type for the provided key, computing and
+   * caching it if needed.
+   * <p>
+   * The value is computed without holding a lock, so computing it may use this
+   * cache. If multiple threads compute the same value at the same time, the first
+   * value cached is returned to all of them.
+   *
+   * @param <T>
+   *          the value's type
+   * @param <E>
+   *          the exception type that can be thrown when computing the value
+   * @param type
+   *          the value's type
+   * @param key
+   *          the key identifying the value among values of the same type
+   * @param supplier
+   *          the supplier used to compute the value
+   * @return the cached value
+   * @throws E
+   *           if an error occurred while computing the value
+   */
+  @NonNull
+  public <T, E extends Exception> T computeIfAbsent(
+      @NonNull Class<T> type,
+      @NonNull Object key,
+      @NonNull IValueSupplier<T, E> supplier) throws E {
+    Object cacheKey = List.of(type, key);
+    Object retval = values.get(cacheKey);
+    if (retval == null) {
+      T computed = supplier.get();
+      retval = values.putIfAbsent(cacheKey, computed);
+      if (retval == null) {
+        retval = computed;
+      }
+    }
+    return ObjectUtils.notNull(type.cast(retval));
+  }
+
+  /**
+   * Computes a value to cache.
+   *
+   * @param <T>
+   *          the value's type
+   * @param <E>
+   *          the exception type that can be thrown when computing the value
+   */
+  @FunctionalInterface
+  public interface IValueSupplier<T, E extends Exception> {
+    /**
+     * Compute the value.
+     *
+     * @return the value
+     * @throws E
+     *           if an error occurred while computing the value
+     */
+    @SuppressFBWarnings("THROWS_METHOD_THROWS_CLAUSE_BASIC_EXCEPTION")
+    @NonNull
+    T get() throws E;
+  }
+}
@@ -104,6 +104,15 @@ public interface IModule {
    */
   URI getLocation();
 
+  /**
+   * Get the cache of values derived from this Metaschema module, such as
+   * precomputed tables of its definitions.
+   *
+   * @return the cache
+   */
+  @NonNull
+  DerivedValueCache getDerivedValues();
+
   /**
    * Get the long name for the Metaschema module.
    *
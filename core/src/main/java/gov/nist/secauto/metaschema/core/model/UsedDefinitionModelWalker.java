@@ -29,7 +29,7 @@ package gov.nist.secauto.metaschema.core.model;
 import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -71,6 +71,10 @@ public class UsedDefinitionModelWalker
    * Collect the globally defined Metaschema definitions from the provided
    * Metaschema modules, and any Metaschema modules imported directly or
    * indirectly by these modules.
+   * <p>
+   * The definitions reachable from each module's exported roots are provided by
+   * the module's cached {@link DefinitionGraph}. Only local roots that are not
+   * exported are walked.
    *
    * @param modules
    *          the Metaschema modules to analyze
@@ -79,21 +83,22 @@ public class UsedDefinitionModelWalker
   @NonNull
   public static Collection<? extends IDefinition> collectUsedDefinitionsFromModule(
       @NonNull Collection<? extends IModule> modules) {
-    Set<IAssemblyDefinition> definitions = new HashSet<>();
+    Set<IDefinition> retval = new LinkedHashSet<>();
+    Set<IAssemblyDefinition> localRoots = new LinkedHashSet<>();
     for (IModule module : modules) {
+      // get roots from exported
+      DefinitionGraph graph = DefinitionGraph.of(module);
+      retval.addAll(graph.getDefinitions());
+
       // get local roots in case they are scope=local
-      for (IAssemblyDefinition rootDef : module.getRootAssemblyDefinitions()) {
-        definitions.add(rootDef);
-      }
+      localRoots.addAll(module.getRootAssemblyDefinitions());
+    }
 
-      // get roots from exported
-      for (IAssemblyDefinition assembly : module.getExportedAssemblyDefinitions()) {
-        if (assembly.isRoot()) {
-          definitions.add(assembly);
-        }
-      }
+    localRoots.removeAll(retval);
+    if (!localRoots.isEmpty()) {
+      retval.addAll(collectUsedDefinitions(localRoots));
     }
-    return collectUsedDefinitions(definitions);
+    return retval;
   }
 
   /**
@@ -0,0 +1,134 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * A precomputed lookup table merging the allowed values of a sequence of
+ * {@link IAllowedValuesConstraint} that apply to the same target.
+ * <p>
+ * Each allowed value is mapped to the set of constraints that allow it, so a
+ * value can be classified against all of the constraints using a single hash
+ * lookup.
+ */
+final class AllowedValuesTable {
+  @NonNull
+  private static final BitSet NO_MATCHES = new BitSet();
+
+  @NonNull
+  private final List<IAllowedValuesConstraint> constraints;
+  @NonNull
+  private final Map<String, BitSet> valueToConstraints;
+  /**
+   * The indexes of the constraints that cannot be extended.
+   */
+  @NonNull
+  private final BitSet noneConstraints;
+
+  /**
+   * Construct a new table for the provided constraints.
+   *
+   * @param constraints
+   *          the allowed values constraints, in the order they apply
+   */
+  @SuppressWarnings("PMD.UseConcurrentHashMap") // not shared during construction
+  AllowedValuesTable(@NonNull List<? extends IAllowedValuesConstraint> constraints) {
+    this.constraints = CollectionUtil.unmodifiableList(new ArrayList<>(constraints));
+
+    Map<String, BitSet> values = new HashMap<>();
+    BitSet none = new BitSet();
+    int index = 0;
+    for (IAllowedValuesConstraint constraint : constraints) {
+      for (String value : constraint.getAllowedValues().keySet()) {
+        values.computeIfAbsent(value, key -> new BitSet()).set(index);
+      }
+      if (IAllowedValuesConstraint.Extensible.NONE.equals(constraint.getExtensible())) {
+        none.set(index);
+      }
+      index++;
+    }
+    this.valueToConstraints = values;
+    this.noneConstraints = none;
+  }
+
+  /**
+   * Get the constraints merged into this table.
+   *
+   * @return the constraints
+   */
+  @NonNull
+  public List<IAllowedValuesConstraint> getConstraints() {
+    return constraints;
+  }
+
+  /**
+   * Determine the constraints that are not satisfied by the provided value.
+   * <p>
+   * A value is satisfied if at least one constraint allows it, and any constraint
+   * that cannot be extended also allows it. If a constraint that cannot be
+   * extended does not allow the value, then only the first such constraint is
+   * reported, since no other constraint can satisfy it.
+   *
+   * @param value
+   *          the value to check
+   * @return an empty list if the value is satisfied, or the constraints that do
+   *         not allow the value
+   */
+  @NonNull
+  public List<IAllowedValuesConstraint> getFailedConstraints(@NonNull String value) {
+    BitSet matches = valueToConstraints.getOrDefault(value, NO_MATCHES);
+
+    int failedNone = -1;
+    for (int index = noneConstraints.nextSetBit(0); index >= 0; index = noneConstraints.nextSetBit(index + 1)) {
+      if (!matches.get(index)) {
+        failedNone = index;
+        break;
+      }
+    }
+
+    List<IAllowedValuesConstraint> retval;
+    if (failedNone >= 0) {
+      // hard failure, since no other values can satisfy this constraint
+      retval = CollectionUtil.singletonList(ObjectUtils.notNull(constraints.get(failedNone)));
+    } else if (matches.isEmpty()) {
+      retval = new ArrayList<>(constraints);
+    } else {
+      retval = CollectionUtil.emptyList();
+    }
+    return retval;
+  }
+}
@@ -44,7 +44,6 @@ import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
 import gov.nist.secauto.metaschema.core.model.IFieldDefinition;
 import gov.nist.secauto.metaschema.core.model.IFlagDefinition;
-import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -55,7 +54,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Pattern;
+import java.util.function.Predicate;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -74,6 +73,14 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
   private final Map<String, IIndex> indexNameToIndexMap = new ConcurrentHashMap<>();
   @NonNull
   private final Map<String, List<KeyRef>> indexNameToKeyRefMap = new ConcurrentHashMap<>();
+  /**
+   * Merged allowed value tables, keyed by the sequence of constraints applied to
+   * a target. The same sequence is typically applied to every value of a
+   * definition, so the table is built once and reused.
+   */
+  @NonNull
+  private final Map<List<IAllowedValuesConstraint>, AllowedValuesTable> allowedValuesTables
+      = new ConcurrentHashMap<>();
   @NonNull
   private final DynamicContext metapathContext;
   @NonNull
@@ -96,6 +103,21 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
     return metapathContext;
   }
 
+  /**
+   * Determine if the provided constraint is to be evaluated by this validator.
+   * <p>
+   * Subclasses can override this to skip constraints whose results are already
+   * known, such as when only part of a document is revalidated.
+   *
+   * @param constraint
+   *          the constraint to check
+   * @return {@code true} if the constraint is to be evaluated, or {@code false}
+   *         otherwise
+   */
+  protected boolean isApplicable(@NonNull IConstraint constraint) {
+    return true;
+  }
+
   @Override
   public void validate(@NonNull INodeItem item) {
     item.accept(new Visitor(), null);
@@ -170,11 +192,13 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
   protected void validateHasCardinality(@NonNull List<? extends ICardinalityConstraint> constraints,
       @NonNull IAssemblyNodeItem item) {
     for (ICardinalityConstraint constraint : constraints) {
-      ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
-      try {
-        validateHasCardinality(constraint, item, targets);
-      } catch (MetapathException ex) {
-        rethrowConstraintError(constraint, item, ex);
+      if (isApplicable(constraint)) {
+        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
+        try {
+          validateHasCardinality(constraint, item, targets);
+        } catch (MetapathException ex) {
+          rethrowConstraintError(constraint, item, ex);
+        }
       }
     }
   }
@@ -205,11 +229,13 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
   protected void validateIndex(@NonNull List<? extends IIndexConstraint> constraints,
       @NonNull IAssemblyNodeItem item) {
     for (IIndexConstraint constraint : constraints) {
-      ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
-      try {
-        validateIndex(constraint, item, targets);
-      } catch (MetapathException ex) {
-        rethrowConstraintError(constraint, item, ex);
+      if (isApplicable(constraint)) {
+        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
+        try {
+          validateIndex(constraint, item, targets);
+        } catch (MetapathException ex) {
+          rethrowConstraintError(constraint, item, ex);
+        }
       }
     }
   }
@@ -252,11 +278,13 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
   protected void validateUnique(@NonNull List<? extends IUniqueConstraint> constraints,
       @NonNull IAssemblyNodeItem item) {
     for (IUniqueConstraint constraint : constraints) {
-      ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
-      try {
-        validateUnique(constraint, item, targets);
-      } catch (MetapathException ex) {
-        rethrowConstraintError(constraint, item, ex);
+      if (isApplicable(constraint)) {
+        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
+        try {
+          validateUnique(constraint, item, targets);
+        } catch (MetapathException ex) {
+          rethrowConstraintError(constraint, item, ex);
+        }
       }
     }
   }
@@ -285,11 +313,13 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
       @NonNull IDefinitionNodeItem<?, ?> item) {
 
     for (IMatchesConstraint constraint : constraints) {
-      ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
-      try {
-        validateMatches(constraint, item, targets);
-      } catch (MetapathException ex) {
-        rethrowConstraintError(constraint, item, ex);
+      if (isApplicable(constraint)) {
+        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
+        try {
+          validateMatches(constraint, item, targets);
+        } catch (MetapathException ex) {
+          rethrowConstraintError(constraint, item, ex);
+        }
       }
     }
   }
@@ -302,19 +332,24 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
           if (item.hasValue()) {
             String value = FnData.fnDataItem(item).asString();
 
-            Pattern pattern = constraint.getPattern();
-            if (pattern != null && !pattern.asMatchPredicate().test(value)) {
+            Predicate<String> matchPredicate = constraint.getMatchPredicate();
+            if (matchPredicate != null && !matchPredicate.test(value)) {
               // failed pattern match
               getConstraintValidationHandler().handleMatchPatternViolation(constraint, node, item, value);
             }
 
             IDataTypeAdapter<?> adapter = constraint.getDataType();
-            if (adapter != null) {
+            if (adapter != null && !adapter.isValid(value)) {
+              // only pay for the parse exception when reporting a violation
+              IllegalArgumentException cause;
               try {
                 adapter.parse(value);
+                cause = new IllegalArgumentException(
+                    String.format("Value '%s' is not a valid '%s'", value, adapter.getPreferredName()));
               } catch (IllegalArgumentException ex) {
-                getConstraintValidationHandler().handleMatchDatatypeViolation(constraint, node, item, value, ex);
+                cause = ex;
               }
+              getConstraintValidationHandler().handleMatchDatatypeViolation(constraint, node, item, value, cause);
             }
           }
         });
@@ -325,8 +360,10 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
       @NonNull IDefinitionNodeItem<?, ?> node) {
 
     for (IIndexHasKeyConstraint constraint : constraints) {
-      ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(node, getMetapathContext());
-      validateIndexHasKey(constraint, node, targets);
+      if (isApplicable(constraint)) {
+        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(node, getMetapathContext());
+        validateIndexHasKey(constraint, node, targets);
+      }
     }
   }
 
@@ -349,8 +386,10 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
   protected void validateExpect(@NonNull List<? extends IExpectConstraint> constraints,
       @NonNull IDefinitionNodeItem<?, ?> item) {
     for (IExpectConstraint constraint : constraints) {
-      ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
-      validateExpect(constraint, item, targets);
+      if (isApplicable(constraint)) {
+        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
+        validateExpect(constraint, item, targets);
+      }
     }
   }
 
@@ -377,8 +416,10 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
   protected void validateAllowedValues(@NonNull List<? extends IAllowedValuesConstraint> constraints,
       @NonNull IDefinitionNodeItem<?, ?> item) {
     for (IAllowedValuesConstraint constraint : constraints) {
-      ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
-      validateAllowedValues(constraint, targets);
+      if (isApplicable(constraint)) {
+        ISequence<? extends IDefinitionNodeItem<?, ?>> targets = constraint.matchTargets(item, getMetapathContext());
+        validateAllowedValues(constraint, targets);
+      }
     }
   }
 
@@ -442,6 +483,28 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
     valueStatus.registerAllowedValue(allowedValues);
   }
 
+  /**
+   * Get the merged allowed value table for the provided sequence of constraints,
+   * building it the first time the sequence is seen.
+   *
+   * @param constraints
+   *          the constraints applied to a target, in the order they were applied
+   * @return the merged table
+   */
+  @NonNull
+  private AllowedValuesTable getAllowedValuesTable(@NonNull List<IAllowedValuesConstraint> constraints) {
+    AllowedValuesTable retval = allowedValuesTables.get(constraints);
+    if (retval == null) {
+      retval = new AllowedValuesTable(constraints);
+      // key on the table's copy, since the provided list is owned by the caller
+      AllowedValuesTable existing = allowedValuesTables.putIfAbsent(retval.getConstraints(), retval);
+      if (existing != null) {
+        retval = existing;
+      }
+    }
+    return retval;
+  }
+
   protected void handleAllowedValues(@NonNull INodeItem targetItem) {
     ValueStatus valueStatus = valueMap.remove(targetItem);
     if (valueStatus != null) {
@@ -481,7 +544,7 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
 
   private class ValueStatus {
     @NonNull
-    private final List<IAllowedValuesConstraint> constraints = new LinkedList<>();
+    private final List<IAllowedValuesConstraint> constraints = new ArrayList<>();
     @NonNull
     private final String value;
     @NonNull
@@ -523,24 +586,12 @@ public class DefaultConstraintValidator implements IConstraintValidator { // NOP
 
     public void validate() {
       if (!constraints.isEmpty()) {
-        boolean match = false;
-        List<IAllowedValuesConstraint> failedConstraints = new LinkedList<>();
-        for (IAllowedValuesConstraint allowedValues : constraints) {
-          IAllowedValue matchingValue = allowedValues.getAllowedValue(value);
-          if (matchingValue != null) {
-            match = true;
-          } else if (IAllowedValuesConstraint.Extensible.NONE.equals(allowedValues.getExtensible())) {
-            // hard failure, since no other values can satisfy this constraint
-            failedConstraints = CollectionUtil.singletonList(allowedValues);
-            match = false;
-            break;
-          } else {
-            failedConstraints.add(allowedValues);
-          } // this constraint passes, but we need to make sure other constraints do as well
-        }
+        // classify the value against all constraints using a single lookup
+        List<IAllowedValuesConstraint> failedConstraints = getAllowedValuesTable(constraints)
+            .getFailedConstraints(value);
 
         // it's not a failure if allow others is true
-        if (!match && !allowOthers) {
+        if (!failedConstraints.isEmpty() && !allowOthers) {
           getConstraintValidationHandler().handleAllowedValuesViolation(failedConstraints, item);
         }
       }
@@ -34,6 +34,7 @@ import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import javax.xml.namespace.QName;
@@ -45,6 +46,7 @@ public final class DefaultMatchesConstraint
     extends AbstractConstraint
     implements IMatchesConstraint {
   private final Pattern pattern;
+  private final Predicate<String> matchPredicate;
   private final IDataTypeAdapter<?> dataType;
 
   /**
@@ -91,6 +93,7 @@ public final class DefaultMatchesConstraint
       throw new IllegalArgumentException("a pattern or data type must be provided");
     }
     this.pattern = pattern;
+    this.matchPredicate = pattern == null ? null : pattern.asMatchPredicate();
     this.dataType = dataType;
   }
 
@@ -99,6 +102,11 @@ public final class DefaultMatchesConstraint
     return pattern;
   }
 
+  @Override
+  public Predicate<String> getMatchPredicate() {
+    return matchPredicate;
+  }
+
   @Override
   public IDataTypeAdapter<?> getDataType() {
     return dataType;
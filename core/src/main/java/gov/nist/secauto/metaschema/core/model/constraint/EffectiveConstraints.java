@@ -0,0 +1,223 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import gov.nist.secauto.metaschema.core.metapath.MetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.MetapathExpression.ResultType;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IDefinitionNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IModuleNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItemFactory;
+import gov.nist.secauto.metaschema.core.model.IDefinition;
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.MetaschemaException;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * An immutable table of the external constraints that a set of constraint sets
+ * contribute to the definitions of a module.
+ * <p>
+ * The target Metapath of each targeted constraint is evaluated once when the
+ * table is computed, so the constraints can be applied without re-evaluating
+ * the targets.
+ * <p>
+ * Tables are cached with their module using {@link #of(Set, IModule)}, which
+ * computes a table once per module and set of constraint sets. A table's
+ * constraints are added to the targeted definitions using {@link #apply()},
+ * which adds the constraints of each constraint set to a module only once, no
+ * matter how many tables include that constraint set.
+ */
+public final class EffectiveConstraints {
+  @NonNull
+  private final IModule module;
+  @NonNull
+  private final Set<IConstraintSet> constraintSets;
+  /**
+   * The target of each targeted constraint, grouped by the constraint set
+   * providing the targeted constraint.
+   */
+  @NonNull
+  private final Map<IConstraintSet, Map<ITargetedConstaints, INodeItem>> targets;
+
+  /**
+   * Get the cached table of effective constraints for the provided module,
+   * computing it if needed.
+   *
+   * @param constraintSets
+   *          the constraint sets to apply, which are resolved to include imported
+   *          constraint sets
+   * @param module
+   *          the module to apply the constraints to
+   * @return the table
+   * @throws MetaschemaException
+   *           if a constraint target could not be resolved in the module
+   */
+  @NonNull
+  public static EffectiveConstraints of(
+      @NonNull Set<IConstraintSet> constraintSets,
+      @NonNull IModule module) throws MetaschemaException {
+    Set<IConstraintSet> resolvedConstraintSets = IConstraintSet.resolveConstraintSets(constraintSets);
+    return module.getDerivedValues().computeIfAbsent(
+        EffectiveConstraints.class,
+        resolvedConstraintSets,
+        () -> computeResolved(resolvedConstraintSets, module));
+  }
+
+  /**
+   * Compute a new table of effective constraints for the provided module.
+   * <p>
+   * Unlike {@link #of(Set, IModule)}, the result is not cached.
+   *
+   * @param constraintSets
+   *          the constraint sets to apply, which are resolved to include imported
+   *          constraint sets
+   * @param module
+   *          the module to apply the constraints to
+   * @return the table
+   * @throws MetaschemaException
+   *           if a constraint target could not be resolved in the module
+   */
+  @NonNull
+  public static EffectiveConstraints compute(
+      @NonNull Set<IConstraintSet> constraintSets,
+      @NonNull IModule module) throws MetaschemaException {
+    return computeResolved(IConstraintSet.resolveConstraintSets(constraintSets), module);
+  }
+
+  @NonNull
+  private static EffectiveConstraints computeResolved(
+      @NonNull Set<IConstraintSet> resolvedConstraintSets,
+      @NonNull IModule module) throws MetaschemaException {
+    IModuleNodeItem item = INodeItemFactory.instance().newModuleNodeItem(module);
+
+    Map<IConstraintSet, Map<ITargetedConstaints, INodeItem>> targets = new LinkedHashMap<>(); // NOPMD - intentional
+    for (IConstraintSet constraintSet : resolvedConstraintSets) {
+      Map<ITargetedConstaints, INodeItem> setTargets = new LinkedHashMap<>(); // NOPMD - intentional
+      for (ITargetedConstaints targeted : constraintSet.getTargetedConstraintsForModule(module)
+          .collect(Collectors.toList())) {
+        MetapathExpression targetExpression = targeted.getTargetExpression();
+        INodeItem node = targetExpression.evaluateAs(item, ResultType.NODE);
+        if (node == null) {
+          throw new MetaschemaException(String.format("Target not found for expression '%s' on metaschema '%s'.",
+              targetExpression.getPath(),
+              module.getQName()));
+        } else if (node instanceof IDefinitionNodeItem) {
+          IDefinition nodeDefinition = ((IDefinitionNodeItem<?, ?>) node).getDefinition();
+          IModule nodeModule = nodeDefinition.getContainingModule();
+          if (!module.equals(nodeModule)) {
+            throw new MetaschemaException(
+                String.format("Target definition '%s' in metaschema '%s' is not in the scoped metaschema '%s'.",
+                    nodeDefinition.getName(),
+                    nodeModule.getQName(),
+                    module.getQName()));
+          }
+        }
+        setTargets.put(targeted, node);
+      }
+      targets.put(constraintSet, CollectionUtil.unmodifiableMap(setTargets));
+    }
+
+    return new EffectiveConstraints(
+        module,
+        resolvedConstraintSets,
+        CollectionUtil.unmodifiableMap(targets));
+  }
+
+  private EffectiveConstraints(
+      @NonNull IModule module,
+      @NonNull Set<IConstraintSet> constraintSets,
+      @NonNull Map<IConstraintSet, Map<ITargetedConstaints, INodeItem>> targets) {
+    this.module = module;
+    this.constraintSets = constraintSets;
+    this.targets = targets;
+  }
+
+  /**
+   * Get the module the constraints apply to.
+   *
+   * @return the module
+   */
+  @NonNull
+  public IModule getModule() {
+    return module;
+  }
+
+  /**
+   * Get the resolved constraint sets the constraints are provided by.
+   *
+   * @return the constraint sets
+   */
+  @NonNull
+  public Set<IConstraintSet> getConstraintSets() {
+    return constraintSets;
+  }
+
+  /**
+   * Add the constraints in this table to the targeted definitions.
+   * <p>
+   * The constraints of each constraint set are only added to the module once,
+   * even if this method is called on different tables that include the same
+   * constraint set.
+   */
+  public void apply() {
+    AppliedConstraintSets applied = module.getDerivedValues().computeIfAbsent(
+        AppliedConstraintSets.class,
+        AppliedConstraintSets::new);
+    synchronized (applied) {
+      ConstraintComposingVisitor visitor = new ConstraintComposingVisitor();
+      for (Map.Entry<IConstraintSet, Map<ITargetedConstaints, INodeItem>> setEntry : targets.entrySet()) {
+        if (applied.add(ObjectUtils.notNull(setEntry.getKey()))) {
+          for (Map.Entry<ITargetedConstaints, INodeItem> entry : setEntry.getValue().entrySet()) {
+            entry.getValue().accept(visitor, entry.getKey());
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * The constraint sets that have been applied to a module. Guarded by its own
+   * lock.
+   */
+  private static final class AppliedConstraintSets {
+    @NonNull
+    private final Set<IConstraintSet> constraintSets = new HashSet<>();
+
+    private boolean add(@NonNull IConstraintSet constraintSet) {
+      return constraintSets.add(constraintSet);
+    }
+  }
+}
@@ -26,13 +26,6 @@
 
 package gov.nist.secauto.metaschema.core.model.constraint;
 
-import gov.nist.secauto.metaschema.core.metapath.MetapathExpression;
-import gov.nist.secauto.metaschema.core.metapath.MetapathExpression.ResultType;
-import gov.nist.secauto.metaschema.core.metapath.item.node.IDefinitionNodeItem;
-import gov.nist.secauto.metaschema.core.metapath.item.node.IModuleNodeItem;
-import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
-import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItemFactory;
-import gov.nist.secauto.metaschema.core.model.IDefinition;
 import gov.nist.secauto.metaschema.core.model.IModule;
 import gov.nist.secauto.metaschema.core.model.MetaschemaException;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
@@ -77,35 +70,24 @@ public interface IConstraintSet {
   @NonNull
   Stream<ITargetedConstaints> getTargetedConstraintsForModule(@NonNull IModule module);
 
+  /**
+   * Apply the provided constraint sets to the definitions of the provided module.
+   * <p>
+   * The effective constraints are computed once and cached with the module using
+   * {@link EffectiveConstraints#of(Set, IModule)}. The constraints of each
+   * constraint set are only added to the module's definitions once.
+   *
+   * @param constraintSets
+   *          the constraint sets to apply
+   * @param module
+   *          the module to apply the constraints to
+   * @throws MetaschemaException
+   *           if a constraint target could not be resolved in the module
+   */
   static void applyConstraintSetToModule(
       @NonNull Set<IConstraintSet> constraintSets,
       @NonNull IModule module) throws MetaschemaException {
-    Set<IConstraintSet> resolvedConstraintSets = resolveConstraintSets(constraintSets);
-
-    ConstraintComposingVisitor visitor = new ConstraintComposingVisitor();
-    IModuleNodeItem item = INodeItemFactory.instance().newModuleNodeItem(module);
-
-    for (ITargetedConstaints targeted : getTargetedConstraintsForMetaschema(resolvedConstraintSets, module)) {
-      MetapathExpression targetExpression = targeted.getTargetExpression();
-      INodeItem node = targetExpression.evaluateAs(item, ResultType.NODE);
-      if (node == null) {
-        throw new MetaschemaException(String.format("Target not found for expression '%s' on metaschema '%s'.",
-            targetExpression.getPath(),
-            module.getQName()));
-      } else if (node instanceof IDefinitionNodeItem) {
-        IDefinition nodeDefinition = ((IDefinitionNodeItem<?, ?>) node).getDefinition();
-        IModule nodeModule = nodeDefinition.getContainingModule();
-        if (!module.equals(nodeModule)) {
-          throw new MetaschemaException(
-              String.format("Target definition '%s' in metaschema '%s' is not in the scoped metaschema '%s'.",
-                  nodeDefinition.getName(),
-                  nodeModule.getQName(),
-                  module.getQName()));
-        }
-      }
-      node.accept(visitor, targeted);
-    }
-
+    EffectiveConstraints.of(constraintSets, module).apply();
   }
 
   Collection<IConstraintSet> getImportedConstraintSets();
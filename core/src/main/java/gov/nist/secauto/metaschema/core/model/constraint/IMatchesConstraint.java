@@ -28,8 +28,11 @@ package gov.nist.secauto.metaschema.core.model.constraint;
 
 import gov.nist.secauto.metaschema.core.datatype.IDataTypeAdapter;
 
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
+
 /**
  * Represents a rule requiring the value of a field or flag to match a pattern
  * and/or conform to an identified data type.
@@ -37,5 +40,20 @@ import java.util.regex.Pattern;
 public interface IMatchesConstraint extends IConstraint {
   Pattern getPattern();
 
+  /**
+   * Get a predicate that tests if a value fully matches the
+   * {@link #getPattern()}.
+   * <p>
+   * Implementations are expected to create this predicate once, so it can be
+   * reused for every value the constraint is applied to.
+   *
+   * @return the predicate, or {@code null} if there is no match pattern
+   */
+  @Nullable
+  default Predicate<String> getMatchPredicate() {
+    Pattern pattern = getPattern();
+    return pattern == null ? null : pattern.asMatchPredicate();
+  }
+
   IDataTypeAdapter<?> getDataType();
 }
@@ -0,0 +1,864 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.MetapathException;
+import gov.nist.secauto.metaschema.core.metapath.MetapathExpression;
+import gov.nist.secauto.metaschema.core.metapath.item.node.AbstractNodeItemVisitor;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IAssemblyNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IDefinitionNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IFieldNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IFlagNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IModuleNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
+import gov.nist.secauto.metaschema.core.model.validation.IValidationResult;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A constraint validator that retains the state of its last run, allowing a
+ * document to be revalidated after an edit at a cost proportional to the edit.
+ * <p>
+ * Findings are recorded against the path of the node whose definition declared
+ * the constraint, the context node. Given a set of changed node paths, only the
+ * constraints declared on an ancestor-or-self of a changed node, or on a node
+ * within a changed subtree, are re-evaluated. This is sound for constraints
+ * whose Metapaths are {@link MetapathExpression#isFocusLocal() focus-local},
+ * since these can only observe the subtree of their context node. All other
+ * constraints are re-evaluated on every run.
+ * <p>
+ * Index state is retained between runs. An index is rebuilt only when its
+ * context node is affected, and key references are only rechecked when their
+ * context node is affected or the index they reference was rebuilt.
+ * <p>
+ * Node paths are those produced by {@link INodeItem#getMetapath()}. When nodes
+ * are inserted or removed, the path of their parent must be provided, since the
+ * positions of any following siblings will change. Findings retained from a
+ * previous run continue to reference the node items they were produced from.
+ * <p>
+ * This class is not thread safe.
+ */
+public class IncrementalConstraintValidator {
+  @NonNull
+  private final DynamicContext metapathContext;
+  @NonNull
+  private final Map<IConstraint, Boolean> constraintLocality = new HashMap<>(); // NOPMD - intentional
+  private boolean validated;
+
+  /**
+   * Findings for focus-local constraints, by context node path.
+   */
+  @NonNull
+  private final NavigableMap<String, List<ConstraintValidationFinding>> contextFindings = new TreeMap<>();
+  /**
+   * Findings for constraints that are not focus-local. These are replaced on
+   * every run.
+   */
+  @NonNull
+  private final List<ConstraintValidationFinding> nonLocalFindings = new ArrayList<>();
+  /**
+   * The paths of each context node declaring a constraint that is not
+   * focus-local, along with the paths of their ancestors. These are used to find
+   * such nodes in otherwise unaffected subtrees.
+   */
+  @NonNull
+  private final NavigableSet<String> nonLocalContextPaths = new TreeSet<>();
+  /**
+   * The allowed values constraints applied to each target, by target path.
+   */
+  @NonNull
+  private final NavigableMap<String, AllowedValuesTarget> allowedValuesTargets = new TreeMap<>();
+  /**
+   * The paths of the targets of allowed values constraints, by context node path.
+   */
+  @NonNull
+  private final NavigableMap<String, Set<String>> allowedValuesTargetsByContext = new TreeMap<>();
+  /**
+   * The targets with allowed values applied by a constraint that is not
+   * focus-local.
+   */
+  @NonNull
+  private final Set<String> nonLocalAllowedValuesTargets = new HashSet<>();
+  /**
+   * Findings for allowed values constraints, by target path.
+   */
+  @NonNull
+  private final NavigableMap<String, List<ConstraintValidationFinding>> allowedValuesFindings = new TreeMap<>();
+  @NonNull
+  private final Map<String, IndexEntry> indexes = new HashMap<>();
+  /**
+   * Key references, by context node path.
+   */
+  @NonNull
+  private final NavigableMap<String, List<KeyRef>> keyRefs = new TreeMap<>();
+  /**
+   * The context node paths declaring key references, by index name.
+   */
+  @NonNull
+  private final Map<String, Set<String>> keyRefContextsByIndex = new HashMap<>();
+  /**
+   * The context node paths declaring a key reference that is not focus-local.
+   */
+  @NonNull
+  private final Set<String> nonLocalKeyRefContexts = new HashSet<>();
+  /**
+   * Findings for key references, by context node path.
+   */
+  @NonNull
+  private final NavigableMap<String, List<ConstraintValidationFinding>> keyRefFindings = new TreeMap<>();
+
+  /**
+   * Construct a new incremental validator.
+   *
+   * @param metapathContext
+   *          the Metapath dynamic context to use when evaluating constraints
+   */
+  public IncrementalConstraintValidator(@NonNull DynamicContext metapathContext) {
+    this.metapathContext = metapathContext;
+  }
+
+  /**
+   * Fully validate the provided item, replacing any state retained from a
+   * previous run.
+   *
+   * @param item
+   *          the item to validate
+   * @return the validation result
+   * @throws MetapathException
+   *           if an error occurred while evaluating a Metapath used in a
+   *           constraint
+   */
+  @NonNull
+  public IValidationResult validate(@NonNull INodeItem item) {
+    clear();
+    Run run = new Run(path -> true);
+    run.validate(item);
+    run.finalizeValidation();
+    validated = true;
+    return newResult();
+  }
+
+  /**
+   * Revalidate the provided item after the nodes with the provided paths have
+   * changed, reusing the findings from the previous run for any unaffected nodes.
+   * <p>
+   * If no previous run exists, a full validation is performed.
+   *
+   * @param item
+   *          the edited item to validate
+   * @param changedPaths
+   *          the paths of the changed nodes
+   * @return the validation result
+   * @throws MetapathException
+   *           if an error occurred while evaluating a Metapath used in a
+   *           constraint
+   */
+  @NonNull
+  public IValidationResult revalidate(@NonNull INodeItem item, @NonNull Collection<String> changedPaths) {
+    IValidationResult retval;
+    if (validated) {
+      List<String> changed = new ArrayList<>(changedPaths);
+      Run run = new Run(path -> isAffected(path, changed));
+      discard(changed, run);
+      run.validate(item);
+      run.finalizeValidation();
+      retval = newResult();
+    } else {
+      retval = validate(item);
+    }
+    return retval;
+  }
+
+  private void clear() {
+    contextFindings.clear();
+    nonLocalFindings.clear();
+    nonLocalContextPaths.clear();
+    allowedValuesTargets.clear();
+    allowedValuesTargetsByContext.clear();
+    nonLocalAllowedValuesTargets.clear();
+    allowedValuesFindings.clear();
+    indexes.clear();
+    keyRefs.clear();
+    keyRefContextsByIndex.clear();
+    nonLocalKeyRefContexts.clear();
+    keyRefFindings.clear();
+    validated = false;
+  }
+
+  /**
+   * Discard the state for any constraint that will be re-evaluated by the
+   * provided run.
+   *
+   * @param changedPaths
+   *          the paths of the changed nodes
+   * @param run
+   *          the run that will re-evaluate the constraints
+   */
+  private void discard(@NonNull List<String> changedPaths, @NonNull Run run) {
+    removeAll(contextFindings, changedPaths);
+    nonLocalFindings.clear();
+    nonLocalContextPaths.removeAll(affectedKeys(nonLocalContextPaths, changedPaths));
+
+    // allowed values
+    removeAll(allowedValuesTargets, changedPaths);
+    removeAll(allowedValuesFindings, changedPaths);
+    for (String contextPath : affectedKeys(allowedValuesTargetsByContext.navigableKeySet(), changedPaths)) {
+      for (String targetPath : allowedValuesTargetsByContext.remove(contextPath)) {
+        AllowedValuesTarget target = allowedValuesTargets.get(targetPath);
+        if (target != null) {
+          target.removeIf(contribution -> contextPath.equals(contribution.getContextPath()));
+          run.addAffectedAllowedValuesTarget(targetPath);
+        }
+      }
+    }
+    for (String targetPath : nonLocalAllowedValuesTargets) {
+      AllowedValuesTarget target = allowedValuesTargets.get(targetPath);
+      if (target != null) {
+        target.removeIf(contribution -> !contribution.isLocal());
+        run.addAffectedAllowedValuesTarget(targetPath);
+      }
+    }
+    nonLocalAllowedValuesTargets.clear();
+
+    // indexes
+    for (Iterator<Map.Entry<String, IndexEntry>> iter = indexes.entrySet().iterator(); iter.hasNext();) {
+      Map.Entry<String, IndexEntry> entry = iter.next();
+      IndexEntry index = entry.getValue();
+      if (!index.isLocal() || isAffected(index.getContextPath(), changedPaths)) {
+        iter.remove();
+        run.addChangedIndex(entry.getKey());
+      }
+    }
+
+    // key references
+    for (String contextPath : affectedKeys(keyRefs.navigableKeySet(), changedPaths)) {
+      keyRefs.remove(contextPath);
+      run.addAffectedKeyRefContext(contextPath);
+    }
+    for (String contextPath : nonLocalKeyRefContexts) {
+      List<KeyRef> contextKeyRefs = keyRefs.get(contextPath);
+      if (contextKeyRefs != null) {
+        contextKeyRefs.removeIf(keyRef -> !keyRef.isLocal());
+      }
+      run.addAffectedKeyRefContext(contextPath);
+    }
+    nonLocalKeyRefContexts.clear();
+  }
+
+  @NonNull
+  private IValidationResult newResult() {
+    FindingCollectingConstraintValidationHandler retval = new FindingCollectingConstraintValidationHandler();
+    contextFindings.values().forEach(findings -> findings.forEach(retval::addFinding));
+    allowedValuesFindings.values().forEach(findings -> findings.forEach(retval::addFinding));
+    keyRefFindings.values().forEach(findings -> findings.forEach(retval::addFinding));
+    nonLocalFindings.forEach(retval::addFinding);
+    return retval;
+  }
+
+  /**
+   * Determine if the Metapaths used by the provided constraint are all
+   * focus-local.
+   *
+   * @param constraint
+   *          the constraint to check
+   * @return {@code true} if the constraint is focus-local, or {@code false}
+   *         otherwise
+   */
+  private boolean isFocusLocal(@NonNull IConstraint constraint) {
+    return constraintLocality.computeIfAbsent(constraint, IncrementalConstraintValidator::analyzeLocality);
+  }
+
+  private static boolean analyzeLocality(@NonNull IConstraint constraint) {
+    boolean retval = constraint.getTarget().isFocusLocal();
+    if (retval && constraint instanceof IExpectConstraint) {
+      retval = ((IExpectConstraint) constraint).getTest().isFocusLocal();
+    }
+    if (retval && constraint instanceof IKeyConstraint) {
+      retval = ((IKeyConstraint) constraint).getKeyFields().stream()
+          .allMatch(keyField -> keyField.getTarget().isFocusLocal());
+    }
+    return retval;
+  }
+
+  /**
+   * Determine if the node with the provided path is affected by a change to the
+   * nodes with the provided paths. This is the case if the node is an
+   * ancestor-or-self or a descendant of a changed node.
+   *
+   * @param path
+   *          the node path to check
+   * @param changedPaths
+   *          the paths of the changed nodes
+   * @return {@code true} if the node is affected, or {@code false} otherwise
+   */
+  private static boolean isAffected(@NonNull String path, @NonNull List<String> changedPaths) {
+    boolean retval = false;
+    for (String changedPath : changedPaths) {
+      if (isAncestorOrSelf(path, changedPath) || isAncestorOrSelf(changedPath, path)) {
+        retval = true;
+        break;
+      }
+    }
+    return retval;
+  }
+
+  private static boolean isAncestorOrSelf(@NonNull String ancestor, @NonNull String path) {
+    return path.startsWith(ancestor)
+        && (path.length() == ancestor.length() || path.charAt(ancestor.length()) == '/');
+  }
+
+  /**
+   * Get the paths from the provided set that are affected by a change to the
+   * nodes with the provided paths, without scanning the whole set.
+   *
+   * @param paths
+   *          the sorted set of paths to search
+   * @param changedPaths
+   *          the paths of the changed nodes
+   * @return the affected paths
+   */
+  @NonNull
+  private static Set<String> affectedKeys(@NonNull NavigableSet<String> paths, @NonNull List<String> changedPaths) {
+    Set<String> retval = new LinkedHashSet<>();
+    for (String changedPath : changedPaths) {
+      // the changed node and its ancestors
+      String path = changedPath;
+      int index;
+      do {
+        if (paths.contains(path)) {
+          retval.add(path);
+        }
+        index = path.lastIndexOf('/');
+        if (index >= 0) {
+          path = path.substring(0, index);
+        }
+      } while (index >= 0);
+
+      // the descendants of the changed node, which sort between "path/" and "path0"
+      retval.addAll(paths.subSet(changedPath + '/', true, changedPath + '0', false));
+    }
+    return retval;
+  }
+
+  private static void removeAll(@NonNull NavigableMap<String, ?> map, @NonNull List<String> changedPaths) {
+    map.keySet().removeAll(affectedKeys(map.navigableKeySet(), changedPaths));
+  }
+
+  /**
+   * Routes findings to the state associated with the constraint currently being
+   * evaluated.
+   */
+  private final class FindingRouter
+      extends FindingCollectingConstraintValidationHandler {
+    @Nullable
+    private Map<String, List<ConstraintValidationFinding>> buckets;
+    private String key;
+
+    /**
+     * Route subsequent findings to the provided bucket, or to the non-local
+     * findings if the bucket map is {@code null}.
+     *
+     * @param buckets
+     *          the findings by path
+     * @param key
+     *          the path to record findings against
+     */
+    public void route(@Nullable Map<String, List<ConstraintValidationFinding>> buckets, @Nullable String key) {
+      this.buckets = buckets;
+      this.key = key;
+    }
+
+    @Override
+    protected void addFinding(ConstraintValidationFinding finding) {
+      if (buckets == null) {
+        nonLocalFindings.add(finding);
+      } else {
+        buckets.computeIfAbsent(key, path -> new ArrayList<>()).add(finding);
+      }
+    }
+  }
+
+  /**
+   * A single validation pass over the affected parts of a document.
+   */
+  private final class Run
+      extends DefaultConstraintValidator {
+    @NonNull
+    private final Predicate<String> affected;
+    @NonNull
+    private final FindingRouter router;
+    @NonNull
+    private final Set<String> affectedAllowedValuesTargets = new LinkedHashSet<>();
+    @NonNull
+    private final Set<String> changedIndexes = new HashSet<>();
+    @NonNull
+    private final Set<String> affectedKeyRefContexts = new LinkedHashSet<>();
+    private String contextPath;
+    private boolean contextAffected;
+    private boolean contextRecorded;
+    private boolean constraintLocal;
+
+    public Run(@NonNull Predicate<String> affected) {
+      this(affected, new FindingRouter());
+    }
+
+    private Run(@NonNull Predicate<String> affected, @NonNull FindingRouter router) {
+      super(metapathContext, router);
+      this.affected = affected;
+      this.router = router;
+    }
+
+    public void addAffectedAllowedValuesTarget(@NonNull String targetPath) {
+      affectedAllowedValuesTargets.add(targetPath);
+    }
+
+    public void addChangedIndex(@NonNull String indexName) {
+      changedIndexes.add(indexName);
+    }
+
+    public void addAffectedKeyRefContext(@NonNull String contextPath) {
+      affectedKeyRefContexts.add(contextPath);
+    }
+
+    @Override
+    public void validate(INodeItem item) {
+      item.accept(new Visitor(), null);
+    }
+
+    /**
+     * Set the provided item as the current context node, if it needs to be visited.
+     *
+     * @param item
+     *          the item to enter
+     * @return {@code true} if the item declares constraints to evaluate or has
+     *         descendants that do, or {@code false} if the item's subtree can be
+     *         skipped
+     */
+    private boolean enter(@NonNull INodeItem item) {
+      String path = item.getMetapath();
+      contextPath = path;
+      contextAffected = affected.test(path);
+      contextRecorded = false;
+      return contextAffected || nonLocalContextPaths.contains(path);
+    }
+
+    @Override
+    protected boolean isApplicable(IConstraint constraint) {
+      boolean local = isFocusLocal(constraint);
+      if (!local) {
+        recordNonLocalContext();
+      }
+
+      boolean retval = contextAffected || !local;
+      if (retval) {
+        constraintLocal = local;
+        if (local) {
+          router.route(contextFindings, contextPath);
+        } else {
+          router.route(null, null);
+        }
+      }
+      return retval;
+    }
+
+    private void recordNonLocalContext() {
+      if (!contextRecorded) {
+        // record the context and its ancestors, which may have been discarded if
+        // they were affected by the change
+        String path = contextPath;
+        int index;
+        do {
+          nonLocalContextPaths.add(path);
+          index = path.lastIndexOf('/');
+          if (index >= 0) {
+            path = path.substring(0, index);
+          }
+        } while (index >= 0);
+        contextRecorded = true;
+      }
+    }
+
+    @Override
+    protected void validateAllowedValues(IAllowedValuesConstraint constraint,
+        ISequence<? extends IDefinitionNodeItem<?, ?>> targets) {
+      // record the constraint against the target, since allowed values from
+      // multiple constraints are combined
+      int depth = depth(contextPath);
+      targets.asStream().forEachOrdered(item -> {
+        assert item != null;
+        if (item.hasValue()) {
+          String targetPath = item.getMetapath();
+          allowedValuesTargets.computeIfAbsent(targetPath, path -> new AllowedValuesTarget())
+              .add(item, new AllowedValuesContribution(constraint, contextPath, depth, constraintLocal));
+          allowedValuesTargetsByContext.computeIfAbsent(contextPath, path -> new HashSet<>()).add(targetPath);
+          if (!constraintLocal) {
+            nonLocalAllowedValuesTargets.add(targetPath);
+          }
+          affectedAllowedValuesTargets.add(targetPath);
+        }
+      });
+    }
+
+    @Override
+    protected void validateIndex(IIndexConstraint constraint, IAssemblyNodeItem node,
+        ISequence<? extends INodeItem> targets) {
+      String indexName = constraint.getName();
+      if (indexes.containsKey(indexName)) {
+        getConstraintValidationHandler().handleIndexDuplicateViolation(constraint, node);
+        return; // NOPMD - readability
+      }
+
+      IIndex index = IIndex.newInstance(constraint.getKeyFields());
+      targets.asStream()
+          .forEachOrdered(item -> {
+            assert item != null;
+            if (item.hasValue()) {
+              try {
+                INodeItem oldItem = index.put(item, getMetapathContext());
+                if (oldItem != null) {
+                  getConstraintValidationHandler().handleIndexDuplicateKeyViolation(constraint, node, oldItem, item);
+                }
+              } catch (MetapathException ex) {
+                getConstraintValidationHandler().handleKeyMatchError(constraint, node, item, ex);
+              }
+            }
+          });
+      indexes.put(indexName, new IndexEntry(index, contextPath, constraintLocal));
+      changedIndexes.add(indexName);
+    }
+
+    @Override
+    protected void validateIndexHasKey(IIndexHasKeyConstraint constraint, IDefinitionNodeItem<?, ?> node,
+        ISequence<? extends INodeItem> targets) {
+      keyRefs.computeIfAbsent(contextPath, path -> new ArrayList<>())
+          .add(new KeyRef(constraint, node, new ArrayList<>(targets.asList()), constraintLocal));
+      keyRefContextsByIndex.computeIfAbsent(constraint.getIndexName(), name -> new HashSet<>()).add(contextPath);
+      if (!constraintLocal) {
+        nonLocalKeyRefContexts.add(contextPath);
+      }
+      affectedKeyRefContexts.add(contextPath);
+    }
+
+    @Override
+    public void finalizeValidation() {
+      finalizeAllowedValues();
+      finalizeKeyRefs();
+    }
+
+    private void finalizeAllowedValues() {
+      for (String targetPath : affectedAllowedValuesTargets) {
+        allowedValuesFindings.remove(targetPath);
+
+        AllowedValuesTarget target = allowedValuesTargets.get(targetPath);
+        if (target != null) {
+          if (target.isEmpty()) {
+            allowedValuesTargets.remove(targetPath);
+          } else {
+            INodeItem item = target.getItem();
+            router.route(allowedValuesFindings, targetPath);
+            for (AllowedValuesContribution contribution : target.getContributions()) {
+              updateValueStatus(item, contribution.getConstraint());
+            }
+            handleAllowedValues(item);
+          }
+        }
+      }
+    }
+
+    private void finalizeKeyRefs() {
+      Set<String> contextPaths = new LinkedHashSet<>(affectedKeyRefContexts);
+      for (String indexName : changedIndexes) {
+        Set<String> referencingContexts = keyRefContextsByIndex.get(indexName);
+        if (referencingContexts != null) {
+          // drop contexts that no longer exist
+          referencingContexts.retainAll(keyRefs.keySet());
+          contextPaths.addAll(referencingContexts);
+        }
+      }
+
+      for (String path : contextPaths) {
+        keyRefFindings.remove(path);
+
+        List<KeyRef> contextKeyRefs = keyRefs.get(path);
+        if (contextKeyRefs != null) {
+          if (contextKeyRefs.isEmpty()) {
+            keyRefs.remove(path);
+          } else {
+            router.route(keyRefFindings, path);
+            contextKeyRefs.forEach(this::validateKeyRef);
+          }
+        }
+      }
+    }
+
+    private void validateKeyRef(@NonNull KeyRef keyRef) {
+      IIndexHasKeyConstraint constraint = keyRef.getConstraint();
+      IndexEntry entry = indexes.get(constraint.getIndexName());
+      for (INodeItem item : keyRef.getTargets()) {
+        assert item != null;
+
+        try {
+          List<String> key = IIndex.toKey(item, constraint.getKeyFields(), getMetapathContext());
+
+          INodeItem referencedItem = entry == null ? null : entry.getIndex().get(key);
+
+          if (referencedItem == null) {
+            getConstraintValidationHandler().handleIndexMiss(constraint, keyRef.getNode(), item, key);
+          }
+        } catch (MetapathException ex) {
+          getConstraintValidationHandler().handleKeyMatchError(constraint, keyRef.getNode(), item, ex);
+        }
+      }
+    }
+
+    private final class Visitor
+        extends AbstractNodeItemVisitor<Void, Void> {
+
+      @Override
+      public Void visitFlag(@NonNull IFlagNodeItem item, Void context) {
+        if (enter(item)) {
+          validateFlag(item);
+          super.visitFlag(item, context);
+        }
+        return null;
+      }
+
+      @Override
+      public Void visitField(@NonNull IFieldNodeItem item, Void context) {
+        if (enter(item)) {
+          validateField(item);
+          super.visitField(item, context);
+        }
+        return null;
+      }
+
+      @Override
+      public Void visitAssembly(@NonNull IAssemblyNodeItem item, Void context) {
+        if (enter(item)) {
+          validateAssembly(item);
+          super.visitAssembly(item, context);
+        }
+        return null;
+      }
+
+      @Override
+      public Void visitMetaschema(@NonNull IModuleNodeItem item, Void context) {
+        throw new UnsupportedOperationException("not needed");
+      }
+
+      @Override
+      protected Void defaultResult() {
+        // no result value
+        return null;
+      }
+    }
+  }
+
+  private static int depth(@NonNull String path) {
+    int retval = 0;
+    for (int i = 0; i < path.length(); i++) {
+      if (path.charAt(i) == '/') {
+        retval++;
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * The allowed values constraints applied to a single target.
+   */
+  private static final class AllowedValuesTarget {
+    private INodeItem item;
+    @NonNull
+    private final List<AllowedValuesContribution> contributions = new ArrayList<>();
+    private boolean sorted = true;
+
+    public void add(@NonNull INodeItem item, @NonNull AllowedValuesContribution contribution) {
+      this.item = item;
+      if (!contributions.isEmpty()
+          && contributions.get(contributions.size() - 1).getDepth() > contribution.getDepth()) {
+        sorted = false;
+      }
+      contributions.add(contribution);
+    }
+
+    public void removeIf(@NonNull Predicate<AllowedValuesContribution> filter) {
+      contributions.removeIf(filter);
+    }
+
+    public boolean isEmpty() {
+      return contributions.isEmpty();
+    }
+
+    @NonNull
+    public INodeItem getItem() {
+      return item;
+    }
+
+    /**
+     * Get the contributions in the order a full validation would apply them, which
+     * is from the outermost context node to the innermost.
+     *
+     * @return the contributions
+     */
+    @NonNull
+    public List<AllowedValuesContribution> getContributions() {
+      if (!sorted) {
+        // a stable sort, preserving the order within each context
+        contributions.sort(Comparator.comparingInt(AllowedValuesContribution::getDepth));
+        sorted = true;
+      }
+      return CollectionUtil.unmodifiableList(contributions);
+    }
+  }
+
+  private static final class AllowedValuesContribution {
+    @NonNull
+    private final IAllowedValuesConstraint constraint;
+    @NonNull
+    private final String contextPath;
+    private final int depth;
+    private final boolean local;
+
+    public AllowedValuesContribution(
+        @NonNull IAllowedValuesConstraint constraint,
+        @NonNull String contextPath,
+        int depth,
+        boolean local) {
+      this.constraint = constraint;
+      this.contextPath = contextPath;
+      this.depth = depth;
+      this.local = local;
+    }
+
+    @NonNull
+    public IAllowedValuesConstraint getConstraint() {
+      return constraint;
+    }
+
+    @NonNull
+    public String getContextPath() {
+      return contextPath;
+    }
+
+    public int getDepth() {
+      return depth;
+    }
+
+    public boolean isLocal() {
+      return local;
+    }
+  }
+
+  private static final class IndexEntry {
+    @NonNull
+    private final IIndex index;
+    @NonNull
+    private final String contextPath;
+    private final boolean local;
+
+    public IndexEntry(@NonNull IIndex index, @NonNull String contextPath, boolean local) {
+      this.index = index;
+      this.contextPath = contextPath;
+      this.local = local;
+    }
+
+    @NonNull
+    public IIndex getIndex() {
+      return index;
+    }
+
+    @NonNull
+    public String getContextPath() {
+      return contextPath;
+    }
+
+    public boolean isLocal() {
+      return local;
+    }
+  }
+
+  private static final class KeyRef {
+    @NonNull
+    private final IIndexHasKeyConstraint constraint;
+    @NonNull
+    private final INodeItem node;
+    @NonNull
+    private final List<INodeItem> targets;
+    private final boolean local;
+
+    public KeyRef(
+        @NonNull IIndexHasKeyConstraint constraint,
+        @NonNull INodeItem node,
+        @NonNull List<INodeItem> targets,
+        boolean local) {
+      this.constraint = constraint;
+      this.node = node;
+      this.targets = targets;
+      this.local = local;
+    }
+
+    @NonNull
+    public IIndexHasKeyConstraint getConstraint() {
+      return constraint;
+    }
+
+    @NonNull
+    public INodeItem getNode() {
+      return node;
+    }
+
+    @NonNull
+    public List<INodeItem> getTargets() {
+      return targets;
+    }
+
+    public boolean isLocal() {
+      return local;
+    }
+  }
+}
@@ -0,0 +1,585 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
+import gov.nist.secauto.metaschema.core.metapath.ISequence;
+import gov.nist.secauto.metaschema.core.metapath.MetapathException;
+import gov.nist.secauto.metaschema.core.metapath.format.IPathFormatter;
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
+import gov.nist.secauto.metaschema.core.model.constraint.IConstraint.Level;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A validation handler that writes each finding to a {@link Writer} as it is
+ * reported, instead of retaining findings in memory.
+ * <p>
+ * Findings can be written as <a href="https://jsonlines.org/">JSON Lines</a>,
+ * one object per line, or as a single <a href=
+ * "https://docs.oasis-open.org/sarif/sarif/v2.1.0/sarif-v2.1.0.html">SARIF</a>
+ * log whose results are streamed. The handler must be closed to complete the
+ * output.
+ * <p>
+ * To bound the output for badly broken documents, the total number of findings
+ * and the number of findings per constraint can be capped, and repeated
+ * findings for the same constraint and node are dropped. Messages and paths are
+ * only formatted for findings that are written.
+ * <p>
+ * This class is not thread safe.
+ */
+public class StreamingConstraintValidationHandler
+    extends AbstractConstraintValidationHandler
+    implements Closeable {
+  /**
+   * The number of recent findings remembered to detect duplicates.
+   */
+  private static final int DEDUPLICATION_WINDOW = 4096;
+  @NonNull
+  private static final String SARIF_VERSION = "2.1.0";
+  @NonNull
+  private static final String SARIF_SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+
+  /**
+   * The supported output formats.
+   */
+  public enum Format {
+    /**
+     * One JSON object per finding, separated by newlines.
+     */
+    JSON_LINES,
+    /**
+     * A SARIF 2.1.0 log containing a single run.
+     */
+    SARIF;
+  }
+
+  @NonNull
+  private final JsonGenerator generator;
+  @NonNull
+  private final Format format;
+  @NonNull
+  private IPathFormatter pathFormatter = IPathFormatter.METAPATH_PATH_FORMATER;
+  private int maxFindings = Integer.MAX_VALUE;
+  private int maxFindingsPerConstraint = Integer.MAX_VALUE;
+  @NonNull
+  private final Map<IConstraint, Integer> constraintCounts = new IdentityHashMap<>(); // NOPMD - intentional
+  @NonNull
+  private final Map<FindingKey, Boolean> recentFindings
+      = new LinkedHashMap<>(DEDUPLICATION_WINDOW * 4 / 3 + 1, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<FindingKey, Boolean> eldest) {
+          return size() > DEDUPLICATION_WINDOW;
+        }
+      };
+  @NonNull
+  private Level highestLevel = Level.INFORMATIONAL;
+  private long writtenCount;
+  private long suppressedCount;
+  private long duplicateCount;
+  private boolean started;
+  private boolean closed;
+
+  /**
+   * Construct a new handler that writes findings to the provided writer.
+   * <p>
+   * The writer is not closed when this handler is closed.
+   *
+   * @param writer
+   *          the writer to write findings to
+   * @param format
+   *          the output format
+   * @throws UncheckedIOException
+   *           if an error occurred while creating the JSON generator
+   */
+  public StreamingConstraintValidationHandler(@NonNull Writer writer, @NonNull Format format) {
+    this.format = format;
+    try {
+      this.generator = new JsonFactory().createGenerator(writer);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+
+  @Override
+  @NonNull
+  public IPathFormatter getPathFormatter() {
+    return pathFormatter;
+  }
+
+  public void setPathFormatter(@NonNull IPathFormatter pathFormatter) {
+    this.pathFormatter = Objects.requireNonNull(pathFormatter, "pathFormatter");
+  }
+
+  /**
+   * Set the maximum number of findings to write. Any further findings are
+   * counted, but not written.
+   *
+   * @param maxFindings
+   *          the maximum number of findings
+   */
+  public void setMaxFindings(int maxFindings) {
+    this.maxFindings = maxFindings;
+  }
+
+  /**
+   * Set the maximum number of findings to write for any single constraint. Any
+   * further findings for the constraint are counted, but not written.
+   *
+   * @param maxFindingsPerConstraint
+   *          the maximum number of findings per constraint
+   */
+  public void setMaxFindingsPerConstraint(int maxFindingsPerConstraint) {
+    this.maxFindingsPerConstraint = maxFindingsPerConstraint;
+  }
+
+  /**
+   * Get the highest severity of any finding reported, including findings that
+   * were not written.
+   *
+   * @return the highest severity
+   */
+  @NonNull
+  public Level getHighestSeverity() {
+    return highestLevel;
+  }
+
+  /**
+   * Determine if no finding reported had a severity of {@link Level#ERROR} or
+   * higher.
+   *
+   * @return {@code true} if the validation passed, or {@code false} otherwise
+   */
+  public boolean isPassing() {
+    return highestLevel.ordinal() < Level.ERROR.ordinal();
+  }
+
+  /**
+   * Get the number of findings written.
+   *
+   * @return the count
+   */
+  public long getWrittenCount() {
+    return writtenCount;
+  }
+
+  /**
+   * Get the number of findings not written because a cap was reached.
+   *
+   * @return the count
+   */
+  public long getSuppressedCount() {
+    return suppressedCount;
+  }
+
+  /**
+   * Get the number of findings not written because they repeated a recent
+   * finding.
+   *
+   * @return the count
+   */
+  public long getDuplicateCount() {
+    return duplicateCount;
+  }
+
+  /**
+   * Handle a reported finding, writing it if it is within the configured caps and
+   * is not a duplicate.
+   *
+   * @param constraints
+   *          the constraints the finding is for
+   * @param level
+   *          the severity of the finding
+   * @param node
+   *          the node the finding is reported against
+   * @param target
+   *          the target of the constraint, if any
+   * @param message
+   *          provides the message, which is only called if the finding is written
+   * @param cause
+   *          the cause of the finding, if any
+   */
+  protected void handleFinding(
+      @NonNull List<? extends IConstraint> constraints,
+      @NonNull Level level,
+      @NonNull INodeItem node,
+      @Nullable INodeItem target,
+      @NonNull Supplier<? extends CharSequence> message,
+      @Nullable Throwable cause) {
+    if (level.ordinal() > highestLevel.ordinal()) {
+      highestLevel = level;
+    }
+
+    if (recentFindings.put(new FindingKey(constraints, node, target), Boolean.TRUE) != null) {
+      duplicateCount++;
+    } else if (writtenCount >= maxFindings || !withinConstraintCap(constraints)) {
+      suppressedCount++;
+    } else {
+      try {
+        writeFinding(constraints, level, target == null ? node : target, ObjectUtils.notNull(message.get()), cause);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+      writtenCount++;
+    }
+  }
+
+  private boolean withinConstraintCap(@NonNull List<? extends IConstraint> constraints) {
+    boolean retval = true;
+    for (IConstraint constraint : constraints) {
+      int count = constraintCounts.merge(constraint, 1, Integer::sum);
+      if (count > maxFindingsPerConstraint) {
+        retval = false;
+      }
+    }
+    return retval;
+  }
+
+  private void start() throws IOException {
+    if (!started) {
+      started = true;
+      if (format == Format.SARIF) {
+        generator.writeStartObject();
+        generator.writeStringField("$schema", SARIF_SCHEMA);
+        generator.writeStringField("version", SARIF_VERSION);
+        generator.writeArrayFieldStart("runs");
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("tool");
+        generator.writeObjectFieldStart("driver");
+        generator.writeStringField("name", "metaschema-java");
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("results");
+      }
+    }
+  }
+
+  private void writeFinding(
+      @NonNull List<? extends IConstraint> constraints,
+      @NonNull Level level,
+      @NonNull INodeItem node,
+      @NonNull CharSequence message,
+      @Nullable Throwable cause) throws IOException {
+    start();
+
+    String id = constraints.get(0).getId();
+    String path = toPath(node);
+    URI uri = node.getBaseUri();
+    if (format == Format.SARIF) {
+      generator.writeStartObject();
+      if (id != null) {
+        generator.writeStringField("ruleId", id);
+      }
+      generator.writeStringField("level", toSarifLevel(level));
+      generator.writeObjectFieldStart("message");
+      generator.writeStringField("text", message.toString());
+      generator.writeEndObject();
+      generator.writeArrayFieldStart("locations");
+      generator.writeStartObject();
+      if (uri != null) {
+        generator.writeObjectFieldStart("physicalLocation");
+        generator.writeObjectFieldStart("artifactLocation");
+        generator.writeStringField("uri", uri.toString());
+        generator.writeEndObject();
+        generator.writeEndObject();
+      }
+      generator.writeArrayFieldStart("logicalLocations");
+      generator.writeStartObject();
+      generator.writeStringField("fullyQualifiedName", path);
+      generator.writeEndObject();
+      generator.writeEndArray();
+      generator.writeEndObject();
+      generator.writeEndArray();
+      generator.writeEndObject();
+    } else {
+      generator.writeStartObject();
+      generator.writeStringField("severity", level.name());
+      if (id != null) {
+        generator.writeStringField("constraint-id", id);
+      }
+      generator.writeStringField("path", path);
+      if (uri != null) {
+        generator.writeStringField("uri", uri.toString());
+      }
+      generator.writeStringField("message", message.toString());
+      if (cause != null) {
+        generator.writeStringField("cause", cause.getLocalizedMessage());
+      }
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+    }
+    generator.flush();
+  }
+
+  @NonNull
+  private static String toSarifLevel(@NonNull Level level) {
+    String retval;
+    switch (level) {
+    case CRITICAL:
+    case ERROR:
+      retval = "error";
+      break;
+    case WARNING:
+      retval = "warning";
+      break;
+    case INFORMATIONAL:
+      retval = "note";
+      break;
+    default:
+      throw new UnsupportedOperationException(String.format("unsupported level '%s'", level));
+    }
+    return retval;
+  }
+
+  /**
+   * Complete the output. For SARIF output, a notification is included if any
+   * findings were suppressed.
+   *
+   * @throws IOException
+   *           if an error occurred while writing the output
+   */
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      start();
+      if (format == Format.SARIF) {
+        generator.writeEndArray();
+        if (suppressedCount > 0 || duplicateCount > 0) {
+          generator.writeArrayFieldStart("invocations");
+          generator.writeStartObject();
+          generator.writeBooleanField("executionSuccessful", true);
+          generator.writeArrayFieldStart("toolExecutionNotifications");
+          generator.writeStartObject();
+          generator.writeStringField("level", "note");
+          generator.writeObjectFieldStart("message");
+          generator.writeStringField("text", String.format(
+              "%d findings were not written due to configured limits and %d duplicate findings were dropped.",
+              suppressedCount, duplicateCount));
+          generator.writeEndObject();
+          generator.writeEndObject();
+          generator.writeEndArray();
+          generator.writeEndObject();
+          generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+      }
+      generator.close();
+    }
+  }
+
+  @NonNull
+  private static Level maxLevel(@NonNull List<? extends IConstraint> constraints) {
+    Level retval = Level.INFORMATIONAL;
+    for (IConstraint constraint : constraints) {
+      Level level = constraint.getLevel();
+      if (level.ordinal() > retval.ordinal()) {
+        retval = level;
+      }
+    }
+    return retval;
+  }
+
+  @Override
+  public void handleCardinalityMinimumViolation(
+      @NonNull ICardinalityConstraint constraint,
+      @NonNull INodeItem node,
+      @NonNull ISequence<? extends INodeItem> targets) {
+    handleFinding(CollectionUtil.singletonList(constraint), constraint.getLevel(), node, null,
+        () -> newCardinalityMinimumViolationMessage(constraint, node, targets), null);
+  }
+
+  @Override
+  public void handleCardinalityMaximumViolation(
+      @NonNull ICardinalityConstraint constraint,
+      @NonNull INodeItem node,
+      @NonNull ISequence<? extends INodeItem> targets) {
+    handleFinding(CollectionUtil.singletonList(constraint), constraint.getLevel(), node, null,
+        () -> newCardinalityMaximumViolationMessage(constraint, node, targets), null);
+  }
+
+  @Override
+  public void handleIndexDuplicateKeyViolation(
+      @NonNull IIndexConstraint constraint,
+      @NonNull INodeItem node,
+      @NonNull INodeItem oldItem,
+      @NonNull INodeItem target) {
+    handleFinding(CollectionUtil.singletonList(constraint), constraint.getLevel(), node, target,
+        () -> newIndexDuplicateKeyViolationMessage(constraint, node, oldItem, target), null);
+  }
+
+  @Override
+  public void handleUniqueKeyViolation(
+      @NonNull IUniqueConstraint constraint,
+      @NonNull INodeItem node,
+      @NonNull INodeItem oldItem,
+      @NonNull INodeItem target) {
+    handleFinding(CollectionUtil.singletonList(constraint), constraint.getLevel(), node, target,
+        () -> newUniqueKeyViolationMessage(constraint, node, oldItem, target), null);
+  }
+
+  @Override
+  public void handleKeyMatchError(
+      @NonNull IKeyConstraint constraint,
+      @NonNull INodeItem node,
+      @NonNull INodeItem target,
+      @NonNull MetapathException cause) {
+    handleFinding(CollectionUtil.singletonList(constraint), constraint.getLevel(), node, target,
+        cause::getLocalizedMessage, cause);
+  }
+
+  @Override
+  public void handleMatchPatternViolation(
+      @NonNull IMatchesConstraint constraint,
+      @NonNull INodeItem node,
+      @NonNull INodeItem target,
+      @NonNull String value) {
+    handleFinding(CollectionUtil.singletonList(constraint), constraint.getLevel(), node, target,
+        () -> newMatchPatternViolationMessage(constraint, node, target, value), null);
+  }
+
+  @Override
+  public void handleMatchDatatypeViolation(
+      @NonNull IMatchesConstraint constraint,
+      @NonNull INodeItem node,
+      @NonNull INodeItem target,
+      @NonNull String value,
+      @NonNull IllegalArgumentException cause) {
+    handleFinding(CollectionUtil.singletonList(constraint), constraint.getLevel(), node, target,
+        () -> newMatchDatatypeViolationMessage(constraint, node, target, value), cause);
+  }
+
+  @Override
+  public void handleExpectViolation(
+      @NonNull IExpectConstraint constraint,
+      @NonNull INodeItem node,
+      @NonNull INodeItem target,
+      @NonNull DynamicContext dynamicContext) {
+    handleFinding(CollectionUtil.singletonList(constraint), constraint.getLevel(), node, target,
+        () -> newExpectViolationMessage(constraint, node, target, dynamicContext), null);
+  }
+
+  @Override
+  public void handleAllowedValuesViolation(
+      @NonNull List<IAllowedValuesConstraint> failedConstraints,
+      @NonNull INodeItem target) {
+    handleFinding(failedConstraints, maxLevel(failedConstraints), target, target,
+        () -> newAllowedValuesViolationMessage(failedConstraints, target), null);
+  }
+
+  @Override
+  public void handleIndexDuplicateViolation(
+      @NonNull IIndexConstraint constraint,
+      @NonNull INodeItem node) {
+    handleFinding(CollectionUtil.singletonList(constraint), Level.CRITICAL, node, null,
+        () -> newIndexDuplicateViolationMessage(constraint, node), null);
+  }
+
+  @Override
+  public void handleIndexMiss(
+      @NonNull IIndexHasKeyConstraint constraint,
+      @NonNull INodeItem node,
+      @NonNull INodeItem target,
+      @NonNull List<String> key) {
+    handleFinding(CollectionUtil.singletonList(constraint), constraint.getLevel(), node, target,
+        () -> newIndexMissMessage(constraint, node, target, key), null);
+  }
+
+  /**
+   * Identifies a finding by the identity of its constraints and nodes.
+   */
+  private static final class FindingKey {
+    @NonNull
+    private final List<? extends IConstraint> constraints;
+    @NonNull
+    private final INodeItem node;
+    @Nullable
+    private final INodeItem target;
+
+    private FindingKey(
+        @NonNull List<? extends IConstraint> constraints,
+        @NonNull INodeItem node,
+        @Nullable INodeItem target) {
+      this.constraints = constraints;
+      this.node = node;
+      this.target = target;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = 1;
+      for (IConstraint constraint : constraints) {
+        result = 31 * result + System.identityHashCode(constraint);
+      }
+      result = 31 * result + System.identityHashCode(node);
+      return 31 * result + System.identityHashCode(target);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true; // NOPMD - readability
+      }
+      if (!(obj instanceof FindingKey)) {
+        return false; // NOPMD - readability
+      }
+      FindingKey other = (FindingKey) obj;
+      if (node != other.node || target != other.target || constraints.size() != other.constraints.size()) {
+        return false; // NOPMD - readability
+      }
+      for (int i = 0; i < constraints.size(); i++) {
+        if (constraints.get(i) != other.constraints.get(i)) {
+          return false; // NOPMD - readability
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -26,7 +26,10 @@
 
 package gov.nist.secauto.metaschema.core.model.util;
 
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
 import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLInputFactory2;
 import org.codehaus.stax2.XMLStreamReader2;
 
 import java.util.HashMap;
@@ -38,6 +41,7 @@ import java.util.stream.IntStream;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.Characters;
@@ -164,12 +168,12 @@ public final class XmlEventUtil { // NOPMD this is a set of utility methods
    * @return the generated string
    */
   @NonNull
-  public static CharSequence toString(@NonNull XMLStreamReader2 reader) { // NO_UCD (unused code)
+  public static CharSequence toString(@NonNull XMLStreamReader2 reader) {
     int type = reader.getEventType();
 
     @SuppressWarnings("null")
     @NonNull StringBuilder builder = new StringBuilder().append(toEventName(type));
-    QName name = reader.getName();
+    QName name = toQName(reader);
     if (name != null) {
       builder.append(": ").append(name.toString());
     }
@@ -549,4 +553,222 @@ public final class XmlEventUtil { // NOPMD this is a set of utility methods
     }
     return nextEvent;
   }
+
+  /**
+   * Retrieve the name of the node at the current position of the stream reader.
+   *
+   * @param reader
+   *          the stream reader
+   * @return the name of the node or {@code null} if the current event is not an
+   *         element
+   */
+  @Nullable
+  public static QName toQName(@NonNull XMLStreamReader2 reader) {
+    return reader.hasName() ? reader.getName() : null;
+  }
+
+  private static boolean isCharacters(int eventType) {
+    return eventType == XMLStreamConstants.CHARACTERS
+        || eventType == XMLStreamConstants.CDATA
+        || eventType == XMLStreamConstants.SPACE;
+  }
+
+  private static boolean isName(@NonNull XMLStreamReader2 reader, @NonNull QName expectedQName) {
+    // compare the parts to avoid building a QName for the current element
+    String namespace = reader.getNamespaceURI();
+    return expectedQName.getLocalPart().equals(reader.getLocalName())
+        && expectedQName.getNamespaceURI().equals(namespace == null ? "" : namespace);
+  }
+
+  /**
+   * Skip over any whitespace at the current position of the stream reader.
+   *
+   * @param reader
+   *          the stream reader to advance
+   * @return the type of the event the reader is positioned at after skipping
+   * @throws XMLStreamException
+   *           if an error occurred while advancing the stream
+   */
+  public static int skipWhitespace(@NonNull XMLStreamReader2 reader) throws XMLStreamException {
+    int eventType = reader.getEventType();
+    while (isCharacters(eventType) && reader.isWhiteSpace() && reader.hasNext()) {
+      eventType = reader.next();
+    }
+    return eventType;
+  }
+
+  /**
+   * Skips the events specified by {@code events} at the current position of the
+   * stream reader.
+   *
+   * @param reader
+   *          the stream reader
+   * @param events
+   *          the events to skip
+   * @return the type of the event the reader is positioned at after skipping
+   * @throws XMLStreamException
+   *           if an error occurred while reading
+   */
+  public static int skipEvents(@NonNull XMLStreamReader2 reader, int... events) throws XMLStreamException {
+    int eventType = reader.getEventType();
+    outer: while (reader.hasNext()) {
+      for (int event : events) {
+        if (event == eventType) {
+          eventType = reader.next();
+          continue outer;
+        }
+      }
+      break;
+    }
+    return eventType;
+  }
+
+  /**
+   * Determine if the stream reader is positioned at an end element whose name
+   * matches the provided {@code expectedQName}.
+   *
+   * @param reader
+   *          the stream reader
+   * @param expectedQName
+   *          the expected element name
+   * @return {@code true} if the current event matches the {@code expectedQName}
+   */
+  public static boolean isEventEndElement(@NonNull XMLStreamReader2 reader, @NonNull QName expectedQName) {
+    return reader.getEventType() == XMLStreamConstants.END_ELEMENT
+        && isName(reader, expectedQName);
+  }
+
+  /**
+   * Determine if the stream reader is positioned at a start element whose name
+   * matches the provided {@code expectedQName}.
+   *
+   * @param reader
+   *          the stream reader
+   * @param expectedQName
+   *          the expected element name
+   * @return {@code true} if the current event is a start element that matches the
+   *         {@code expectedQName}
+   */
+  public static boolean isEventStartElement(@NonNull XMLStreamReader2 reader, @NonNull QName expectedQName) {
+    return reader.getEventType() == XMLStreamConstants.START_ELEMENT
+        && isName(reader, expectedQName);
+  }
+
+  /**
+   * Assert that the stream reader is positioned at an event of the type
+   * identified by {@code presumedEventType}, then advance past this event.
+   *
+   * @param reader
+   *          the stream reader
+   * @param presumedEventType
+   *          the expected event type as defined by {@link XMLStreamConstants}
+   * @return the type of the next event
+   * @throws XMLStreamException
+   *           if an error occurred while advancing the stream
+   */
+  public static int consumeAndAssert(@NonNull XMLStreamReader2 reader, int presumedEventType)
+      throws XMLStreamException {
+    return consumeAndAssert(reader, presumedEventType, null);
+  }
+
+  /**
+   * Assert that the stream reader is positioned at an event of the type
+   * identified by {@code presumedEventType} that has the name identified by
+   * {@code presumedName}, then advance past this event.
+   *
+   * @param reader
+   *          the stream reader
+   * @param presumedEventType
+   *          the expected event type as defined by {@link XMLStreamConstants}
+   * @param presumedName
+   *          the expected name of the node associated with the event
+   * @return the type of the next event
+   * @throws XMLStreamException
+   *           if an error occurred while advancing the stream
+   */
+  public static int consumeAndAssert(@NonNull XMLStreamReader2 reader, int presumedEventType,
+      @Nullable QName presumedName)
+      throws XMLStreamException {
+    assertNext(reader, presumedEventType, presumedName);
+    return reader.next();
+  }
+
+  /**
+   * Assert that the stream reader is positioned at an event of the type
+   * identified by {@code presumedEventType} that has the name identified by
+   * {@code presumedName}.
+   *
+   * @param reader
+   *          the stream reader
+   * @param presumedEventType
+   *          the expected event type as defined by {@link XMLStreamConstants}
+   * @param presumedName
+   *          the expected name of the node associated with the event
+   * @return the type of the current event
+   * @throws AssertionError
+   *           if the current event does not match the presumed event
+   */
+  public static int assertNext(
+      @NonNull XMLStreamReader2 reader,
+      int presumedEventType,
+      @Nullable QName presumedName) {
+    int eventType = reader.getEventType();
+    assert eventType == presumedEventType
+        && (presumedName == null
+            || isName(reader, presumedName)) : generateExpectedMessage(
+                reader,
+                presumedEventType,
+                presumedName);
+    return eventType;
+  }
+
+  public static CharSequence generateLocationMessage(@NonNull XMLStreamReader2 reader) {
+    Location location = reader.getLocation();
+    return location == null ? "" : generateLocationMessage(location);
+  }
+
+  /**
+   * Create an event reader that reads from the provided stream reader, starting
+   * with the stream reader's current event.
+   * <p>
+   * The stream reader advances as events are read or peeked from the returned
+   * event reader.
+   *
+   * @param reader
+   *          the stream reader to read from
+   * @return the event reader
+   * @throws XMLStreamException
+   *           if an error occurred while creating the event reader
+   */
+  @NonNull
+  public static XMLEventReader2 newEventReader(@NonNull XMLStreamReader2 reader) throws XMLStreamException {
+    return ObjectUtils.notNull((XMLEventReader2) EventReaderFactoryHolder.FACTORY.createXMLEventReader(reader));
+  }
+
+  private static final class EventReaderFactoryHolder {
+    // event readers created over an existing stream reader do not depend on the
+    // factory's configuration, so a single instance is shared
+    @NonNull
+    private static final XMLInputFactory2 FACTORY = (XMLInputFactory2) ObjectUtils.notNull(
+        XMLInputFactory.newInstance());
+  }
+
+  public static CharSequence generateExpectedMessage(
+      @NonNull XMLStreamReader2 reader,
+      int presumedEventType,
+      @Nullable QName presumedName) {
+    StringBuilder builder = new StringBuilder(64);
+    builder
+        .append("Expected XML ")
+        .append(toEventName(presumedEventType));
+
+    if (presumedName != null) {
+      builder.append(" for QName '")
+          .append(presumedName.toString());
+    }
+
+    builder.append("', instead found ")
+        .append(toString(reader));
+    return builder;
+  }
 }
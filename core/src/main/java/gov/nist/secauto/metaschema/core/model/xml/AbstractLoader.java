@@ -40,20 +40,75 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
+/**
+ * Provides common support for loading resources that may import other
+ * resources.
+ * <p>
+ * Imported resources are loaded in parallel using the loader's executor.
+ * Resources are cached by URI using a thread-safe cache of pending and
+ * completed loads, so that each resource is parsed at most once, even when
+ * multiple resources import it concurrently.
+ *
+ * @param <T>
+ *          the type of loaded resource
+ */
 public abstract class AbstractLoader<T> {
   private static final Logger LOGGER = LogManager.getLogger(ConstraintLoader.class);
 
   @NonNull
-  private final Map<URI, T> cache = new LinkedHashMap<>(); // NOPMD - intentional
+  private final ForkJoinPool executor;
+  @NonNull
+  private final Map<URI, CompletableFuture<T>> cache
+      = Collections.synchronizedMap(new LinkedHashMap<>()); // NOPMD - intentional
+  /**
+   * The resources each resource is waiting on, used to detect import cycles that
+   * span multiple threads.
+   */
+  @NonNull
+  private final Map<URI, Set<URI>> dependencies = new HashMap<>(); // NOPMD - intentional
+
+  /**
+   * Construct a new loader that loads imported resources using the common
+   * fork-join pool.
+   */
+  protected AbstractLoader() {
+    this(ObjectUtils.notNull(ForkJoinPool.commonPool()));
+  }
+
+  /**
+   * Construct a new loader that loads imported resources using the provided
+   * fork-join pool.
+   * <p>
+   * Loading a resource waits for its imported resources to load. A fork-join pool
+   * compensates for such waits by activating additional workers, so the import
+   * depth is not limited by the pool's parallelism.
+   *
+   * @param executor
+   *          the pool used to load imported resources
+   */
+  protected AbstractLoader(@NonNull ForkJoinPool executor) {
+    this.executor = executor;
+  }
 
   /**
    * Retrieve the set of loaded resources.
@@ -62,17 +117,28 @@ public abstract class AbstractLoader<T> {
    */
   @NonNull
   public Collection<T> getLoadedResources() {
-    return CollectionUtil.unmodifiableCollection(ObjectUtils.notNull(cache.values()));
+    return CollectionUtil.unmodifiableCollection(ObjectUtils.notNull(getCachedEntries().values()));
   }
 
   /**
    * Retrieve a mapping of resource URIs to the associated loaded resource.
+   * <p>
+   * Only resources that have been completely loaded are included.
    *
    * @return the mapping
    */
   @NonNull
   protected Map<URI, T> getCachedEntries() {
-    return CollectionUtil.unmodifiableMap(cache);
+    Map<URI, T> retval = new LinkedHashMap<>(); // NOPMD - intentional
+    synchronized (cache) {
+      for (Map.Entry<URI, CompletableFuture<T>> entry : cache.entrySet()) {
+        CompletableFuture<T> future = entry.getValue();
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+          retval.put(entry.getKey(), future.join());
+        }
+      }
+    }
+    return CollectionUtil.unmodifiableMap(retval);
   }
 
   /**
@@ -156,8 +222,9 @@ public abstract class AbstractLoader<T> {
    * {@code visitedResources} can be used to track circular imports. This is
    * useful when this method recurses into included resources.
    * <p>
-   * Previously loaded resources are provided by the cache. This method will add
-   * the resource to the cache after all imported resources have been loaded.
+   * Previously loaded resources are provided by the cache. If the resource is
+   * being loaded by another thread, this method waits for that load to complete.
+   * A resource that fails to load is removed from the cache.
    *
    * @param resource
    *          the resource to load
@@ -176,30 +243,142 @@ public abstract class AbstractLoader<T> {
   protected T loadInternal(@NonNull URI resource, @NonNull Deque<URI> visitedResources)
       throws MetaschemaException, MalformedURLException, IOException {
     // first check if the current resource has been visited to prevent cycles
-    if (visitedResources.contains(resource)) {
+    if (visitedResources.contains(resource) || !addDependency(visitedResources.peek(), resource)) {
       throw new MetaschemaException("Cycle detected in metaschema includes for '" + resource + "'. Call stack: '"
           + visitedResources.stream().map(n -> n.toString()).collect(Collectors.joining(",")));
     }
 
-    T retval = cache.get(resource);
-    if (retval == null) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    CompletableFuture<T> existing = cache.putIfAbsent(resource, future);
+
+    T retval;
+    if (existing == null) {
       LOGGER.info("Loading module '{}'", resource);
 
       try {
         visitedResources.push(resource);
         retval = parseResource(resource, visitedResources);
+      } catch (IOException | RuntimeException ex) {
+        cache.remove(resource, future);
+        future.completeExceptionally(ex);
+        throw ex;
       } finally {
         visitedResources.pop();
       }
-      cache.put(resource, retval);
+      future.complete(retval);
     } else {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug("Found metaschema in cache '{}'", resource);
       }
+      retval = join(existing);
     }
     return ObjectUtils.notNull(retval);
   }
 
+  /**
+   * Loads the provided imported resources in parallel.
+   * <p>
+   * Each import is loaded as if by {@link #loadInternal(URI, Deque)}, using a
+   * copy of the provided {@code visitedResources}. The first import is loaded by
+   * the calling thread, while the remaining imports are loaded using this
+   * loader's executor.
+   *
+   * @param resources
+   *          the imported resources to load
+   * @param visitedResources
+   *          a LIFO queue representing previously visited resources in an import
+   *          chain, ending with the importing resource
+   * @return the loaded resources, in the same order as the provided
+   *         {@code resources}
+   * @throws MetaschemaException
+   *           if an error occurred while processing a resource
+   * @throws IOException
+   *           if an error occurred parsing a resource
+   */
+  @NonNull
+  protected List<T> loadImportsInternal(@NonNull List<URI> resources, @NonNull Deque<URI> visitedResources)
+      throws MetaschemaException, IOException {
+    List<CompletableFuture<T>> futures = new ArrayList<>(resources.size());
+    for (URI resource : resources.subList(Math.min(1, resources.size()), resources.size())) {
+      Deque<URI> visited = new LinkedList<>(visitedResources);
+      futures.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          return loadInternal(ObjectUtils.notNull(resource), visited);
+        } catch (MetaschemaException | IOException ex) {
+          throw new CompletionException(ex);
+        }
+      }, executor));
+    }
+
+    List<T> retval = new ArrayList<>(resources.size());
+    if (!resources.isEmpty()) {
+      retval.add(loadInternal(ObjectUtils.notNull(resources.get(0)), visitedResources));
+    }
+    for (CompletableFuture<T> future : futures) {
+      retval.add(join(future));
+    }
+    return retval;
+  }
+
+  /**
+   * Record that the {@code dependent} resource is waiting on the {@code resource}
+   * to load.
+   *
+   * @param dependent
+   *          the resource being loaded, or {@code null} if the resource is being
+   *          loaded directly
+   * @param resource
+   *          the resource it depends on
+   * @return {@code true} if the dependency was recorded, or {@code false} if it
+   *         would create a cycle
+   */
+  private boolean addDependency(@Nullable URI dependent, @NonNull URI resource) {
+    boolean retval = true;
+    if (dependent != null) {
+      synchronized (dependencies) {
+        if (isReachable(resource, dependent)) {
+          retval = false;
+        } else {
+          dependencies.computeIfAbsent(dependent, key -> new LinkedHashSet<>()).add(resource);
+        }
+      }
+    }
+    return retval;
+  }
+
+  private boolean isReachable(@NonNull URI from, @NonNull URI to) {
+    Set<URI> visited = new HashSet<>();
+    Deque<URI> pending = new LinkedList<>();
+    pending.push(from);
+    boolean retval = false;
+    while (!retval && !pending.isEmpty()) {
+      URI next = pending.pop();
+      if (next.equals(to)) {
+        retval = true;
+      } else if (visited.add(next)) {
+        pending.addAll(dependencies.getOrDefault(next, Collections.emptySet()));
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static <T> T join(@NonNull CompletableFuture<T> future) throws MetaschemaException, IOException {
+    try {
+      return ObjectUtils.notNull(future.join());
+    } catch (CompletionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof MetaschemaException) {
+        throw (MetaschemaException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw ex;
+    }
+  }
+
   /**
    * Parse the provided {@code resource}.
    *
@@ -48,6 +48,7 @@ import org.apache.xmlbeans.XmlOptions;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -83,12 +84,17 @@ public class ConstraintLoader
       importedConstraints = ObjectUtils.notNull(Collections.emptyMap());
     } else {
       try {
-        importedConstraints = new LinkedHashMap<>();
+        List<URI> importedResources = new ArrayList<>(size);
         for (METASCHEMACONSTRAINTSDocument.METASCHEMACONSTRAINTS.Import imported : xmlObject.getMETASCHEMACONSTRAINTS()
             .getImportList()) {
           URI importedResource = URI.create(imported.getHref());
-          importedResource = ObjectUtils.notNull(resource.resolve(importedResource));
-          importedConstraints.put(importedResource, loadInternal(importedResource, visitedResources));
+          importedResources.add(ObjectUtils.notNull(resource.resolve(importedResource)));
+        }
+
+        List<IConstraintSet> loadedConstraints = loadImportsInternal(importedResources, visitedResources);
+        importedConstraints = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+          importedConstraints.put(importedResources.get(i), loadedConstraints.get(i));
         }
       } catch (MetaschemaException ex) {
         throw new IOException(ex);
@@ -29,18 +29,31 @@ package gov.nist.secauto.metaschema.core.model.xml;
 import org.codehaus.stax2.XMLStreamWriter2;
 import org.codehaus.stax2.util.StreamWriter2Delegate;
 
+import java.nio.CharBuffer;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
+import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 
+import edu.umd.cs.findbugs.annotations.NonNull;
+
 public class IndentingXmlStreamWriter2
     extends StreamWriter2Delegate {
   private String indentText = DEFAULT_INDENT_TEXT;
   private String lineEndText = DEFAULT_LINE_END_TEXT;
   private int depth; // = 0;
   private final Map<Integer, Boolean> depthWithChildMap = new HashMap<>(); // NOPMD - synchronization not needed
+  @NonNull
+  private final Set<QName> suppressedElements = new HashSet<>(); // NOPMD - synchronization not needed
+  /**
+   * The depth of the element whose content is not indented, or {@code -1} if
+   * indentation is not suppressed.
+   */
+  private int suppressedDepth = -1;
   private static final String DEFAULT_INDENT_TEXT = "  ";
   private static final String DEFAULT_LINE_END_TEXT = "\n";
 
@@ -66,6 +79,33 @@ public class IndentingXmlStreamWriter2
     this.lineEndText = lineEndText;
   }
 
+  /**
+   * Suppress indentation within elements with the provided name. This is needed
+   * for elements that can start with child elements, but contain mixed content,
+   * since added whitespace would change their content.
+   * <p>
+   * Indentation is also suppressed within any element once non-whitespace text is
+   * written to it.
+   *
+   * @param namespaceURI
+   *          the element's namespace
+   * @param localName
+   *          the element's local name
+   */
+  public void suppressIndentation(@NonNull String namespaceURI, @NonNull String localName) {
+    suppressedElements.add(new QName(namespaceURI, localName));
+  }
+
+  /**
+   * Determine if indentation is currently being written.
+   *
+   * @return {@code true} if indentation is written, or {@code false} if it is
+   *         suppressed
+   */
+  protected boolean isIndenting() {
+    return suppressedDepth < 0;
+  }
+
   protected void handleStartElement() throws XMLStreamException {
     // update state of parent node
     if (depth > 0) {
@@ -73,21 +113,33 @@ public class IndentingXmlStreamWriter2
     }
     // reset state of current node
     depthWithChildMap.put(depth, false);
-    // indent for current depth
-    getParent().writeCharacters(getLineEndText());
-    getParent().writeCharacters(getIndentText().repeat(depth));
+    if (isIndenting()) {
+      // indent for current depth
+      getParent().writeCharacters(getLineEndText());
+      getParent().writeCharacters(getIndentText().repeat(depth));
+    }
     depth++;
   }
 
+  private void handleStartElementName(String namespaceURI, String localName) {
+    if (isIndenting()
+        && !suppressedElements.isEmpty()
+        && suppressedElements.contains(new QName(namespaceURI == null ? "" : namespaceURI, localName))) {
+      suppressedDepth = depth;
+    }
+  }
+
   @Override
   public void writeStartElement(String localName) throws XMLStreamException {
     handleStartElement();
+    handleStartElementName(null, localName);
     super.writeStartElement(localName);
   }
 
   @Override
   public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
     handleStartElement();
+    handleStartElementName(namespaceURI, localName);
     super.writeStartElement(namespaceURI, localName);
   }
 
@@ -96,17 +148,65 @@ public class IndentingXmlStreamWriter2
       String localName,
       String namespaceURI) throws XMLStreamException {
     handleStartElement();
+    handleStartElementName(namespaceURI, localName);
     super.writeStartElement(prefix, localName, namespaceURI);
   }
 
   protected void handleEndElement() throws XMLStreamException {
     depth--;
-    if (depthWithChildMap.get(depth)) {
-      getParent().writeCharacters(getLineEndText());
-      getParent().writeCharacters(getIndentText().repeat(depth));
+    if (isIndenting()) {
+      if (depthWithChildMap.get(depth)) {
+        getParent().writeCharacters(getLineEndText());
+        getParent().writeCharacters(getIndentText().repeat(depth));
+      }
+    } else if (depth < suppressedDepth) {
+      // the element with suppressed indentation has ended
+      suppressedDepth = -1;
+    }
+  }
+
+  /**
+   * Suppress indentation for the remainder of the current element if the provided
+   * text contains non-whitespace characters.
+   *
+   * @param text
+   *          the text being written
+   */
+  protected void handleText(CharSequence text) {
+    if (depth > 0 && isIndenting()) {
+      for (int i = 0; i < text.length(); i++) {
+        if (!Character.isWhitespace(text.charAt(i))) {
+          suppressedDepth = depth;
+          break;
+        }
+      }
     }
   }
 
+  @Override
+  public void writeCharacters(String text) throws XMLStreamException {
+    handleText(text);
+    super.writeCharacters(text);
+  }
+
+  @Override
+  public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+    handleText(CharBuffer.wrap(text, start, len));
+    super.writeCharacters(text, start, len);
+  }
+
+  @Override
+  public void writeCData(String data) throws XMLStreamException {
+    handleText(data);
+    super.writeCData(data);
+  }
+
+  @Override
+  public void writeEntityRef(String name) throws XMLStreamException {
+    handleText(name);
+    super.writeEntityRef(name);
+  }
+
   @Override
   public void writeEndElement() throws XMLStreamException {
     handleEndElement();
@@ -124,9 +224,11 @@ public class IndentingXmlStreamWriter2
     if (depth > 0) {
       depthWithChildMap.put(depth - 1, true);
     }
-    // indent for current depth
-    getParent().writeCharacters(getLineEndText());
-    getParent().writeCharacters(getIndentText().repeat(depth));
+    if (isIndenting()) {
+      // indent for current depth
+      getParent().writeCharacters(getLineEndText());
+      getParent().writeCharacters(getIndentText().repeat(depth));
+    }
   }
 
   @Override
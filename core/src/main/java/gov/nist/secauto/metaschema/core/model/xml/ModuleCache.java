@@ -0,0 +1,345 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.xml;
+
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.constraint.IConstraintSet;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.DigestUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A process-wide cache of loaded Metaschema modules, shared by all
+ * {@link ModuleLoader} instances.
+ * <p>
+ * The cache is disabled by default and can be enabled using
+ * {@link #setEnabled(boolean)}. Once enabled, loading a module that was
+ * previously loaded by any loader with the same additional constraints returns
+ * the already built module.
+ * <p>
+ * Modules are cached by their normalized URI and are softly referenced, so they
+ * can be reclaimed when memory is needed. Each cached module records the size,
+ * modification time, and content digest of the file it was loaded from, and of
+ * the files of all modules it imports. A cached module is discarded if any of
+ * these files has changed. A file's content is only digested again when its
+ * size or modification time has changed. Modules loaded from other types of
+ * resources, such as class path resources, are assumed not to change.
+ */
+public final class ModuleCache {
+  private static final Logger LOGGER = LogManager.getLogger(ModuleCache.class);
+  @NonNull
+  private static final ModuleCache INSTANCE = new ModuleCache();
+
+  private volatile boolean enabled; // NOPMD - default is false
+  @NonNull
+  private final Map<Key, SoftReference<Entry>> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Get the process-wide module cache.
+   *
+   * @return the cache
+   */
+  @NonNull
+  public static ModuleCache instance() {
+    return INSTANCE;
+  }
+
+  private ModuleCache() {
+    // disable construction
+  }
+
+  /**
+   * Determine if loaded modules are shared using this cache.
+   *
+   * @return {@code true} if the cache is enabled, or {@code false} otherwise
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enable or disable sharing of loaded modules using this cache. Disabling the
+   * cache also clears it.
+   *
+   * @param enabled
+   *          {@code true} to enable the cache, or {@code false} to disable it
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    if (!enabled) {
+      clear();
+    }
+  }
+
+  /**
+   * Remove all cached modules.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Get a previously cached module, if it is still current.
+   *
+   * @param resource
+   *          the location of the module
+   * @param constraintSets
+   *          the additional constraints applied to the module
+   * @return the cached module, or {@code null} if the module is not cached or any
+   *         of its source files have changed
+   */
+  @Nullable
+  IModule lookup(@NonNull URI resource, @NonNull Set<IConstraintSet> constraintSets) {
+    Key key = new Key(resource, constraintSets);
+    SoftReference<Entry> reference = entries.get(key);
+    Entry entry = reference == null ? null : reference.get();
+
+    IModule retval = null;
+    if (entry != null) {
+      if (entry.isCurrent()) {
+        retval = entry.getModule();
+      } else if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Discarding changed module '{}' from the shared cache", resource);
+      }
+    }
+
+    if (retval == null && reference != null) {
+      entries.remove(key, reference);
+    }
+    return retval;
+  }
+
+  /**
+   * Cache the provided module.
+   * <p>
+   * The module is only cached if all of its imported modules are also cached,
+   * since the state of their files is needed to detect changes.
+   *
+   * @param module
+   *          the module to cache
+   * @param constraintSets
+   *          the additional constraints applied to the module
+   * @param source
+   *          the state of the module's source, as captured by
+   *          {@link #capture(URI)} before the module was parsed
+   */
+  void register(
+      @NonNull IModule module,
+      @NonNull Set<IConstraintSet> constraintSets,
+      @Nullable SourceState source) {
+    URI resource = ObjectUtils.requireNonNull(module.getLocation());
+
+    Map<URI, SourceState> sources = new LinkedHashMap<>(); // NOPMD - intentional
+    sources.put(resource, source);
+    for (IModule imported : module.getImportedModules()) {
+      SoftReference<Entry> reference
+          = entries.get(new Key(ObjectUtils.requireNonNull(imported.getLocation()), constraintSets));
+      Entry entry = reference == null ? null : reference.get();
+      if (entry == null || entry.getModule() != imported) {
+        // the import's source states are not known
+        return;
+      }
+      sources.putAll(entry.getSources());
+    }
+
+    entries.put(
+        new Key(resource, constraintSets),
+        new SoftReference<>(new Entry(module, CollectionUtil.unmodifiableMap(sources))));
+  }
+
+  /**
+   * Capture the state of the file identified by the provided resource.
+   *
+   * @param resource
+   *          the resource to capture
+   * @return the state, or {@code null} if the resource is not a file
+   * @throws IOException
+   *           if an error occurred while reading the file
+   */
+  @Nullable
+  static SourceState capture(@NonNull URI resource) throws IOException {
+    SourceState retval = null;
+    if ("file".equals(resource.getScheme())) {
+      Path file = ObjectUtils.notNull(Paths.get(resource));
+      // read the attributes first, so a change while digesting is detected later
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      retval = new SourceState(
+          file,
+          attributes.size(),
+          ObjectUtils.notNull(attributes.lastModifiedTime()),
+          DigestUtil.digest(file));
+    }
+    return retval;
+  }
+
+  /**
+   * The recorded state of a module's source file.
+   */
+  static final class SourceState {
+    @NonNull
+    private final Path file;
+    private final long size;
+    @NonNull
+    private volatile FileTime lastModified;
+    @NonNull
+    private final byte[] digest;
+
+    private SourceState(@NonNull Path file, long size, @NonNull FileTime lastModified, @NonNull byte[] digest) {
+      this.file = file;
+      this.size = size;
+      this.lastModified = lastModified;
+      this.digest = digest;
+    }
+
+    /**
+     * Determine if the file still has the recorded content.
+     * <p>
+     * The content is only digested if the file's size is unchanged and its
+     * modification time has changed.
+     *
+     * @return {@code true} if the content is unchanged, or {@code false} otherwise
+     * @throws IOException
+     *           if an error occurred while reading the file
+     */
+    private boolean isCurrent() throws IOException {
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      FileTime modified = ObjectUtils.notNull(attributes.lastModifiedTime());
+
+      boolean retval;
+      if (attributes.size() != size) {
+        retval = false;
+      } else if (modified.equals(lastModified)) {
+        retval = true;
+      } else {
+        retval = MessageDigest.isEqual(digest, DigestUtil.digest(file));
+        if (retval) {
+          // the file was touched, but not changed
+          lastModified = modified;
+        }
+      }
+      return retval;
+    }
+  }
+
+  private static final class Key {
+    @NonNull
+    private final URI resource;
+    @NonNull
+    private final Set<IConstraintSet> constraintSets;
+
+    private Key(@NonNull URI resource, @NonNull Set<IConstraintSet> constraintSets) {
+      this.resource = ObjectUtils.notNull(resource.normalize());
+      this.constraintSets = constraintSets;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(resource, constraintSets);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true; // NOPMD - readability
+      }
+      if (!(obj instanceof Key)) {
+        return false; // NOPMD - readability
+      }
+      Key other = (Key) obj;
+      return resource.equals(other.resource) && constraintSets.equals(other.constraintSets);
+    }
+  }
+
+  private static final class Entry {
+    @NonNull
+    private final IModule module;
+    /**
+     * The state of the module's source and the sources of all of its imports. A
+     * {@code null} state indicates a source that is assumed not to change.
+     */
+    @NonNull
+    private final Map<URI, SourceState> sources;
+
+    private Entry(@NonNull IModule module, @NonNull Map<URI, SourceState> sources) {
+      this.module = module;
+      this.sources = sources;
+    }
+
+    @NonNull
+    public IModule getModule() {
+      return module;
+    }
+
+    @NonNull
+    public Map<URI, SourceState> getSources() {
+      return sources;
+    }
+
+    private boolean isCurrent() {
+      boolean retval = true;
+      for (Map.Entry<URI, SourceState> entry : sources.entrySet()) {
+        SourceState source = entry.getValue();
+        if (source != null) {
+          try {
+            retval = source.isCurrent();
+          } catch (NoSuchFileException ex) {
+            retval = false;
+          } catch (IOException ex) {
+            LOGGER.warn(String.format("Unable to read module '%s'", entry.getKey()), ex);
+            retval = false;
+          }
+          if (!retval) {
+            break;
+          }
+        }
+      }
+      return retval;
+    }
+  }
+}
@@ -51,6 +51,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.xml.XMLConstants;
 import javax.xml.parsers.ParserConfigurationException;
@@ -63,7 +64,10 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  * Provides methods to load a Metaschema expressed in XML.
  * <p>
  * Loaded Metaschema instances are cached to avoid the need to load them for
- * every use. Any Metaschema imported is also loaded and cached automatically.
+ * every use. Loaded modules can also be shared across loaders by enabling the
+ * {@link ModuleCache}. Any Metaschema imported is also loaded and cached
+ * automatically. Imported modules are loaded in parallel, while preserving the
+ * order in which they are imported.
  */
 public class ModuleLoader
     extends AbstractLoader<IModule> {
@@ -90,6 +94,21 @@ public class ModuleLoader
     this.registeredConstraintSets = CollectionUtil.unmodifiableSet(additionalConstraintSets);
   }
 
+  /**
+   * Construct a new Metaschema loader, which will incorporate the additional
+   * provided constraints into matching loaded definitions and will load imported
+   * modules using the provided fork-join pool.
+   *
+   * @param additionalConstraintSets
+   *          additional constraints to associate with loaded definitions
+   * @param executor
+   *          the pool used to load imported modules
+   */
+  public ModuleLoader(@NonNull Set<IConstraintSet> additionalConstraintSets, @NonNull ForkJoinPool executor) {
+    super(executor);
+    this.registeredConstraintSets = CollectionUtil.unmodifiableSet(additionalConstraintSets);
+  }
+
   /**
    * Get the set of additional constraints associated with this loader.
    *
@@ -137,6 +156,19 @@ public class ModuleLoader
   @Override
   protected IModule parseResource(@NonNull URI resource, @NonNull Deque<URI> visitedResources)
       throws IOException {
+    ModuleCache sharedCache = ModuleCache.instance();
+    boolean shared = sharedCache.isEnabled();
+    ModuleCache.SourceState source = null;
+    if (shared) {
+      IModule cached = sharedCache.lookup(resource, getRegisteredConstraintSets());
+      if (cached != null) {
+        return cached; // NOPMD - readability
+      }
+      // capture the source before parsing, so a concurrent change is detected
+      // on the next lookup
+      source = ModuleCache.capture(resource);
+    }
+
     // parse this Metaschema module
     METASCHEMADocument xmlObject = parseModule(resource);
 
@@ -147,11 +179,16 @@ public class ModuleLoader
       importedModules = ObjectUtils.notNull(Collections.emptyMap());
     } else {
       try {
-        importedModules = new LinkedHashMap<>();
+        List<URI> importedResources = new ArrayList<>(size);
         for (MetaschemaImportType imported : xmlObject.getMETASCHEMA().getImportList()) {
           URI importedResource = URI.create(imported.getHref());
-          importedResource = ObjectUtils.notNull(resource.resolve(importedResource));
-          importedModules.put(importedResource, loadInternal(importedResource, visitedResources));
+          importedResources.add(ObjectUtils.notNull(resource.resolve(importedResource)));
+        }
+
+        List<IModule> loadedModules = loadImportsInternal(importedResources, visitedResources);
+        importedModules = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+          importedModules.put(importedResources.get(i), loadedModules.get(i));
         }
       } catch (MetaschemaException ex) {
         throw new IOException(ex);
@@ -160,11 +197,17 @@ public class ModuleLoader
 
     // now create this metaschema
     Collection<IModule> values = importedModules.values();
+    IModule retval;
     try {
-      return newXmlMetaschema(resource, xmlObject, new ArrayList<>(values));
+      retval = newXmlMetaschema(resource, xmlObject, new ArrayList<>(values));
     } catch (MetaschemaException ex) {
       throw new IOException(ex);
     }
+
+    if (shared) {
+      sharedCache.register(retval, getRegisteredConstraintSets(), source);
+    }
+    return retval;
   }
 
   /**
@@ -0,0 +1,106 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Provides functions for computing SHA-256 content digests.
+ */
+public final class DigestUtil {
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final int BUFFER_SIZE = 8192;
+  @NonNull
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private DigestUtil() {
+    // disable construction
+  }
+
+  /**
+   * Create a new SHA-256 message digest.
+   *
+   * @return the message digest
+   */
+  @NonNull
+  public static MessageDigest newDigest() {
+    try {
+      return ObjectUtils.notNull(MessageDigest.getInstance(DIGEST_ALGORITHM));
+    } catch (NoSuchAlgorithmException ex) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Compute the digest of the content of the provided file.
+   *
+   * @param file
+   *          the file to digest
+   * @return the digest
+   * @throws java.nio.file.NoSuchFileException
+   *           if the file does not exist
+   * @throws IOException
+   *           if an error occurred while reading the file
+   */
+  @NonNull
+  public static byte[] digest(@NonNull Path file) throws IOException {
+    MessageDigest digest = newDigest();
+    try (InputStream is = new DigestInputStream(Files.newInputStream(file), digest)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (is.read(buffer) != -1) { // NOPMD - digest is updated as a side effect
+        // consume the stream
+      }
+    }
+    return ObjectUtils.notNull(digest.digest());
+  }
+
+  /**
+   * Encode the provided digest as a lowercase hexadecimal string.
+   *
+   * @param bytes
+   *          the digest to encode
+   * @return the encoded digest
+   */
+  @NonNull
+  public static String toHex(@NonNull byte[] bytes) {
+    char[] retval = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      retval[i * 2] = HEX_DIGITS[bytes[i] >> 4 & 0xF];
+      retval[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+    }
+    return new String(retval);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.datatype;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import gov.nist.secauto.metaschema.core.datatype.adapter.MetaschemaDataTypeProvider;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IAnyAtomicItem;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.net.URI;
+
+class ValueInternerTest {
+
+  @Test
+  void testStringValuesShared() {
+    ValueInterner interner = new ValueInterner();
+    String first = new String("control"); // NOPMD - distinct instances needed
+    String second = new String("control"); // NOPMD - distinct instances needed
+
+    assertAll(
+        () -> assertSame(first, interner.intern(MetaschemaDataTypeProvider.TOKEN, first)),
+        () -> assertSame(first, interner.intern(MetaschemaDataTypeProvider.TOKEN, second)),
+        () -> assertSame(first, interner.intern(MetaschemaDataTypeProvider.STRING, second)),
+        () -> assertEquals(1, interner.size()));
+  }
+
+  @Test
+  void testUriMatchesExactForm() {
+    ValueInterner interner = new ValueInterner();
+    URI lower = URI.create("http://example.com/a");
+    URI upper = URI.create("HTTP://EXAMPLE.COM/a");
+
+    assertAll(
+        () -> assertSame(lower, interner.intern(MetaschemaDataTypeProvider.URI, lower)),
+        () -> assertSame(lower, interner.intern(MetaschemaDataTypeProvider.URI, URI.create("http://example.com/a"))),
+        () -> assertSame(upper, interner.intern(MetaschemaDataTypeProvider.URI, upper)));
+  }
+
+  @Test
+  void testItemsSharedPerDataType() {
+    ValueInterner interner = new ValueInterner();
+
+    IAnyAtomicItem token = interner.newItem(MetaschemaDataTypeProvider.TOKEN, "part");
+    IAnyAtomicItem string = interner.newItem(MetaschemaDataTypeProvider.STRING, "part");
+
+    assertAll(
+        () -> assertSame(token, interner.newItem(MetaschemaDataTypeProvider.TOKEN, new String("part"))), // NOPMD
+        () -> assertNotSame(token, string),
+        () -> assertEquals("part", string.asString()));
+  }
+
+  @Test
+  void testOtherTypesPassedThrough() {
+    ValueInterner interner = new ValueInterner();
+    BigInteger value = BigInteger.valueOf(1000);
+
+    assertAll(
+        () -> assertSame(value, interner.intern(MetaschemaDataTypeProvider.INTEGER, value)),
+        () -> assertEquals(0, interner.size()));
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.datatype.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+class LexicalScannerTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "2019-09-28T23:20:50.52Z",
+      "2019-09-28T23:20:50.5200",
+      "2019-12-02T16:39:57-08:00",
+      "2019-12-02T16:39:57.123456789+05:30",
+      "2019-12-31T23:59:59",
+      "0001-01-01T00:00:00",
+      "9999-12-31T23:59:59Z",
+  })
+  void testDateTimeMatchesFormatter(String value) {
+    ZonedDateTime scanned = LexicalScanner.scanDateTime(ObjectUtils.notNull(value), false);
+    ZonedDateTime expected = LexicalScanner.hasTimeZone(ObjectUtils.notNull(value))
+        ? ZonedDateTime.from(DateFormats.DATE_TIME_WITH_TZ.parse(value))
+        : ZonedDateTime.of(LocalDateTime.from(DateFormats.DATE_TIME_WITHOUT_TZ.parse(value)), ZoneOffset.UTC);
+    assertEquals(expected, scanned);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "2019-02-29T00:00:00",
+      "2019-13-01T00:00:00",
+      "2019-12-01T24:00:00",
+      "2019-12-01T23:00:00.",
+      "2019-12-01T23:00:00+5:00",
+      "2019-12-01 23:00:00",
+      "2019-12-01",
+      "0000-01-01T00:00:00",
+  })
+  void testDateTimeNotScanned(String value) {
+    assertNull(LexicalScanner.scanDateTime(ObjectUtils.notNull(value), false));
+  }
+
+  @Test
+  void testDate() {
+    assertAll(
+        () -> assertEquals(
+            ZonedDateTime.of(2020, 2, 29, 0, 0, 0, 0, ZoneOffset.ofHours(-5)),
+            LexicalScanner.scanDate("2020-02-29-05:00", true)),
+        () -> assertEquals(
+            ZonedDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+            LexicalScanner.scanDate("2020-01-01", false)),
+        () -> assertNull(LexicalScanner.scanDate("2020-01-01", true)),
+        () -> assertNull(LexicalScanner.scanDate("2100-02-29", false)),
+        () -> assertNull(LexicalScanner.scanDate("1899-01-01", false)),
+        () -> assertNull(LexicalScanner.scanDate("0000-01-01", false)));
+  }
+
+  @Test
+  void testLeapDayInNineteenHundreds() {
+    // the scanner checks the leap year, while the date pattern rejected 19xx-02-29
+    assertAll(
+        () -> assertEquals(
+            ZonedDateTime.of(1904, 2, 29, 0, 0, 0, 0, ZoneOffset.UTC),
+            LexicalScanner.scanDate("1904-02-29", false)),
+        () -> assertTrue(new DateAdapter().isValid("1904-02-29")),
+        () -> assertTrue(new DateWithTZAdapter().isValid("1996-02-29Z")),
+        () -> assertNull(LexicalScanner.scanDate("1900-02-29", false)),
+        () -> assertFalse(new DateAdapter().isValid("1900-02-29")),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DateWithTZAdapter().parse("1900-02-29Z")));
+  }
+
+  @Test
+  void testYearZeroRejected() {
+    assertAll(
+        () -> assertFalse(new DateTimeAdapter().isValid("0000-01-01T00:00:00")),
+        () -> assertFalse(new DateTimeAdapter().isValid("0000-01-01T00:00:00Z")),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DateTimeWithTZAdapter().parse("0000-01-01T00:00:00Z")),
+        () -> assertFalse(new DateAdapter().isValid("0000-01-01")),
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DateWithTZAdapter().parse("0000-01-01Z")));
+  }
+
+  @Test
+  void testUuid() {
+    String value = "5a3b1e6c-7b4f-4a5d-9c2e-0f1e2d3c4b5a";
+    assertAll(
+        () -> assertEquals(UUID.fromString(value), LexicalScanner.scanUuid(value)),
+        () -> assertEquals(UUID.fromString(value), LexicalScanner.scanUuid(value.toUpperCase())),
+        () -> assertNull(LexicalScanner.scanUuid("5a3b1e6c-7b4f-4a5d-9c2e-0f1e2d3c4b5g")),
+        () -> assertNull(LexicalScanner.scanUuid("5a3b1e6c7b4f-4a5d-9c2e-0f1e2d3c4b5a0")));
+  }
+
+  @Test
+  void testInteger() {
+    assertAll(
+        () -> assertEquals(BigInteger.valueOf(-42), LexicalScanner.scanInteger("-42")),
+        () -> assertEquals(BigInteger.valueOf(42), LexicalScanner.scanInteger("+42")),
+        () -> assertEquals(new BigInteger("999999999999999999"), LexicalScanner.scanInteger("999999999999999999")),
+        // too long for the fast path, but still valid
+        () -> assertNull(LexicalScanner.scanInteger("9999999999999999999")),
+        () -> assertNull(LexicalScanner.scanInteger("-")),
+        () -> assertNull(LexicalScanner.scanInteger("1.0")));
+  }
+
+  @Test
+  void testDecimal() {
+    assertAll(
+        () -> assertTrue(LexicalScanner.isDecimal("-1.5")),
+        () -> assertTrue(LexicalScanner.isDecimal(".5")),
+        () -> assertTrue(LexicalScanner.isDecimal("5.")),
+        () -> assertFalse(LexicalScanner.isDecimal(".")),
+        () -> assertFalse(LexicalScanner.isDecimal("1.2.3")));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "_a-b.c1",
+      "été",
+      "1abc",
+      "a:b",
+      "not a token",
+      "",
+  })
+  void testTokenAndNcNameValidityMatchesParse(String value) {
+    // token and NCName values are not checked lexically when parsed
+    assertAll(
+        () -> assertEquals(value, new TokenAdapter().parse(ObjectUtils.notNull(value))),
+        () -> assertTrue(new TokenAdapter().isValid(ObjectUtils.notNull(value))),
+        () -> assertEquals(value, new NcNameAdapter().parse(ObjectUtils.notNull(value))),
+        () -> assertTrue(new NcNameAdapter().isValid(ObjectUtils.notNull(value))));
+  }
+
+  @Test
+  void testAdapterValidity() {
+    assertAll(
+        () -> assertTrue(new DateTimeAdapter().isValid("2019-12-31T23:59:59")),
+        () -> assertFalse(new DateTimeAdapter().isValid("2019-12-31")),
+        () -> assertTrue(new IntegerAdapter().isValid("99999999999999999999999")),
+        () -> assertFalse(new IntegerAdapter().isValid("1a")),
+        () -> assertTrue(new DecimalAdapter().isValid("1E5")),
+        () -> assertNotNull(new UuidAdapter().parse("5a3b1e6c-7b4f-4a5d-9c2e-0f1e2d3c4b5a")));
+  }
+}
@@ -391,4 +391,36 @@ class MarkupStringTest {
         () -> Assertions.assertEquals(1, children.size()),
         () -> Assertions.assertEquals(Heading.class, children.get(0).getClass()));
   }
+
+  @Test
+  void testDeferredMarkdownPassThrough() throws XMLStreamException, IOException {
+    // not normalized by the formatter, so a re-rendering would differ
+    final String markdown = "Some  *more*   text";
+
+    MarkupLine ms = MarkupLine.deferredFromMarkdown(markdown);
+    Assertions.assertAll(
+        () -> Assertions.assertEquals(markdown, ms.toMarkdown()),
+        () -> Assertions.assertFalse(ms.isParsed()),
+        () -> Assertions.assertEquals("Some  <em>more</em>   text", ms.toXHtml("")),
+        () -> Assertions.assertTrue(ms.isParsed()));
+  }
+
+  @Test
+  void testDeferredMultipleBlocksInLine() {
+    Assertions.assertAll(
+        () -> Assertions.assertThrows(IllegalStateException.class,
+            () -> MarkupLine.deferredFromMarkdown("# Heading\n\nparagraph")),
+        () -> Assertions.assertThrows(IllegalStateException.class,
+            () -> MarkupLine.deferredFromHtml("text <p>paragraph</p>")));
+  }
+
+  @Test
+  void testDeferredSingleBlockInLine() {
+    MarkupLine markdown = MarkupLine.deferredFromMarkdown("Some *more* text");
+    MarkupLine html = MarkupLine.deferredFromHtml("Some <em>more</em>\n  text");
+    Assertions.assertAll(
+        () -> Assertions.assertFalse(markdown.isParsed()),
+        () -> Assertions.assertFalse(html.isParsed()),
+        () -> Assertions.assertEquals("Some *more* text", html.toMarkdown()));
+  }
 }
@@ -0,0 +1,184 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.datatype.markup.flexmark;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ctc.wstx.stax.WstxInputFactory;
+
+import gov.nist.secauto.metaschema.core.datatype.markup.MarkupLine;
+import gov.nist.secauto.metaschema.core.datatype.markup.MarkupMultiline;
+
+import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.XMLStreamReader2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+class MarkdownStreamConverterTest {
+
+  private static XMLEventReader2 newReader(String xml) throws XMLStreamException {
+    XMLInputFactory2 factory = (XMLInputFactory2) XMLInputFactory.newInstance();
+    assert factory instanceof WstxInputFactory;
+    factory.configureForXmlConformance();
+    XMLEventReader2 reader = (XMLEventReader2) factory.createXMLEventReader(new StringReader(xml));
+    // start document
+    reader.nextEvent();
+    // start of the containing element
+    reader.nextEvent();
+    return reader;
+  }
+
+  private static XMLStreamReader2 newStreamReader(String xml) throws XMLStreamException {
+    XMLInputFactory2 factory = (XMLInputFactory2) XMLInputFactory.newInstance();
+    assert factory instanceof WstxInputFactory;
+    factory.configureForXmlConformance();
+    XMLStreamReader2 reader = (XMLStreamReader2) factory.createXMLStreamReader(new StringReader(xml));
+    // start of the containing element
+    reader.next();
+    // the content of the containing element
+    reader.next();
+    return reader;
+  }
+
+  private static MarkupMultiline parseMultiline(String xhtml) throws XMLStreamException {
+    return XmlMarkupParser.instance().parseMarkupMultiline(newReader("<node>" + xhtml + "</node>"));
+  }
+
+  @Test
+  void testDirectConversion() throws XMLStreamException {
+    MarkupMultiline ms = parseMultiline(
+        "<h2>Title</h2>\n<p>Some <em>more</em> <strong>text</strong> with <code>a &lt; b</code>, "
+            + "a <q>quote</q> and a <a href=\"https://example.com/#x\">link</a>.</p>\n"
+            + "<p>A param: <insert type=\"param\" id-ref=\"ac-1_prm_1\"/>.</p>");
+
+    assertAll(
+        () -> assertEquals("## Title\n\n"
+            + "Some *more* **text** with `a < b`, a \"quote\" and a [link](https://example.com/#x).\n\n"
+            + "A param: {{ insert: param, ac-1_prm_1 }}.", ms.toMarkdown()),
+        () -> assertFalse(ms.isParsed()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "<h2>Title</h2>\n<p>Some <em>more</em> <strong>text</strong>.</p>",
+      "<p>Some <code>code</code> and a <q>quote</q>.</p>",
+      "<p>A <a href=\"https://example.com/\">link</a> and <insert type=\"param\" id-ref=\"ac-1_prm_1\"/>.</p>",
+  })
+  void testMatchesAstConversion(String xhtml) throws XMLStreamException, IOException {
+    MarkupMultiline direct = parseMultiline(xhtml);
+    MarkupMultiline viaAst = MarkupMultiline.fromHtml(xhtml);
+
+    assertAll(
+        () -> assertEquals(viaAst.toMarkdown().trim(), direct.toMarkdown().trim()),
+        () -> assertEquals(viaAst.toXHtml(""), direct.toXHtml("")));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      // lists are not handled directly
+      "<ul><li>item</li></ul>",
+      // text that would need escaping
+      "<p>2 * 3 = 6</p>",
+      "<p>it's</p>",
+      // paragraph starts that would be read as a list
+      "<p>1. item</p>",
+      // adjacent emphasis
+      "<p><em>a</em><strong>b</strong></p>",
+      // a quote directly followed by text
+      "<p><q>a</q>b</p>",
+      // whitespace that would be normalized
+      "<p>a\n  b</p>",
+  })
+  void testFallback(String xhtml) throws XMLStreamException {
+    MarkupMultiline ms = parseMultiline(xhtml);
+    assertFalse(ms.isParsed());
+    ms.toMarkdown();
+    // HTML sources must be parsed to produce markdown
+    assertTrue(ms.isParsed());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "<h2>Title</h2>\n<p>Some <em>more</em> <strong>text</strong>.</p>",
+      "<p>A <a href=\"https://example.com/\">link</a> and <insert type=\"param\" id-ref=\"ac-1_prm_1\"/>.</p>",
+      "<ul><li>item</li></ul>",
+      "<table><tr><td>a &amp; b</td></tr></table>",
+      "<p><q>a</q>b</p>",
+  })
+  void testCursorMatchesEvents(String xhtml) throws XMLStreamException, IOException {
+    MarkupMultiline events = parseMultiline(xhtml);
+    XMLStreamReader2 reader = newStreamReader("<node>" + xhtml + "</node>");
+    MarkupMultiline cursor = XmlMarkupParser.instance().parseMarkupMultiline(reader);
+
+    assertAll(
+        () -> assertEquals(events.toMarkdown(), cursor.toMarkdown()),
+        () -> assertEquals(events.toXHtml(""), cursor.toXHtml("")),
+        // the reader is left on the end of the containing element
+        () -> assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType()),
+        () -> assertEquals("node", reader.getLocalName()));
+  }
+
+  @Test
+  void testCursorLine() throws XMLStreamException {
+    XMLStreamReader2 reader = newStreamReader("<title>A <em>short</em> title</title>");
+    MarkupLine ms = XmlMarkupParser.instance().parseMarkupline(reader);
+    assertAll(
+        () -> assertEquals("A *short* title", ms.toMarkdown()),
+        () -> assertFalse(ms.isParsed()),
+        () -> assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType()));
+  }
+
+  @Test
+  void testLine() throws XMLStreamException {
+    MarkupLine ms = XmlMarkupParser.instance().parseMarkupline(
+        newReader("<title>A <em>short</em> title</title>"));
+    assertAll(
+        () -> assertEquals("A *short* title", ms.toMarkdown()),
+        () -> assertFalse(ms.isParsed()));
+  }
+
+  @Test
+  void testPlainMarkdownToXHtml() throws XMLStreamException, IOException {
+    MarkupMultiline ms = MarkupMultiline.deferredFromMarkdown("First paragraph.\n\nSecond paragraph.");
+    assertAll(
+        () -> assertEquals("<p>First paragraph.</p>\n<p>Second paragraph.</p>", ms.toXHtml("")),
+        () -> assertFalse(ms.isParsed()),
+        () -> assertEquals(MarkupMultiline.fromMarkdown(ms.toMarkdown()).toXHtml(""), ms.toXHtml("")));
+  }
+}
@@ -27,6 +27,7 @@
 package gov.nist.secauto.metaschema.core.metapath;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -76,6 +77,19 @@ class MetapathExpressionTest {
   // }
   // }
 
+  @Test
+  void testFocusLocal() {
+    assertTrue(MetapathExpression.compile(".").isFocusLocal());
+    assertTrue(MetapathExpression.compile("part[@name='item']/@id").isFocusLocal());
+    assertTrue(MetapathExpression.compile(".//prop[@name=('a','b')]").isFocusLocal());
+    assertTrue(MetapathExpression.compile("exists(child::control)").isFocusLocal());
+    assertFalse(MetapathExpression.compile("../@id").isFocusLocal());
+    assertFalse(MetapathExpression.compile("ancestor::catalog/@uuid").isFocusLocal());
+    assertFalse(MetapathExpression.compile("/catalog/metadata").isFocusLocal());
+    assertFalse(MetapathExpression.compile("//prop").isFocusLocal());
+    assertFalse(MetapathExpression.compile("control[exists(path(.))]").isFocusLocal());
+  }
+
   @Test
   void testSyntaxError() {
     assertThrows(MetapathException.class, () -> {
@@ -28,16 +28,21 @@ package gov.nist.secauto.metaschema.core.metapath;
 
 import static gov.nist.secauto.metaschema.core.metapath.TestUtils.decimal;
 import static gov.nist.secauto.metaschema.core.metapath.TestUtils.integer;
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import gov.nist.secauto.metaschema.core.metapath.function.OperationFunctions;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.IIntegerItem;
 import gov.nist.secauto.metaschema.core.metapath.item.atomic.INumericItem;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.math.BigInteger;
 import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -79,4 +84,36 @@ class OperationFunctionsTest {
     assertEquals(expected, result);
   }
 
+  @Test
+  void testLongOverflowPromotesToBigInteger() {
+    IIntegerItem max = IIntegerItem.valueOf(Long.MAX_VALUE);
+    IIntegerItem min = IIntegerItem.valueOf(Long.MIN_VALUE);
+    BigInteger bigMax = BigInteger.valueOf(Long.MAX_VALUE);
+    BigInteger bigMin = BigInteger.valueOf(Long.MIN_VALUE);
+
+    assertAll(
+        () -> assertEquals(IIntegerItem.valueOf(bigMax.add(BigInteger.ONE)),
+            OperationFunctions.opNumericAdd(max, IIntegerItem.ONE)),
+        () -> assertEquals(IIntegerItem.valueOf(bigMin.subtract(BigInteger.ONE)),
+            OperationFunctions.opNumericSubtract(min, IIntegerItem.ONE)),
+        () -> assertEquals(IIntegerItem.valueOf(bigMax.multiply(BigInteger.TWO)),
+            OperationFunctions.opNumericMultiply(max, integer(2))),
+        () -> assertEquals(IIntegerItem.valueOf(bigMin.negate()),
+            OperationFunctions.opNumericIntegerDivide(min, IIntegerItem.NEGATIVE_ONE)),
+        () -> assertEquals(IIntegerItem.valueOf(bigMin.negate()),
+            OperationFunctions.opNumericUnaryMinus(min)),
+        () -> assertEquals(IIntegerItem.valueOf(-6),
+            OperationFunctions.opNumericMultiply(integer(-2), integer(3))),
+        () -> assertTrue(OperationFunctions.opNumericLessThan(min, max).toBoolean()),
+        () -> assertTrue(OperationFunctions.opNumericGreaterThan(
+            IIntegerItem.valueOf(bigMax.add(BigInteger.ONE)), max).toBoolean()));
+  }
+
+  @Test
+  void testSmallIntegersAreShared() {
+    assertAll(
+        () -> assertSame(IIntegerItem.valueOf(42), IIntegerItem.valueOf(BigInteger.valueOf(42))),
+        () -> assertSame(IIntegerItem.ZERO, IIntegerItem.valueOf(0)),
+        () -> assertSame(IIntegerItem.NEGATIVE_ONE, OperationFunctions.opNumericSubtract(integer(1), integer(2))));
+  }
 }
@@ -6,7 +6,10 @@ import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import gov.nist.secauto.metaschema.core.metapath.format.IPathFormatter;
 import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
 import gov.nist.secauto.metaschema.core.model.IFieldInstance;
 import gov.nist.secauto.metaschema.core.testing.MockedModelTestSupport;
@@ -98,7 +101,11 @@ class DefaultNodeItemFactoryTest
         () -> assertThat(modelItems, containsInAnyOrder(
             allOf(
                 match("name", model -> model.getName(), equalTo("field1")),
-                match("value", model -> model.getValue(), equalTo("field1 value"))))));
+                match("value", model -> model.getValue(), equalTo("field1 value"))))),
+        () -> flagItems.forEach(
+            flag -> assertEquals(flag.toPath(IPathFormatter.METAPATH_PATH_FORMATER), flag.getMetapath())),
+        // model paths are cached
+        () -> modelItems.forEach(model -> assertSame(model.getMetapath(), model.getMetapath())));
   }
 
   private static <T, R> FeatureMatcher<T, R> match(
@@ -0,0 +1,95 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.datatype.markup.MarkupLine;
+import gov.nist.secauto.metaschema.core.model.constraint.IConstraint.InternalModelSource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class AllowedValuesTableTest {
+  @NonNull
+  private static DefaultAllowedValuesConstraint allowedValues(
+      @NonNull IAllowedValuesConstraint.Extensible extensible,
+      @NonNull String... values) {
+    DefaultAllowedValuesConstraint.Builder builder = DefaultAllowedValuesConstraint.builder()
+        .source(InternalModelSource.instance())
+        .extensible(extensible);
+    for (String value : values) {
+      builder.allowedValue(new DefaultAllowedValue(value, MarkupLine.fromMarkdown(value)));
+    }
+    return builder.build();
+  }
+
+  @Test
+  void testExtensibleConstraints() {
+    DefaultAllowedValuesConstraint first = allowedValues(IAllowedValuesConstraint.Extensible.EXTERNAL, "a", "b");
+    DefaultAllowedValuesConstraint second = allowedValues(IAllowedValuesConstraint.Extensible.MODEL, "b", "c");
+    AllowedValuesTable table = new AllowedValuesTable(List.of(first, second));
+
+    assertAll(
+        () -> assertTrue(table.getFailedConstraints("a").isEmpty()),
+        () -> assertTrue(table.getFailedConstraints("b").isEmpty()),
+        () -> assertTrue(table.getFailedConstraints("c").isEmpty()),
+        () -> assertEquals(List.of(first, second), table.getFailedConstraints("d")));
+  }
+
+  @Test
+  void testNonExtensibleConstraint() {
+    DefaultAllowedValuesConstraint first = allowedValues(IAllowedValuesConstraint.Extensible.MODEL, "a", "b");
+    DefaultAllowedValuesConstraint none = allowedValues(IAllowedValuesConstraint.Extensible.NONE, "b");
+    AllowedValuesTable table = new AllowedValuesTable(List.of(first, none));
+
+    assertAll(
+        () -> assertTrue(table.getFailedConstraints("b").isEmpty()),
+        // allowed by the first constraint, but the non-extensible constraint wins
+        () -> assertEquals(List.of(none), table.getFailedConstraints("a")),
+        () -> assertEquals(List.of(none), table.getFailedConstraints("z")));
+  }
+
+  @Test
+  void testMultipleNonExtensibleConstraints() {
+    DefaultAllowedValuesConstraint first = allowedValues(IAllowedValuesConstraint.Extensible.NONE, "x");
+    DefaultAllowedValuesConstraint second = allowedValues(IAllowedValuesConstraint.Extensible.NONE, "y");
+    AllowedValuesTable table = new AllowedValuesTable(List.of(first, second));
+
+    assertAll(
+        // allowed by the first constraint, but not by the second
+        () -> assertEquals(List.of(second), table.getFailedConstraints("x")),
+        () -> assertEquals(List.of(first), table.getFailedConstraints("y")),
+        // the first constraint that fails is reported
+        () -> assertEquals(List.of(first), table.getFailedConstraints("z")));
+  }
+}
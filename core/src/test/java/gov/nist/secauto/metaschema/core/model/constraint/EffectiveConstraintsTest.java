@@ -0,0 +1,134 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
+import gov.nist.secauto.metaschema.core.model.IFieldDefinition;
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.MetaschemaException;
+import gov.nist.secauto.metaschema.core.model.xml.ConstraintLoader;
+import gov.nist.secauto.metaschema.core.model.xml.ModuleLoader;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+class EffectiveConstraintsTest {
+  private static final String MODULE = "<METASCHEMA xmlns=\"http://csrc.nist.gov/ns/oscal/metaschema/1.0\">"
+      + "<schema-name>Test</schema-name>"
+      + "<schema-version>1.0</schema-version>"
+      + "<short-name>test</short-name>"
+      + "<namespace>http://example.com/ns/test</namespace>"
+      + "<json-base-uri>http://example.com/ns/test</json-base-uri>"
+      + "<define-assembly name=\"root\"><root-name>root</root-name><model><field ref=\"value\"/></model>"
+      + "</define-assembly>"
+      + "<define-field name=\"value\"/>"
+      + "</METASCHEMA>";
+
+  private static final String CONSTRAINTS
+      = "<METASCHEMA-CONSTRAINTS xmlns=\"http://csrc.nist.gov/ns/oscal/metaschema/1.0\">"
+          + "<name>Test Constraints</name>"
+          + "<version>1.0</version>"
+          + "<scope metaschema-namespace=\"http://example.com/ns/test\" metaschema-short-name=\"test\">"
+          + "<assembly target=\"/root\">"
+          + "<expect target=\".\" test=\"value\" level=\"WARNING\"/>"
+          + "<has-cardinality target=\"value\" min-occurs=\"1\"/>"
+          + "</assembly>"
+          + "<field target=\"/root/value\">"
+          + "<allowed-values><enum value=\"a\">A</enum></allowed-values>"
+          + "<matches datatype=\"string\" level=\"WARNING\"/>"
+          + "</field>"
+          + "</scope>"
+          + "</METASCHEMA-CONSTRAINTS>";
+
+  private static final String OTHER_CONSTRAINTS
+      = "<METASCHEMA-CONSTRAINTS xmlns=\"http://csrc.nist.gov/ns/oscal/metaschema/1.0\">"
+          + "<name>Other Constraints</name>"
+          + "<version>1.0</version>"
+          + "<scope metaschema-namespace=\"http://example.com/ns/test\" metaschema-short-name=\"test\">"
+          + "<field target=\"/root/value\">"
+          + "<allowed-values><enum value=\"b\">B</enum></allowed-values>"
+          + "</field>"
+          + "</scope>"
+          + "</METASCHEMA-CONSTRAINTS>";
+
+  @Test
+  void testEffectiveConstraints(@TempDir Path dir) throws MetaschemaException, IOException {
+    Path modulePath = ObjectUtils.notNull(Files.writeString(dir.resolve("module.xml"), MODULE));
+    Path constraintsPath = ObjectUtils.notNull(Files.writeString(dir.resolve("constraints.xml"), CONSTRAINTS));
+
+    Set<IConstraintSet> constraintSets = CollectionUtil.singleton(new ConstraintLoader().load(constraintsPath));
+    IModule module = new ModuleLoader().load(modulePath);
+    IAssemblyDefinition root = ObjectUtils.requireNonNull(module.getAssemblyDefinitionByName("root"));
+    IFieldDefinition value = ObjectUtils.requireNonNull(module.getFieldDefinitionByName("value"));
+
+    EffectiveConstraints table = EffectiveConstraints.of(constraintSets, module);
+    assertSame(table, EffectiveConstraints.of(constraintSets, module), "Expected the table to be cached.");
+    assertEquals(constraintSets, table.getConstraintSets());
+
+    // the definitions are not changed until the table is applied
+    assertEquals(0, value.getAllowedValuesConstraints().size());
+
+    table.apply();
+    IConstraintSet.applyConstraintSetToModule(constraintSets, module);
+    assertAll(
+        () -> assertEquals(1, value.getAllowedValuesConstraints().size(), "Expected constraints to apply once."),
+        () -> assertEquals(1, value.getMatchesConstraints().size(), "Expected constraints to apply once."),
+        () -> assertEquals(1, root.getExpectConstraints().size(), "Expected constraints to apply once."),
+        () -> assertEquals(1, root.getHasCardinalityConstraints().size(), "Expected constraints to apply once."));
+  }
+
+  @Test
+  void testOverlappingConstraintSets(@TempDir Path dir) throws MetaschemaException, IOException {
+    Path modulePath = ObjectUtils.notNull(Files.writeString(dir.resolve("module.xml"), MODULE));
+    Path constraintsPath = ObjectUtils.notNull(Files.writeString(dir.resolve("constraints.xml"), CONSTRAINTS));
+    Path otherPath = ObjectUtils.notNull(Files.writeString(dir.resolve("other.xml"), OTHER_CONSTRAINTS));
+
+    ConstraintLoader constraintLoader = new ConstraintLoader();
+    IConstraintSet constraints = constraintLoader.load(constraintsPath);
+    IConstraintSet other = constraintLoader.load(otherPath);
+    IModule module = new ModuleLoader().load(modulePath);
+    IFieldDefinition value = ObjectUtils.requireNonNull(module.getFieldDefinitionByName("value"));
+
+    IConstraintSet.applyConstraintSetToModule(CollectionUtil.singleton(constraints), module);
+    assertEquals(1, value.getAllowedValuesConstraints().size());
+
+    // only the constraint set that has not been applied yet is added
+    IConstraintSet.applyConstraintSetToModule(Set.of(constraints, other), module);
+    assertEquals(2, value.getAllowedValuesConstraints().size(), "Expected each constraint set to apply once.");
+  }
+}
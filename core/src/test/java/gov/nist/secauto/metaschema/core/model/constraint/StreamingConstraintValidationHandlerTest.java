@@ -0,0 +1,132 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.constraint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import gov.nist.secauto.metaschema.core.metapath.format.IPathFormatter;
+import gov.nist.secauto.metaschema.core.metapath.item.atomic.IStringItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.IFlagNodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.MockNodeItemFactory;
+import gov.nist.secauto.metaschema.core.model.constraint.IConstraint.InternalModelSource;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.jmock.junit5.JUnit5Mockery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+
+class StreamingConstraintValidationHandlerTest {
+  @RegisterExtension
+  Mockery context = new JUnit5Mockery();
+
+  @SuppressWarnings("null")
+  private void report(StreamingConstraintValidationHandler handler) {
+    MockNodeItemFactory itemFactory = new MockNodeItemFactory(context);
+
+    IFlagNodeItem flag1 = itemFactory.flag("value", IStringItem.valueOf("a"));
+    IFlagNodeItem flag2 = itemFactory.flag("value", IStringItem.valueOf("b"));
+
+    context.checking(new Expectations() {
+      { // NOPMD - intentional
+        allowing(flag1).toPath(with(any(IPathFormatter.class)));
+        will(returnValue("/root/@value1"));
+        allowing(flag1).getBaseUri();
+        will(returnValue(URI.create("file:/test.xml")));
+        allowing(flag2).toPath(with(any(IPathFormatter.class)));
+        will(returnValue("/root/@value2"));
+        allowing(flag2).getBaseUri();
+        will(returnValue(URI.create("file:/test.xml")));
+      }
+    });
+
+    IMatchesConstraint constraint = DefaultMatchesConstraint.builder()
+        .source(InternalModelSource.instance())
+        .identifier("digits")
+        .regex("[0-9]+")
+        .build();
+
+    handler.setMaxFindingsPerConstraint(1);
+    handler.handleMatchPatternViolation(constraint, flag1, flag1, "a");
+    // a duplicate of the first finding
+    handler.handleMatchPatternViolation(constraint, flag1, flag1, "a");
+    // over the per-constraint cap
+    handler.handleMatchPatternViolation(constraint, flag2, flag2, "b");
+  }
+
+  @Test
+  void testJsonLines() throws IOException {
+    StringWriter writer = new StringWriter();
+    try (StreamingConstraintValidationHandler handler = new StreamingConstraintValidationHandler(
+        writer, StreamingConstraintValidationHandler.Format.JSON_LINES)) {
+      report(handler);
+
+      assertEquals(1, handler.getWrittenCount());
+      assertEquals(1, handler.getDuplicateCount());
+      assertEquals(1, handler.getSuppressedCount());
+      assertFalse(handler.isPassing());
+    }
+
+    String[] lines = writer.toString().split("\n");
+    assertEquals(1, lines.length);
+
+    JsonNode finding = new ObjectMapper().readTree(lines[0]);
+    assertEquals("ERROR", finding.get("severity").asText());
+    assertEquals("digits", finding.get("constraint-id").asText());
+    assertEquals("/root/@value1", finding.get("path").asText());
+  }
+
+  @Test
+  void testSarif() throws IOException {
+    StringWriter writer = new StringWriter();
+    try (StreamingConstraintValidationHandler handler = new StreamingConstraintValidationHandler(
+        writer, StreamingConstraintValidationHandler.Format.SARIF)) {
+      report(handler);
+    }
+
+    JsonNode log = new ObjectMapper().readTree(writer.toString());
+    assertEquals("2.1.0", log.get("version").asText());
+
+    JsonNode run = log.get("runs").get(0);
+    assertEquals(1, run.get("results").size());
+
+    JsonNode result = run.get("results").get(0);
+    assertEquals("digits", result.get("ruleId").asText());
+    assertEquals("error", result.get("level").asText());
+    assertEquals("/root/@value1",
+        result.get("locations").get(0).get("logicalLocations").get(0).get("fullyQualifiedName").asText());
+    assertEquals(1, run.get("invocations").get(0).get("toolExecutionNotifications").size());
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.xml;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.model.DefinitionGraph;
+import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
+import gov.nist.secauto.metaschema.core.model.IDefinition;
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.MetaschemaException;
+import gov.nist.secauto.metaschema.core.model.UsedDefinitionModelWalker;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+
+class DefinitionGraphTest {
+  private static final String MODULE = "<METASCHEMA xmlns=\"http://csrc.nist.gov/ns/oscal/metaschema/1.0\">"
+      + "<schema-name>Test</schema-name>"
+      + "<schema-version>1.0</schema-version>"
+      + "<short-name>test</short-name>"
+      + "<namespace>http://example.com/ns/test</namespace>"
+      + "<json-base-uri>http://example.com/ns/test</json-base-uri>"
+      + "<define-assembly name=\"root\"><root-name>root</root-name>"
+      + "<flag ref=\"id\"/>"
+      + "<model>"
+      + "<assembly ref=\"part\"/>"
+      + "<choice><field ref=\"a\"/><field ref=\"b\"/></choice>"
+      + "</model>"
+      + "</define-assembly>"
+      + "<define-assembly name=\"part\">"
+      + "<model><assembly ref=\"part\"/><field ref=\"a\"/></model>"
+      + "</define-assembly>"
+      + "<define-field name=\"a\"/>"
+      + "<define-field name=\"b\"/>"
+      + "<define-field name=\"unused\"/>"
+      + "<define-flag name=\"id\"/>"
+      + "</METASCHEMA>";
+
+  @Test
+  void testGraph(@TempDir Path dir) throws MetaschemaException, IOException {
+    IModule module = new ModuleLoader().load(ObjectUtils.notNull(
+        Files.writeString(dir.resolve("module.xml"), MODULE)));
+
+    DefinitionGraph graph = DefinitionGraph.of(module);
+    assertSame(graph, DefinitionGraph.of(module), "Expected the graph to be cached.");
+
+    IAssemblyDefinition root = ObjectUtils.requireNonNull(module.getAssemblyDefinitionByName("root"));
+    IAssemblyDefinition part = ObjectUtils.requireNonNull(module.getAssemblyDefinitionByName("part"));
+    IDefinition fieldA = ObjectUtils.requireNonNull(module.getFieldDefinitionByName("a"));
+    IDefinition fieldB = ObjectUtils.requireNonNull(module.getFieldDefinitionByName("b"));
+    IDefinition unused = ObjectUtils.requireNonNull(module.getFieldDefinitionByName("unused"));
+    IDefinition flag = ObjectUtils.requireNonNull(module.getFlagDefinitionByName("id"));
+
+    DefinitionGraph.Node rootNode = ObjectUtils.requireNonNull(graph.getNode(root));
+    DefinitionGraph.Node partNode = ObjectUtils.requireNonNull(graph.getNode(part));
+    DefinitionGraph.Node nodeA = ObjectUtils.requireNonNull(graph.getNode(fieldA));
+    DefinitionGraph.Node nodeB = ObjectUtils.requireNonNull(graph.getNode(fieldB));
+    DefinitionGraph.Node flagNode = ObjectUtils.requireNonNull(graph.getNode(flag));
+
+    assertAll(
+        () -> assertEquals(5, graph.getDefinitions().size()),
+        () -> assertFalse(graph.isReachable(unused), "unused definition is not reachable"),
+        () -> assertTrue(rootNode.isRoot()),
+        () -> assertEquals(1, rootNode.getReferenceCount()),
+        () -> assertFalse(rootNode.isRecursive()),
+        () -> assertEquals(2, partNode.getReferenceCount()),
+        () -> assertTrue(partNode.isRecursive()),
+        () -> assertTrue(graph.isRecursiveReference(part, part)),
+        () -> assertFalse(graph.isRecursiveReference(root, part)),
+        () -> assertEquals(2, nodeA.getReferenceCount()),
+        () -> assertTrue(nodeA.isUsedAsChoice()),
+        () -> assertTrue(nodeA.isChoiceSibling()),
+        () -> assertEquals(1, nodeB.getReferenceCount()),
+        () -> assertTrue(nodeB.isUsedAsChoice()),
+        () -> assertEquals(1, flagNode.getReferenceCount()),
+        () -> assertEquals(
+            graph.getDefinitions(),
+            new HashSet<>(UsedDefinitionModelWalker.collectUsedDefinitionsFromModule(module))));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.codehaus.stax2.XMLOutputFactory2;
+import org.codehaus.stax2.XMLStreamWriter2;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+
+class IndentingXmlStreamWriter2Test {
+  private static final String NS = "urn:test";
+
+  @Test
+  void testMixedContentIsNotIndented() throws XMLStreamException {
+    StringWriter out = new StringWriter();
+    XMLOutputFactory2 factory = (XMLOutputFactory2) XMLOutputFactory.newInstance();
+    IndentingXmlStreamWriter2 writer
+        = new IndentingXmlStreamWriter2((XMLStreamWriter2) factory.createXMLStreamWriter(out));
+    writer.suppressIndentation(NS, "p");
+
+    writer.writeStartElement("", "doc", NS);
+    writer.writeDefaultNamespace(NS);
+    // suppressed by name
+    writer.writeStartElement(NS, "p");
+    writer.writeStartElement(NS, "b");
+    writer.writeCharacters("bold");
+    writer.writeEndElement();
+    writer.writeCharacters(" text");
+    writer.writeEndElement();
+    // suppressed once text is written
+    writer.writeStartElement(NS, "line");
+    writer.writeCharacters("a ");
+    writer.writeStartElement(NS, "i");
+    writer.writeCharacters("b");
+    writer.writeEndElement();
+    writer.writeEndElement();
+    writer.writeEmptyElement(NS, "empty");
+    writer.writeEndElement();
+    writer.close();
+
+    assertEquals("\n<doc xmlns=\"urn:test\">"
+        + "\n  <p><b>bold</b> text</p>"
+        + "\n  <line>a <i>b</i></line>"
+        + "\n  <empty/>"
+        + "\n</doc>", out.toString());
+  }
+}
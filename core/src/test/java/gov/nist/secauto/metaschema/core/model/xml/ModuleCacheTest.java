@@ -0,0 +1,121 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.core.model.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.MetaschemaException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+class ModuleCacheTest {
+
+  @BeforeEach
+  void enableCache() {
+    ModuleCache.instance().setEnabled(true);
+  }
+
+  @AfterEach
+  void disableCache() {
+    ModuleCache.instance().setEnabled(false);
+  }
+
+  @Test
+  void testSharedAcrossLoaders(@TempDir Path dir) throws MetaschemaException, IOException {
+    ModuleLoaderTest.writeModule(dir, "common");
+    Path root = ModuleLoaderTest.writeModule(dir, "root", "common");
+
+    IModule first = new ModuleLoader().load(root);
+    IModule second = new ModuleLoader().load(root);
+    assertSame(first, second, "Expected the module to be shared.");
+  }
+
+  @Test
+  void testInvalidatedOnImportChange(@TempDir Path dir) throws MetaschemaException, IOException {
+    ModuleLoaderTest.writeModule(dir, "common");
+    Path root = ModuleLoaderTest.writeModule(dir, "root", "common");
+
+    IModule first = new ModuleLoader().load(root);
+
+    // change the content of the imported module
+    ModuleLoaderTest.writeModule(dir, "common", "other");
+    ModuleLoaderTest.writeModule(dir, "other");
+
+    IModule second = new ModuleLoader().load(root);
+    assertNotSame(first, second, "Expected the changed module to be reloaded.");
+    assertEquals(1, second.getImportedModules().get(0).getImportedModules().size());
+  }
+
+  @Test
+  void testSharedAfterTouch(@TempDir Path dir) throws MetaschemaException, IOException {
+    Path common = ModuleLoaderTest.writeModule(dir, "common");
+    Path root = ModuleLoaderTest.writeModule(dir, "root", "common");
+
+    IModule first = new ModuleLoader().load(root);
+
+    // the modification time changes, but the content does not
+    touch(common);
+
+    IModule second = new ModuleLoader().load(root);
+    assertSame(first, second, "Expected the unchanged module to be shared.");
+  }
+
+  @Test
+  void testInvalidatedOnSameSizeChange(@TempDir Path dir) throws MetaschemaException, IOException {
+    Path common = ModuleLoaderTest.writeModule(dir, "common");
+    Path root = ModuleLoaderTest.writeModule(dir, "root", "common");
+
+    IModule first = new ModuleLoader().load(root);
+
+    // change the content of the imported module, without changing its size
+    String content = Files.readString(common, StandardCharsets.UTF_8);
+    Files.writeString(common, content.replace("<schema-version>1.0", "<schema-version>2.0"),
+        StandardCharsets.UTF_8);
+    touch(common);
+
+    IModule second = new ModuleLoader().load(root);
+    assertNotSame(first, second, "Expected the changed module to be reloaded.");
+    assertEquals("2.0", second.getImportedModules().get(0).getVersion());
+  }
+
+  private static void touch(Path file) throws IOException {
+    FileTime modified = Files.getLastModifiedTime(file);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 10_000));
+  }
+}
@@ -30,6 +30,9 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
 import gov.nist.secauto.metaschema.core.model.IFlagDefinition;
@@ -42,11 +45,21 @@ import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
 
 class ModuleLoaderTest {
 
@@ -111,4 +124,81 @@ class ModuleLoaderTest {
         () -> assertEquals(1, allowedValues.get(0).getAllowedValues().values().size(),
             "Expecting a single allowed value. Entity reference not parsed."));
   }
+
+  @Test
+  void testParallelImports(@TempDir Path dir) throws MetaschemaException, IOException {
+    writeModule(dir, "common");
+    for (int i = 0; i < 8; i++) {
+      writeModule(dir, "import" + i, "common");
+    }
+    Path root = writeModule(dir, "root", ObjectUtils.notNull(Stream.iterate(7, i -> i - 1)
+        .limit(8)
+        .map(i -> "import" + i)
+        .toArray(String[]::new)));
+
+    IModule module = new ModuleLoader().load(root);
+
+    List<? extends IModule> imports = module.getImportedModules();
+    assertEquals(
+        List.of("import7", "import6", "import5", "import4", "import3", "import2", "import1", "import0"),
+        imports.stream().map(IModule::getShortName).collect(Collectors.toList()),
+        "Imports must preserve their declared order.");
+
+    IModule common = imports.get(0).getImportedModuleByShortName("common");
+    assertNotNull(common, "common module not found");
+    for (IModule imported : imports) {
+      assertSame(common, imported.getImportedModuleByShortName("common"), "Expected a single cached instance.");
+    }
+  }
+
+  @Test
+  void testNestedImportsOnSingleWorkerPool(@TempDir Path dir) throws MetaschemaException, IOException {
+    // each module loads its next module on the pool and waits for it, so the
+    // waits nest deeper than the pool's parallelism
+    int depth = 8;
+    writeModule(dir, "chain" + depth);
+    for (int i = depth - 1; i >= 0; i--) {
+      writeModule(dir, "leaf" + i);
+      writeModule(dir, "chain" + i, "leaf" + i, "chain" + (i + 1));
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(1);
+    try {
+      IModule module = assertTimeoutPreemptively(Duration.ofSeconds(60),
+          () -> new ModuleLoader(CollectionUtil.emptySet(), pool).load(dir.resolve("chain0.xml")));
+      for (int i = 1; i <= depth; i++) {
+        module = module.getImportedModuleByShortName("chain" + i);
+        assertNotNull(module, "chain" + i + " module not found");
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testImportCycle(@TempDir Path dir) throws IOException {
+    writeModule(dir, "a", "b");
+    writeModule(dir, "b", "c");
+    Path root = writeModule(dir, "c", "a");
+
+    assertThrows(IOException.class, () -> new ModuleLoader().load(root));
+  }
+
+  @NonNull
+  static Path writeModule(@NonNull Path dir, @NonNull String name, @NonNull String... imports)
+      throws IOException {
+    StringBuilder builder = new StringBuilder(256)
+        .append("<METASCHEMA xmlns=\"http://csrc.nist.gov/ns/oscal/metaschema/1.0\">")
+        .append("<schema-name>").append(name).append("</schema-name>")
+        .append("<schema-version>1.0</schema-version>")
+        .append("<short-name>").append(name).append("</short-name>")
+        .append("<namespace>http://example.com/ns/").append(name).append("</namespace>")
+        .append("<json-base-uri>http://example.com/ns/").append(name).append("</json-base-uri>");
+    for (String imported : imports) {
+      builder.append("<import href=\"").append(imported).append(".xml\"/>");
+    }
+    builder.append("</METASCHEMA>");
+    return ObjectUtils.notNull(
+        Files.writeString(dir.resolve(name + ".xml"), builder.toString(), StandardCharsets.UTF_8));
+  }
 }
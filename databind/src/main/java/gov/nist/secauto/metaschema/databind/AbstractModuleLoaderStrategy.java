@@ -36,8 +36,8 @@ import gov.nist.secauto.metaschema.databind.model.IClassBinding;
 import gov.nist.secauto.metaschema.databind.model.annotations.MetaschemaAssembly;
 import gov.nist.secauto.metaschema.databind.model.annotations.MetaschemaField;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -45,10 +45,13 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 class AbstractModuleLoaderStrategy implements IModuleLoaderStrategy {
   @NonNull
   private final IBindingContext bindingContext;
+  // Lookups read these maps without locking. New entries are created while
+  // holding the lock on this strategy, since creating a module or binding can
+  // recursively look up other bindings, which computeIfAbsent does not support.
   @NonNull
-  private final Map<Class<?>, IModule> modulesByClass = new HashMap<>(); // NOPMD - intentional
+  private final Map<Class<?>, IModule> modulesByClass = new ConcurrentHashMap<>();
   @NonNull
-  private final Map<Class<?>, IClassBinding> classBindingsByClass = new HashMap<>(); // NOPMD - intentional
+  private final Map<Class<?>, IClassBinding> classBindingsByClass = new ConcurrentHashMap<>();
 
   protected AbstractModuleLoaderStrategy(@NonNull IBindingContext bindingContext) {
     this.bindingContext = bindingContext;
@@ -61,12 +64,14 @@ class AbstractModuleLoaderStrategy implements IModuleLoaderStrategy {
 
   @Override
   public IModule getModuleByClass(@NonNull Class<? extends IModule> clazz) {
-    IModule retval;
-    synchronized (this) {
-      retval = modulesByClass.get(clazz);
-      if (retval == null) {
-        retval = AbstractBoundModule.createInstance(clazz, getBindingContext());
-        modulesByClass.put(clazz, retval);
+    IModule retval = modulesByClass.get(clazz);
+    if (retval == null) {
+      synchronized (this) {
+        retval = modulesByClass.get(clazz);
+        if (retval == null) {
+          retval = AbstractBoundModule.createInstance(clazz, getBindingContext());
+          modulesByClass.put(clazz, retval);
+        }
       }
     }
     return ObjectUtils.notNull(retval);
@@ -74,13 +79,15 @@ class AbstractModuleLoaderStrategy implements IModuleLoaderStrategy {
 
   @Override
   public IClassBinding getClassBinding(@NonNull Class<?> clazz) {
-    IClassBinding retval;
-    synchronized (this) {
-      retval = classBindingsByClass.get(clazz);
-      if (retval == null) {
-        retval = newClassBinding(clazz);
-        if (retval != null) {
-          classBindingsByClass.put(clazz, retval);
+    IClassBinding retval = classBindingsByClass.get(clazz);
+    if (retval == null) {
+      synchronized (this) {
+        retval = classBindingsByClass.get(clazz);
+        if (retval == null) {
+          retval = newClassBinding(clazz);
+          if (retval != null) {
+            classBindingsByClass.put(clazz, retval);
+          }
         }
       }
     }
@@ -100,8 +107,6 @@ class AbstractModuleLoaderStrategy implements IModuleLoaderStrategy {
 
   @Override
   public Map<Class<?>, IClassBinding> getClassBindingsByClass() {
-    synchronized (this) {
-      return CollectionUtil.unmodifiableMap(classBindingsByClass);
-    }
+    return CollectionUtil.unmodifiableMap(classBindingsByClass);
   }
 }
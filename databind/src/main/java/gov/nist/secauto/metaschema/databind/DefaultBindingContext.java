@@ -31,7 +31,6 @@ import gov.nist.secauto.metaschema.core.datatype.IDataTypeAdapter;
 import gov.nist.secauto.metaschema.core.model.IModule;
 import gov.nist.secauto.metaschema.core.model.constraint.IConstraintSet;
 import gov.nist.secauto.metaschema.core.util.CollectionUtil;
-import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.databind.io.BindingException;
 import gov.nist.secauto.metaschema.databind.io.DefaultBoundLoader;
 import gov.nist.secauto.metaschema.databind.io.Format;
@@ -47,11 +46,12 @@ import gov.nist.secauto.metaschema.databind.io.yaml.DefaultYamlSerializer;
 import gov.nist.secauto.metaschema.databind.model.IAssemblyClassBinding;
 import gov.nist.secauto.metaschema.databind.model.IClassBinding;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.xml.namespace.QName;
 
@@ -69,14 +69,29 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  * {@link #newSerializer(Format, Class)} and
  * {@link #newDeserializer(Format, Class)} methods will
  * <p>
- * This class is synchronized and is thread-safe.
+ * This class is thread-safe. Lookups of cached information do not require
+ * locking.
  */
 public class DefaultBindingContext implements IBindingContext {
-  private static DefaultBindingContext singleton;
+  private static volatile DefaultBindingContext singleton;
   @NonNull
   private final IModuleLoaderStrategy moduleLoaderStrategy;
   @NonNull
-  private final List<IBindingMatcher> bindingMatchers = new LinkedList<>();
+  private final List<IBindingMatcher> bindingMatchers = new CopyOnWriteArrayList<>();
+  /**
+   * Index of previously matched XML root names. Matchers are consulted in
+   * registration order and new matchers are only ever appended, so a match never
+   * changes once found.
+   */
+  @NonNull
+  private final Map<QName, Class<?>> boundClassesByXmlQName = new ConcurrentHashMap<>();
+  /**
+   * Index of previously matched JSON root names.
+   *
+   * @see #boundClassesByXmlQName
+   */
+  @NonNull
+  private final Map<String, Class<?>> boundClassesByJsonName = new ConcurrentHashMap<>();
 
   /**
    * Get the singleton instance of this binding context.
@@ -85,12 +100,17 @@ public class DefaultBindingContext implements IBindingContext {
    */
   @NonNull
   public static DefaultBindingContext instance() {
-    synchronized (DefaultBindingContext.class) {
-      if (singleton == null) {
-        singleton = new DefaultBindingContext();
+    DefaultBindingContext retval = singleton;
+    if (retval == null) {
+      synchronized (DefaultBindingContext.class) {
+        retval = singleton;
+        if (retval == null) {
+          retval = new DefaultBindingContext();
+          singleton = retval;
+        }
       }
     }
-    return ObjectUtils.notNull(singleton);
+    return retval;
   }
 
   /**
@@ -192,9 +212,7 @@ public class DefaultBindingContext implements IBindingContext {
 
   @Override
   public DefaultBindingContext registerBindingMatcher(@NonNull IBindingMatcher matcher) {
-    synchronized (this) {
-      bindingMatchers.add(matcher);
-    }
+    bindingMatchers.add(matcher);
     return this;
   }
 
@@ -206,18 +224,19 @@ public class DefaultBindingContext implements IBindingContext {
    */
   @NonNull
   protected List<? extends IBindingMatcher> getBindingMatchers() {
-    synchronized (this) {
-      return CollectionUtil.unmodifiableList(bindingMatchers);
-    }
+    return CollectionUtil.unmodifiableList(bindingMatchers);
   }
 
   @Override
   public Class<?> getBoundClassForXmlQName(@NonNull QName rootQName) {
-    Class<?> retval = null;
-    for (IBindingMatcher matcher : getBindingMatchers()) {
-      retval = matcher.getBoundClassForXmlQName(rootQName);
-      if (retval != null) {
-        break;
+    Class<?> retval = boundClassesByXmlQName.get(rootQName);
+    if (retval == null) {
+      for (IBindingMatcher matcher : getBindingMatchers()) {
+        retval = matcher.getBoundClassForXmlQName(rootQName);
+        if (retval != null) {
+          boundClassesByXmlQName.putIfAbsent(rootQName, retval);
+          break;
+        }
       }
     }
     return retval;
@@ -225,11 +244,14 @@ public class DefaultBindingContext implements IBindingContext {
 
   @Override
   public Class<?> getBoundClassForJsonName(@NonNull String rootName) {
-    Class<?> retval = null;
-    for (IBindingMatcher matcher : getBindingMatchers()) {
-      retval = matcher.getBoundClassForJsonName(rootName);
-      if (retval != null) {
-        break;
+    Class<?> retval = boundClassesByJsonName.get(rootName);
+    if (retval == null) {
+      for (IBindingMatcher matcher : getBindingMatchers()) {
+        retval = matcher.getBoundClassForJsonName(rootName);
+        if (retval != null) {
+          boundClassesByJsonName.putIfAbsent(rootName, retval);
+          break;
+        }
       }
     }
     return retval;
@@ -28,11 +28,13 @@ package gov.nist.secauto.metaschema.databind;
 
 import gov.nist.secauto.metaschema.core.model.IModule;
 import gov.nist.secauto.metaschema.core.model.MetaschemaException;
+import gov.nist.secauto.metaschema.core.model.constraint.EffectiveConstraints;
 import gov.nist.secauto.metaschema.core.model.constraint.IConstraintSet;
 import gov.nist.secauto.metaschema.databind.model.IClassBinding;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -40,7 +42,18 @@ class ExternalConstraintsModuleLoaderStrategy
     extends AbstractModuleLoaderStrategy {
   @NonNull
   private final Set<IConstraintSet> externalConstraintSets;
-  private final Set<IModule> resolvedModules = new HashSet<>();
+  /**
+   * Modules that have had the external constraints applied. This is read without
+   * locking, so a module is only added once constraint application is complete.
+   */
+  @NonNull
+  private final Set<IModule> resolvedModules = ConcurrentHashMap.newKeySet();
+  /**
+   * Modules that constraints are being applied to, which is used to avoid loops.
+   * Guarded by its own lock.
+   */
+  @NonNull
+  private final Set<IModule> resolvingModules = new HashSet<>();
 
   protected ExternalConstraintsModuleLoaderStrategy(
       @NonNull IBindingContext bindingContext,
@@ -60,18 +73,26 @@ class ExternalConstraintsModuleLoaderStrategy
     if (retval != null) {
       // force loading of metaschema information to apply constraints
       IModule module = retval.getContainingModule();
-      synchronized (resolvedModules) {
-        if (!resolvedModules.contains(module)) {
-          // add first, to avoid loops
+      if (!resolvedModules.contains(module)) {
+        resolveModule(module);
+      }
+    }
+    return retval;
+  }
+
+  private void resolveModule(@NonNull IModule module) {
+    synchronized (resolvingModules) {
+      // add first, to avoid loops
+      if (!resolvedModules.contains(module) && resolvingModules.add(module)) {
+        try {
+          EffectiveConstraints.of(getExternalConstraintSets(), module).apply();
+        } catch (MetaschemaException ex) {
+          throw new IllegalStateException(ex);
+        } finally {
           resolvedModules.add(module);
-          try {
-            IConstraintSet.applyConstraintSetToModule(getExternalConstraintSets(), module);
-          } catch (MetaschemaException ex) {
-            throw new IllegalStateException(ex);
-          }
+          resolvingModules.remove(module);
         }
       }
     }
-    return retval;
   }
 }
@@ -38,6 +38,7 @@ import gov.nist.secauto.metaschema.core.model.constraint.DefaultConstraintValida
 import gov.nist.secauto.metaschema.core.model.constraint.FindingCollectingConstraintValidationHandler;
 import gov.nist.secauto.metaschema.core.model.constraint.IConstraintValidationHandler;
 import gov.nist.secauto.metaschema.core.model.constraint.IConstraintValidator;
+import gov.nist.secauto.metaschema.core.model.constraint.IncrementalConstraintValidator;
 import gov.nist.secauto.metaschema.core.model.validation.AggregateValidationResult;
 import gov.nist.secauto.metaschema.core.model.validation.IValidationResult;
 import gov.nist.secauto.metaschema.core.model.validation.JsonSchemaContentValidator;
@@ -311,6 +312,24 @@ public interface IBindingContext extends IModuleLoaderStrategy {
     return handler;
   }
 
+  /**
+   * Get a new validator that retains its state between runs, allowing a document
+   * to be revalidated after an edit without re-evaluating constraints that the
+   * edit cannot affect.
+   *
+   * @return the validator
+   */
+  @NonNull
+  default IncrementalConstraintValidator newIncrementalValidator() {
+    IBoundLoader loader = newBoundLoader();
+    loader.disableFeature(DeserializationFeature.DESERIALIZE_VALIDATE_CONSTRAINTS);
+
+    DynamicContext context = StaticContext.newInstance().newDynamicContext();
+    context.setDocumentLoader(loader);
+
+    return new IncrementalConstraintValidator(context);
+  }
+
   /**
    * Load and perform schema and constraint validation on the target. The
    * constraint validation will only be performed if the schema validation passes.
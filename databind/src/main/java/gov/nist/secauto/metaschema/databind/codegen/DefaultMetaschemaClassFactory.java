@@ -87,19 +87,20 @@ import org.apache.commons.lang3.builder.MultilineRecursiveToStringStyle;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.net.URI;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Formatter;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -115,6 +116,8 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 class DefaultMetaschemaClassFactory implements IMetaschemaClassFactory {
   @NonNull
   private final ITypeResolver typeResolver;
+  @NonNull
+  private final Executor executor;
 
   /**
    * Get a new instance of the this class generation factory that uses the
@@ -127,7 +130,26 @@ class DefaultMetaschemaClassFactory implements IMetaschemaClassFactory {
    */
   @NonNull
   public static DefaultMetaschemaClassFactory newInstance(@NonNull ITypeResolver typeResolver) {
-    return new DefaultMetaschemaClassFactory(typeResolver);
+    return new DefaultMetaschemaClassFactory(typeResolver, Runnable::run);
+  }
+
+  /**
+   * Get a new instance of the this class generation factory that uses the
+   * provided {@code typeResolver}, generating definition classes using the
+   * provided {@code executor}.
+   *
+   * @param typeResolver
+   *          the resolver used to generate type information for Metasschema
+   *          constructs
+   * @param executor
+   *          the executor used to generate definition classes concurrently
+   * @return the new class factory
+   */
+  @NonNull
+  public static DefaultMetaschemaClassFactory newInstance(
+      @NonNull ITypeResolver typeResolver,
+      @NonNull Executor executor) {
+    return new DefaultMetaschemaClassFactory(typeResolver, executor);
   }
 
   /**
@@ -137,9 +159,14 @@ class DefaultMetaschemaClassFactory implements IMetaschemaClassFactory {
    * @param typeResolver
    *          the resolver used to generate type information for Metasschema
    *          constructs
+   * @param executor
+   *          the executor used to generate definition classes concurrently
    */
-  protected DefaultMetaschemaClassFactory(@NonNull ITypeResolver typeResolver) {
+  protected DefaultMetaschemaClassFactory(
+      @NonNull ITypeResolver typeResolver,
+      @NonNull Executor executor) {
     this.typeResolver = typeResolver;
+    this.executor = executor;
   }
 
   @Override
@@ -159,64 +186,88 @@ class DefaultMetaschemaClassFactory implements IMetaschemaClassFactory {
     TypeSpec.Builder classSpec = newClassBuilder(module, className);
 
     JavaFile javaFile = JavaFile.builder(className.packageName(), classSpec.build()).build();
-    Path classFile = ObjectUtils.notNull(javaFile.writeToPath(targetDirectory));
+    Path classFile = SourceFileWriter.write(javaFile, targetDirectory);
 
     // now generate all related definition classes
     Stream<? extends IFlagContainer> globalDefinitions = Stream.concat(
         module.getAssemblyDefinitions().stream(),
         module.getFieldDefinitions().stream());
 
+    // Get type information for assembly and field definitions. This is done in
+    // order, before any classes are generated concurrently, so that class names
+    // are assigned deterministically.
+    List<IModelDefinitionTypeInfo> typeInfos = ObjectUtils.notNull(globalDefinitions
+        // Avoid field definitions without flags that don't require a generated class
+        .flatMap(definition -> {
+          IModelDefinitionTypeInfo typeInfo = null;
+          if (definition instanceof IAssemblyDefinition) {
+            typeInfo = IAssemblyDefinitionTypeInfo.newTypeInfo((IAssemblyDefinition) definition, typeResolver);
+          } else if (definition instanceof IFieldDefinition
+              && !((IFieldDefinition) definition).getFlagInstances().isEmpty()) {
+            typeInfo = IFieldDefinitionTypeInfo.newTypeInfo((IFieldDefinition) definition, typeResolver);
+          } // otherwise field is just a simple data value, then no class is needed
+          return typeInfo == null ? null : Stream.of(typeInfo);
+        })
+        .collect(Collectors.toList()));
+
+    // generate the class for each type information
+    List<CompletableFuture<IGeneratedDefinitionClass>> futures = new ArrayList<>(typeInfos.size());
+    for (IModelDefinitionTypeInfo typeInfo : typeInfos) {
+      assert typeInfo != null;
+      futures.add(CompletableFuture.supplyAsync(
+          () -> generateDefinitionClass(typeInfo, module, targetDirectory),
+          executor));
+    }
+
     Set<String> classNames = new HashSet<>();
+    @SuppressWarnings("PMD.UseConcurrentHashMap") // no concurrent access
+    Map<IFlagContainer, IGeneratedDefinitionClass> definitionProductions = new LinkedHashMap<>();
+    for (CompletableFuture<IGeneratedDefinitionClass> future : futures) {
+      IGeneratedDefinitionClass generatedClass;
+      try {
+        generatedClass = future.join();
+      } catch (CompletionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause; // NOPMD - unwrap the original exception
+        }
+        throw ex;
+      }
 
-    @SuppressWarnings("PMD.UseConcurrentHashMap") // map is unmodifiable
-    Map<IFlagContainer, IGeneratedDefinitionClass> definitionProductions
-        = ObjectUtils.notNull(globalDefinitions
-            // Get type information for assembly and field definitions.
-            // Avoid field definitions without flags that don't require a generated class
-            .flatMap(definition -> {
-              IModelDefinitionTypeInfo typeInfo = null;
-              if (definition instanceof IAssemblyDefinition) {
-                typeInfo = IAssemblyDefinitionTypeInfo.newTypeInfo((IAssemblyDefinition) definition, typeResolver);
-              } else if (definition instanceof IFieldDefinition
-                  && !((IFieldDefinition) definition).getFlagInstances().isEmpty()) {
-                typeInfo = IFieldDefinitionTypeInfo.newTypeInfo((IFieldDefinition) definition, typeResolver);
-              } // otherwise field is just a simple data value, then no class is needed
-              return typeInfo == null ? null : Stream.of(typeInfo);
-            })
-            // generate the class for each type information
-            .map(typeInfo -> {
-              IFlagContainer definition = typeInfo.getDefinition();
-              IGeneratedDefinitionClass generatedClass;
-              try {
-                generatedClass = generateClass(typeInfo, targetDirectory);
-              } catch (RuntimeException ex) { // NOPMD - intended
-                throw new IllegalStateException(
-                    String.format("Unable to generate class for definition '%s' in Module '%s'",
-                        definition.getName(),
-                        module.getLocation()),
-                    ex);
-              } catch (IOException ex) {
-                throw new IllegalStateException(ex);
-              }
-              String defClassName = generatedClass.getClassName().canonicalName();
-              if (classNames.contains(defClassName)) {
-                throw new IllegalStateException(String.format(
-                    "Found duplicate class '%s' in metaschema '%s'."
-                        + " All class names must be unique within the same namespace.",
-                    defClassName, module.getLocation()));
-              }
-              classNames.add(defClassName);
-              return generatedClass;
-            })
-            // collect the generated class information
-            .collect(Collectors.toUnmodifiableMap(
-                IGeneratedDefinitionClass::getDefinition,
-                Function.identity())));
+      // check in definition order to report duplicates deterministically
+      String defClassName = generatedClass.getClassName().canonicalName();
+      if (classNames.contains(defClassName)) {
+        throw new IllegalStateException(String.format(
+            "Found duplicate class '%s' in metaschema '%s'."
+                + " All class names must be unique within the same namespace.",
+            defClassName, module.getLocation()));
+      }
+      classNames.add(defClassName);
+      definitionProductions.put(generatedClass.getDefinition(), generatedClass);
+    }
     String packageName = typeResolver.getPackageName(module);
     return new DefaultGeneratedModuleClass(module, className, classFile, definitionProductions, packageName);
 
   }
 
+  @NonNull
+  private IGeneratedDefinitionClass generateDefinitionClass(
+      @NonNull IModelDefinitionTypeInfo typeInfo,
+      @NonNull IModule module,
+      @NonNull Path targetDirectory) {
+    try {
+      return generateClass(typeInfo, targetDirectory);
+    } catch (RuntimeException ex) { // NOPMD - intended
+      throw new IllegalStateException(
+          String.format("Unable to generate class for definition '%s' in Module '%s'",
+              typeInfo.getDefinition().getName(),
+              module.getLocation()),
+          ex);
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
   @Override
   public IGeneratedDefinitionClass generateClass(
       IModelDefinitionTypeInfo typeInfo,
@@ -227,7 +278,7 @@ class DefaultMetaschemaClassFactory implements IMetaschemaClassFactory {
     TypeSpec.Builder classSpec = newClassBuilder(typeInfo, false);
 
     JavaFile javaFile = JavaFile.builder(className.packageName(), classSpec.build()).build();
-    Path classFile = ObjectUtils.notNull(javaFile.writeToPath(targetDirectory));
+    Path classFile = SourceFileWriter.write(javaFile, targetDirectory);
 
     return new DefaultGeneratedDefinitionClass(classFile, className, typeInfo.getDefinition());
   }
@@ -242,9 +293,8 @@ class DefaultMetaschemaClassFactory implements IMetaschemaClassFactory {
     String packagePath = javaPackage.replace(".", "/");
     Path packageInfo = ObjectUtils.notNull(targetDirectory.resolve(packagePath + "/package-info.java"));
 
-    try (PrintWriter writer = new PrintWriter(
-        Files.newBufferedWriter(packageInfo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
-            StandardOpenOption.TRUNCATE_EXISTING))) {
+    StringBuilder content = new StringBuilder();
+    try (Formatter writer = new Formatter(content)) {
       writer.format("@%1$s(moduleClass = {%n", MetaschemaPackage.class.getName());
 
       boolean first = true;
@@ -265,6 +315,7 @@ class DefaultMetaschemaClassFactory implements IMetaschemaClassFactory {
           XmlSchema.class.getName(), xmlNamespace.toString(), XmlNs.class.getName(), XmlNsForm.class.getName());
       writer.format("package %s;%n", javaPackage);
     }
+    SourceFileWriter.write(packageInfo, content);
 
     return new DefaultGeneratedClass(packageInfo, ObjectUtils.notNull(ClassName.get(javaPackage, "package-info")));
   }
@@ -34,6 +34,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.concurrent.Executor;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -52,6 +53,28 @@ public interface IMetaschemaClassFactory {
     return DefaultMetaschemaClassFactory.newInstance(typeResolver);
   }
 
+  /**
+   * Get a new instance of the default class generation factory that uses the
+   * provided {@code typeResolver}, generating the definition classes of a module
+   * concurrently using the provided {@code executor}.
+   * <p>
+   * Class names are always assigned in a consistent order, so the generated
+   * classes do not depend on how generation tasks are scheduled.
+   *
+   * @param typeResolver
+   *          the resolver used to generate type information for Metasschema
+   *          constructs
+   * @param executor
+   *          the executor used to generate classes
+   * @return the new class factory
+   */
+  @NonNull
+  static IMetaschemaClassFactory newInstance(
+      @NonNull ITypeResolver typeResolver,
+      @NonNull Executor executor) {
+    return DefaultMetaschemaClassFactory.newInstance(typeResolver, executor);
+  }
+
   /**
    * Get the type resolver used to generate type information for Metasschema
    * constructs represented as Java classes, fields, and methods.
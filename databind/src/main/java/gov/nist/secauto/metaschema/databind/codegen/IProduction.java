@@ -27,13 +27,19 @@
 package gov.nist.secauto.metaschema.databind.codegen;
 
 import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.databind.codegen.typeinfo.ITypeResolver;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -100,12 +106,38 @@ public interface IProduction {
    *           if an error occurred while generating or compiling the classes
    */
   @NonNull
-  static IProduction of( // NOPMD - intentional
+  static IProduction of(
       @NonNull Collection<? extends IModule> modules,
       @NonNull ITypeResolver typeResolver,
       @NonNull Path classDir) throws IOException {
+    return of(modules, typeResolver, classDir, Runnable::run);
+  }
+
+  /**
+   * Create a new production for the provided set of Module {@code modules}, using
+   * the provided {@code executor} to generate the definition classes of each
+   * module, and the package-info classes of each package, concurrently.
+   *
+   * @param modules
+   *          the Module modules to generate and compile classes for
+   * @param typeResolver
+   *          the resolve used to determine type names
+   * @param classDir
+   *          the directory to generate and compile classes in
+   * @param executor
+   *          the executor used to generate classes
+   * @return the production information
+   * @throws IOException
+   *           if an error occurred while generating or compiling the classes
+   */
+  @NonNull
+  static IProduction of( // NOPMD - intentional
+      @NonNull Collection<? extends IModule> modules,
+      @NonNull ITypeResolver typeResolver,
+      @NonNull Path classDir,
+      @NonNull Executor executor) throws IOException {
 
-    IMetaschemaClassFactory classFactory = IMetaschemaClassFactory.newInstance(typeResolver);
+    IMetaschemaClassFactory classFactory = IMetaschemaClassFactory.newInstance(typeResolver, executor);
 
     ProductionImpl retval = new ProductionImpl();
     for (IModule module : modules) {
@@ -126,12 +158,31 @@ public interface IProduction {
       }
     }
 
+    Map<String, CompletableFuture<IPackageProduction>> packageProductions = new LinkedHashMap<>(); // NOPMD - no
+                                                                                                   // concurrency
     for (PackageMetadata metadata : packageNameToPackageMetadataMap.values()) {
       assert metadata != null;
-      retval.addPackage(
-          metadata,
-          classFactory,
-          classDir);
+      packageProductions.put(metadata.getPackageName(), CompletableFuture.supplyAsync(() -> {
+        try {
+          return new PackageProductionImpl(metadata, classFactory, classDir);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }, executor));
+    }
+
+    for (Map.Entry<String, CompletableFuture<IPackageProduction>> entry : packageProductions.entrySet()) {
+      try {
+        retval.addPackage(ObjectUtils.notNull(entry.getKey()), ObjectUtils.notNull(entry.getValue().join()));
+      } catch (CompletionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof UncheckedIOException) {
+          throw ((UncheckedIOException) cause).getCause(); // NOPMD - unwrap the original exception
+        } else if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause; // NOPMD - unwrap the original exception
+        }
+        throw ex;
+      }
     }
     return retval;
   }
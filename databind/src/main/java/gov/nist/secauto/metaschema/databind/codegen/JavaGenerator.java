@@ -38,6 +38,8 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -91,15 +93,59 @@ public final class JavaGenerator {
       @NonNull Collection<? extends IModule> modules,
       @NonNull Path targetDirectory,
       @NonNull IBindingConfiguration bindingConfiguration) throws IOException {
+    return generate(modules, targetDirectory, bindingConfiguration, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Generates Java classes for Module fields and flags, generating the classes
+   * for each module's definitions concurrently.
+   * <p>
+   * The generated sources do not depend on the number of threads used. Source
+   * files whose content has not changed are not rewritten.
+   *
+   * @param modules
+   *          the Metaschema modules to build classes for
+   * @param targetDirectory
+   *          the directory to generate classes in
+   * @param bindingConfiguration
+   *          binding customizations that can be used to set namespaces, class
+   *          names, and other aspects of generated classes
+   * @param threadCount
+   *          the number of worker threads to use
+   * @return information about all the produced classes
+   * @throws IOException
+   *           if a build error occurred while generating the class
+   */
+  @NonNull
+  public static IProduction generate(
+      @NonNull Collection<? extends IModule> modules,
+      @NonNull Path targetDirectory,
+      @NonNull IBindingConfiguration bindingConfiguration,
+      int threadCount) throws IOException {
     Objects.requireNonNull(modules, "metaschemas");
     Objects.requireNonNull(targetDirectory, "generationTargetDirectory");
     Objects.requireNonNull(bindingConfiguration, "bindingConfiguration");
+    if (threadCount < 1) {
+      throw new IllegalArgumentException(
+          String.format("The thread count '%d' must be a positive integer.", threadCount));
+    }
     if (LOGGER.isInfoEnabled()) {
       LOGGER.info("Generating Java classes in: {}", targetDirectory);
     }
 
     ITypeResolver typeResolver = ITypeResolver.newTypeResolver(bindingConfiguration);
 
-    return IProduction.of(modules, typeResolver, targetDirectory);
+    IProduction retval;
+    if (threadCount == 1) {
+      retval = IProduction.of(modules, typeResolver, targetDirectory);
+    } else {
+      ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+      try {
+        retval = IProduction.of(modules, typeResolver, targetDirectory, executor);
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+    return retval;
   }
 }
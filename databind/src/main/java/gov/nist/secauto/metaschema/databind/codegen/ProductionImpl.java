@@ -75,10 +75,16 @@ class ProductionImpl implements IProduction {
             metadata,
             classFactory,
             targetDirectory);
-    packageNameToProductionMap.put(javaPackage, retval);
+    addPackage(javaPackage, retval);
     return retval;
   }
 
+  protected void addPackage(
+      @NonNull String javaPackage,
+      @NonNull IPackageProduction production) {
+    packageNameToProductionMap.put(javaPackage, production);
+  }
+
   @Override
   @SuppressWarnings("null")
   public Collection<IGeneratedModuleClass> getModuleProductions() {
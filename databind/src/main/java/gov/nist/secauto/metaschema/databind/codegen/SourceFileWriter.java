@@ -0,0 +1,121 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.databind.codegen;
+
+import com.squareup.javapoet.JavaFile;
+
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Writes generated source files, leaving a file untouched if its existing
+ * content is identical to the newly generated content.
+ * <p>
+ * Preserving the modification time of unchanged files allows incremental
+ * compilation to skip sources that did not change between generation runs.
+ */
+final class SourceFileWriter {
+  private SourceFileWriter() {
+    // disable construction
+  }
+
+  /**
+   * Write the provided Java file in the package directory structure under the
+   * provided {@code targetDirectory}.
+   *
+   * @param javaFile
+   *          the Java file to write
+   * @param targetDirectory
+   *          the base directory to write the file in
+   * @return the path of the Java file
+   * @throws IOException
+   *           if an error occurred while reading the existing file or writing the
+   *           new file
+   */
+  @NonNull
+  public static Path write(@NonNull JavaFile javaFile, @NonNull Path targetDirectory) throws IOException {
+    Path outputDirectory = targetDirectory;
+    if (!javaFile.packageName.isEmpty()) {
+      for (String packageComponent : javaFile.packageName.split("\\.")) {
+        outputDirectory = outputDirectory.resolve(packageComponent);
+      }
+    }
+
+    Path retval = ObjectUtils.notNull(outputDirectory.resolve(javaFile.typeSpec.name + ".java"));
+    write(retval, ObjectUtils.notNull(javaFile.toString()));
+    return retval;
+  }
+
+  /**
+   * Write the provided content to the file, unless the file already contains
+   * exactly this content.
+   *
+   * @param file
+   *          the file to write
+   * @param content
+   *          the content to write
+   * @return {@code true} if the file was written, or {@code false} if the
+   *         existing file was left unchanged
+   * @throws IOException
+   *           if an error occurred while reading the existing file or writing the
+   *           new file
+   */
+  public static boolean write(@NonNull Path file, @NonNull CharSequence content) throws IOException {
+    byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+
+    boolean retval = !hasContent(file, bytes);
+    if (retval) {
+      Path parent = file.getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Files.write(file, bytes);
+    }
+    return retval;
+  }
+
+  private static boolean hasContent(@NonNull Path file, @NonNull byte[] bytes) throws IOException {
+    boolean retval = false;
+    try {
+      // avoid reading the file when the size alone shows the content differs
+      if (Files.size(file) == bytes.length) {
+        retval = Arrays.equals(Files.readAllBytes(file), bytes);
+      }
+    } catch (NoSuchFileException ex) { // NOPMD - the file will be created
+      // the file does not exist
+    }
+    return retval;
+  }
+}
@@ -28,9 +28,11 @@ package gov.nist.secauto.metaschema.databind.io;
 
 import gov.nist.secauto.metaschema.core.configuration.IConfiguration;
 import gov.nist.secauto.metaschema.core.configuration.IMutableConfiguration;
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
 import gov.nist.secauto.metaschema.core.metapath.DynamicContext;
 import gov.nist.secauto.metaschema.core.metapath.StaticContext;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItemFactory;
 import gov.nist.secauto.metaschema.core.model.constraint.DefaultConstraintValidator;
 import gov.nist.secauto.metaschema.core.model.constraint.IConstraintValidationHandler;
 import gov.nist.secauto.metaschema.core.model.constraint.LoggingConstraintValidationHandler;
@@ -42,6 +44,7 @@ import java.io.Reader;
 import java.net.URI;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
  * The base class of all format-specific deserializers.
@@ -128,6 +131,30 @@ public abstract class AbstractDeserializer<CLASS>
   protected abstract INodeItem deserializeToNodeItemInternal(@NonNull Reader reader, @NonNull URI documentUri)
       throws IOException;
 
+  /**
+   * Create a new table to deduplicate the values of a single document, if
+   * {@link DeserializationFeature#DESERIALIZE_INTERN_VALUES} is enabled.
+   *
+   * @return a new table, or {@code null} if values are not to be deduplicated
+   */
+  @Nullable
+  protected ValueInterner newValueInterner() {
+    return isFeatureEnabled(DeserializationFeature.DESERIALIZE_INTERN_VALUES) ? new ValueInterner() : null;
+  }
+
+  /**
+   * Get the factory to use to create the node items for a loaded document.
+   *
+   * @param valueInterner
+   *          the table used to deduplicate the document's values, or {@code null}
+   *          if values were not deduplicated
+   * @return the node item factory
+   */
+  @NonNull
+  protected INodeItemFactory getNodeItemFactory(@Nullable ValueInterner valueInterner) {
+    return valueInterner == null ? INodeItemFactory.instance() : INodeItemFactory.newInstance(valueInterner);
+  }
+
   @Override
   public IDeserializer<CLASS> enableFeature(DeserializationFeature<?> feature) {
     return set(feature, true);
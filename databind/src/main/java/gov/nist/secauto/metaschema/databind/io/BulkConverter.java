@@ -0,0 +1,291 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.databind.io;
+
+import gov.nist.secauto.metaschema.core.configuration.DefaultConfiguration;
+import gov.nist.secauto.metaschema.core.configuration.IConfiguration;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+import gov.nist.secauto.metaschema.databind.IBindingContext;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Converts many resources from one format to another using a bounded pool of
+ * worker threads.
+ * <p>
+ * Each resource is read, bound, and written by a single worker, so reading,
+ * binding and writing of different resources overlap across the pool. The
+ * number of conversions that are queued or in progress at any time is bounded,
+ * which limits the number of bound documents held in memory. A failure to
+ * convert one resource is recorded in its {@link Result} and does not abort the
+ * remaining conversions.
+ */
+public class BulkConverter {
+  private static final Logger LOGGER = LogManager.getLogger(BulkConverter.class);
+
+  @NonNull
+  private final IBindingContext bindingContext;
+  @NonNull
+  private final IConfiguration<DeserializationFeature<?>> configuration;
+  private final int threadCount;
+
+  /**
+   * Construct a new converter.
+   *
+   * @param bindingContext
+   *          the binding context used to load and write the bound data
+   * @param configuration
+   *          the deserialization configuration to use when loading resources
+   * @param threadCount
+   *          the number of worker threads to use
+   */
+  public BulkConverter(
+      @NonNull IBindingContext bindingContext,
+      @NonNull IConfiguration<DeserializationFeature<?>> configuration,
+      int threadCount) {
+    if (threadCount < 1) {
+      throw new IllegalArgumentException(
+          String.format("The thread count '%d' must be a positive integer.", threadCount));
+    }
+    this.bindingContext = bindingContext;
+    // make a copy, since the configuration may be changed by the caller
+    this.configuration = new DefaultConfiguration<>(configuration.getFeatureValues());
+    this.threadCount = threadCount;
+  }
+
+  /**
+   * Get the number of worker threads used to perform conversions.
+   *
+   * @return the thread count
+   */
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  /**
+   * Convert each source resource to the provided {@code toFormat}, writing the
+   * converted content to the associated destination.
+   * <p>
+   * The format of each source is auto detected.
+   *
+   * @param <CLASS>
+   *          the Java type to load data into
+   * @param sourcesToDestinations
+   *          a mapping of the resources to convert to the resource to write the
+   *          converted content to
+   * @param toFormat
+   *          the format to convert to
+   * @param rootClass
+   *          the class for the Java type to load data into
+   * @return the conversion results, in the iteration order of the provided
+   *         mapping
+   * @throws IllegalArgumentException
+   *           if more than one source is mapped to the same destination
+   * @throws InterruptedException
+   *           if the calling thread was interrupted while waiting for the
+   *           conversions to complete
+   */
+  @NonNull
+  public <CLASS> List<Result> convert(
+      @NonNull Map<Path, Path> sourcesToDestinations,
+      @NonNull Format toFormat,
+      @NonNull Class<CLASS> rootClass) throws InterruptedException {
+    // concurrent writes to the same destination would corrupt it, so refuse
+    // before any conversion is started
+    Map.Entry<Path, Path> collision = findDestinationCollision(sourcesToDestinations);
+    if (collision != null) {
+      throw new IllegalArgumentException(
+          String.format("The sources '%s' and '%s' would both be converted to the destination '%s'.",
+              collision.getKey(),
+              collision.getValue(),
+              sourcesToDestinations.get(collision.getValue())));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(getThreadCount());
+    try {
+      // bound the work that is queued or in progress to provide back-pressure
+      Semaphore inFlight = new Semaphore(getThreadCount() * 2);
+
+      List<Future<Result>> futures = new ArrayList<>(sourcesToDestinations.size());
+      for (Map.Entry<Path, Path> entry : sourcesToDestinations.entrySet()) {
+        Path source = ObjectUtils.notNull(entry.getKey());
+        Path destination = ObjectUtils.notNull(entry.getValue());
+
+        inFlight.acquire();
+        try {
+          futures.add(executor.submit(() -> {
+            try {
+              return convert(source, destination, toFormat, rootClass);
+            } finally {
+              inFlight.release();
+            }
+          }));
+        } catch (RuntimeException ex) {
+          inFlight.release();
+          throw ex;
+        }
+      }
+
+      List<Result> retval = new ArrayList<>(futures.size());
+      for (Future<Result> future : futures) {
+        try {
+          retval.add(future.get());
+        } catch (ExecutionException ex) {
+          // should not happen, since conversion failures are captured in the result
+          throw new IllegalStateException(ex.getCause());
+        }
+      }
+      return CollectionUtil.unmodifiableList(retval);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Find two sources that are mapped to the same destination.
+   *
+   * @param sourcesToDestinations
+   *          a mapping of the resources to convert to the resource to write the
+   *          converted content to
+   * @return an entry whose key and value are the first two sources found that
+   *         share a destination, or {@code null} if every destination is distinct
+   */
+  @Nullable
+  public static Map.Entry<Path, Path> findDestinationCollision(@NonNull Map<Path, Path> sourcesToDestinations) {
+    Map<Path, Path> destinationsToSources = new HashMap<>();
+    Map.Entry<Path, Path> retval = null;
+    for (Map.Entry<Path, Path> entry : sourcesToDestinations.entrySet()) {
+      Path destination = entry.getValue().toAbsolutePath().normalize();
+      Path existing = destinationsToSources.putIfAbsent(destination, entry.getKey());
+      if (existing != null) {
+        retval = Map.entry(existing, entry.getKey());
+        break;
+      }
+    }
+    return retval;
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException") // failures are reported per resource
+  @NonNull
+  private <CLASS> Result convert(
+      @NonNull Path source,
+      @NonNull Path destination,
+      @NonNull Format toFormat,
+      @NonNull Class<CLASS> rootClass) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Converting '{}' to '{}'.", source, destination);
+    }
+
+    // loaders are not thread-safe, so each conversion uses its own
+    IBoundLoader loader = bindingContext.newBoundLoader();
+    loader.applyConfiguration(configuration);
+
+    Throwable failure = null;
+    try {
+      loader.convert(source, destination, toFormat, rootClass);
+    } catch (Exception ex) { // NOPMD - intentional
+      failure = ex;
+    }
+    return new Result(source, destination, failure);
+  }
+
+  /**
+   * Provides the outcome of converting a single resource.
+   */
+  public static final class Result {
+    @NonNull
+    private final Path source;
+    @NonNull
+    private final Path destination;
+    @Nullable
+    private final Throwable failure;
+
+    private Result(
+        @NonNull Path source,
+        @NonNull Path destination,
+        @Nullable Throwable failure) {
+      this.source = source;
+      this.destination = destination;
+      this.failure = failure;
+    }
+
+    /**
+     * Get the resource that was converted.
+     *
+     * @return the source resource
+     */
+    @NonNull
+    public Path getSource() {
+      return source;
+    }
+
+    /**
+     * Get the resource the converted content was written to.
+     *
+     * @return the destination resource
+     */
+    @NonNull
+    public Path getDestination() {
+      return destination;
+    }
+
+    /**
+     * Determine if the conversion completed successfully.
+     *
+     * @return {@code true} if the conversion succeeded, or {@code false} otherwise
+     */
+    public boolean isSuccessful() {
+      return failure == null;
+    }
+
+    /**
+     * Get the error that caused the conversion to fail.
+     *
+     * @return the error, or {@code null} if the conversion succeeded
+     */
+    @Nullable
+    public Throwable getFailure() {
+      return failure;
+    }
+  }
+}
@@ -102,8 +102,9 @@ public class DefaultBoundLoader
 
   @SuppressWarnings("PMD.NullAssignment")
   private void resetDetector() {
-    // reset the detector
+    // reset the detectors
     formatDetector = null;
+    modelDetector = null;
   }
 
   @Override
@@ -232,12 +233,9 @@ public class DefaultBoundLoader
 
   @Override
   public IDocumentNodeItem loadAsNodeItem(InputStream is, URI documentUri) throws IOException {
-    FormatDetector.Result formatMatch = getFormatDetector().detect(is);
-    Format format = formatMatch.getFormat();
-
-    try (InputStream formatStream = formatMatch.getDataStream()) {
-      return loadAsNodeItem(format, formatStream, documentUri);
-    }
+    // detect the format and model using a single lookahead pass
+    ModelDetector.Result modelMatch = getModelDetector().detect(is);
+    return loadAsNodeItem(modelMatch, documentUri);
   }
 
   @Override
@@ -253,10 +251,16 @@ public class DefaultBoundLoader
   @Override
   public IDocumentNodeItem loadAsNodeItem(Format format, InputStream is, URI documentUri) throws IOException {
     ModelDetector.Result modelMatch = getModelDetector().detect(is, format);
+    return loadAsNodeItem(modelMatch, documentUri);
+  }
 
+  @NonNull
+  private IDocumentNodeItem loadAsNodeItem(
+      @NonNull ModelDetector.Result modelMatch,
+      @NonNull URI documentUri) throws IOException {
     IDeserializer<?> deserializer = getDeserializer(
         modelMatch.getBoundClass(),
-        format,
+        modelMatch.getFormat(),
         getConfiguration());
     try (InputStream modelStream = modelMatch.getDataStream()) {
       return (IDocumentNodeItem) deserializer.deserializeToNodeItem(modelStream, documentUri);
@@ -52,6 +52,25 @@ public final class DeserializationFeature<V>
   public static final DeserializationFeature<Boolean> DESERIALIZE_JSON_ROOT_PROPERTY
       = new DeserializationFeature<>(Boolean.class, true);
 
+  /**
+   * If enabled, equal string, token, URI, and UUID values read from a document
+   * share a single Java object, and the corresponding node items share a single
+   * atomic item. This reduces the memory retained by large documents that repeat
+   * the same values, at the cost of a hash lookup per value read.
+   */
+  @NonNull
+  public static final DeserializationFeature<Boolean> DESERIALIZE_INTERN_VALUES
+      = new DeserializationFeature<>(Boolean.class, false);
+
+  /**
+   * If enabled, XML content is read using the cursor of a StAX stream reader,
+   * which avoids allocating an event object for each node read. If not enabled,
+   * XML content is read using the StAX event API.
+   */
+  @NonNull
+  public static final DeserializationFeature<Boolean> DESERIALIZE_XML_CURSOR
+      = new DeserializationFeature<>(Boolean.class, true);
+
   /**
    * Determines the max YAML codepoints that can be read.
    */
@@ -50,6 +50,8 @@ import edu.umd.cs.findbugs.annotations.NonNull;
  * is represented as.
  */
 public class FormatDetector {
+  @NonNull
+  private static final XmlFactory XML_DETECTOR_FACTORY = new XmlFactory();
 
   private final DataFormatDetector detector;
 
@@ -93,9 +95,9 @@ public class FormatDetector {
   @NonNull
   private static JsonFactory[] newDetectorFactory(@NonNull IConfiguration<DeserializationFeature<?>> config) {
     JsonFactory[] detectorFactory = new JsonFactory[3];
-    detectorFactory[0] = YamlFactoryFactory.newParserFactoryInstance(config);
+    detectorFactory[0] = YamlFactoryFactory.parserFactoryInstance(config);
     detectorFactory[1] = JsonFactoryFactory.instance();
-    detectorFactory[2] = new XmlFactory();
+    detectorFactory[2] = XML_DETECTOR_FACTORY;
     return detectorFactory;
   }
 
@@ -127,7 +129,32 @@ public class FormatDetector {
    */
   @NonNull
   public Result detect(@NonNull InputStream inputStream) throws IOException {
-    DataFormatMatcher matcher = detector.findFormat(inputStream);
+    return toResult(ObjectUtils.notNull(detector.findFormat(inputStream)));
+  }
+
+  /**
+   * Analyzes the provided bytes to determine their format.
+   * <p>
+   * This can be used by callers that have already buffered the start of a
+   * resource to avoid reading the data into a second lookahead buffer.
+   *
+   * @param data
+   *          the buffer containing the data to analyze
+   * @param offset
+   *          the offset of the first byte to analyze
+   * @param length
+   *          the number of bytes to analyze
+   * @return the analysis result
+   * @throws IOException
+   *           if the format could not be identified
+   */
+  @NonNull
+  public Result detect(@NonNull byte[] data, int offset, int length) throws IOException {
+    return toResult(ObjectUtils.notNull(detector.findFormat(data, offset, length)));
+  }
+
+  @NonNull
+  private static Result toResult(@NonNull DataFormatMatcher matcher) throws IOException {
     switch (matcher.getMatchStrength()) {
     case FULL_MATCH:
     case SOLID_MATCH:
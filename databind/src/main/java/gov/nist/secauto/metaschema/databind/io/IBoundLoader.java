@@ -43,6 +43,8 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -523,4 +525,41 @@ public interface IBoundLoader extends IDocumentLoader, IMutableConfiguration<Des
     ISerializer<CLASS> serializer = getBindingContext().newSerializer(toFormat, rootClass);
     serializer.serialize(object, os);
   }
+
+  /**
+   * Auto convert each of the provided sources to the provided {@code toFormat}.
+   * Write the converted content of each source to its associated destination.
+   * <p>
+   * Conversions are performed concurrently using a {@link BulkConverter} with the
+   * provided number of threads and this loader's configuration. The format of
+   * each source is expected to be auto detected using
+   * {@link #detectFormat(Path)}. A failure to convert one source does not stop
+   * the remaining conversions.
+   *
+   * @param <CLASS>
+   *          the Java type to load data into
+   * @param sourcesToDestinations
+   *          a mapping of the resources to convert to the resource to write the
+   *          converted content to
+   * @param toFormat
+   *          the format to convert to
+   * @param rootClass
+   *          the class for the Java type to load data into
+   * @param threadCount
+   *          the number of worker threads to use
+   * @return the conversion result for each source, in the iteration order of the
+   *         provided mapping
+   * @throws InterruptedException
+   *           if the calling thread was interrupted while waiting for the
+   *           conversions to complete
+   */
+  @NonNull
+  default <CLASS> List<BulkConverter.Result> convert(
+      @NonNull Map<Path, Path> sourcesToDestinations,
+      @NonNull Format toFormat,
+      @NonNull Class<CLASS> rootClass,
+      int threadCount) throws InterruptedException {
+    return new BulkConverter(getBindingContext(), this, threadCount)
+        .convert(sourcesToDestinations, toFormat, rootClass);
+  }
 }
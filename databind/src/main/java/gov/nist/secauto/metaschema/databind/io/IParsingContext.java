@@ -26,7 +26,11 @@
 
 package gov.nist.secauto.metaschema.databind.io;
 
+import gov.nist.secauto.metaschema.core.datatype.IDataTypeAdapter;
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
+
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 /**
  * Provides objects used for parsing data associated with a specific format.
@@ -52,4 +56,34 @@ public interface IParsingContext<READER, PROBLEM_HANDLER extends IProblemHandler
    */
   @NonNull
   PROBLEM_HANDLER getProblemHandler();
+
+  /**
+   * Get the table used to deduplicate the values read by this context.
+   *
+   * @return the table, or {@code null} if values are not deduplicated
+   * @see DeserializationFeature#DESERIALIZE_INTERN_VALUES
+   */
+  @Nullable
+  default ValueInterner getValueInterner() {
+    return null;
+  }
+
+  /**
+   * Get the shared instance of a value read using the provided adapter, if values
+   * are being deduplicated.
+   *
+   * @param <T>
+   *          the Java type of the value
+   * @param adapter
+   *          the data type adapter used to read the value
+   * @param value
+   *          the value that was read
+   * @return the shared value, or the provided value if values are not being
+   *         deduplicated
+   */
+  @NonNull
+  default <T> T internValue(@NonNull IDataTypeAdapter<?> adapter, @NonNull T value) {
+    ValueInterner interner = getValueInterner();
+    return interner == null ? value : interner.intern(adapter, value);
+  }
 }
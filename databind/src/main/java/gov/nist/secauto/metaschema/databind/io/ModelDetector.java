@@ -26,7 +26,6 @@
 
 package gov.nist.secauto.metaschema.databind.io;
 
-import com.ctc.wstx.stax.WstxInputFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.io.MergedStream;
@@ -38,10 +37,10 @@ import gov.nist.secauto.metaschema.core.model.util.JsonUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.databind.IBindingContext;
 import gov.nist.secauto.metaschema.databind.io.json.JsonFactoryFactory;
+import gov.nist.secauto.metaschema.databind.io.xml.XmlFactoryFactory;
 import gov.nist.secauto.metaschema.databind.io.yaml.impl.YamlFactoryFactory;
 
 import org.codehaus.stax2.XMLEventReader2;
-import org.codehaus.stax2.XMLInputFactory2;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -51,7 +50,6 @@ import java.io.Reader;
 import java.nio.charset.Charset;
 
 import javax.xml.namespace.QName;
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.StartElement;
 
@@ -67,6 +65,7 @@ public class ModelDetector {
   private final IBindingContext bindingContext;
   @NonNull
   private final IConfiguration<DeserializationFeature<?>> configuration;
+  private FormatDetector formatDetector;
 
   /**
    * Construct a new format detector using the default configuration.
@@ -108,6 +107,40 @@ public class ModelDetector {
     return configuration;
   }
 
+  @NonNull
+  private FormatDetector getFormatDetector() {
+    synchronized (this) {
+      if (formatDetector == null) {
+        formatDetector = new FormatDetector(getConfiguration());
+      }
+      assert formatDetector != null;
+      return formatDetector;
+    }
+  }
+
+  /**
+   * Analyzes the data from the provided {@code inputStream} to determine both its
+   * format and model.
+   * <p>
+   * The format and the bound data type are identified using a single lookahead
+   * buffer, avoiding the need to buffer and parse the start of the resource
+   * twice.
+   *
+   * @param inputStream
+   *          the resource stream to analyze
+   * @return the analysis result
+   * @throws IOException
+   *           if an error occurred while reading the resource or if the format
+   *           could not be identified
+   */
+  @NonNull
+  public Result detect(@NonNull InputStream inputStream) throws IOException {
+    byte[] buf = ObjectUtils.notNull(inputStream.readNBytes(getLookaheadLimit()));
+
+    Format format = getFormatDetector().detect(buf, 0, buf.length).getFormat();
+    return new Result(detectModelClass(buf, format), format, inputStream, buf);
+  }
+
   /**
    * Analyzes the data from the provided {@code inputStream} to determine it's
    * model.
@@ -124,7 +157,11 @@ public class ModelDetector {
   public Result detect(@NonNull InputStream inputStream, @NonNull Format format)
       throws IOException {
     byte[] buf = ObjectUtils.notNull(inputStream.readNBytes(getLookaheadLimit()));
+    return new Result(detectModelClass(buf, format), format, inputStream, buf);
+  }
 
+  @NonNull
+  private Class<?> detectModelClass(@NonNull byte[] buf, @NonNull Format format) throws IOException {
     Class<?> clazz;
     try (InputStream bis = new ByteArrayInputStream(buf)) {
       switch (format) {
@@ -133,7 +170,7 @@ public class ModelDetector {
             JsonFactoryFactory.instance().createParser(bis)));
         break;
       case YAML:
-        YAMLFactory factory = YamlFactoryFactory.newParserFactoryInstance(getConfiguration());
+        YAMLFactory factory = YamlFactoryFactory.parserFactoryInstance(getConfiguration());
         clazz = detectModelJsonClass(ObjectUtils.notNull(factory.createParser(bis)));
         break;
       case XML:
@@ -149,21 +186,16 @@ public class ModelDetector {
       throw new IllegalStateException(
           String.format("Detected format '%s', but unable to detect the bound data type", format.name()));
     }
-
-    return new Result(clazz, inputStream, buf);
+    return clazz;
   }
 
   @NonNull
   private Class<?> detectModelXmlClass(@NonNull InputStream is) throws IOException {
     QName startElementQName;
     try {
-      XMLInputFactory2 xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
-      assert xmlInputFactory instanceof WstxInputFactory;
-      xmlInputFactory.configureForXmlConformance();
-      xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
-
       Reader reader = new InputStreamReader(is, Charset.forName("UTF8"));
-      XMLEventReader2 eventReader = (XMLEventReader2) xmlInputFactory.createXMLEventReader(reader);
+      XMLEventReader2 eventReader
+          = (XMLEventReader2) XmlFactoryFactory.inputFactoryInstance().createXMLEventReader(reader);
       while (eventReader.hasNext() && !eventReader.peek().isStartElement()) {
         eventReader.nextEvent();
       }
@@ -208,13 +240,17 @@ public class ModelDetector {
     @NonNull
     private final Class<?> boundClass;
     @NonNull
+    private final Format format;
+    @NonNull
     private final InputStream dataStream;
 
     private Result(
         @NonNull Class<?> clazz,
+        @NonNull Format format,
         @NonNull InputStream is,
         @NonNull byte[] buf) {
       this.boundClass = clazz;
+      this.format = format;
       this.dataStream = new MergedStream(null, is, buf, 0, buf.length);
     }
 
@@ -228,6 +264,16 @@ public class ModelDetector {
       return boundClass;
     }
 
+    /**
+     * Get the format of the analyzed data.
+     *
+     * @return the format
+     */
+    @NonNull
+    public Format getFormat() {
+      return format;
+    }
+
     /**
      * Get an {@link InputStream} that can be used to read the analyzed data from
      * the start.
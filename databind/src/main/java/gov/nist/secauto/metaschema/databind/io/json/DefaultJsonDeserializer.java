@@ -30,6 +30,8 @@ import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 
 import gov.nist.secauto.metaschema.core.configuration.IConfiguration;
+import gov.nist.secauto.metaschema.core.configuration.IMutableConfiguration;
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
 import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItemFactory;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
@@ -73,6 +75,14 @@ public class DefaultJsonDeserializer<CLASS>
     return JsonFactoryFactory.instance();
   }
 
+  @SuppressWarnings("PMD.NullAssignment")
+  @Override
+  protected void configurationChanged(IMutableConfiguration<DeserializationFeature<?>> config) {
+    synchronized (this) {
+      jsonFactory = null;
+    }
+  }
+
   /**
    * Get the parser factory associated with this deserializer.
    *
@@ -111,7 +121,12 @@ public class DefaultJsonDeserializer<CLASS>
       throws IOException {
     INodeItem retval;
     try (JsonParser jsonParser = newJsonParser(reader)) {
-      MetaschemaJsonReader parser = new MetaschemaJsonReader(jsonParser);
+      ValueInterner valueInterner = newValueInterner();
+      MetaschemaJsonReader parser = new MetaschemaJsonReader(
+          jsonParser,
+          new DefaultJsonProblemHandler(),
+          valueInterner);
+      INodeItemFactory nodeItemFactory = getNodeItemFactory(valueInterner);
       IAssemblyClassBinding classBinding = getClassBinding();
       IConfiguration<DeserializationFeature<?>> configuration = getConfiguration();
 
@@ -127,7 +142,7 @@ public class DefaultJsonDeserializer<CLASS>
         // // advance past the end object
         // JsonToken end = parser.nextToken();
 
-        retval = INodeItemFactory.instance().newDocumentNodeItem(classBinding, documentUri, value);
+        retval = nodeItemFactory.newDocumentNodeItem(classBinding, documentUri, value);
       } else {
         // Make a temporary data type handler for the top-level definition
         IDataTypeHandler dataTypeHandler = IDataTypeHandler.newDataTypeHandler(classBinding);
@@ -135,7 +150,7 @@ public class DefaultJsonDeserializer<CLASS>
         // read the top-level definition
         CLASS value = dataTypeHandler.readItem(null, parser);
 
-        retval = INodeItemFactory.instance().newAssemblyNodeItem(classBinding, documentUri, value);
+        retval = nodeItemFactory.newAssemblyNodeItem(classBinding, documentUri, value);
       }
       return retval;
     }
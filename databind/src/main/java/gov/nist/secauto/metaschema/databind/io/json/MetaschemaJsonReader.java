@@ -29,6 +29,8 @@ package gov.nist.secauto.metaschema.databind.io.json;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 
+import gov.nist.secauto.metaschema.core.datatype.IDataTypeAdapter;
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
 import gov.nist.secauto.metaschema.core.model.util.JsonUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.databind.model.IAssemblyClassBinding;
@@ -60,6 +62,8 @@ public class MetaschemaJsonReader
   private final JsonParser parser;
   @NonNull
   private final IJsonProblemHandler problemHandler;
+  @Nullable
+  private final ValueInterner valueInterner;
 
   /**
    * Construct a new Module-aware JSON parser using the default problem handler.
@@ -84,8 +88,28 @@ public class MetaschemaJsonReader
   public MetaschemaJsonReader(
       @NonNull JsonParser parser,
       @NonNull IJsonProblemHandler problemHandler) {
+    this(parser, problemHandler, null);
+  }
+
+  /**
+   * Construct a new Module-aware JSON parser that deduplicates the values it
+   * reads.
+   *
+   * @param parser
+   *          the JSON parser to parse with
+   * @param problemHandler
+   *          the problem handler implementation to use
+   * @param valueInterner
+   *          the table used to deduplicate values, or {@code null} if values are
+   *          not to be deduplicated
+   */
+  public MetaschemaJsonReader(
+      @NonNull JsonParser parser,
+      @NonNull IJsonProblemHandler problemHandler,
+      @Nullable ValueInterner valueInterner) {
     this.parser = parser;
     this.problemHandler = problemHandler;
+    this.valueInterner = valueInterner;
   }
 
   @Override
@@ -98,6 +122,11 @@ public class MetaschemaJsonReader
     return problemHandler;
   }
 
+  @Override
+  public ValueInterner getValueInterner() {
+    return valueInterner;
+  }
+
   /**
    * Parses JSON into a bound object. This assembly must be a root assembly for
    * which a call to {@link IAssemblyClassBinding#isRoot()} will return
@@ -273,10 +302,12 @@ public class MetaschemaJsonReader
       value = collector.getValue();
     } else if (instance instanceof IBoundFlagInstance) {
       // just read the value directly
-      value = ((IBoundFlagInstance) instance).getDefinition().getJavaTypeAdapter().parse(parser);
+      IDataTypeAdapter<?> adapter = ((IBoundFlagInstance) instance).getDefinition().getJavaTypeAdapter();
+      value = internValue(adapter, adapter.parse(parser));
     } else if (instance instanceof IBoundFieldValueInstance) {
       // just read the value directly
-      value = ((IBoundFieldValueInstance) instance).getJavaTypeAdapter().parse(parser);
+      IDataTypeAdapter<?> adapter = ((IBoundFieldValueInstance) instance).getJavaTypeAdapter();
+      value = internValue(adapter, adapter.parse(parser));
     } else {
       throw new UnsupportedOperationException(
           String.format("Unsupported instance type: %s", instance.getClass().getName()));
@@ -325,16 +356,17 @@ public class MetaschemaJsonReader
         if (valueKeyFlag != null) {
           // Handle JSON value key flag case
           IFieldClassBinding targetFieldDefinition = (IFieldClassBinding) targetDefinition;
-          valueKeyFlag.setValue(targetObject,
-              valueKeyFlag.getDefinition().getJavaTypeAdapter().parse(propertyName));
+          IDataTypeAdapter<?> keyAdapter = valueKeyFlag.getDefinition().getJavaTypeAdapter();
+          valueKeyFlag.setValue(targetObject, internValue(keyAdapter, keyAdapter.parse(propertyName)));
 
           // advance past the FIELD_NAME to get the value
           JsonUtil.assertAndAdvance(parser, JsonToken.FIELD_NAME);
 
           IBoundFieldValueInstance fieldValue = targetFieldDefinition.getFieldValueInstance();
+          IDataTypeAdapter<?> valueAdapter = fieldValue.getJavaTypeAdapter();
           fieldValue.setValue(
               targetObject,
-              fieldValue.getJavaTypeAdapter().parse(parser));
+              internValue(valueAdapter, valueAdapter.parse(parser)));
           valueKeyFlag = null; // NOPMD used as boolean check to avoid value key check
         } else if (!getProblemHandler().handleUnknownProperty(
             targetDefinition,
@@ -26,17 +26,17 @@
 
 package gov.nist.secauto.metaschema.databind.io.xml;
 
-import com.ctc.wstx.stax.WstxInputFactory;
-
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
 import gov.nist.secauto.metaschema.core.metapath.item.node.IDocumentNodeItem;
-import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItemFactory;
 import gov.nist.secauto.metaschema.core.util.AutoCloser;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.databind.io.AbstractDeserializer;
+import gov.nist.secauto.metaschema.databind.io.DeserializationFeature;
 import gov.nist.secauto.metaschema.databind.model.IAssemblyClassBinding;
 
 import org.codehaus.stax2.XMLEventReader2;
 import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.XMLStreamReader2;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -44,10 +44,11 @@ import java.net.URI;
 
 import javax.xml.stream.EventFilter;
 import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 public class DefaultXmlDeserializer<CLASS>
     extends AbstractDeserializer<CLASS> {
@@ -76,7 +77,9 @@ public class DefaultXmlDeserializer<CLASS>
   /**
    * Get the XML input factory instance used to create XML parser instances.
    * <p>
-   * Uses a built-in default if a user specified factory is not provided.
+   * Uses the shared default provided by
+   * {@link XmlFactoryFactory#inputFactoryInstance()} if a user specified factory
+   * is not provided.
    *
    * @return the factory instance
    * @see #setXMLInputFactory(XMLInputFactory2)
@@ -85,11 +88,7 @@ public class DefaultXmlDeserializer<CLASS>
   private XMLInputFactory2 getXMLInputFactory() {
     synchronized (this) {
       if (xmlInputFactory == null) {
-        xmlInputFactory = (XMLInputFactory2) XMLInputFactory.newInstance();
-        assert xmlInputFactory instanceof WstxInputFactory;
-        xmlInputFactory.configureForXmlConformance();
-        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
-        // xmlInputFactory.configureForSpeed();
+        xmlInputFactory = XmlFactoryFactory.inputFactoryInstance();
       }
       return ObjectUtils.notNull(xmlInputFactory);
     }
@@ -115,28 +114,76 @@ public class DefaultXmlDeserializer<CLASS>
     return ObjectUtils.notNull((XMLEventReader2) getXMLInputFactory().createFilteredReader(eventReader, filter));
   }
 
+  @NonNull
+  private XMLStreamReader2 newXMLStreamReader2(@NonNull Reader reader) throws XMLStreamException {
+    XMLStreamReader streamReader = getXMLInputFactory().createXMLStreamReader(reader);
+    CommentFilter filter = new CommentFilter();
+    return ObjectUtils.notNull((XMLStreamReader2) getXMLInputFactory().createFilteredReader(streamReader, filter));
+  }
+
   @Override
   protected final IDocumentNodeItem deserializeToNodeItemInternal(Reader reader, URI documentUri) throws IOException {
-    Object value = deserializeToValue(reader, documentUri);
-    return INodeItemFactory.instance().newDocumentNodeItem(rootDefinition, documentUri, value);
+    ValueInterner valueInterner = newValueInterner();
+    Object value = deserializeToValue(reader, valueInterner);
+    return getNodeItemFactory(valueInterner).newDocumentNodeItem(rootDefinition, documentUri, value);
   }
 
   @Override
   public final CLASS deserializeToValue(Reader reader, URI documentUri) throws IOException {
+    return deserializeToValue(reader, newValueInterner());
+  }
+
+  @NonNull
+  private CLASS deserializeToValue(@NonNull Reader reader, @Nullable ValueInterner valueInterner) throws IOException {
+    if (isFeatureEnabled(DeserializationFeature.DESERIALIZE_XML_CURSOR)) {
+      // doesn't auto close the underlying reader
+      try (AutoCloser<XMLStreamReader2, XMLStreamException> closer = new AutoCloser<>(
+          newXMLStreamReader2(reader), stream -> stream.close())) {
+        return parseXmlInternal(closer.getResource(), valueInterner);
+      } catch (XMLStreamException ex) {
+        throw new IOException("Unable to create a new XMLStreamReader2 instance.", ex);
+      }
+    }
+
     // doesn't auto close the underlying reader
     try (AutoCloser<XMLEventReader2, XMLStreamException> closer = new AutoCloser<>(
         newXMLEventReader2(reader), event -> event.close())) {
-      return parseXmlInternal(closer.getResource());
+      return parseXmlInternal(closer.getResource(), valueInterner);
     } catch (XMLStreamException ex) {
       throw new IOException("Unable to create a new XMLEventReader2 instance.", ex);
     }
   }
 
   @NonNull
-  private CLASS parseXmlInternal(@NonNull XMLEventReader2 reader)
+  private CLASS parseXmlInternal(
+      @NonNull XMLEventReader2 reader,
+      @Nullable ValueInterner valueInterner)
+      throws IOException {
+
+    MetaschemaXmlReader parser = new MetaschemaXmlReader(
+        reader,
+        new DefaultXmlProblemHandler(),
+        valueInterner);
+
+    try {
+      return parser.read(rootDefinition);
+    } catch (IOException | XMLStreamException | AssertionError ex) {
+      throw new IOException(
+          String.format("An unexpected error occured during parsing: %s", ex.getMessage()),
+          ex);
+    }
+  }
+
+  @NonNull
+  private CLASS parseXmlInternal(
+      @NonNull XMLStreamReader2 reader,
+      @Nullable ValueInterner valueInterner)
       throws IOException {
 
-    MetaschemaXmlReader parser = new MetaschemaXmlReader(reader, new DefaultXmlProblemHandler());
+    MetaschemaXmlStreamReader parser = new MetaschemaXmlStreamReader(
+        reader,
+        new DefaultXmlProblemHandler(),
+        valueInterner);
 
     try {
       return parser.read(rootDefinition);
@@ -26,9 +26,6 @@
 
 package gov.nist.secauto.metaschema.databind.io.xml;
 
-import com.ctc.wstx.api.WstxOutputProperties;
-import com.ctc.wstx.stax.WstxOutputFactory;
-
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.databind.io.AbstractSerializer;
 import gov.nist.secauto.metaschema.databind.model.IAssemblyClassBinding;
@@ -39,7 +36,6 @@ import org.codehaus.stax2.XMLStreamWriter2;
 import java.io.IOException;
 import java.io.Writer;
 
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -63,6 +59,10 @@ public class DefaultXmlSerializer<CLASS>
   /**
    * Get the configured XML output factory used to create {@link XMLStreamWriter2}
    * instances.
+   * <p>
+   * Uses the shared default provided by
+   * {@link XmlFactoryFactory#outputFactoryInstance()} if a custom factory is not
+   * provided.
    *
    * @return the factory
    */
@@ -70,11 +70,7 @@ public class DefaultXmlSerializer<CLASS>
   protected final XMLOutputFactory2 getXMLOutputFactory() {
     synchronized (this) {
       if (xmlOutputFactory == null) {
-        xmlOutputFactory = (XMLOutputFactory2) XMLOutputFactory.newInstance();
-        assert xmlOutputFactory instanceof WstxOutputFactory;
-        xmlOutputFactory.configureForSpeed();
-        xmlOutputFactory.setProperty(WstxOutputProperties.P_USE_DOUBLE_QUOTES_IN_XML_DECL, true);
-        xmlOutputFactory.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+        xmlOutputFactory = XmlFactoryFactory.outputFactoryInstance();
       }
       assert xmlOutputFactory != null;
       return xmlOutputFactory;
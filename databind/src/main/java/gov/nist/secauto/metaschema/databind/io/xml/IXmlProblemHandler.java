@@ -36,6 +36,7 @@ import gov.nist.secauto.metaschema.databind.model.IClassBinding;
 import java.io.IOException;
 import java.util.Collection;
 
+import javax.xml.namespace.QName;
 import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.StartElement;
 
@@ -67,6 +68,44 @@ public interface IXmlProblemHandler extends IProblemHandler {
     return false;
   }
 
+  /**
+   * Callback used to handle an attribute that is unknown to the model being
+   * parsed using the cursor of a stream reader.
+   * <p>
+   * The stream reader provided by the {@code parsingContext} is positioned at the
+   * start element containing the attribute.
+   * <p>
+   * By default, this delegates to
+   * {@link #handleUnknownAttribute(IFlagContainer, Object, Attribute, IXmlParsingContext)}
+   * using an attribute event and an event-based view of the parsing context, so a
+   * handler that only implements that callback handles unknown attributes the
+   * same way on both reading paths.
+   *
+   * @param parentDefinition
+   *          the bound class currently describing the data being parsed
+   * @param targetObject
+   *          the Java object for the {@code parentDefinition}
+   * @param attributeName
+   *          the name of the unknown attribute
+   * @param parsingContext
+   *          the XML parsing context used for parsing
+   * @return {@code true} if the attribute was handled by this method, or
+   *         {@code false} otherwise
+   * @throws IOException
+   *           if an error occurred while handling the unrecognized data
+   */
+  default boolean handleUnknownAttribute(
+      @NonNull IFlagContainer parentDefinition,
+      @NonNull Object targetObject,
+      @NonNull QName attributeName,
+      @NonNull IXmlStreamParsingContext parsingContext) throws IOException {
+    return handleUnknownAttribute(
+        parentDefinition,
+        targetObject,
+        MetaschemaXmlInstanceUtils.newAttribute(parsingContext.getReader(), attributeName),
+        MetaschemaXmlInstanceUtils.newEventParsingContext(parsingContext));
+  }
+
   /**
    * Callback used to handle an element that is unknown to the model being parsed.
    *
@@ -0,0 +1,144 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.databind.io.xml;
+
+import gov.nist.secauto.metaschema.core.datatype.IDataTypeAdapter;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+import gov.nist.secauto.metaschema.databind.model.IBoundFieldInstance;
+import gov.nist.secauto.metaschema.databind.model.IBoundNamedModelInstance;
+
+import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLStreamReader2;
+
+import java.io.IOException;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+final class MetaschemaXmlInstanceUtils {
+  /**
+   * Used to create attribute events. The factory's location is set before each
+   * use, so access to it is synchronized.
+   */
+  @NonNull
+  private static final XMLEventFactory EVENT_FACTORY = ObjectUtils.notNull(XMLEventFactory.newInstance());
+
+  private MetaschemaXmlInstanceUtils() {
+    // disable construction
+  }
+
+  /**
+   * Determine if an element with the provided name starts the data for the
+   * provided model instance.
+   * <p>
+   * This is the case if the element is the instance's grouping element, the
+   * instance's element, or an unwrapped field value the instance's data type can
+   * handle.
+   *
+   * @param targetInstance
+   *          the model instance that describes the syntax of the data to read
+   * @param qname
+   *          the name of the element
+   * @return {@code true} if the element starts the instance's data, or
+   *         {@code false} otherwise
+   */
+  static boolean isInstanceStart(@NonNull IBoundNamedModelInstance targetInstance, @NonNull QName qname) {
+    boolean retval;
+    if (qname.equals(targetInstance.getXmlGroupAsQName())) {
+      // we are to parse the grouping element
+      retval = true;
+    } else if (qname.equals(targetInstance.getXmlQName())) {
+      // we are to parse the element
+      retval = true;
+    } else if (targetInstance instanceof IBoundFieldInstance) {
+      IBoundFieldInstance fieldInstance = (IBoundFieldInstance) targetInstance;
+      IDataTypeAdapter<?> adapter = fieldInstance.getDefinition().getJavaTypeAdapter();
+      // we are to parse the data type
+      retval = !fieldInstance.isInXmlWrapped()
+          && adapter.isUnrappedValueAllowedInXml()
+          && adapter.canHandleQName(qname);
+    } else {
+      retval = false;
+    }
+    return retval;
+  }
+
+  /**
+   * Create an attribute event for an attribute of the start element the provided
+   * stream reader is positioned at.
+   *
+   * @param reader
+   *          the XML stream reader positioned at a start element
+   * @param attributeName
+   *          the name of the attribute
+   * @return the attribute event, located at the start element
+   */
+  @NonNull
+  static Attribute newAttribute(@NonNull XMLStreamReader2 reader, @NonNull QName attributeName) {
+    int count = reader.getAttributeCount();
+    int index = 0;
+    while (index < count && !attributeName.equals(reader.getAttributeName(index))) {
+      index++;
+    }
+    String value = index < count ? reader.getAttributeValue(index) : "";
+
+    synchronized (EVENT_FACTORY) {
+      EVENT_FACTORY.setLocation(reader.getLocation());
+      return ObjectUtils.notNull(EVENT_FACTORY.createAttribute(attributeName, value));
+    }
+  }
+
+  /**
+   * Create an event-based parsing context that reads from the same stream reader
+   * as the provided cursor-based parsing context.
+   *
+   * @param parsingContext
+   *          the cursor-based parsing context
+   * @return the event-based parsing context
+   * @throws IOException
+   *           if an event reader could not be created for the stream reader
+   */
+  @NonNull
+  static IXmlParsingContext newEventParsingContext(@NonNull IXmlStreamParsingContext parsingContext)
+      throws IOException {
+    XMLEventReader2 eventReader;
+    try {
+      eventReader = (XMLEventReader2) XmlFactoryFactory.inputFactoryInstance()
+          .createXMLEventReader(parsingContext.getReader());
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    }
+    return new MetaschemaXmlReader(
+        ObjectUtils.notNull(eventReader),
+        parsingContext.getProblemHandler(),
+        parsingContext.getValueInterner());
+  }
+}
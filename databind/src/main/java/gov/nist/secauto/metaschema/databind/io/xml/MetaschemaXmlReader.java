@@ -27,6 +27,7 @@
 package gov.nist.secauto.metaschema.databind.io.xml;
 
 import gov.nist.secauto.metaschema.core.datatype.IDataTypeAdapter;
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
 import gov.nist.secauto.metaschema.core.model.util.XmlEventUtil;
 import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
@@ -66,6 +67,8 @@ public class MetaschemaXmlReader
   private final XMLEventReader2 reader;
   @NonNull
   private final IXmlProblemHandler problemHandler;
+  @Nullable
+  private final ValueInterner valueInterner;
 
   /**
    * Construct a new Module-aware XML parser using the default problem handler.
@@ -90,8 +93,27 @@ public class MetaschemaXmlReader
   public MetaschemaXmlReader(
       @NonNull XMLEventReader2 reader,
       @NonNull IXmlProblemHandler problemHandler) {
+    this(reader, problemHandler, null);
+  }
+
+  /**
+   * Construct a new Module-aware parser that deduplicates the values it reads.
+   *
+   * @param reader
+   *          the XML reader to parse with
+   * @param problemHandler
+   *          the problem handler implementation to use
+   * @param valueInterner
+   *          the table used to deduplicate values, or {@code null} if values are
+   *          not to be deduplicated
+   */
+  public MetaschemaXmlReader(
+      @NonNull XMLEventReader2 reader,
+      @NonNull IXmlProblemHandler problemHandler,
+      @Nullable ValueInterner valueInterner) {
     this.reader = reader;
     this.problemHandler = problemHandler;
+    this.valueInterner = valueInterner;
   }
 
   @Override
@@ -104,6 +126,11 @@ public class MetaschemaXmlReader
     return problemHandler;
   }
 
+  @Override
+  public ValueInterner getValueInterner() {
+    return valueInterner;
+  }
+
   /**
    * Parses XML into a bound object based on the provided {@code definition}.
    * <p>
@@ -226,7 +253,8 @@ public class MetaschemaXmlReader
         }
       } else {
         // get the attribute value
-        Object value = instance.getDefinition().getJavaTypeAdapter().parse(ObjectUtils.notNull(attribute.getValue()));
+        IDataTypeAdapter<?> adapter = instance.getDefinition().getJavaTypeAdapter();
+        Object value = internValue(adapter, adapter.parse(ObjectUtils.notNull(attribute.getValue())));
         // apply the value to the parentObject
         instance.setValue(targetObject, value);
         flagInstanceMap.remove(qname);
@@ -291,7 +319,8 @@ public class MetaschemaXmlReader
     IBoundFieldValueInstance fieldValue = targetDefinition.getFieldValueInstance();
 
     // parse the value
-    Object value = fieldValue.getJavaTypeAdapter().parse(reader);
+    IDataTypeAdapter<?> adapter = fieldValue.getJavaTypeAdapter();
+    Object value = internValue(adapter, adapter.parse(reader));
     fieldValue.setValue(targetObject, value);
   }
 
@@ -305,7 +334,6 @@ public class MetaschemaXmlReader
    * @throws XMLStreamException
    *           if an error occurred while parsing XML events
    */
-  @SuppressWarnings("PMD.OnlyOneReturn")
   protected boolean isNextInstance(
       @NonNull IBoundNamedModelInstance targetInstance)
       throws XMLStreamException {
@@ -313,31 +341,10 @@ public class MetaschemaXmlReader
     XmlEventUtil.skipWhitespace(reader);
 
     XMLEvent nextEvent = reader.peek();
-    if (!nextEvent.isStartElement()) {
-      return false;
-    }
-
-    QName nextQName = ObjectUtils.notNull(nextEvent.asStartElement().getName());
-
-    if (nextQName.equals(targetInstance.getXmlGroupAsQName())) {
-      // we are to parse the grouping element
-      return true;
-    }
-
-    if (nextQName.equals(targetInstance.getXmlQName())) {
-      // we are to parse the element
-      return true;
-    }
-
-    if (targetInstance instanceof IBoundFieldInstance) {
-      IBoundFieldInstance fieldInstance = (IBoundFieldInstance) targetInstance;
-      IDataTypeAdapter<?> adapter = fieldInstance.getDefinition().getJavaTypeAdapter();
-      // we are to parse the data type
-      return !fieldInstance.isInXmlWrapped()
-          && adapter.isUnrappedValueAllowedInXml()
-          && adapter.canHandleQName(nextQName);
-    }
-    return false;
+    return nextEvent.isStartElement()
+        && MetaschemaXmlInstanceUtils.isInstanceStart(
+            targetInstance,
+            ObjectUtils.notNull(nextEvent.asStartElement().getName()));
   }
 
   /**
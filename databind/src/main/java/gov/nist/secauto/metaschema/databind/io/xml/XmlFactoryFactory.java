@@ -0,0 +1,106 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.databind.io.xml;
+
+import com.ctc.wstx.api.WstxOutputProperties;
+import com.ctc.wstx.stax.WstxInputFactory;
+import com.ctc.wstx.stax.WstxOutputFactory;
+
+import org.codehaus.stax2.XMLInputFactory2;
+import org.codehaus.stax2.XMLOutputFactory2;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Provides shared StAX factory instances used to read and write XML content.
+ * <p>
+ * Woodstox factories are thread-safe once configured, so the same instances can
+ * be used to create any number of readers and writers concurrently. Callers
+ * must not change the configuration of the returned factories.
+ */
+public final class XmlFactoryFactory {
+  @NonNull
+  private static final XMLInputFactory2 INPUT_SINGLETON = newXmlInputFactoryInstance();
+  @NonNull
+  private static final XMLOutputFactory2 OUTPUT_SINGLETON = newXmlOutputFactoryInstance();
+
+  private XmlFactoryFactory() {
+    // disable construction
+  }
+
+  /**
+   * Create a new {@link XMLInputFactory2} configured to parse XML.
+   *
+   * @return the factory
+   */
+  @NonNull
+  public static XMLInputFactory2 newXmlInputFactoryInstance() {
+    XMLInputFactory2 retval = (XMLInputFactory2) XMLInputFactory.newInstance();
+    assert retval instanceof WstxInputFactory;
+    retval.configureForXmlConformance();
+    retval.setProperty(XMLInputFactory.IS_COALESCING, false);
+    return retval;
+  }
+
+  /**
+   * Create a new {@link XMLOutputFactory2} configured to generate XML.
+   *
+   * @return the factory
+   */
+  @NonNull
+  public static XMLOutputFactory2 newXmlOutputFactoryInstance() {
+    XMLOutputFactory2 retval = (XMLOutputFactory2) XMLOutputFactory.newInstance();
+    assert retval instanceof WstxOutputFactory;
+    retval.configureForSpeed();
+    retval.setProperty(WstxOutputProperties.P_USE_DOUBLE_QUOTES_IN_XML_DECL, true);
+    retval.setProperty(XMLOutputFactory.IS_REPAIRING_NAMESPACES, true);
+    return retval;
+  }
+
+  /**
+   * Get the shared {@link XMLInputFactory2} instance.
+   *
+   * @return the factory
+   */
+  @NonNull
+  public static XMLInputFactory2 inputFactoryInstance() {
+    return INPUT_SINGLETON;
+  }
+
+  /**
+   * Get the shared {@link XMLOutputFactory2} instance.
+   *
+   * @return the factory
+   */
+  @NonNull
+  public static XMLOutputFactory2 outputFactoryInstance() {
+    return OUTPUT_SINGLETON;
+  }
+}
@@ -58,7 +58,7 @@ public class DefaultYamlDeserializer<CLASS>
    */
   @Override
   protected YAMLFactory newJsonFactoryInstance() {
-    return YamlFactoryFactory.newParserFactoryInstance(getConfiguration());
+    return YamlFactoryFactory.parserFactoryInstance(getConfiguration());
   }
 
 }
@@ -51,6 +51,6 @@ public class DefaultYamlSerializer<CLASS>
 
   @Override
   protected JsonFactory getJsonFactoryInstance() {
-    return YamlFactoryFactory.newGeneratorFactoryInstance(getConfiguration());
+    return YamlFactoryFactory.generatorFactoryInstance(getConfiguration());
   }
 }
@@ -39,13 +39,65 @@ import gov.nist.secauto.metaschema.databind.io.json.JsonFactoryFactory;
 
 import org.yaml.snakeyaml.LoaderOptions;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 public final class YamlFactoryFactory {
+  /**
+   * Parser factories, keyed by the configured YAML codepoint limit, which is the
+   * only deserialization feature that affects parser factory configuration.
+   */
+  @NonNull
+  private static final Map<Integer, YAMLFactory> PARSER_FACTORIES = new ConcurrentHashMap<>();
+  @NonNull
+  private static final YAMLFactory GENERATOR_SINGLETON = newGeneratorFactoryInstance();
+
   private YamlFactoryFactory() {
     // disable construction
   }
 
+  /**
+   * Get a shared {@link YAMLFactory} configured to parse YAML using the provided
+   * configuration.
+   * <p>
+   * The returned factory is thread-safe and is shared by all callers using an
+   * equivalent configuration, allowing parser buffers to be recycled across
+   * parses.
+   *
+   * @param config
+   *          the deserialization configuration
+   *
+   * @return the factory
+   */
+  @NonNull
+  public static YAMLFactory parserFactoryInstance(
+      @NonNull IConfiguration<DeserializationFeature<?>> config) {
+    int codePointLimit = config.get(DeserializationFeature.YAML_CODEPOINT_LIMIT);
+    return ObjectUtils.notNull(PARSER_FACTORIES.computeIfAbsent(
+        codePointLimit,
+        YamlFactoryFactory::newParserFactoryInstance));
+  }
+
+  /**
+   * Get a shared {@link YAMLFactory} configured to generate YAML.
+   * <p>
+   * The returned factory is thread-safe and is shared by all callers, allowing
+   * generator buffers to be recycled across serializations.
+   *
+   * @param config
+   *          the serialization configuration
+   *
+   * @return the factory
+   */
+  @NonNull
+  public static YAMLFactory generatorFactoryInstance(
+      @SuppressWarnings("unused") @NonNull IConfiguration<SerializationFeature<?>> config) {
+    // no serialization features currently affect the generator factory
+    return GENERATOR_SINGLETON;
+  }
+
   /**
    * Create a new {@link YAMLFactory} configured to parse YAML.
    *
@@ -57,13 +109,17 @@ public final class YamlFactoryFactory {
   @NonNull
   public static YAMLFactory newParserFactoryInstance(
       @NonNull IConfiguration<DeserializationFeature<?>> config) {
+    return newParserFactoryInstance(config.get(DeserializationFeature.YAML_CODEPOINT_LIMIT));
+  }
+
+  @NonNull
+  private static YAMLFactory newParserFactoryInstance(int codePointLimit) {
     YAMLFactoryBuilder builder = YAMLFactory.builder();
     LoaderOptions loaderOptions = builder.loaderOptions();
     if (loaderOptions == null) {
       loaderOptions = new LoaderOptions();
     }
 
-    int codePointLimit = config.get(DeserializationFeature.YAML_CODEPOINT_LIMIT);
     loaderOptions.setCodePointLimit(codePointLimit);
     builder.loaderOptions(loaderOptions);
 
@@ -83,6 +139,11 @@ public final class YamlFactoryFactory {
   @NonNull
   public static YAMLFactory newGeneratorFactoryInstance(
       @NonNull IMutableConfiguration<SerializationFeature<?>> config) {
+    return newGeneratorFactoryInstance();
+  }
+
+  @NonNull
+  private static YAMLFactory newGeneratorFactoryInstance() {
     YAMLFactoryBuilder builder = YAMLFactory.builder();
     YAMLFactory retval = ObjectUtils.notNull(builder
         .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES)
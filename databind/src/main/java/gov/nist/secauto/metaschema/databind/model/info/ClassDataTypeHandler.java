@@ -38,6 +38,7 @@ import gov.nist.secauto.metaschema.databind.io.BindingException;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonParsingContext;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonWritingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlParsingContext;
+import gov.nist.secauto.metaschema.databind.io.xml.IXmlStreamParsingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlWritingContext;
 import gov.nist.secauto.metaschema.databind.model.IAssemblyClassBinding;
 import gov.nist.secauto.metaschema.databind.model.IBoundFieldValueInstance;
@@ -188,8 +189,9 @@ class ClassDataTypeHandler implements IDataTypeHandler {
     // the field will be the JSON key
     String key = ObjectUtils.notNull(parser.getCurrentName());
 
-    Object value = jsonKey.getDefinition().getJavaTypeAdapter().parse(key);
-    jsonKey.setValue(targetObject, value.toString());
+    IDataTypeAdapter<?> adapter = jsonKey.getDefinition().getJavaTypeAdapter();
+    Object value = adapter.parse(key);
+    jsonKey.setValue(targetObject, context.internValue(adapter, value.toString()));
 
     // advance past the FIELD_NAME
     JsonUtil.assertAndAdvance(parser, JsonToken.FIELD_NAME);
@@ -235,7 +237,8 @@ class ClassDataTypeHandler implements IDataTypeHandler {
     } else if (parser.currentToken().isScalarValue()) {
       // this is just a value
       IFieldClassBinding fieldDefinition = (IFieldClassBinding) definition;
-      Object fieldValue = fieldDefinition.getJavaTypeAdapter().parse(parser);
+      IDataTypeAdapter<?> adapter = fieldDefinition.getJavaTypeAdapter();
+      Object fieldValue = context.internValue(adapter, adapter.parse(parser));
       fieldDefinition.getFieldValueInstance().setValue(targetObject, fieldValue);
     }
 
@@ -262,6 +265,12 @@ class ClassDataTypeHandler implements IDataTypeHandler {
     return context.readDefinitionValue(getClassBinding(), parentInstance, start);
   }
 
+  @Override
+  public Object readItem(Object parentInstance, IXmlStreamParsingContext context)
+      throws IOException, XMLStreamException {
+    return context.readDefinitionValue(getClassBinding(), parentInstance);
+  }
+
   @Override
   public void writeItem(Object item, QName currentParentName, IXmlWritingContext context)
       throws IOException, XMLStreamException {
@@ -33,6 +33,7 @@ import gov.nist.secauto.metaschema.databind.io.BindingException;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonParsingContext;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonWritingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlParsingContext;
+import gov.nist.secauto.metaschema.databind.io.xml.IXmlStreamParsingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlWritingContext;
 import gov.nist.secauto.metaschema.databind.model.IBoundFieldInstance;
 import gov.nist.secauto.metaschema.databind.model.IBoundNamedModelInstance;
@@ -141,6 +142,29 @@ public interface IDataTypeHandler {
       @NonNull StartElement parentName,
       @NonNull IXmlParsingContext context) throws IOException, XMLStreamException;
 
+  /**
+   * Parse and return the set of items from the XML stream using the cursor of a
+   * stream reader.
+   * <p>
+   * For a bound class, the reader is expected to be positioned at the item's
+   * start element, so that its attributes can be read. Otherwise, the reader is
+   * expected to be positioned at the item's value content.
+   *
+   * @param parentObject
+   *          the parent Java object to use for serialization callbacks
+   * @param context
+   *          the XML parsing context
+   * @return the Java object representing the set of parsed items
+   * @throws IOException
+   *           if an error occurred while parsing
+   * @throws XMLStreamException
+   *           if an error occurred while parsing XML events
+   */
+  @NonNull
+  Object readItem(
+      @NonNull Object parentObject,
+      @NonNull IXmlStreamParsingContext context) throws IOException, XMLStreamException;
+
   /**
    * Write the provided {@code targetObject} as JSON.
    *
@@ -31,6 +31,7 @@ import gov.nist.secauto.metaschema.databind.io.BindingException;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonParsingContext;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonWritingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlParsingContext;
+import gov.nist.secauto.metaschema.databind.io.xml.IXmlStreamParsingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlWritingContext;
 import gov.nist.secauto.metaschema.databind.model.IBoundNamedModelInstance;
 
@@ -175,6 +176,29 @@ public interface IModelPropertyInfo {
       @NonNull IXmlParsingContext context)
       throws IOException, XMLStreamException;
 
+  /**
+   * Read the value data for the property using the cursor of a stream reader. At
+   * the point that this is called, the reader must be positioned at the first
+   * item element for the property.
+   *
+   * @param collector
+   *          used to hold parsed values
+   * @param parentInstance
+   *          the instance the property is on
+   * @param context
+   *          the XML parsing context
+   * @return {@code true} if a value was read, or {@code false} otherwise
+   * @throws IOException
+   *           if there was an error when reading XML data
+   * @throws XMLStreamException
+   *           if an error occurred while parsing XML events
+   */
+  boolean readValues(
+      @NonNull IPropertyCollector collector,
+      @NonNull Object parentInstance,
+      @NonNull IXmlStreamParsingContext context)
+      throws IOException, XMLStreamException;
+
   /**
    * Write a {@code value} that is not {@code null}.
    *
@@ -32,6 +32,7 @@ import gov.nist.secauto.metaschema.databind.io.BindingException;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonParsingContext;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonWritingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlParsingContext;
+import gov.nist.secauto.metaschema.databind.io.xml.IXmlStreamParsingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlWritingContext;
 import gov.nist.secauto.metaschema.databind.model.IBoundFieldInstance;
 import gov.nist.secauto.metaschema.databind.model.IClassBinding;
@@ -80,13 +81,21 @@ class JavaTypeAdapterDataTypeHandler implements IDataTypeHandler {
   @Override
   public <T> T readItem(Object parentInstance, IJsonParsingContext context)
       throws IOException {
-    return (T) getJavaTypeAdapter().parse(context.getReader());
+    IDataTypeAdapter<?> adapter = getJavaTypeAdapter();
+    return (T) context.internValue(adapter, adapter.parse(context.getReader()));
   }
 
   @Override
   public Object readItem(Object parentInstance, StartElement start, IXmlParsingContext context)
       throws IOException, XMLStreamException {
-    return getJavaTypeAdapter().parse(context.getReader());
+    IDataTypeAdapter<?> adapter = getJavaTypeAdapter();
+    return context.internValue(adapter, adapter.parse(context.getReader()));
+  }
+
+  @Override
+  public Object readItem(Object parentInstance, IXmlStreamParsingContext context) throws IOException {
+    IDataTypeAdapter<?> adapter = getJavaTypeAdapter();
+    return context.internValue(adapter, adapter.parse(context.getReader()));
   }
 
   @Override
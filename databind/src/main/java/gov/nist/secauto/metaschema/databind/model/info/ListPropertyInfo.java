@@ -39,10 +39,12 @@ import gov.nist.secauto.metaschema.databind.io.BindingException;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonParsingContext;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonWritingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlParsingContext;
+import gov.nist.secauto.metaschema.databind.io.xml.IXmlStreamParsingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlWritingContext;
 import gov.nist.secauto.metaschema.databind.model.IBoundNamedModelInstance;
 
 import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLStreamReader2;
 
 import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
@@ -124,6 +126,34 @@ class ListPropertyInfo
     return handled;
   }
 
+  @Override
+  public boolean readValues(
+      IPropertyCollector collector,
+      Object parentInstance,
+      IXmlStreamParsingContext context) throws IOException, XMLStreamException {
+    XMLStreamReader2 reader = context.getReader();
+
+    // consume extra whitespace between elements
+    XmlEventUtil.skipWhitespace(reader);
+
+    QName expectedFieldItemQName = getProperty().getXmlQName();
+
+    boolean handled = false;
+    while (XmlEventUtil.isEventStartElement(reader, expectedFieldItemQName)) {
+
+      Object value = context.readModelInstanceValue(getProperty(), parentInstance);
+      if (value != null) {
+        collector.add(value);
+        handled = true;
+      }
+
+      // consume extra whitespace between elements
+      XmlEventUtil.skipWhitespace(reader);
+    }
+
+    return handled;
+  }
+
   @SuppressWarnings({
       "resource", // not owned
       "PMD.ImplicitSwitchFallThrough" // false positive
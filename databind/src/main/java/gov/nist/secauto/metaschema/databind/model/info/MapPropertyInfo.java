@@ -36,12 +36,14 @@ import gov.nist.secauto.metaschema.databind.io.BindingException;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonParsingContext;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonWritingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlParsingContext;
+import gov.nist.secauto.metaschema.databind.io.xml.IXmlStreamParsingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlWritingContext;
 import gov.nist.secauto.metaschema.databind.model.IBoundFlagInstance;
 import gov.nist.secauto.metaschema.databind.model.IBoundNamedModelInstance;
 import gov.nist.secauto.metaschema.databind.model.IClassBinding;
 
 import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLStreamReader2;
 
 import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
@@ -165,6 +167,31 @@ class MapPropertyInfo
     return handled;
   }
 
+  @Override
+  public boolean readValues(IPropertyCollector collector, Object parentInstance,
+      IXmlStreamParsingContext context) throws IOException, XMLStreamException {
+    QName qname = getProperty().getXmlQName();
+    XMLStreamReader2 reader = context.getReader();
+
+    // consume extra whitespace between elements
+    XmlEventUtil.skipWhitespace(reader);
+
+    boolean handled = false;
+    while (XmlEventUtil.isEventStartElement(reader, qname)) {
+
+      Object value = context.readModelInstanceValue(getProperty(), parentInstance);
+      if (value != null) {
+        collector.add(value);
+        handled = true;
+      }
+
+      // consume extra whitespace between elements
+      XmlEventUtil.skipWhitespace(reader);
+    }
+
+    return handled;
+  }
+
   @Override
   public void writeValues(Object value, QName parentName, IXmlWritingContext context)
       throws XMLStreamException, IOException {
@@ -31,6 +31,7 @@ import gov.nist.secauto.metaschema.databind.io.BindingException;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonParsingContext;
 import gov.nist.secauto.metaschema.databind.io.json.IJsonWritingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlParsingContext;
+import gov.nist.secauto.metaschema.databind.io.xml.IXmlStreamParsingContext;
 import gov.nist.secauto.metaschema.databind.io.xml.IXmlWritingContext;
 import gov.nist.secauto.metaschema.databind.model.IBoundNamedModelInstance;
 
@@ -97,6 +98,18 @@ class SingletonPropertyInfo
     return handled;
   }
 
+  @Override
+  public boolean readValues(IPropertyCollector collector, Object parentInstance,
+      IXmlStreamParsingContext context) throws IOException, XMLStreamException {
+    boolean handled = true;
+    Object value = context.readModelInstanceValue(getProperty(), parentInstance);
+    if (value != null) {
+      collector.add(value);
+      handled = true;
+    }
+    return handled;
+  }
+
   @Override
   public Class<?> getItemType() {
     return (Class<?>) getProperty().getType();
@@ -0,0 +1,195 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.databind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import gov.nist.secauto.metaschema.core.metapath.item.node.INodeItem;
+import gov.nist.secauto.metaschema.core.model.constraint.ConstraintValidationFinding;
+import gov.nist.secauto.metaschema.core.model.constraint.IncrementalConstraintValidator;
+import gov.nist.secauto.metaschema.core.model.validation.IValidationResult;
+import gov.nist.secauto.metaschema.databind.io.Format;
+import gov.nist.secauto.metaschema.databind.io.IDeserializer;
+import gov.nist.secauto.metaschema.databind.model.test.KeyedConstrainedAssembly;
+import gov.nist.secauto.metaschema.databind.model.test.MatchesConstrainedAssembly;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class IncrementalValidationTest {
+  private static final String ORIGINAL = "<matches-constrained xmlns='https://csrc.nist.gov/ns/test/xml' id='Bad1'>"
+      + "<codes><code>123</code><code>x1</code><code>x1</code></codes>"
+      + "</matches-constrained>";
+  private static final String EDITED_CODE = "<matches-constrained xmlns='https://csrc.nist.gov/ns/test/xml' id='Bad1'>"
+      + "<codes><code>123</code><code>456</code><code>x1</code></codes>"
+      + "</matches-constrained>";
+  private static final String EDITED_FLAG = "<matches-constrained xmlns='https://csrc.nist.gov/ns/test/xml' id='good'>"
+      + "<codes><code>123</code><code>456</code><code>x1</code></codes>"
+      + "</matches-constrained>";
+
+  private static final String KEYED_START
+      = "<keyed-constrained xmlns='https://csrc.nist.gov/ns/test/xml'>";
+  private static final String KEYED_END = "</keyed-constrained>";
+  private static final String ITEM_A = "<item id='a' type='basic'><tag>t1</tag></item>";
+  private static final String ITEM_B = "<item id='b' type='extra'/>";
+  private static final String ITEM_C = "<item id='c' type='bogus'/>";
+  private static final String REFS = "<ref>a</ref><ref>z</ref>";
+  private static final String KEYED = KEYED_START + ITEM_A + ITEM_B + ITEM_C + REFS + KEYED_END;
+
+  @Test
+  void testRevalidateMatchesFullValidation() throws IOException {
+    IBindingContext bindingContext = DefaultBindingContext.instance();
+    IncrementalConstraintValidator validator = bindingContext.newIncrementalValidator();
+
+    IValidationResult result = validator.validate(parse(ORIGINAL));
+    assertEquals(validate(ORIGINAL), toStrings(result));
+    assertEquals(3, result.getFindings().size());
+
+    result = validator.revalidate(parse(EDITED_CODE), List.of("/matches-constrained/code[2]"));
+    assertEquals(validate(EDITED_CODE), toStrings(result));
+    assertEquals(2, result.getFindings().size());
+
+    result = validator.revalidate(parse(EDITED_FLAG), List.of("/matches-constrained/@id"));
+    assertEquals(validate(EDITED_FLAG), toStrings(result));
+    assertEquals(1, result.getFindings().size());
+  }
+
+  @Test
+  void testRevalidateIndexRebuild() throws IOException {
+    IncrementalConstraintValidator validator = newKeyedValidator();
+
+    // the reference to 'a' no longer resolves, while the reference to 'z' now does
+    String renamed = KEYED_START + ITEM_A.replace("'a'", "'z'") + ITEM_B + ITEM_C + REFS + KEYED_END;
+    assertEquals(2, assertRevalidation(validator, renamed, "/keyed-constrained/item[1]/@id"));
+
+    // a duplicate key
+    String duplicate = KEYED_START + ITEM_A.replace("'a'", "'z'") + ITEM_B.replace("'b'", "'z'") + ITEM_C + REFS
+        + KEYED_END;
+    assertEquals(3, assertRevalidation(validator, duplicate, "/keyed-constrained/item[2]/@id"));
+  }
+
+  @Test
+  void testRevalidateIndexHasKey() throws IOException {
+    IncrementalConstraintValidator validator = newKeyedValidator();
+
+    String edited = KEYED_START + ITEM_A + ITEM_B + ITEM_C + "<ref>a</ref><ref>b</ref>" + KEYED_END;
+    assertEquals(1, assertRevalidation(validator, edited, "/keyed-constrained/ref[2]"));
+
+    assertEquals(2, assertRevalidation(validator, KEYED, "/keyed-constrained/ref[2]"));
+  }
+
+  @Test
+  void testRevalidateAllowedValues() throws IOException {
+    IncrementalConstraintValidator validator = newKeyedValidator();
+
+    // only allowed by the constraint declared on the parent assembly
+    String extra = KEYED_START + ITEM_A + ITEM_B + ITEM_C.replace("bogus", "extra") + REFS + KEYED_END;
+    assertEquals(1, assertRevalidation(validator, extra, "/keyed-constrained/item[3]/@type"));
+
+    String bogus = KEYED_START + ITEM_A.replace("basic", "bogus") + ITEM_B + ITEM_C.replace("bogus", "extra") + REFS
+        + KEYED_END;
+    assertEquals(2, assertRevalidation(validator, bogus, "/keyed-constrained/item[1]/@type"));
+  }
+
+  @Test
+  void testRevalidateNonLocalConstraintAfterInsertAndDelete() throws IOException {
+    IncrementalConstraintValidator validator = newKeyedValidator();
+
+    // the stop tag is checked by every item, including those outside the changed
+    // subtree
+    String inserted = KEYED_START + ITEM_A + "<item id='b' type='extra'><tag>t2</tag><tag>stop</tag></item>" + ITEM_C
+        + REFS + KEYED_END;
+    assertEquals(5, assertRevalidation(validator, inserted, "/keyed-constrained/item[2]"));
+
+    assertEquals(2, assertRevalidation(validator, KEYED, "/keyed-constrained/item[2]"));
+  }
+
+  @Test
+  void testRevalidateInsertAndDeleteItems() throws IOException {
+    IncrementalConstraintValidator validator = newKeyedValidator();
+
+    String inserted = KEYED_START + "<item id='z' type='basic'/>" + ITEM_A + ITEM_B + ITEM_C + REFS + KEYED_END;
+    assertEquals(1, assertRevalidation(validator, inserted, "/keyed-constrained"));
+
+    String deleted = KEYED_START + ITEM_B + ITEM_C + REFS + KEYED_END;
+    assertEquals(3, assertRevalidation(validator, deleted, "/keyed-constrained"));
+  }
+
+  private static IncrementalConstraintValidator newKeyedValidator() throws IOException {
+    IncrementalConstraintValidator retval = DefaultBindingContext.instance().newIncrementalValidator();
+    IValidationResult result = retval.validate(parse(KEYED, KeyedConstrainedAssembly.class));
+    assertEquals(validate(KEYED, KeyedConstrainedAssembly.class), toStrings(result));
+    assertEquals(2, result.getFindings().size());
+    return retval;
+  }
+
+  /**
+   * Revalidate the edited document and check that the result matches a full
+   * validation of it.
+   *
+   * @return the number of findings
+   */
+  private static int assertRevalidation(IncrementalConstraintValidator validator, String document,
+      String... changedPaths) throws IOException {
+    IValidationResult result = validator.revalidate(
+        parse(document, KeyedConstrainedAssembly.class),
+        List.of(changedPaths));
+    assertEquals(validate(document, KeyedConstrainedAssembly.class), toStrings(result));
+    return result.getFindings().size();
+  }
+
+  private static List<String> validate(String document) throws IOException {
+    return validate(document, MatchesConstrainedAssembly.class);
+  }
+
+  private static List<String> validate(String document, Class<?> rootClass) throws IOException {
+    return toStrings(DefaultBindingContext.instance().validate(parse(document, rootClass)));
+  }
+
+  private static INodeItem parse(String document) throws IOException {
+    return parse(document, MatchesConstrainedAssembly.class);
+  }
+
+  private static INodeItem parse(String document, Class<?> rootClass) throws IOException {
+    IDeserializer<?> deserializer = DefaultBindingContext.instance()
+        .newDeserializer(Format.XML, rootClass);
+    return deserializer.deserializeToNodeItem(new StringReader(document), URI.create("urn:test"));
+  }
+
+  private static List<String> toStrings(IValidationResult result) {
+    return result.getFindings().stream()
+        .map(finding -> finding.getMessage() + " @ "
+            + ((ConstraintValidationFinding) finding).getNode().getMetapath())
+        .sorted()
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.databind.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.MetaschemaException;
+import gov.nist.secauto.metaschema.core.model.xml.ModuleLoader;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+import gov.nist.secauto.metaschema.databind.codegen.config.DefaultBindingConfiguration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class JavaGeneratorTest {
+  private static final FileTime PAST = FileTime.fromMillis(0);
+
+  @TempDir
+  Path generationDir;
+
+  @NonNull
+  private static List<IModule> loadModules() throws MetaschemaException, IOException {
+    ModuleLoader loader = new ModuleLoader();
+    return ObjectUtils.notNull(List.of(
+        loader.load(ObjectUtils.notNull(Paths.get("src/test/resources/metaschema/local-definitions/metaschema.xml"))),
+        loader.load(ObjectUtils.notNull(Paths.get("src/test/resources/metaschema/json-key/metaschema.xml"))),
+        loader.load(ObjectUtils.notNull(Paths.get("src/test/resources/metaschema/simple_with_field/metaschema.xml")))));
+  }
+
+  @NonNull
+  private static Map<Path, String> readSources(@NonNull Path dir) throws IOException {
+    Map<Path, String> retval = new TreeMap<>();
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+        retval.put(dir.relativize(file), Files.readString(file));
+      }
+    }
+    return retval;
+  }
+
+  @Test
+  void testConcurrentGenerationIsDeterministic() throws MetaschemaException, IOException {
+    List<IModule> modules = loadModules();
+
+    Path serialDir = ObjectUtils.notNull(generationDir.resolve("serial"));
+    Path concurrentDir = ObjectUtils.notNull(generationDir.resolve("concurrent"));
+    JavaGenerator.generate(modules, serialDir, new DefaultBindingConfiguration(), 1);
+    JavaGenerator.generate(modules, concurrentDir, new DefaultBindingConfiguration(), 4);
+
+    Map<Path, String> expected = readSources(serialDir);
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, readSources(concurrentDir));
+  }
+
+  @Test
+  void testUnchangedSourcesAreNotRewritten() throws MetaschemaException, IOException {
+    List<IModule> modules = loadModules();
+
+    IProduction production = JavaGenerator.generate(modules, generationDir, new DefaultBindingConfiguration(), 4);
+    List<Path> files = production.getGeneratedClasses()
+        .map(IGeneratedClass::getClassFile)
+        .collect(Collectors.toList());
+    assertFalse(files.isEmpty());
+    for (Path file : files) {
+      Files.setLastModifiedTime(file, PAST);
+    }
+
+    JavaGenerator.generate(modules, generationDir, new DefaultBindingConfiguration(), 4);
+
+    assertAll(files.stream()
+        .map(file -> () -> assertEquals(PAST, Files.getLastModifiedTime(file), file.toString())));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.databind.io;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.databind.DefaultBindingContext;
+import gov.nist.secauto.metaschema.databind.model.test.RootBoundAssembly;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class BulkConverterTest {
+
+  @Test
+  void testConvertWithFailure(@TempDir Path tempDir) throws InterruptedException {
+    Map<Path, Path> sourcesToDestinations = new LinkedHashMap<>();
+    sourcesToDestinations.put(
+        Paths.get("src/test/resources/test-content/does-not-exist.json"),
+        tempDir.resolve("does-not-exist.xml"));
+    sourcesToDestinations.put(
+        Paths.get("src/test/resources/test-content/bound-class-simple.json"),
+        tempDir.resolve("bound-class-simple.xml"));
+
+    List<BulkConverter.Result> results = new DefaultBindingContext().newBoundLoader()
+        .convert(sourcesToDestinations, Format.XML, RootBoundAssembly.class, 2);
+
+    assertAll(
+        () -> assertEquals(2, results.size()),
+        () -> assertFalse(results.get(0).isSuccessful(), "missing source converted"),
+        () -> assertNotNull(results.get(0).getFailure()),
+        () -> assertTrue(results.get(1).isSuccessful(), "conversion failed"),
+        () -> assertTrue(Files.exists(results.get(1).getDestination()), "destination missing"));
+  }
+
+  @Test
+  void testConvertDestinationCollision(@TempDir Path tempDir) {
+    Map<Path, Path> sourcesToDestinations = new LinkedHashMap<>();
+    sourcesToDestinations.put(
+        Paths.get("src/test/resources/test-content/bound-class-simple.json"),
+        tempDir.resolve("bound-class-simple.xml"));
+    sourcesToDestinations.put(
+        Paths.get("src/test/resources/test-content/bound-class-simple.yaml"),
+        tempDir.resolve("other/../bound-class-simple.xml"));
+
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class,
+            () -> new DefaultBindingContext().newBoundLoader()
+                .convert(sourcesToDestinations, Format.XML, RootBoundAssembly.class, 2)),
+        () -> assertFalse(Files.exists(tempDir.resolve("bound-class-simple.xml")), "conversion was started"));
+  }
+}
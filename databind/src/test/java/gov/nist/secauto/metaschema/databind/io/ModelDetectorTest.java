@@ -0,0 +1,103 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.databind.io;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.databind.DefaultBindingContext;
+import gov.nist.secauto.metaschema.databind.IBindingContext;
+import gov.nist.secauto.metaschema.databind.IBindingMatcher;
+import gov.nist.secauto.metaschema.databind.model.test.RootBoundAssembly;
+import gov.nist.secauto.metaschema.databind.test.util.CloseDetectingInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import javax.xml.namespace.QName;
+
+class ModelDetectorTest {
+  private static final QName ROOT_QNAME = new QName("http://example.org/ns/test", "root");
+
+  private static IBindingContext newBindingContext() {
+    return new DefaultBindingContext().registerBindingMatcher(new IBindingMatcher() {
+      @Override
+      public Class<?> getBoundClassForXmlQName(QName rootQName) {
+        return ROOT_QNAME.equals(rootQName) ? RootBoundAssembly.class : null;
+      }
+
+      @Override
+      public Class<?> getBoundClassForJsonName(String rootName) {
+        return "root".equals(rootName) ? RootBoundAssembly.class : null;
+      }
+    });
+  }
+
+  private static void assertDetected(String path, Format expectedFormat) throws IOException {
+    byte[] expectedContent = Files.readAllBytes(Paths.get(path));
+
+    try (InputStream is = Files.newInputStream(Paths.get(path))) {
+      assert is != null;
+
+      try (CloseDetectingInputStream cis = new CloseDetectingInputStream(is)) {
+        ModelDetector detector = new ModelDetector(newBindingContext());
+        ModelDetector.Result result = detector.detect(cis);
+
+        assertAll(
+            () -> assertEquals(expectedFormat, result.getFormat()),
+            () -> assertEquals(RootBoundAssembly.class, result.getBoundClass()),
+            () -> assertFalse(cis.isClosed(), "primary closed"),
+            () -> {
+              try (InputStream dataStream = result.getDataStream()) {
+                assertEquals(
+                    new String(expectedContent, StandardCharsets.UTF_8),
+                    new String(dataStream.readAllBytes(), StandardCharsets.UTF_8),
+                    "data stream must replay the full content");
+              }
+              assertTrue(cis.isClosed(), "secondary closed");
+            });
+      }
+    }
+  }
+
+  @Test
+  void testDetectXml() throws IOException {
+    assertDetected("src/test/resources/test-content/bound-class-simple.xml", Format.XML);
+  }
+
+  @Test
+  void testDetectJson() throws IOException {
+    assertDetected("src/test/resources/test-content/bound-class-simple.json", Format.JSON);
+  }
+}
@@ -30,11 +30,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.ctc.wstx.stax.WstxInputFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 
+import gov.nist.secauto.metaschema.core.datatype.ValueInterner;
+import gov.nist.secauto.metaschema.core.model.IFlagContainer;
+import gov.nist.secauto.metaschema.core.model.util.XmlEventUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.databind.IBindingContext;
 import gov.nist.secauto.metaschema.databind.model.AbstractBoundModelTestSupport;
@@ -47,15 +52,19 @@ import gov.nist.secauto.metaschema.databind.model.test.MultiFieldAssembly;
 import gov.nist.secauto.metaschema.databind.model.test.ValueKeyField;
 
 import org.codehaus.stax2.XMLEventReader2;
+import org.codehaus.stax2.XMLStreamReader2;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 
@@ -177,6 +186,38 @@ class XmlParserTest
         obj.getField2());
   }
 
+  @Test
+  void testXmlReadInternedValues() throws IOException, XMLStreamException {
+    String xml = "<test xmlns='https://csrc.nist.gov/ns/test/xml'>\n"
+        + " <field1>shared</field1>\n"
+        + " <fields2>\n" + " <field2>shared</field2>\n" + " <field2>shared</field2>\n" + " </fields2>\n"
+        + "</test>";
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    assert factory instanceof WstxInputFactory;
+    XMLEventReader2 eventReader = (XMLEventReader2) factory.createXMLEventReader(new StringReader(xml));
+
+    assertEquals(XMLStreamConstants.START_DOCUMENT, eventReader.nextEvent().getEventType());
+    StartElement start = eventReader.nextEvent().asStartElement();
+    assert start != null;
+
+    MetaschemaXmlReader parser
+        = new MetaschemaXmlReader(eventReader, new DefaultXmlProblemHandler(), new ValueInterner());
+
+    IAssemblyClassBinding assembly = ObjectUtils.requireNonNull(
+        (IAssemblyClassBinding) getBindingContext().getClassBinding(MultiFieldAssembly.class));
+
+    MultiFieldAssembly obj = new MultiFieldAssembly();
+    assertTrue(parser.readModelInstanceValues(
+        ObjectUtils.requireNonNull(assembly.getModelInstanceByName("field1")), obj, start));
+    assertTrue(parser.readModelInstanceValues(
+        ObjectUtils.requireNonNull(assembly.getModelInstanceByName("field2")), obj, start));
+
+    List<String> field2 = obj.getField2();
+    assertEquals(2, field2.size());
+    assertSame(obj.getField1(), field2.get(0));
+    assertSame(obj.getField1(), field2.get(1));
+  }
+
   @Test
   void testReadField() throws JsonParseException, IOException, XMLStreamException {
     String xml = "<simple-field xmlns='http://example.com/ns'>theValue</simple-field>";
@@ -205,4 +246,120 @@ class XmlParserTest
     assertNotNull(obj);
     assertEquals("theValue", obj.getValue());
   }
+
+  @Test
+  void testXmlStreamReadGroupedField() throws IOException, XMLStreamException {
+    String xml = "<test xmlns='https://csrc.nist.gov/ns/test/xml'>\n"
+        + " <field1>field1value</field1>\n"
+        + " <fields2>\n" + " <field2>field2value</field2>\n" + " <field2>field2value2</field2>\n" + " </fields2>\n"
+        + "</test>";
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    assert factory instanceof WstxInputFactory;
+    XMLStreamReader2 reader = (XMLStreamReader2) factory.createXMLStreamReader(new StringReader(xml));
+
+    assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+    // consume the start element, since the model instances are read from its
+    // content
+    reader.next();
+
+    MetaschemaXmlStreamReader parser = new MetaschemaXmlStreamReader(reader);
+
+    IAssemblyClassBinding assembly = ObjectUtils.requireNonNull(
+        (IAssemblyClassBinding) getBindingContext().getClassBinding(MultiFieldAssembly.class));
+
+    MultiFieldAssembly obj = new MultiFieldAssembly();
+    assertTrue(parser.readModelInstanceValues(
+        ObjectUtils.requireNonNull(assembly.getModelInstanceByName("field1")), obj));
+    assertTrue(parser.readModelInstanceValues(
+        ObjectUtils.requireNonNull(assembly.getModelInstanceByName("field2")), obj));
+
+    assertEquals("field1value", obj.getField1());
+    assertIterableEquals(List.of("field2value", "field2value2"), obj.getField2());
+    // only whitespace is left before the end of the containing element
+    assertEquals(XMLStreamConstants.END_ELEMENT, XmlEventUtil.skipWhitespace(reader));
+  }
+
+  @Test
+  void testXmlStreamReadFlagProperty() throws IOException, XMLStreamException {
+    String xml = "<flagged-assembly xmlns='https://csrc.nist.gov/ns/test/xml'"
+        + " xmlns:xsi='http://www.w3.org/2001/XMLSchema-instance' xsi:schemaLocation='ignored'"
+        + " id='theId' number='1'/>";
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    assert factory instanceof WstxInputFactory;
+    XMLStreamReader2 reader = (XMLStreamReader2) factory.createXMLStreamReader(new StringReader(xml));
+
+    assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+
+    IAssemblyClassBinding assembly
+        = ObjectUtils
+            .requireNonNull((IAssemblyClassBinding) getBindingContext().getClassBinding(FlaggedAssembly.class));
+
+    MetaschemaXmlStreamReader parser = new MetaschemaXmlStreamReader(reader);
+    FlaggedAssembly obj = parser.readDefinitionValue(assembly, null);
+
+    assertEquals("theId", obj.getId());
+    assertEquals(XMLStreamConstants.END_ELEMENT, reader.getEventType());
+  }
+
+  @Test
+  void testXmlStreamUnknownAttributeHandler() throws IOException, XMLStreamException {
+    String xml = "<flagged-assembly xmlns='https://csrc.nist.gov/ns/test/xml' id='theId' extra='extraValue'/>";
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    assert factory instanceof WstxInputFactory;
+    XMLStreamReader2 reader = (XMLStreamReader2) factory.createXMLStreamReader(new StringReader(xml));
+
+    assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+
+    IAssemblyClassBinding assembly
+        = ObjectUtils
+            .requireNonNull((IAssemblyClassBinding) getBindingContext().getClassBinding(FlaggedAssembly.class));
+
+    // only the event-based callback is implemented
+    List<String> unknownAttributes = new ArrayList<>();
+    IXmlProblemHandler handler = new DefaultXmlProblemHandler() {
+      @Override
+      public boolean handleUnknownAttribute(
+          IFlagContainer parentDefinition,
+          Object targetObject,
+          Attribute attribute,
+          IXmlParsingContext parsingContext) {
+        unknownAttributes.add(attribute.getName().getLocalPart() + "=" + attribute.getValue());
+        return true;
+      }
+    };
+
+    MetaschemaXmlStreamReader parser = new MetaschemaXmlStreamReader(reader, handler, null);
+    FlaggedAssembly obj = parser.readDefinitionValue(assembly, null);
+
+    assertEquals("theId", obj.getId());
+    assertEquals(List.of("extra=extraValue"), unknownAttributes);
+  }
+
+  @Test
+  void testXmlStreamUnknownAttributeRejected() throws XMLStreamException {
+    String xml = "<flagged-assembly xmlns='https://csrc.nist.gov/ns/test/xml' id='theId' extra='extraValue'/>";
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    assert factory instanceof WstxInputFactory;
+    XMLStreamReader2 reader = (XMLStreamReader2) factory.createXMLStreamReader(new StringReader(xml));
+
+    assertEquals(XMLStreamConstants.START_ELEMENT, reader.next());
+
+    IAssemblyClassBinding assembly
+        = ObjectUtils
+            .requireNonNull((IAssemblyClassBinding) getBindingContext().getClassBinding(FlaggedAssembly.class));
+
+    IXmlProblemHandler handler = new DefaultXmlProblemHandler() {
+      @Override
+      public boolean handleUnknownAttribute(
+          IFlagContainer parentDefinition,
+          Object targetObject,
+          Attribute attribute,
+          IXmlParsingContext parsingContext) {
+        return false;
+      }
+    };
+
+    MetaschemaXmlStreamReader parser = new MetaschemaXmlStreamReader(reader, handler, null);
+    assertThrows(IOException.class, () -> parser.readDefinitionValue(assembly, null));
+  }
 }
@@ -38,6 +38,7 @@ import gov.nist.secauto.metaschema.cli.processor.command.ExtraArgument;
 import gov.nist.secauto.metaschema.core.util.CustomCollectors;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.databind.IBindingContext;
+import gov.nist.secauto.metaschema.databind.io.BulkConverter;
 import gov.nist.secauto.metaschema.databind.io.Format;
 import gov.nist.secauto.metaschema.databind.io.IBoundLoader;
 
@@ -51,8 +52,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
@@ -64,8 +69,8 @@ public abstract class AbstractConvertSubcommand
   private static final String COMMAND = "convert";
   @NonNull
   private static final List<ExtraArgument> EXTRA_ARGUMENTS = ObjectUtils.notNull(List.of(
-      new DefaultExtraArgument("source file", true),
-      new DefaultExtraArgument("destination file", false)));
+      new DefaultExtraArgument("source file or directory", true),
+      new DefaultExtraArgument("destination file or directory", false)));
 
   @NonNull
   private static final Option OVERWRITE_OPTION = ObjectUtils.notNull(
@@ -81,6 +86,13 @@ public abstract class AbstractConvertSubcommand
           .hasArg().argName("FORMAT")
           .desc("convert to format: xml, json, or yaml")
           .build());
+  @NonNull
+  private static final Option THREADS_OPTION = ObjectUtils.notNull(
+      Option.builder()
+          .longOpt("threads")
+          .hasArg().argName("COUNT")
+          .desc("the number of threads to use when converting a directory of files")
+          .build());
 
   @Override
   public String getName() {
@@ -91,7 +103,8 @@ public abstract class AbstractConvertSubcommand
   public Collection<? extends Option> gatherOptions() {
     return ObjectUtils.notNull(List.of(
         OVERWRITE_OPTION,
-        TO_OPTION));
+        TO_OPTION,
+        THREADS_OPTION));
   }
 
   @Override
@@ -129,6 +142,28 @@ public abstract class AbstractConvertSubcommand
     if (!Files.isReadable(source)) {
       throw new InvalidArgumentException("The provided source '" + source + "' is not readable.");
     }
+    if (Files.isDirectory(source) && extraArgs.size() < 2) {
+      throw new InvalidArgumentException(
+          "A destination directory must be provided when the source '" + source + "' is a directory.");
+    }
+
+    if (cmdLine.hasOption(THREADS_OPTION)) {
+      String threadsText = cmdLine.getOptionValue(THREADS_OPTION);
+      int threads;
+      try {
+        threads = Integer.parseInt(threadsText);
+      } catch (NumberFormatException ex) {
+        threads = 0;
+      }
+      if (threads < 1) {
+        InvalidArgumentException newEx = new InvalidArgumentException(
+            String.format("Invalid '%s' argument '%s'. The value must be a positive integer.",
+                OptionUtils.toArgument(THREADS_OPTION),
+                threadsText));
+        newEx.setOption(THREADS_OPTION);
+        throw newEx;
+      }
+    }
   }
 
   protected abstract static class AbstractConversionCommandExecutor
@@ -161,6 +196,17 @@ public abstract class AbstractConvertSubcommand
         destination = Paths.get(extraArgs.get(1)).toAbsolutePath();
       }
 
+      Path source = Paths.get(extraArgs.get(0));
+      assert source != null;
+
+      String toFormatText = cmdLine.getOptionValue(TO_OPTION);
+      Format toFormat = Format.valueOf(toFormatText.toUpperCase(Locale.ROOT));
+
+      if (Files.isDirectory(source)) {
+        assert destination != null;
+        return executeBulk(source, destination, toFormat);
+      }
+
       if (destination != null) {
         if (Files.exists(destination)) {
           if (!cmdLine.hasOption(OVERWRITE_OPTION)) {
@@ -185,12 +231,6 @@ public abstract class AbstractConvertSubcommand
         }
       }
 
-      Path source = Paths.get(extraArgs.get(0));
-      assert source != null;
-
-      String toFormatText = cmdLine.getOptionValue(TO_OPTION);
-      Format toFormat = Format.valueOf(toFormatText.toUpperCase(Locale.ROOT));
-
       IBindingContext bindingContext = getBindingContext();
       try {
         IBoundLoader loader = bindingContext.newBoundLoader();
@@ -212,5 +252,129 @@ public abstract class AbstractConvertSubcommand
       return ExitCode.OK.exit();
     }
 
+    /**
+     * Convert all files in the {@code source} directory tree, writing the converted
+     * files to the same relative location in the {@code destination} directory
+     * using the default extension for the target format.
+     *
+     * @param source
+     *          the directory containing the files to convert
+     * @param destination
+     *          the directory to write converted files to
+     * @param toFormat
+     *          the format to convert to
+     * @return the exit status
+     */
+    @SuppressWarnings("PMD.OnlyOneReturn") // readability
+    @NonNull
+    protected ExitStatus executeBulk(
+        @NonNull Path source,
+        @NonNull Path destination,
+        @NonNull Format toFormat) {
+      CommandLine cmdLine = getCommandLine();
+
+      Map<Path, Path> sourcesToDestinations;
+      try (Stream<Path> files = Files.walk(source)) {
+        sourcesToDestinations = files
+            .filter(Files::isRegularFile)
+            .sorted()
+            .collect(Collectors.toMap(
+                file -> file,
+                file -> toDestination(source.relativize(file), destination, toFormat),
+                (file1, file2) -> file1,
+                LinkedHashMap::new));
+      } catch (IOException ex) {
+        return ExitCode.IO_ERROR.exit().withThrowable(ex);
+      }
+
+      Map.Entry<Path, Path> collision = BulkConverter.findDestinationCollision(sourcesToDestinations);
+      if (collision != null) {
+        return ExitCode.INVALID_ARGUMENTS.exitMessage(
+            String.format("The source files '%s' and '%s' would both be converted to '%s'.",
+                collision.getKey(),
+                collision.getValue(),
+                sourcesToDestinations.get(collision.getValue())));
+      }
+
+      if (!cmdLine.hasOption(OVERWRITE_OPTION)) {
+        for (Path file : sourcesToDestinations.values()) {
+          if (Files.exists(file)) {
+            return ExitCode.INVALID_ARGUMENTS.exitMessage(
+                String.format("The destination '%s' already exists and the '%s' option was not provided.",
+                    file,
+                    OptionUtils.toArgument(OVERWRITE_OPTION)));
+          }
+        }
+      }
+
+      try {
+        for (Path file : sourcesToDestinations.values()) {
+          Path parent = file.getParent();
+          if (parent != null) {
+            Files.createDirectories(parent);
+          }
+        }
+      } catch (IOException ex) {
+        return ExitCode.INVALID_TARGET.exit().withThrowable(ex);
+      }
+
+      int threads = cmdLine.hasOption(THREADS_OPTION)
+          ? Integer.parseInt(cmdLine.getOptionValue(THREADS_OPTION))
+          : Runtime.getRuntime().availableProcessors();
+
+      if (LOGGER.isInfoEnabled()) {
+        LOGGER.info("Converting {} files in '{}' using {} threads.", sourcesToDestinations.size(), source, threads);
+      }
+
+      List<BulkConverter.Result> results;
+      try {
+        results = getBindingContext().newBoundLoader().convert(
+            sourcesToDestinations,
+            toFormat,
+            getLoadedClass(),
+            threads);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return ExitCode.RUNTIME_ERROR.exit().withThrowable(ex);
+      }
+
+      long failures = 0;
+      for (BulkConverter.Result result : results) {
+        if (result.isSuccessful()) {
+          if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Generated {} file: {}", toFormat.toString(), result.getDestination());
+          }
+        } else {
+          failures++;
+          if (LOGGER.isErrorEnabled()) {
+            LOGGER.error(String.format("Unable to convert '%s'.", result.getSource()), result.getFailure());
+          }
+        }
+      }
+
+      if (failures > 0) {
+        return ExitCode.PROCESSING_ERROR.exitMessage(
+            String.format("Failed to convert %d of %d files.", failures, results.size()));
+      }
+      return ExitCode.OK.exit();
+    }
+
+    @NonNull
+    private static Path toDestination(
+        @NonNull Path relativeSource,
+        @NonNull Path destination,
+        @NonNull Format toFormat) {
+      String fileName = relativeSource.getFileName().toString();
+      int extensionIndex = fileName.lastIndexOf('.');
+      if (extensionIndex > 0) {
+        fileName = fileName.substring(0, extensionIndex);
+      }
+      Path parent = relativeSource.getParent();
+      Path relativeDestination = parent == null
+          ? Paths.get(fileName + toFormat.getDefaultExtension())
+          : parent.resolve(fileName + toFormat.getDefaultExtension());
+      return ObjectUtils.notNull(destination.resolve(relativeDestination));
+    }
+
   }
 }
@@ -26,8 +26,13 @@
 
 package gov.nist.secauto.metaschema.maven.plugin;
 
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.MetaschemaException;
+import gov.nist.secauto.metaschema.core.model.xml.ModuleLoader;
+
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
@@ -35,11 +40,20 @@ import org.codehaus.plexus.util.DirectoryScanner;
 import org.sonatype.plexus.build.incremental.BuildContext;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 public abstract class AbstractMetaschemaMojo
@@ -138,6 +152,13 @@ public abstract class AbstractMetaschemaMojo
   @Parameter(property = "metaschema.skip", defaultValue = "false")
   private boolean skip;
 
+  /**
+   * The number of worker threads to use when generating content. If not provided,
+   * the number of available processors is used.
+   */
+  @Parameter
+  private Integer threadCount;
+
   /**
    * The BuildContext is used to identify which files or directories were modified
    * since last build. This is used to determine if Module-based generation must
@@ -149,6 +170,15 @@ public abstract class AbstractMetaschemaMojo
     return buildContext;
   }
 
+  /**
+   * Get the number of worker threads to use when generating content.
+   *
+   * @return the thread count
+   */
+  protected int getThreadCount() {
+    return threadCount == null ? Runtime.getRuntime().availableProcessors() : threadCount;
+  }
+
   /**
    * Retrieve the Maven project context.
    *
@@ -267,41 +297,163 @@ public abstract class AbstractMetaschemaMojo
   }
 
   /**
-   * Determine if code generation is required. This is done by comparing the last
-   * modified time of each Module source file against the stale file managed by
-   * this plugin.
+   * Get the settings that affect the generated output. If any of these values
+   * change between executions, all outputs are regenerated.
+   * <p>
+   * Extending classes should add any goal-specific settings to the returned list.
    *
-   * @return {@code true} if the code generation is needed, or {@code false}
-   *         otherwise
+   * @return the settings values
+   * @throws MojoExecutionException
+   *           if an error occurred while determining the settings
    */
-  protected boolean isGenerationRequired() {
-    final File staleFile = getStaleFile();
-    boolean generate = !staleFile.exists();
-    if (generate) {
-      getLog().info(String.format("Stale file '%s' doesn't exist! Generating source files.", staleFile.getPath()));
-      generate = true;
-    } else {
-      generate = false;
-      // check for staleness
-      long staleLastModified = staleFile.lastModified();
+  @NonNull
+  protected List<String> getBuildSettings() throws MojoExecutionException {
+    List<String> retval = new ArrayList<>();
+    MojoExecution execution = getMojoExecution();
+    retval.add("plugin.version=" + (execution == null
+        ? "unknown"
+        : execution.getMojoDescriptor().getPluginDescriptor().getVersion()));
+    return retval;
+  }
+
+  /**
+   * Read the build state recorded by the previous execution from the stale file.
+   *
+   * @return the build state, which is empty if no state was recorded
+   */
+  @NonNull
+  protected BuildState readBuildState() {
+    return BuildState.read(getStaleFile());
+  }
+
+  /**
+   * Record the build state in the stale file.
+   *
+   * @param state
+   *          the build state to record
+   * @throws MojoExecutionException
+   *           if an error occurred while writing the stale file
+   */
+  protected void writeBuildState(@NonNull BuildState state) throws MojoExecutionException {
+    File staleFile = getStaleFile();
+    if (!staleFileDirectory.exists() && !staleFileDirectory.mkdirs()) {
+      throw new MojoExecutionException("Unable to create output directory: " + staleFileDirectory);
+    }
+    try {
+      state.write(staleFile);
+      getLog().info("Created stale file: " + staleFile);
+    } catch (IOException ex) {
+      throw new MojoExecutionException("Failed to write stale file: " + staleFile.getPath(), ex);
+    }
+  }
 
-      BuildContext buildContext = getBuildContext();
-      URI metaschemaDirRelative = getMavenProject().getBasedir().toURI().relativize(metaschemaDir.toURI());
+  /**
+   * Determine which Module sources need to be generated. This is done by
+   * comparing the content digests of each source, and of each module it imports,
+   * against those recorded in the stale file managed by this plugin.
+   * <p>
+   * Only content changes are considered, so changes that only affect a file's
+   * modification time do not cause generation. In an incremental build, such as
+   * in m2e, all sources are generated if the build context reports a change in
+   * the Module source directory.
+   *
+   * @param previousState
+   *          the build state recorded by the previous execution
+   * @param settingsDigest
+   *          the digest of the current build settings
+   * @return the sources that need to be generated
+   * @throws MojoExecutionException
+   *           if an error occurred while reading a source
+   */
+  @NonNull
+  protected List<File> getStaleSources(
+      @NonNull BuildState previousState,
+      @NonNull String settingsDigest) throws MojoExecutionException {
+    BuildContext buildContext = getBuildContext();
+    URI metaschemaDirRelative = getMavenProject().getBasedir().toURI().relativize(metaschemaDir.toURI());
+    boolean delta = buildContext.isIncremental() && buildContext.hasDelta(metaschemaDirRelative.toString());
+    if (delta) {
+      getLog().info("metaschemaDirRelative: " + metaschemaDirRelative.toString());
+    }
 
-      if (buildContext.isIncremental() && buildContext.hasDelta(metaschemaDirRelative.toString())) {
-        getLog().info("metaschemaDirRelative: " + metaschemaDirRelative.toString());
-        generate = true;
+    List<File> retval = new ArrayList<>();
+    for (File sourceFile : getSources().collect(Collectors.toList())) {
+      assert sourceFile != null;
+      try {
+        if (delta || !previousState.isUpToDate(sourceFile, settingsDigest)) {
+          getLog().info("Changed source file: " + sourceFile.getPath());
+          retval.add(sourceFile);
+        }
+      } catch (IOException ex) {
+        throw new MojoExecutionException("Unable to read source file: " + sourceFile.getPath(), ex);
       }
+    }
+    return retval;
+  }
 
-      if (!generate) {
-        for (File sourceFile : getSources().collect(Collectors.toList())) {
-          getLog().info("Source file: " + sourceFile.getPath());
-          if (sourceFile.lastModified() > staleLastModified) {
-            generate = true;
+  /**
+   * Remove the build state of Module sources that no longer exist, and delete the
+   * files that were generated from them.
+   *
+   * @param state
+   *          the build state to prune
+   * @return {@code true} if any sources were removed, or {@code false} otherwise
+   * @throws MojoExecutionException
+   *           if an error occurred while deleting a generated file
+   */
+  protected boolean pruneRemovedSources(@NonNull BuildState state) throws MojoExecutionException {
+    Map<String, List<Path>> removed = state.prune(getSources().collect(Collectors.toList()));
+    for (Map.Entry<String, List<Path>> entry : removed.entrySet()) {
+      getLog().info("Removed source file: " + entry.getKey());
+      for (Path output : entry.getValue()) {
+        try {
+          if (Files.deleteIfExists(output)) {
+            getLog().info("Deleted stale output: " + output);
           }
+        } catch (IOException ex) {
+          throw new MojoExecutionException("Unable to delete stale output: " + output, ex);
         }
       }
     }
-    return generate;
+    return !removed.isEmpty();
+  }
+
+  /**
+   * Determine if code generation is required. This is done by comparing the
+   * content digests of each Module source file, and the modules it imports,
+   * against the stale file managed by this plugin.
+   *
+   * @return {@code true} if the code generation is needed, or {@code false}
+   *         otherwise
+   * @throws MojoExecutionException
+   *           if an error occurred while reading a source
+   */
+  protected boolean isGenerationRequired() throws MojoExecutionException {
+    return !getStaleSources(readBuildState(), BuildState.digest(getBuildSettings())).isEmpty();
+  }
+
+  /**
+   * Load the provided Module sources.
+   *
+   * @param sources
+   *          the sources to load
+   * @return a mapping of each source to the loaded module, in source order
+   * @throws MojoExecutionException
+   *           if an error occurred while loading a source
+   */
+  @NonNull
+  protected Map<File, IModule> loadModules(@NonNull Collection<File> sources) throws MojoExecutionException {
+    final ModuleLoader loader = new ModuleLoader();
+    loader.allowEntityResolution();
+    final Map<File, IModule> retval = new LinkedHashMap<>(); // NOPMD - no concurrency
+    for (File source : sources) {
+      getLog().info("Using metaschema source: " + source.getPath());
+      try {
+        retval.put(source, loader.load(source));
+      } catch (MetaschemaException | IOException ex) {
+        throw new MojoExecutionException("Loading of metaschema failed", ex);
+      }
+    }
+    return retval;
   }
 }
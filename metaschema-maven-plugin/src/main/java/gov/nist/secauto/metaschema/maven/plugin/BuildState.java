@@ -0,0 +1,367 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.maven.plugin;
+
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.util.DigestUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Records the content digests of the inputs used by a generation goal, so that
+ * generation can be skipped for sources whose content has not changed since the
+ * previous execution.
+ * <p>
+ * For each Module source, the digests of the source and all of its transitive
+ * imports are recorded, along with the output files generated from it. A digest
+ * of the goal's settings, including the plugin version, is also recorded. If
+ * the settings change, all sources are considered stale.
+ */
+final class BuildState {
+  private static final String SETTINGS_KEY = "settings";
+  private static final String INPUTS_PREFIX = "inputs.";
+  private static final String OUTPUTS_PREFIX = "outputs.";
+  private static final String SEPARATOR = "\n";
+
+  @Nullable
+  private final String settingsDigest;
+  @NonNull
+  private final Map<String, String> entries;
+
+  /**
+   * Construct a new, empty build state for the provided settings.
+   *
+   * @param settingsDigest
+   *          the digest of the goal's settings
+   * @see #digest(Collection)
+   */
+  public BuildState(@NonNull String settingsDigest) {
+    this(settingsDigest, new TreeMap<>());
+  }
+
+  private BuildState(@Nullable String settingsDigest, @NonNull Map<String, String> entries) {
+    this.settingsDigest = settingsDigest;
+    this.entries = entries;
+  }
+
+  /**
+   * Read the build state from the provided file.
+   * <p>
+   * An empty build state is returned if the file does not exist or cannot be
+   * read, which results in all sources being considered stale.
+   *
+   * @param file
+   *          the file to read from
+   * @return the build state
+   */
+  @NonNull
+  public static BuildState read(@NonNull File file) {
+    Properties properties = new Properties();
+    try (InputStream is = Files.newInputStream(file.toPath())) {
+      properties.load(is);
+    } catch (IOException ex) { // NOPMD - treat an unreadable state as empty
+      properties.clear();
+    }
+
+    Map<String, String> entries = new TreeMap<>();
+    for (String key : properties.stringPropertyNames()) {
+      if (!SETTINGS_KEY.equals(key)) {
+        entries.put(key, properties.getProperty(key));
+      }
+    }
+    return new BuildState(properties.getProperty(SETTINGS_KEY), entries);
+  }
+
+  /**
+   * Write the build state to the provided file.
+   *
+   * @param file
+   *          the file to write to
+   * @throws IOException
+   *           if an error occurred while writing the file
+   */
+  public void write(@NonNull File file) throws IOException {
+    Properties properties = new Properties();
+    if (settingsDigest != null) {
+      properties.setProperty(SETTINGS_KEY, settingsDigest);
+    }
+    for (Map.Entry<String, String> entry : entries.entrySet()) {
+      properties.setProperty(entry.getKey(), entry.getValue());
+    }
+
+    try (OutputStream os = Files.newOutputStream(file.toPath())) {
+      properties.store(os, "Metaschema build state");
+    }
+  }
+
+  /**
+   * Determine if the provided source is unchanged since this state was recorded.
+   * <p>
+   * A source is unchanged if the settings digest matches, the content of the
+   * source and each of its transitive imports is unchanged, and every output
+   * generated from it still exists.
+   *
+   * @param source
+   *          the Module source to check
+   * @param currentSettingsDigest
+   *          the digest of the goal's current settings
+   * @return {@code true} if the source is unchanged, or {@code false} otherwise
+   * @throws IOException
+   *           if an error occurred while reading an input
+   */
+  public boolean isUpToDate(@NonNull File source, @NonNull String currentSettingsDigest) throws IOException {
+    if (!currentSettingsDigest.equals(settingsDigest)) {
+      return false; // NOPMD - readability
+    }
+
+    String key = toKey(source);
+    String inputs = entries.get(INPUTS_PREFIX + key);
+    if (inputs == null) {
+      return false; // NOPMD - readability
+    }
+
+    for (Map.Entry<URI, String> input : parseInputs(inputs).entrySet()) {
+      URI location = ObjectUtils.notNull(input.getKey());
+      // only local files can be checked cheaply; assume other resources changed
+      if (!"file".equals(location.getScheme())
+          || !input.getValue().equals(digest(ObjectUtils.notNull(Paths.get(location))))) {
+        return false; // NOPMD - readability
+      }
+    }
+
+    String outputs = entries.get(OUTPUTS_PREFIX + key);
+    if (outputs != null) {
+      for (Path output : parseOutputs(outputs)) {
+        if (!Files.exists(output)) {
+          return false; // NOPMD - readability
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Record the inputs and outputs associated with a generated source.
+   *
+   * @param source
+   *          the Module source
+   * @param module
+   *          the module loaded from the source, whose imports are also recorded
+   * @param outputs
+   *          the files generated from the source
+   * @throws IOException
+   *           if an error occurred while reading an input
+   */
+  public void record(
+      @NonNull File source,
+      @NonNull IModule module,
+      @NonNull Collection<Path> outputs) throws IOException {
+    Map<URI, IModule> locations = new LinkedHashMap<>();
+    collectLocations(module, locations);
+
+    List<String> inputs = new ArrayList<>(locations.size());
+    for (URI location : locations.keySet()) {
+      assert location != null;
+      String digest = "file".equals(location.getScheme())
+          ? digest(ObjectUtils.notNull(Paths.get(location)))
+          : "";
+      inputs.add(digest + " " + location.toString());
+    }
+
+    String key = toKey(source);
+    entries.put(INPUTS_PREFIX + key, String.join(SEPARATOR, inputs));
+
+    List<String> outputPaths = new ArrayList<>(outputs.size());
+    for (Path output : outputs) {
+      outputPaths.add(output.toAbsolutePath().toString());
+    }
+    entries.put(OUTPUTS_PREFIX + key, String.join(SEPARATOR, outputPaths));
+  }
+
+  /**
+   * Copy the recorded inputs and outputs for the provided source from another
+   * build state.
+   *
+   * @param source
+   *          the Module source
+   * @param other
+   *          the build state to copy from
+   */
+  public void copy(@NonNull File source, @NonNull BuildState other) {
+    String key = toKey(source);
+    for (String prefix : Set.of(INPUTS_PREFIX, OUTPUTS_PREFIX)) {
+      String value = other.entries.get(prefix + key);
+      if (value != null) {
+        entries.put(prefix + key, value);
+      }
+    }
+  }
+
+  /**
+   * Remove the recorded inputs and outputs of each source that is not one of the
+   * provided sources.
+   *
+   * @param sources
+   *          the current Module sources
+   * @return a mapping of each removed source to the outputs generated from it
+   *         that are not also recorded for a current source
+   */
+  @NonNull
+  public Map<String, List<Path>> prune(@NonNull Collection<File> sources) {
+    Set<String> keys = sources.stream()
+        .map(BuildState::toKey)
+        .collect(Collectors.toCollection(HashSet::new));
+
+    Map<String, List<Path>> retval = new TreeMap<>();
+    for (Iterator<Map.Entry<String, String>> iter = entries.entrySet().iterator(); iter.hasNext();) {
+      Map.Entry<String, String> entry = iter.next();
+      String entryKey = entry.getKey();
+      String prefix = entryKey.startsWith(INPUTS_PREFIX) ? INPUTS_PREFIX : OUTPUTS_PREFIX;
+      String key = entryKey.substring(prefix.length());
+      if (!keys.contains(key)) {
+        iter.remove();
+        List<Path> outputs = retval.computeIfAbsent(key, k -> new ArrayList<>());
+        if (OUTPUTS_PREFIX.equals(prefix)) {
+          outputs.addAll(parseOutputs(ObjectUtils.notNull(entry.getValue())));
+        }
+      }
+    }
+
+    // keep outputs that are still generated from a current source
+    Set<Path> retained = new HashSet<>();
+    for (Map.Entry<String, String> entry : entries.entrySet()) {
+      if (entry.getKey().startsWith(OUTPUTS_PREFIX)) {
+        retained.addAll(parseOutputs(ObjectUtils.notNull(entry.getValue())));
+      }
+    }
+    for (List<Path> outputs : retval.values()) {
+      outputs.removeAll(retained);
+    }
+    return retval;
+  }
+
+  private static void collectLocations(@NonNull IModule module, @NonNull Map<URI, IModule> locations) {
+    URI location = module.getLocation();
+    if (location != null && locations.putIfAbsent(location, module) == null) {
+      for (IModule imported : module.getImportedModules()) {
+        assert imported != null;
+        collectLocations(imported, locations);
+      }
+    }
+  }
+
+  @NonNull
+  private static Map<URI, String> parseInputs(@NonNull String inputs) {
+    Map<URI, String> retval = new LinkedHashMap<>();
+    for (String input : inputs.split(SEPARATOR)) {
+      int index = input.indexOf(' ');
+      if (index >= 0) {
+        retval.put(URI.create(input.substring(index + 1)), input.substring(0, index));
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static List<Path> parseOutputs(@NonNull String outputs) {
+    List<Path> retval = new ArrayList<>();
+    if (!outputs.isEmpty()) {
+      for (String output : outputs.split(SEPARATOR)) {
+        retval.add(Paths.get(output));
+      }
+    }
+    return retval;
+  }
+
+  @NonNull
+  private static String toKey(@NonNull File source) {
+    return ObjectUtils.notNull(source.getAbsolutePath());
+  }
+
+  /**
+   * Compute a digest over the provided values, which are order sensitive.
+   *
+   * @param values
+   *          the values to digest
+   * @return the hex encoded digest
+   */
+  @NonNull
+  public static String digest(@NonNull Collection<String> values) {
+    MessageDigest digest = DigestUtil.newDigest();
+    for (String value : values) {
+      digest.update(value.getBytes(StandardCharsets.UTF_8));
+      // separate values to avoid ambiguous concatenations
+      digest.update((byte) 0);
+    }
+    return DigestUtil.toHex(ObjectUtils.notNull(digest.digest()));
+  }
+
+  /**
+   * Compute a digest of the content of the provided file.
+   *
+   * @param file
+   *          the file to digest
+   * @return the hex encoded digest, or an empty string if the file does not exist
+   * @throws IOException
+   *           if an error occurred while reading the file
+   */
+  @NonNull
+  public static String digest(@NonNull Path file) throws IOException {
+    String retval;
+    try {
+      retval = DigestUtil.toHex(DigestUtil.digest(file));
+    } catch (NoSuchFileException ex) {
+      retval = "";
+    }
+    return retval;
+  }
+}
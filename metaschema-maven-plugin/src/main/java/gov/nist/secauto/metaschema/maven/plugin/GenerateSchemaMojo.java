@@ -27,16 +27,14 @@
 package gov.nist.secauto.metaschema.maven.plugin;
 
 import gov.nist.secauto.metaschema.core.configuration.DefaultConfiguration;
-import gov.nist.secauto.metaschema.core.configuration.IConfiguration;
 import gov.nist.secauto.metaschema.core.configuration.IMutableConfiguration;
 import gov.nist.secauto.metaschema.core.model.IModule;
-import gov.nist.secauto.metaschema.core.model.MetaschemaException;
-import gov.nist.secauto.metaschema.core.model.xml.ModuleLoader;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.schemagen.ISchemaGenerator;
+import gov.nist.secauto.metaschema.schemagen.SchemaGenerationBatch;
+import gov.nist.secauto.metaschema.schemagen.SchemaGenerationException;
 import gov.nist.secauto.metaschema.schemagen.SchemaGenerationFeature;
-import gov.nist.secauto.metaschema.schemagen.json.JsonSchemaGenerator;
-import gov.nist.secauto.metaschema.schemagen.xml.XmlSchemaGenerator;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -45,16 +43,14 @@ import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.EnumSet;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -66,19 +62,9 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 @Mojo(name = "generate-schemas", defaultPhase = LifecyclePhase.GENERATE_RESOURCES)
 public class GenerateSchemaMojo
     extends AbstractMetaschemaMojo {
-  public enum SchemaFormat {
-    XSD,
-    JSON_SCHEMA;
-  }
-
   @NonNull
   private static final String STALE_FILE_NAME = "generateSschemaStaleFile";
 
-  @NonNull
-  private static final XmlSchemaGenerator XML_SCHEMA_GENERATOR = new XmlSchemaGenerator();
-  @NonNull
-  private static final JsonSchemaGenerator JSON_SCHEMA_GENERATOR = new JsonSchemaGenerator();
-
   /**
    * Specifies the formats of the schemas to generate. Multiple formats can be
    * supplied and this plugin will generate a schema for each of the desired
@@ -145,15 +131,60 @@ public class GenerateSchemaMojo
     return STALE_FILE_NAME;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The requested formats and inlining options are included, since these affect
+   * all generated schemas.
+   */
+  @Override
+  protected List<String> getBuildSettings() throws MojoExecutionException {
+    List<String> retval = super.getBuildSettings();
+    retval.add("formats=" + getSchemaFormats());
+    retval.add("inlineDefinitions=" + isInlineDefinitions());
+    retval.add("inlineChoiceDefinitions=" + isInlineChoiceDefinitions());
+    return retval;
+  }
+
+  /**
+   * Get the requested schema formats.
+   *
+   * @return the schema formats
+   */
+  @NonNull
+  protected Set<ISchemaGenerator.SchemaFormat> getSchemaFormats() {
+    Set<ISchemaGenerator.SchemaFormat> retval;
+    if (formats != null) {
+      retval = ObjectUtils.notNull(EnumSet.noneOf(ISchemaGenerator.SchemaFormat.class));
+      for (String format : formats) {
+        switch (format.toLowerCase(Locale.ROOT)) {
+        case "xsd":
+          retval.add(ISchemaGenerator.SchemaFormat.XML);
+          break;
+        case "json":
+          retval.add(ISchemaGenerator.SchemaFormat.JSON);
+          break;
+        default:
+          throw new IllegalStateException("Unsupported schema format: " + format);
+        }
+      }
+    } else {
+      retval = ObjectUtils.notNull(EnumSet.allOf(ISchemaGenerator.SchemaFormat.class));
+    }
+    return retval;
+  }
+
   /**
    * Performs schema generation using the provided Metaschema modules.
    *
    * @param modules
    *          the Metaschema modules to generate the schema for
+   * @return the schema files generated for each module
    * @throws MojoExecutionException
    *           if an error occurred during generation
    */
-  protected void generate(@NonNull Set<IModule> modules) throws MojoExecutionException {
+  @NonNull
+  protected Map<IModule, List<Path>> generate(@NonNull Set<IModule> modules) throws MojoExecutionException {
     IMutableConfiguration<SchemaGenerationFeature<?>> schemaGenerationConfig
         = new DefaultConfiguration<>();
 
@@ -169,101 +200,75 @@ public class GenerateSchemaMojo
       schemaGenerationConfig.disableFeature(SchemaGenerationFeature.INLINE_CHOICE_DEFINITIONS);
     }
 
-    Set<SchemaFormat> schemaFormats;
-    if (formats != null) {
-      schemaFormats = ObjectUtils.notNull(EnumSet.noneOf(SchemaFormat.class));
-      for (String format : formats) {
-        switch (format.toLowerCase(Locale.ROOT)) {
-        case "xsd":
-          schemaFormats.add(SchemaFormat.XSD);
-          break;
-        case "json":
-          schemaFormats.add(SchemaFormat.JSON_SCHEMA);
-          break;
-        default:
-          throw new IllegalStateException("Unsupported schema format: " + format);
-        }
-      }
-    } else {
-      schemaFormats = ObjectUtils.notNull(EnumSet.allOf(SchemaFormat.class));
-    }
-
+    Set<ISchemaGenerator.SchemaFormat> schemaFormats = getSchemaFormats();
     Path outputDirectory = ObjectUtils.notNull(getOutputDirectory().toPath());
+
+    Map<IModule, List<Path>> retval = new LinkedHashMap<>(); // NOPMD - no concurrency
     for (IModule module : modules) {
       getLog().info(String.format("Processing metaschema: %s", module.getLocation()));
-      if (module.getExportedRootAssemblyDefinitions().isEmpty()) {
-        continue;
-      }
-
-      generateSchemas(module, schemaGenerationConfig, outputDirectory, schemaFormats);
-    }
-  }
-
-  private static void generateSchemas(
-      @NonNull IModule module,
-      @NonNull IConfiguration<SchemaGenerationFeature<?>> schemaGenerationConfig,
-      @NonNull Path outputDirectory,
-      @NonNull Set<SchemaFormat> schemaFormats) throws MojoExecutionException {
-
-    String shortName = module.getShortName();
-
-    if (schemaFormats.contains(SchemaFormat.XSD)) {
-      try { // XML Schema
-        String filename = String.format("%s_schema.xsd", shortName);
-        Path xmlSchema = ObjectUtils.notNull(outputDirectory.resolve(filename));
-        generateSchema(module, schemaGenerationConfig, xmlSchema, XML_SCHEMA_GENERATOR);
-      } catch (Exception ex) {
-        throw new MojoExecutionException("Unable to generate XML schema.", ex);
+      if (!module.getExportedRootAssemblyDefinitions().isEmpty()) {
+        List<Path> schemas = new ArrayList<>(schemaFormats.size());
+        for (ISchemaGenerator.SchemaFormat format : schemaFormats) {
+          assert format != null;
+          schemas.add(outputDirectory.resolve(getSchemaFileName(module, format)));
+        }
+        retval.put(module, schemas);
       }
     }
 
-    if (schemaFormats.contains(SchemaFormat.JSON_SCHEMA)) {
-      try { // JSON Schema
-        String filename = String.format("%s_schema.json", shortName);
-        Path xmlSchema = ObjectUtils.notNull(outputDirectory.resolve(filename));
-        generateSchema(module, schemaGenerationConfig, xmlSchema, JSON_SCHEMA_GENERATOR);
-      } catch (Exception ex) {
-        throw new MojoExecutionException("Unable to generate JSON schema.", ex);
-      }
+    SchemaGenerationBatch batch = new SchemaGenerationBatch(schemaGenerationConfig, getThreadCount());
+    try {
+      batch.generate(
+          retval.keySet(),
+          schemaFormats,
+          (module, format) -> outputDirectory.resolve(getSchemaFileName(module, format)));
+    } catch (IOException | SchemaGenerationException ex) {
+      throw new MojoExecutionException("Unable to generate schemas.", ex);
     }
+    return retval;
   }
 
-  private static void generateSchema(
+  @NonNull
+  private static String getSchemaFileName(
       @NonNull IModule module,
-      @NonNull IConfiguration<SchemaGenerationFeature<?>> schemaGenerationConfig,
-      @NonNull Path schemaPath,
-      @NonNull ISchemaGenerator generator) throws IOException {
-    try (@SuppressWarnings("resource") Writer writer = ObjectUtils.notNull(Files.newBufferedWriter(
-        schemaPath,
-        StandardCharsets.UTF_8,
-        StandardOpenOption.CREATE,
-        StandardOpenOption.WRITE,
-        StandardOpenOption.TRUNCATE_EXISTING))) {
-      generator.generateFromModule(module, writer, schemaGenerationConfig);
+      @NonNull ISchemaGenerator.SchemaFormat format) {
+    String extension;
+    switch (format) {
+    case XML:
+      extension = "xsd";
+      break;
+    case JSON:
+      extension = "json";
+      break;
+    default:
+      throw new UnsupportedOperationException(format.name());
     }
+    return ObjectUtils.notNull(String.format("%s_schema.%s", module.getShortName(), extension));
   }
 
   @Override
   public void execute() throws MojoExecutionException {
-    File staleFile = getStaleFile();
-    try {
-      staleFile = staleFile.getCanonicalFile();
-    } catch (IOException ex) {
-      getLog().warn("Unable to resolve canonical path to stale file. Treating it as not existing.", ex);
-    }
-
-    boolean generate;
+    List<File> staleSources;
+    boolean pruned = false;
+    BuildState previousState = null;
+    String settingsDigest = null;
     if (shouldExecutionBeSkipped()) {
       getLog().debug(String.format("Schema generation is configured to be skipped. Skipping."));
-      generate = false;
-    } else if (!staleFile.exists()) {
-      getLog().info(String.format("Stale file '%s' doesn't exist! Generating source files.", staleFile.getPath()));
-      generate = true;
+      staleSources = CollectionUtil.emptyList();
     } else {
-      generate = isGenerationRequired();
+      previousState = readBuildState();
+      pruned = pruneRemovedSources(previousState);
+      settingsDigest = BuildState.digest(getBuildSettings());
+      staleSources = getStaleSources(previousState, settingsDigest);
+      if (staleSources.isEmpty() && !pruned) {
+        getLog().info("Generated schemas are up to date.");
+      }
     }
 
-    if (generate) {
+    if (!staleSources.isEmpty() || pruned) {
+      assert previousState != null;
+      assert settingsDigest != null;
+
       File outputDir = getOutputDirectory();
       getLog().debug(String.format("Using outputDirectory: %s", outputDir.getPath()));
 
@@ -273,37 +278,31 @@ public class GenerateSchemaMojo
         }
       }
 
-      // generate Java sources based on provided Module sources
-      final ModuleLoader loader = new ModuleLoader();
-      loader.allowEntityResolution();
-      final Set<IModule> modules = new HashSet<>();
-      for (File source : getSources().collect(Collectors.toList())) {
-        getLog().info("Using metaschema source: " + source.getPath());
-        IModule module;
-        try {
-          module = loader.load(source);
-        } catch (MetaschemaException | IOException ex) {
-          throw new MojoExecutionException("Loading of metaschema failed", ex);
-        }
-        modules.add(module);
-      }
+      // generate schemas only for the changed Module sources
+      Map<File, IModule> sourceToModuleMap = loadModules(staleSources);
 
-      generate(modules);
+      Map<IModule, List<Path>> moduleToSchemasMap = generate(new LinkedHashSet<>(sourceToModuleMap.values()));
 
-      // create the stale file
-      if (!staleFileDirectory.exists()) {
-        if (!staleFileDirectory.mkdirs()) {
-          throw new MojoExecutionException("Unable to create output directory: " + staleFileDirectory);
+      // record the build state in the stale file, retaining the state of unchanged
+      // sources
+      BuildState state = new BuildState(settingsDigest);
+      for (File source : getSources().collect(Collectors.toList())) {
+        assert source != null;
+        IModule module = sourceToModuleMap.get(source);
+        if (module == null) {
+          state.copy(source, previousState);
+        } else {
+          try {
+            state.record(
+                source,
+                module,
+                moduleToSchemasMap.getOrDefault(module, CollectionUtil.emptyList()));
+          } catch (IOException ex) {
+            throw new MojoExecutionException("Unable to read source file: " + source.getPath(), ex);
+          }
         }
       }
-      try (OutputStream os
-          = Files.newOutputStream(staleFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
-              StandardOpenOption.TRUNCATE_EXISTING)) {
-        os.close();
-        getLog().info("Created stale file: " + staleFile);
-      } catch (IOException ex) {
-        throw new MojoExecutionException("Failed to write stale file: " + staleFile.getPath(), ex);
-      }
+      writeBuildState(state);
 
       // for m2e
       getBuildContext().refresh(getOutputDirectory());
@@ -27,9 +27,11 @@
 package gov.nist.secauto.metaschema.maven.plugin;
 
 import gov.nist.secauto.metaschema.core.model.IModule;
-import gov.nist.secauto.metaschema.core.model.MetaschemaException;
-import gov.nist.secauto.metaschema.core.model.xml.ModuleLoader;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+import gov.nist.secauto.metaschema.databind.codegen.IGeneratedDefinitionClass;
+import gov.nist.secauto.metaschema.databind.codegen.IGeneratedModuleClass;
+import gov.nist.secauto.metaschema.databind.codegen.IProduction;
 import gov.nist.secauto.metaschema.databind.codegen.JavaGenerator;
 import gov.nist.secauto.metaschema.databind.codegen.config.DefaultBindingConfiguration;
 
@@ -40,13 +42,14 @@ import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -101,10 +104,12 @@ public class GenerateSourcesMojo
    *
    * @param modules
    *          the collection of Metaschema modules to generate sources for
+   * @return the production describing the generated classes
    * @throws MojoExecutionException
    *           if an error occurred while generating sources
    */
-  protected void generate(@NonNull Set<IModule> modules) throws MojoExecutionException {
+  @NonNull
+  protected IProduction generate(@NonNull Set<IModule> modules) throws MojoExecutionException {
     DefaultBindingConfiguration bindingConfiguration = new DefaultBindingConfiguration();
     for (File config : getConfigs()) {
       try {
@@ -118,31 +123,81 @@ public class GenerateSourcesMojo
 
     try {
       getLog().info("Generating Java classes in: " + getOutputDirectory().getPath());
-      JavaGenerator.generate(modules, ObjectUtils.notNull(getOutputDirectory().toPath()),
-          bindingConfiguration);
+      return JavaGenerator.generate(modules, ObjectUtils.notNull(getOutputDirectory().toPath()),
+          bindingConfiguration, getThreadCount());
     } catch (IOException ex) {
       throw new MojoExecutionException("Creation of Java classes failed.", ex);
     }
   }
 
+  /**
+   * Get the files generated for the provided module's class and the classes of
+   * its definitions.
+   *
+   * @param production
+   *          the production describing the generated classes
+   * @param module
+   *          the module to get the generated files for
+   * @return the generated files
+   */
+  @NonNull
+  private static List<Path> getGeneratedFiles(@NonNull IProduction production, @NonNull IModule module) {
+    IGeneratedModuleClass moduleClass = production.getModuleProduction(module);
+    List<Path> retval;
+    if (moduleClass == null) {
+      retval = CollectionUtil.emptyList();
+    } else {
+      Collection<IGeneratedDefinitionClass> definitionClasses = moduleClass.getGeneratedDefinitionClasses();
+      retval = new ArrayList<>(definitionClasses.size() + 1);
+      retval.add(moduleClass.getClassFile());
+      for (IGeneratedDefinitionClass definitionClass : definitionClasses) {
+        retval.add(definitionClass.getClassFile());
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The content of each binding configuration is included, since a change to any
+   * configuration may affect all generated classes.
+   */
   @Override
-  public void execute() throws MojoExecutionException {
-    File staleFile = getStaleFile();
-    try {
-      staleFile = staleFile.getCanonicalFile();
-    } catch (IOException ex) {
-      getLog().warn("Unable to resolve canonical path to stale file. Treating it as not existing.", ex);
+  protected List<String> getBuildSettings() throws MojoExecutionException {
+    List<String> retval = super.getBuildSettings();
+    for (File config : getConfigs()) {
+      try {
+        retval.add("config=" + config.getPath() + ":" + BuildState.digest(ObjectUtils.notNull(config.toPath())));
+      } catch (IOException ex) {
+        throw new MojoExecutionException(
+            String.format("Unable to read binding configuration from '%s'.", config.getPath()), ex);
+      }
     }
+    return retval;
+  }
 
+  @Override
+  public void execute() throws MojoExecutionException {
     boolean generate;
+    String settingsDigest = null;
     if (shouldExecutionBeSkipped()) {
       getLog().debug(String.format("Source file generation is configured to be skipped. Skipping."));
       generate = false;
-    } else if (!staleFile.exists()) {
-      getLog().info(String.format("Stale file '%s' doesn't exist! Generating source files.", staleFile.getPath()));
+    } else if (!getOutputDirectory().exists()) {
+      getLog().info(String.format("Output directory '%s' doesn't exist! Generating source files.",
+          getOutputDirectory().getPath()));
       generate = true;
     } else {
-      generate = isGenerationRequired();
+      BuildState previousState = readBuildState();
+      boolean pruned = pruneRemovedSources(previousState);
+      settingsDigest = BuildState.digest(getBuildSettings());
+      // classes generated for one module may depend on other modules in the same
+      // production, so all sources are generated if any have changed
+      generate = pruned || !getStaleSources(previousState, settingsDigest).isEmpty();
+      if (!generate) {
+        getLog().info("Generated sources are up to date.");
+      }
     }
 
     if (generate) {
@@ -157,36 +212,27 @@ public class GenerateSourcesMojo
       }
 
       // generate Java sources based on provided metaschema sources
-      final ModuleLoader loader = new ModuleLoader();
-      loader.allowEntityResolution();
-      final Set<IModule> modules = new HashSet<>();
-      for (File source : getSources().collect(Collectors.toList())) {
-        getLog().info("Using metaschema source: " + source.getPath());
-        IModule module;
-        try {
-          module = loader.load(source);
-        } catch (MetaschemaException | IOException ex) {
-          throw new MojoExecutionException("Loading of metaschema failed", ex);
-        }
-        modules.add(module);
-      }
+      Map<File, IModule> sourceToModuleMap = loadModules(getSources().collect(Collectors.toList()));
 
-      generate(modules);
+      IProduction production = generate(new HashSet<>(sourceToModuleMap.values()));
 
-      // create the stale file
-      if (!staleFileDirectory.exists()) {
-        if (!staleFileDirectory.mkdirs()) {
-          throw new MojoExecutionException("Unable to create output directory: " + staleFileDirectory);
-        }
+      // record the build state in the stale file
+      if (settingsDigest == null) {
+        settingsDigest = BuildState.digest(getBuildSettings());
       }
-      try (OutputStream os
-          = Files.newOutputStream(staleFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
-              StandardOpenOption.TRUNCATE_EXISTING)) {
-        os.close();
-        getLog().info("Created stale file: " + staleFile);
-      } catch (IOException ex) {
-        throw new MojoExecutionException("Failed to write stale file: " + staleFile.getPath(), ex);
+      BuildState state = new BuildState(settingsDigest);
+      for (Map.Entry<File, IModule> entry : sourceToModuleMap.entrySet()) {
+        IModule module = ObjectUtils.notNull(entry.getValue());
+        try {
+          state.record(
+              ObjectUtils.notNull(entry.getKey()),
+              module,
+              getGeneratedFiles(production, module));
+        } catch (IOException ex) {
+          throw new MojoExecutionException("Unable to read source file: " + entry.getKey().getPath(), ex);
+        }
       }
+      writeBuildState(state);
 
       // for m2e
       getBuildContext().refresh(getOutputDirectory());
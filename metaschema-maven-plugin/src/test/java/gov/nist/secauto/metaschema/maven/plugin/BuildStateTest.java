@@ -0,0 +1,170 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.maven.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.MetaschemaException;
+import gov.nist.secauto.metaschema.core.model.xml.ModuleLoader;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+class BuildStateTest {
+  private static final String SETTINGS = BuildState.digest(List.of("setting=1"));
+  private static final String HEADER = "<METASCHEMA xmlns=\"http://csrc.nist.gov/ns/oscal/metaschema/1.0\">"
+      + "<schema-name>Test</schema-name>"
+      + "<schema-version>1.0</schema-version>";
+  private static final String IMPORTED_MODULE = HEADER
+      + "<short-name>imported</short-name>"
+      + "<namespace>http://example.com/ns/test</namespace>"
+      + "<json-base-uri>http://example.com/ns/test</json-base-uri>"
+      + "<define-field name=\"a\"/>"
+      + "</METASCHEMA>";
+  private static final String MODULE = HEADER
+      + "<short-name>test</short-name>"
+      + "<namespace>http://example.com/ns/test</namespace>"
+      + "<json-base-uri>http://example.com/ns/test</json-base-uri>"
+      + "<import href=\"imported.xml\"/>"
+      + "<define-assembly name=\"root\"><root-name>root</root-name>"
+      + "<model><field ref=\"a\"/></model>"
+      + "</define-assembly>"
+      + "</METASCHEMA>";
+
+  @TempDir
+  Path dir;
+  private File source;
+  private Path imported;
+  private Path output;
+  private IModule module;
+
+  @BeforeEach
+  void setup() throws IOException, MetaschemaException {
+    imported = Files.writeString(dir.resolve("imported.xml"), IMPORTED_MODULE);
+    source = Files.writeString(dir.resolve("module.xml"), MODULE).toFile();
+    output = Files.writeString(dir.resolve("module.xsd"), "schema");
+    module = new ModuleLoader().load(ObjectUtils.notNull(source.toPath()));
+  }
+
+  @NonNull
+  private BuildState newState() throws IOException {
+    BuildState state = new BuildState(SETTINGS);
+    state.record(ObjectUtils.notNull(source), ObjectUtils.notNull(module), List.of(output));
+    return state;
+  }
+
+  @Test
+  void testUpToDate() throws IOException {
+    BuildState state = newState();
+    assertTrue(state.isUpToDate(source, SETTINGS));
+    // only the content is compared, not the modification time
+    assertTrue(source.setLastModified(source.lastModified() + 10_000));
+    assertTrue(state.isUpToDate(source, SETTINGS));
+  }
+
+  @Test
+  void testChangedSource() throws IOException {
+    BuildState state = newState();
+    Files.writeString(source.toPath(), MODULE + "<!-- changed -->");
+    assertFalse(state.isUpToDate(source, SETTINGS));
+  }
+
+  @Test
+  void testChangedImport() throws IOException {
+    BuildState state = newState();
+    Files.writeString(imported, IMPORTED_MODULE + "<!-- changed -->");
+    assertFalse(state.isUpToDate(source, SETTINGS));
+  }
+
+  @Test
+  void testDeletedOutput() throws IOException {
+    BuildState state = newState();
+    Files.delete(output);
+    assertFalse(state.isUpToDate(source, SETTINGS));
+  }
+
+  @Test
+  void testChangedSettings() throws IOException {
+    BuildState state = newState();
+    assertFalse(state.isUpToDate(source, BuildState.digest(List.of("setting=2"))));
+  }
+
+  @Test
+  void testUnrecordedSource() throws IOException {
+    File other = Files.writeString(dir.resolve("other.xml"), MODULE).toFile();
+    assertFalse(newState().isUpToDate(ObjectUtils.notNull(other), SETTINGS));
+  }
+
+  @Test
+  void testWriteAndRead() throws IOException {
+    File file = dir.resolve("state.properties").toFile();
+    newState().write(ObjectUtils.notNull(file));
+
+    BuildState state = BuildState.read(ObjectUtils.notNull(file));
+    assertAll(
+        () -> assertTrue(state.isUpToDate(source, SETTINGS)),
+        () -> assertFalse(state.isUpToDate(source, BuildState.digest(List.of("setting=2")))));
+  }
+
+  @Test
+  void testReadMissingFile() throws IOException {
+    BuildState state = BuildState.read(ObjectUtils.notNull(dir.resolve("missing.properties").toFile()));
+    assertFalse(state.isUpToDate(source, SETTINGS));
+  }
+
+  @Test
+  void testPrune() throws IOException {
+    File removed = Files.writeString(dir.resolve("removed.xml"), MODULE).toFile();
+    Path removedOutput = Files.writeString(dir.resolve("removed.xsd"), "schema");
+
+    BuildState state = newState();
+    // the removed source shares an output with the remaining source
+    state.record(ObjectUtils.notNull(removed), ObjectUtils.notNull(module), List.of(removedOutput, output));
+
+    Map<String, List<Path>> pruned = state.prune(List.of(source));
+    assertAll(
+        () -> assertEquals(Map.of(removed.getAbsolutePath(), List.of(removedOutput.toAbsolutePath())), pruned),
+        () -> assertTrue(state.isUpToDate(source, SETTINGS)),
+        () -> assertFalse(state.isUpToDate(ObjectUtils.notNull(removed), SETTINGS)),
+        () -> assertTrue(state.prune(List.of(source)).isEmpty()));
+  }
+}
@@ -65,11 +65,20 @@ public abstract class AbstractGenerationState<WRITER, DATATYPE_MANAGER extends I
       @NonNull WRITER writer,
       @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration,
       @NonNull DATATYPE_MANAGER datatypeManager) {
+    this(module, writer, configuration, datatypeManager, ModuleIndex.indexDefinitions(module));
+  }
+
+  public AbstractGenerationState(
+      @NonNull IModule module,
+      @NonNull WRITER writer,
+      @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration,
+      @NonNull DATATYPE_MANAGER datatypeManager,
+      @NonNull ModuleIndex moduleIndex) {
     this.module = module;
     this.writer = writer;
     this.datatypeManager = datatypeManager;
     this.inlineStrategy = IInlineStrategy.newInlineStrategy(configuration);
-    this.moduleIndex = ModuleIndex.indexDefinitions(module);
+    this.moduleIndex = moduleIndex;
   }
 
   @Override
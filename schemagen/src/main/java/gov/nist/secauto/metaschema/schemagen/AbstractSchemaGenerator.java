@@ -80,6 +80,9 @@ public abstract class AbstractSchemaGenerator<
    *          the writer to use to write the schema
    * @param configuration
    *          the generation configuration
+   * @param moduleIndex
+   *          the index of definitions used by the module, which the generation
+   *          state may update
    * @return the schema generation state used for context and writing
    * @throws SchemaGenerationException
    *           if an error occurred while creating the generation state object
@@ -88,7 +91,8 @@ public abstract class AbstractSchemaGenerator<
   protected abstract S newGenerationState(
       @NonNull IModule module,
       @NonNull T schemaWriter,
-      @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration);
+      @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration,
+      @NonNull ModuleIndex moduleIndex);
 
   /**
    * Called to generate the actual schema content.
@@ -103,12 +107,21 @@ public abstract class AbstractSchemaGenerator<
       IModule metaschema,
       Writer out,
       IConfiguration<SchemaGenerationFeature<?>> configuration) {
+    generateFromModule(metaschema, out, configuration, ModuleIndex.indexDefinitions(metaschema));
+  }
+
+  @Override
+  public void generateFromModule(
+      IModule metaschema,
+      Writer out,
+      IConfiguration<SchemaGenerationFeature<?>> configuration,
+      ModuleIndex moduleIndex) {
     // IInlineStrategy inlineStrategy =
     // IInlineStrategy.newInlineStrategy(configuration);
     try {
       // avoid automatically closing streams not owned by the generator
       @SuppressWarnings("PMD.CloseResource") T schemaWriter = newWriter(out);
-      S generationState = newGenerationState(metaschema, schemaWriter, configuration);
+      S generationState = newGenerationState(metaschema, schemaWriter, configuration, moduleIndex);
       generateSchema(generationState);
       generationState.flushWriter();
     } catch (SchemaGenerationException ex) { // NOPMD avoid nesting same exception
@@ -62,6 +62,32 @@ public interface ISchemaGenerator {
       @NonNull Writer writer,
       @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration);
 
+  /**
+   * Generate and write a schema for the provided {@code metaschema} to the
+   * {@link Writer} provided by {@code writer} using the provided
+   * {@code configuration} and a precomputed definition index.
+   * <p>
+   * The provided index is updated during generation. To reuse an index across
+   * multiple calls, pass a {@link ModuleIndex#copy()} to each call.
+   *
+   * @param metaschema
+   *          the Module to generate the schema for
+   * @param writer
+   *          the writer to use to write the schema
+   * @param configuration
+   *          the schema generation configuration
+   * @param moduleIndex
+   *          the index of the definitions used by the module
+   * @throws SchemaGenerationException
+   *           if an error occurred while writing the schema
+   * @see ModuleIndex#indexDefinitions(IModule)
+   */
+  void generateFromModule(
+      @NonNull IModule metaschema,
+      @NonNull Writer writer,
+      @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration,
+      @NonNull ModuleIndex moduleIndex);
+
   static void generateSchema(
       @NonNull IModule module,
       @NonNull Path destination,
@@ -26,16 +26,9 @@
 
 package gov.nist.secauto.metaschema.schemagen;
 
-import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
-import gov.nist.secauto.metaschema.core.model.IAssemblyInstance;
-import gov.nist.secauto.metaschema.core.model.IChoiceInstance;
+import gov.nist.secauto.metaschema.core.model.DefinitionGraph;
 import gov.nist.secauto.metaschema.core.model.IDefinition;
-import gov.nist.secauto.metaschema.core.model.IFieldInstance;
-import gov.nist.secauto.metaschema.core.model.IFlagDefinition;
-import gov.nist.secauto.metaschema.core.model.IFlagInstance;
 import gov.nist.secauto.metaschema.core.model.IModule;
-import gov.nist.secauto.metaschema.core.model.INamedInstance;
-import gov.nist.secauto.metaschema.core.model.ModelWalker;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 
 import java.util.Collection;
@@ -49,25 +42,45 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 public class ModuleIndex {
   private final Map<IDefinition, DefinitionEntry> index = new ConcurrentHashMap<>();
 
+  /**
+   * Create an index of the definitions reachable from the provided module's
+   * exported root definitions.
+   * <p>
+   * The index is populated from the module's cached {@link DefinitionGraph}, so
+   * the module's model is only walked once no matter how many indexes are
+   * created.
+   *
+   * @param module
+   *          the module to index
+   * @return the new index
+   */
   @NonNull
   public static ModuleIndex indexDefinitions(@NonNull IModule module) {
-    Collection<? extends IAssemblyDefinition> definitions = module.getExportedRootAssemblyDefinitions();
     ModuleIndex index = new ModuleIndex();
-    if (!definitions.isEmpty()) {
-      IndexVisitor visitor = new IndexVisitor(index);
-      for (IAssemblyDefinition definition : definitions) {
-        assert definition != null;
-
-        // add the root definition to the index
-        index.getEntry(definition).incrementReferenceCount();
-
-        // walk the definition
-        visitor.walk(ObjectUtils.requireNonNull(definition));
-      }
+    for (DefinitionGraph.Node node : DefinitionGraph.of(module).getNodes()) {
+      index.index.put(node.getDefinition(), new DefinitionEntry(node));
     }
     return index;
   }
 
+  /**
+   * Create an independent copy of this index.
+   * <p>
+   * Generators record additional information in the index while generating, so an
+   * index computed once can be shared across multiple generation runs by giving
+   * each run its own copy. Copying avoids re-walking the module's model.
+   *
+   * @return the new index
+   */
+  @NonNull
+  public ModuleIndex copy() {
+    ModuleIndex retval = new ModuleIndex();
+    for (DefinitionEntry entry : getDefinitions()) {
+      retval.index.put(entry.getDefinition(), new DefinitionEntry(entry));
+    }
+    return retval;
+  }
+
   public boolean hasEntry(@NonNull IDefinition definition) {
     return index.containsKey(definition);
   }
@@ -84,82 +97,6 @@ public class ModuleIndex {
     return ObjectUtils.notNull(index.values());
   }
 
-  private static class IndexVisitor
-      extends ModelWalker<ModuleIndex> {
-    private final ModuleIndex index;
-
-    public IndexVisitor(@NonNull ModuleIndex index) {
-      this.index = index;
-    }
-
-    @Override
-    protected ModuleIndex getDefaultData() {
-      return index;
-    }
-
-    @Override
-    protected boolean visit(IFlagInstance instance, ModuleIndex data) {
-      return handleInstance(instance);
-    }
-
-    @Override
-    protected boolean visit(IFieldInstance instance, ModuleIndex data) {
-      return handleInstance(instance);
-    }
-
-    @Override
-    protected boolean visit(IAssemblyInstance instance, ModuleIndex data) {
-      return handleInstance(instance);
-    }
-
-    @Override
-    protected void visit(IFlagDefinition def, ModuleIndex data) {
-      // do nothing
-    }
-    //
-    // @Override
-    // protected boolean visit(IAssemblyDefinition def, ModuleIndex data) {
-    // // only walk if the definition hasn't already been visited
-    // return !index.hasEntry(def);
-    // }
-
-    /**
-     * Updates the index entry for the definition associated with the reference.
-     *
-     * @param instance
-     *          the instance to process
-     * @return {@code true} if this is the first time handling the definition this
-     *         instance references, or {@code false} otherwise
-     */
-    private boolean handleInstance(INamedInstance instance) {
-      IDefinition definition = instance.getDefinition();
-      // check if this will be a new entry, which needs to be called before getEntry,
-      // which will create it
-      final boolean exists = getDefaultData().hasEntry(definition);
-      DefinitionEntry entry = getDefaultData().getEntry(definition);
-      entry.incrementReferenceCount();
-
-      if (isChoice(instance)) {
-        entry.markUsedAsChoice();
-      }
-
-      if (isChoiceSibling(instance)) {
-        entry.markAsChoiceSibling();
-      }
-      return !exists;
-    }
-
-    private static boolean isChoice(@NonNull INamedInstance instance) {
-      return instance.getParentContainer() instanceof IChoiceInstance;
-    }
-
-    private static boolean isChoiceSibling(@NonNull INamedInstance instance) {
-      IDefinition containingDefinition = instance.getContainingDefinition();
-      return containingDefinition instanceof IAssemblyDefinition
-          && !((IAssemblyDefinition) containingDefinition).getChoiceInstances().isEmpty();
-    }
-  }
-
   public static class DefinitionEntry {
     @NonNull
     private final IDefinition definition;
@@ -171,6 +108,20 @@ public class ModuleIndex {
       this.definition = definition;
     }
 
+    private DefinitionEntry(@NonNull DefinitionGraph.Node node) {
+      this.definition = node.getDefinition();
+      this.referenceCount.set(node.getReferenceCount());
+      this.usedAsChoice.set(node.isUsedAsChoice());
+      this.choiceSibling.set(node.isChoiceSibling());
+    }
+
+    private DefinitionEntry(@NonNull DefinitionEntry other) {
+      this.definition = other.definition;
+      this.referenceCount.set(other.getReferenceCount());
+      this.usedAsChoice.set(other.isUsedAsChoice());
+      this.choiceSibling.set(other.isChoiceSibling());
+    }
+
     public IDefinition getDefinition() {
       return definition;
     }
@@ -0,0 +1,193 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.schemagen;
+
+import gov.nist.secauto.metaschema.core.configuration.DefaultConfiguration;
+import gov.nist.secauto.metaschema.core.configuration.IConfiguration;
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.util.CollectionUtil;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Generates schemas in one or more formats for a collection of Metaschema
+ * modules.
+ * <p>
+ * The definitions used by each module are indexed once, and the resulting
+ * {@link ModuleIndex} is shared by all requested formats. Each module and
+ * format combination is then generated as a separate task on a pool of worker
+ * threads.
+ */
+public class SchemaGenerationBatch {
+  @NonNull
+  private final IConfiguration<SchemaGenerationFeature<?>> configuration;
+  private final int threadCount;
+
+  /**
+   * Construct a new batch that uses one thread per available processor.
+   *
+   * @param configuration
+   *          the schema generation configuration
+   */
+  public SchemaGenerationBatch(@NonNull IConfiguration<SchemaGenerationFeature<?>> configuration) {
+    this(configuration, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Construct a new batch.
+   *
+   * @param configuration
+   *          the schema generation configuration
+   * @param threadCount
+   *          the number of worker threads to use
+   * @throws IllegalArgumentException
+   *           if the thread count is less than 1
+   */
+  public SchemaGenerationBatch(
+      @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration,
+      int threadCount) {
+    if (threadCount < 1) {
+      throw new IllegalArgumentException(
+          String.format("The thread count '%d' must be a positive integer.", threadCount));
+    }
+    // make a copy, since the configuration may be changed by the caller
+    this.configuration = new DefaultConfiguration<>(configuration.getFeatureValues());
+    this.threadCount = threadCount;
+  }
+
+  @NonNull
+  public IConfiguration<SchemaGenerationFeature<?>> getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Get the number of worker threads used to generate schemas.
+   *
+   * @return the thread count
+   */
+  public int getThreadCount() {
+    return threadCount;
+  }
+
+  /**
+   * Generate a schema in each of the requested formats for each of the provided
+   * modules.
+   *
+   * @param modules
+   *          the Metaschema modules to generate schemas for
+   * @param formats
+   *          the schema formats to generate
+   * @param destinationResolver
+   *          provides the file to write the schema for a given module and format
+   *          to
+   * @return the files written, ordered by module then by format
+   * @throws IOException
+   *           if an error occurred while writing a schema
+   * @throws SchemaGenerationException
+   *           if an error occurred while generating a schema
+   */
+  @NonNull
+  public List<Path> generate(
+      @NonNull Collection<? extends IModule> modules,
+      @NonNull Set<ISchemaGenerator.SchemaFormat> formats,
+      @NonNull BiFunction<IModule, ISchemaGenerator.SchemaFormat, Path> destinationResolver) throws IOException {
+    int tasks = modules.size() * formats.size();
+    if (tasks == 0) {
+      return CollectionUtil.emptyList(); // NOPMD - readability
+    }
+
+    List<Path> retval = new ArrayList<>(tasks);
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(getThreadCount(), tasks));
+    try {
+      List<CompletableFuture<Void>> futures = new ArrayList<>(tasks);
+      for (IModule module : modules) {
+        // index the module once, then generate each format from a copy of the index
+        CompletableFuture<ModuleIndex> index = CompletableFuture.supplyAsync(
+            () -> ModuleIndex.indexDefinitions(module),
+            executor);
+
+        for (ISchemaGenerator.SchemaFormat format : formats) {
+          Path destination = ObjectUtils.requireNonNull(destinationResolver.apply(module, format));
+          retval.add(destination);
+          futures.add(index.thenAcceptAsync(
+              moduleIndex -> generateSchema(module, format, destination, moduleIndex.copy()),
+              executor));
+        }
+      }
+
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    } catch (CompletionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause(); // NOPMD - unwrap the original exception
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause; // NOPMD - unwrap the original exception
+      }
+      throw new SchemaGenerationException(cause);
+    } finally {
+      executor.shutdownNow();
+    }
+    return CollectionUtil.unmodifiableList(retval);
+  }
+
+  private void generateSchema(
+      @NonNull IModule module,
+      @NonNull ISchemaGenerator.SchemaFormat format,
+      @NonNull Path destination,
+      @NonNull ModuleIndex moduleIndex) {
+    try (Writer writer = Files.newBufferedWriter(
+        destination,
+        StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      assert writer != null;
+      format.getSchemaGenerator().generateFromModule(module, writer, getConfiguration(), moduleIndex);
+      writer.flush();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
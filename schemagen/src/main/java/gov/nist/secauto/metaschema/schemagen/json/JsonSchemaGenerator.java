@@ -38,6 +38,7 @@ import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
 import gov.nist.secauto.metaschema.core.model.IModule;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.schemagen.AbstractSchemaGenerator;
+import gov.nist.secauto.metaschema.schemagen.ModuleIndex;
 import gov.nist.secauto.metaschema.schemagen.SchemaGenerationException;
 import gov.nist.secauto.metaschema.schemagen.SchemaGenerationFeature;
 import gov.nist.secauto.metaschema.schemagen.json.datatype.JsonDatatypeManager;
@@ -87,8 +88,9 @@ public class JsonSchemaGenerator
   protected JsonGenerationState newGenerationState(
       IModule module,
       JsonGenerator schemaWriter,
-      IConfiguration<SchemaGenerationFeature<?>> configuration) {
-    return new JsonGenerationState(module, schemaWriter, configuration);
+      IConfiguration<SchemaGenerationFeature<?>> configuration,
+      ModuleIndex moduleIndex) {
+    return new JsonGenerationState(module, schemaWriter, configuration, moduleIndex);
   }
 
   @Override
@@ -131,13 +133,13 @@ public class JsonSchemaGenerator
       state.writeField("$comment", module.getName().toMarkdown());
       state.writeField("type", "object");
 
-      ObjectNode definitionsObject = state.generateDefinitions();
-      if (!definitionsObject.isEmpty()) {
-        state.writeField("definitions", definitionsObject);
-      }
-
       @SuppressWarnings("resource") JsonGenerator writer = state.getWriter(); // NOPMD not owned
 
+      if (state.hasDefinitions()) {
+        writer.writeFieldName("definitions");
+        state.writeDefinitions();
+      }
+
       if (rootEntries.size() == 1) {
         rootEntries.iterator().next().write(writer);
       } else {
@@ -26,6 +26,7 @@
 
 package gov.nist.secauto.metaschema.schemagen.json.datatype;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -38,6 +39,7 @@ import gov.nist.secauto.metaschema.schemagen.datatype.AbstractDatatypeManager;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -103,29 +105,53 @@ public class JsonDatatypeManager
   }
 
   public void generateDatatypes(@NonNull ObjectNode definitionsObject) {
+    for (String datatype : CollectionUtil.toIterable(getRequiredDatatypes())) {
+      definitionsObject.set(datatype, getDatatypeDefinition(datatype));
+    }
+  }
+
+  /**
+   * Write the definitions for the used datatypes, and any datatypes they depend
+   * on, as fields of the JSON object currently being written.
+   *
+   * @param writer
+   *          the generator to write the datatype definitions to
+   * @throws IOException
+   *           if an error occurred while writing
+   */
+  public void writeDatatypes(@NonNull JsonGenerator writer) throws IOException {
+    for (String datatype : CollectionUtil.toIterable(getRequiredDatatypes())) {
+      writer.writeFieldName(datatype);
+      writer.writeTree(getDatatypeDefinition(datatype));
+    }
+  }
+
+  @NonNull
+  private Iterator<String> getRequiredDatatypes() {
     Set<String> requiredJsonDatatypes = getUsedTypes();
     // resolve dependencies
-    for (String datatype : CollectionUtil.toIterable(ObjectUtils.notNull(
-        requiredJsonDatatypes.stream()
-            .flatMap(datatype -> {
-              Stream<String> result;
-              List<String> dependencies = DATATYPE_DEPENDENCY_MAP.get(datatype);
-              if (dependencies == null) {
-                result = Stream.of(datatype);
-              } else {
-                result = Stream.concat(Stream.of(datatype), dependencies.stream());
-              }
-              return result;
-            }).distinct()
-            .sorted()
-            .iterator()))) {
-
-      JsonNode definition = JSON_DATATYPES.get(datatype);
-      if (definition == null) {
-        throw new SchemaGenerationException("Missing JSON datatype definition for: /definitions/" + datatype);
-      }
-      definitionsObject.set(datatype, definition);
+    return ObjectUtils.notNull(requiredJsonDatatypes.stream()
+        .flatMap(datatype -> {
+          Stream<String> result;
+          List<String> dependencies = DATATYPE_DEPENDENCY_MAP.get(datatype);
+          if (dependencies == null) {
+            result = Stream.of(datatype);
+          } else {
+            result = Stream.concat(Stream.of(datatype), dependencies.stream());
+          }
+          return result;
+        }).distinct()
+        .sorted()
+        .iterator());
+  }
+
+  @NonNull
+  private static JsonNode getDatatypeDefinition(@NonNull String datatype) {
+    JsonNode definition = JSON_DATATYPES.get(datatype);
+    if (definition == null) {
+      throw new SchemaGenerationException("Missing JSON datatype definition for: /definitions/" + datatype);
     }
+    return definition;
   }
 
 }
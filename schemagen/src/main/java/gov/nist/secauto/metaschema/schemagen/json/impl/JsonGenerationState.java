@@ -41,6 +41,7 @@ import gov.nist.secauto.metaschema.core.model.IValuedDefinition;
 import gov.nist.secauto.metaschema.core.model.constraint.IAllowedValue;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.schemagen.AbstractGenerationState;
+import gov.nist.secauto.metaschema.schemagen.ModuleIndex;
 import gov.nist.secauto.metaschema.schemagen.SchemaGenerationFeature;
 import gov.nist.secauto.metaschema.schemagen.json.datatype.JsonDatatypeManager;
 import gov.nist.secauto.metaschema.schemagen.json.schema.AssemblyDefinitionJsonSchema;
@@ -76,7 +77,15 @@ public class JsonGenerationState
       @NonNull IModule module,
       @NonNull JsonGenerator writer,
       @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration) {
-    super(module, writer, configuration, new JsonDatatypeManager());
+    this(module, writer, configuration, ModuleIndex.indexDefinitions(module));
+  }
+
+  public JsonGenerationState(
+      @NonNull IModule module,
+      @NonNull JsonGenerator writer,
+      @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration,
+      @NonNull ModuleIndex moduleIndex) {
+    super(module, writer, configuration, new JsonDatatypeManager(), moduleIndex);
   }
 
   @NonNull
@@ -149,6 +158,42 @@ public class JsonGenerationState
     }
   }
 
+  /**
+   * Determine if any global definitions will be produced by
+   * {@link #writeDefinitions()}.
+   *
+   * @return {@code true} if there is at least one definition or used datatype, or
+   *         {@code false} otherwise
+   */
+  public boolean hasDefinitions() {
+    return !definitionSchemas.isEmpty() || !getDatatypeManager().getUsedTypes().isEmpty();
+  }
+
+  /**
+   * Write the body of the {@code definitions} object, one definition at a time,
+   * followed by the used datatypes.
+   * <p>
+   * Unlike {@link #generateDefinitions()}, the full set of definitions is never
+   * held in memory. Only the registered definition schemas, which are needed to
+   * resolve references, are retained.
+   *
+   * @throws IOException
+   *           if an error occurred while writing
+   */
+  @SuppressWarnings("resource")
+  public void writeDefinitions() throws IOException {
+    JsonGenerator writer = getWriter(); // NOPMD not closable here
+
+    writer.writeStartObject();
+    for (IDefineableJsonSchema schema : definitionSchemas) {
+      assert schema != null;
+      schema.writeDefinition(this, writer);
+    }
+
+    getDatatypeManager().writeDatatypes(writer);
+    writer.writeEndObject();
+  }
+
   public ObjectNode generateDefinitions() {
     ObjectNode definitionsObject = ObjectUtils.notNull(JsonNodeFactory.instance.objectNode());
 
@@ -26,11 +26,15 @@
 
 package gov.nist.secauto.metaschema.schemagen.json.schema;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.schemagen.json.impl.JsonGenerationState;
 
+import java.io.IOException;
+
 import edu.umd.cs.findbugs.annotations.NonNull;
 
 /**
@@ -109,4 +113,38 @@ public interface IDefineableJsonSchema extends IJsonSchema {
     // generate the definition object contents
     generateSchema(state, definitionObj);
   }
+
+  /**
+   * Write the definition as a field of the {@code definitions} object currently
+   * being written.
+   * <p>
+   * Only the tree for this definition is built in memory, allowing it to be
+   * discarded as soon as it is written.
+   *
+   * @param state
+   *          the schema generation state used for context
+   * @param writer
+   *          the generator to write the definition to
+   * @throws IOException
+   *           if an error occurred while writing
+   * @throws IllegalStateException
+   *           if the JSON schema object is not a definition
+   */
+  default void writeDefinition(@NonNull JsonGenerationState state, @NonNull JsonGenerator writer)
+      throws IOException {
+    if (!isDefinition(state)) {
+      throw new IllegalStateException();
+    }
+
+    ObjectNode definitionObj = ObjectUtils.notNull(JsonNodeFactory.instance.objectNode());
+
+    // Add identifier, see usnistgov/metaschema#160
+    definitionObj.put("$id", getDefinitionRef(state));
+
+    // generate the definition object contents
+    generateSchema(state, definitionObj);
+
+    writer.writeFieldName(getDefinitionName(state));
+    writer.writeTree(definitionObj);
+  }
 }
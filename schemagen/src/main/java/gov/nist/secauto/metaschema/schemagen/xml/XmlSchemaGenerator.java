@@ -32,29 +32,20 @@ import gov.nist.secauto.metaschema.core.configuration.IConfiguration;
 import gov.nist.secauto.metaschema.core.datatype.markup.MarkupMultiline;
 import gov.nist.secauto.metaschema.core.model.IAssemblyDefinition;
 import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.xml.IndentingXmlStreamWriter2;
 import gov.nist.secauto.metaschema.core.util.AutoCloser;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.schemagen.AbstractSchemaGenerator;
+import gov.nist.secauto.metaschema.schemagen.ModuleIndex;
 import gov.nist.secauto.metaschema.schemagen.SchemaGenerationException;
 import gov.nist.secauto.metaschema.schemagen.SchemaGenerationFeature;
 import gov.nist.secauto.metaschema.schemagen.xml.datatype.XmlDatatypeManager;
 import gov.nist.secauto.metaschema.schemagen.xml.impl.XmlGenerationState;
 import gov.nist.secauto.metaschema.schemagen.xml.schematype.IXmlType;
 
-import net.sf.saxon.s9api.Processor;
-import net.sf.saxon.s9api.SaxonApiException;
-import net.sf.saxon.s9api.Serializer;
-import net.sf.saxon.s9api.Xslt30Transformer;
-import net.sf.saxon.s9api.XsltCompiler;
-import net.sf.saxon.s9api.XsltExecutable;
-
 import org.codehaus.stax2.XMLOutputFactory2;
 import org.codehaus.stax2.XMLStreamWriter2;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.StringReader;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.util.HashMap;
 import java.util.List;
@@ -63,7 +54,6 @@ import java.util.Map;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.transform.stream.StreamSource;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -112,15 +102,23 @@ public class XmlSchemaGenerator
     return xmlOutputFactory;
   }
 
+  /**
+   * Create a new writer for the schema. The schema is pretty-printed as it is
+   * written, so no post-processing of the output is needed.
+   */
   @Override
   protected AutoCloser<XMLStreamWriter2, SchemaGenerationException> newWriter(
       Writer out) {
-    XMLStreamWriter2 writer;
+    IndentingXmlStreamWriter2 writer;
     try {
-      writer = ObjectUtils.notNull((XMLStreamWriter2) getXmlOutputFactory().createXMLStreamWriter(out));
+      writer = new IndentingXmlStreamWriter2(
+          ObjectUtils.notNull((XMLStreamWriter2) getXmlOutputFactory().createXMLStreamWriter(out)));
     } catch (XMLStreamException ex) {
       throw new SchemaGenerationException(ex);
     }
+    // these may start with a child element, but have mixed content
+    writer.suppressIndentation(NS_XHTML, "p");
+    writer.suppressIndentation(NS_XHTML, "b");
     return AutoCloser.autoClose(writer, t -> {
       try {
         t.close();
@@ -134,33 +132,9 @@ public class XmlSchemaGenerator
   protected XmlGenerationState newGenerationState(
       IModule module,
       AutoCloser<XMLStreamWriter2, SchemaGenerationException> schemaWriter,
-      IConfiguration<SchemaGenerationFeature<?>> configuration) {
-    return new XmlGenerationState(module, schemaWriter, configuration);
-  }
-
-  @Override
-  public void generateFromModule(
-      @NonNull IModule module,
-      @NonNull Writer out,
-      @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration) {
-    try (StringWriter stringWriter = new StringWriter()) {
-      super.generateFromModule(module, stringWriter, configuration);
-      stringWriter.flush();
-
-      try (StringReader stringReader = new StringReader(stringWriter.toString())) {
-        Processor processor = new Processor(false);
-        XsltCompiler compiler = processor.newXsltCompiler();
-        try (InputStream is = getClass().getResourceAsStream("/identity.xsl")) {
-          XsltExecutable stylesheet = compiler.compile(new StreamSource(is));
-          Xslt30Transformer transformer = stylesheet.load30();
-          Serializer serializer = processor.newSerializer(out);
-          StreamSource source = new StreamSource(stringReader);
-          transformer.transform(source, serializer);
-        }
-      }
-    } catch (IOException | SaxonApiException ex) {
-      throw new SchemaGenerationException(ex);
-    }
+      IConfiguration<SchemaGenerationFeature<?>> configuration,
+      ModuleIndex moduleIndex) {
+    return new XmlGenerationState(module, schemaWriter, configuration, moduleIndex);
   }
 
   @Override
@@ -39,6 +39,7 @@ import gov.nist.secauto.metaschema.core.model.constraint.IAllowedValue;
 import gov.nist.secauto.metaschema.core.util.AutoCloser;
 import gov.nist.secauto.metaschema.core.util.ObjectUtils;
 import gov.nist.secauto.metaschema.schemagen.AbstractGenerationState;
+import gov.nist.secauto.metaschema.schemagen.ModuleIndex;
 import gov.nist.secauto.metaschema.schemagen.SchemaGenerationException;
 import gov.nist.secauto.metaschema.schemagen.SchemaGenerationFeature;
 import gov.nist.secauto.metaschema.schemagen.xml.datatype.XmlDatatypeManager;
@@ -83,7 +84,15 @@ public class XmlGenerationState
       @NonNull IModule module,
       @NonNull AutoCloser<XMLStreamWriter2, SchemaGenerationException> writer,
       @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration) {
-    super(module, writer, configuration, new XmlDatatypeManager());
+    this(module, writer, configuration, ModuleIndex.indexDefinitions(module));
+  }
+
+  public XmlGenerationState(
+      @NonNull IModule module,
+      @NonNull AutoCloser<XMLStreamWriter2, SchemaGenerationException> writer,
+      @NonNull IConfiguration<SchemaGenerationFeature<?>> configuration,
+      @NonNull ModuleIndex moduleIndex) {
+    super(module, writer, configuration, new XmlDatatypeManager(), moduleIndex);
     this.defaultNS = ObjectUtils.notNull(module.getXmlNamespace().toASCIIString());
   }
 
@@ -36,8 +36,6 @@ module gov.nist.secauto.metaschema.schemagen {
   requires org.apache.logging.log4j;
   requires org.jdom2;
 
-  requires Saxon.HE;
-
   exports gov.nist.secauto.metaschema.schemagen;
   exports gov.nist.secauto.metaschema.schemagen.json;
   exports gov.nist.secauto.metaschema.schemagen.xml;
@@ -0,0 +1,75 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.schemagen;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.nist.secauto.metaschema.core.model.IDefinition;
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.MetaschemaException;
+import gov.nist.secauto.metaschema.core.model.xml.ModuleLoader;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+class ModuleIndexTest {
+
+  @Test
+  void testCopyIsIndependent() throws IOException, MetaschemaException {
+    IModule module = new ModuleLoader().load(ObjectUtils.notNull(
+        Paths.get("../databind/src/test/resources/metaschema/assembly/metaschema.xml")));
+
+    ModuleIndex original = ModuleIndex.indexDefinitions(module);
+    IDefinition definition = ObjectUtils.notNull(
+        module.getScopedAssemblyDefinitionByName("grandchild"));
+    int count = original.getEntry(definition).getReferenceCount();
+
+    ModuleIndex copy = original.copy();
+    assertEquals(count, copy.getEntry(definition).getReferenceCount(),
+        "Expected the copy to start with the original reference count.");
+
+    // changes made while generating one format must not be seen by another
+    copy.getEntry(definition).incrementReferenceCount();
+    copy.getEntry(definition).markUsedAsChoice();
+    original.getEntry(definition).incrementReferenceCount(2);
+    original.getEntry(definition).markAsChoiceSibling();
+
+    assertAll(
+        () -> assertEquals(count + 2, original.getEntry(definition).getReferenceCount()),
+        () -> assertFalse(original.getEntry(definition).isUsedAsChoice()),
+        () -> assertEquals(count + 1, copy.getEntry(definition).getReferenceCount()),
+        () -> assertFalse(copy.getEntry(definition).isChoiceSibling()),
+        () -> assertTrue(copy.getEntry(definition).isUsedAsChoice()),
+        () -> assertEquals(original.getDefinitions().size(), copy.getDefinitions().size()));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Portions of this software was developed by employees of the National Institute
+ * of Standards and Technology (NIST), an agency of the Federal Government and is
+ * being made available as a public service. Pursuant to title 17 United States
+ * Code Section 105, works of NIST employees are not subject to copyright
+ * protection in the United States. This software may be subject to foreign
+ * copyright. Permission in the United States and in foreign countries, to the
+ * extent that NIST may hold copyright, to use, copy, modify, create derivative
+ * works, and distribute this software and its documentation without fee is hereby
+ * granted on a non-exclusive basis, provided that this notice and disclaimer
+ * of warranty appears in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED 'AS IS' WITHOUT ANY WARRANTY OF ANY KIND, EITHER
+ * EXPRESSED, IMPLIED, OR STATUTORY, INCLUDING, BUT NOT LIMITED TO, ANY WARRANTY
+ * THAT THE SOFTWARE WILL CONFORM TO SPECIFICATIONS, ANY IMPLIED WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE, AND FREEDOM FROM
+ * INFRINGEMENT, AND ANY WARRANTY THAT THE DOCUMENTATION WILL CONFORM TO THE
+ * SOFTWARE, OR ANY WARRANTY THAT THE SOFTWARE WILL BE ERROR FREE.  IN NO EVENT
+ * SHALL NIST BE LIABLE FOR ANY DAMAGES, INCLUDING, BUT NOT LIMITED TO, DIRECT,
+ * INDIRECT, SPECIAL OR CONSEQUENTIAL DAMAGES, ARISING OUT OF, RESULTING FROM,
+ * OR IN ANY WAY CONNECTED WITH THIS SOFTWARE, WHETHER OR NOT BASED UPON WARRANTY,
+ * CONTRACT, TORT, OR OTHERWISE, WHETHER OR NOT INJURY WAS SUSTAINED BY PERSONS OR
+ * PROPERTY OR OTHERWISE, AND WHETHER OR NOT LOSS WAS SUSTAINED FROM, OR AROSE OUT
+ * OF THE RESULTS OF, OR USE OF, THE SOFTWARE OR SERVICES PROVIDED HEREUNDER.
+ */
+
+package gov.nist.secauto.metaschema.schemagen;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import gov.nist.secauto.metaschema.core.configuration.DefaultConfiguration;
+import gov.nist.secauto.metaschema.core.configuration.IMutableConfiguration;
+import gov.nist.secauto.metaschema.core.model.IModule;
+import gov.nist.secauto.metaschema.core.model.MetaschemaException;
+import gov.nist.secauto.metaschema.core.model.xml.ModuleLoader;
+import gov.nist.secauto.metaschema.core.util.ObjectUtils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.List;
+
+class SchemaGenerationBatchTest {
+  private static final Path MODULE = ObjectUtils.notNull(
+      Paths.get("../databind/src/test/resources/metaschema/assembly/metaschema.xml"));
+
+  @Test
+  void testBatchMatchesSeparateGeneration(@TempDir Path dir) throws IOException, MetaschemaException {
+    IModule module = new ModuleLoader().load(MODULE);
+
+    IMutableConfiguration<SchemaGenerationFeature<?>> features = new DefaultConfiguration<>();
+    features.enableFeature(SchemaGenerationFeature.INLINE_DEFINITIONS);
+
+    Path xmlSchema = ObjectUtils.notNull(dir.resolve("separate.xsd"));
+    ISchemaGenerator.generateSchema(module, xmlSchema, ISchemaGenerator.SchemaFormat.XML, features);
+    Path jsonSchema = ObjectUtils.notNull(dir.resolve("separate.json"));
+    ISchemaGenerator.generateSchema(module, jsonSchema, ISchemaGenerator.SchemaFormat.JSON, features);
+
+    List<Path> generated = new SchemaGenerationBatch(features, 2).generate(
+        ObjectUtils.notNull(List.of(module)),
+        ObjectUtils.notNull(EnumSet.allOf(ISchemaGenerator.SchemaFormat.class)),
+        (ignored, format) -> dir.resolve(
+            ISchemaGenerator.SchemaFormat.XML.equals(format) ? "batch.xsd" : "batch.json"));
+
+    assertAll(
+        () -> assertEquals(2, generated.size()),
+        () -> assertEquals(Files.readString(xmlSchema), Files.readString(dir.resolve("batch.xsd")),
+            "Expected the batch XML schema to match the separately generated schema."),
+        () -> assertEquals(Files.readString(jsonSchema), Files.readString(dir.resolve("batch.json")),
+            "Expected the batch JSON schema to match the separately generated schema."));
+  }
+}